@@ -1,11 +1,13 @@
 package org.team100.frc2024;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 
 import org.team100.frc2024.config.AutonChooser;
 import org.team100.lib.config.Identity;
 import org.team100.lib.experiments.Experiment;
 import org.team100.lib.experiments.Experiments;
+import org.team100.lib.framework.SchedulerCostMeter;
 import org.team100.lib.framework.TimedRobot100;
 import org.team100.lib.logging.JvmLogger;
 import org.team100.lib.logging.Level;
@@ -15,11 +17,13 @@ import org.team100.lib.logging.LoggerFactory.BooleanLogger;
 import org.team100.lib.logging.LoggerFactory.DoubleLogger;
 import org.team100.lib.logging.LoggerFactory.IntLogger;
 import org.team100.lib.logging.LoggerFactory.StringLogger;
+import org.team100.lib.replay.SensorReplay;
 import org.team100.lib.util.Memo;
 import org.team100.lib.util.Util;
 
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
 import edu.wpi.first.wpilibj.RobotController;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj.util.WPILibVersion;
@@ -28,6 +32,10 @@ import edu.wpi.first.wpilibj2.command.CommandScheduler;
 public class Robot extends TimedRobot100 {
     private static final String kOrange = "\033[38:5:214m";
     private static final String kReset = "\033[0m";
+    /** For the class-data sharing training run, see cdsTrain in build.gradle. */
+    private static final boolean kCdsTraining = Boolean.getBoolean("team100.cdsTraining");
+    /** Run the loop for a while in training, to load the loop classes too. */
+    private static final int kCdsTrainingCycles = 250;
 
     private final DoubleLogger m_log_ds_MatchTime;
     private final BooleanLogger m_log_ds_AutonomousEnabled;
@@ -40,6 +48,8 @@ public class Robot extends TimedRobot100 {
     private final JvmLogger m_jvmLogger;
 
     private RobotContainer m_robotContainer;
+    private SchedulerCostMeter m_scheduler;
+    private int m_cycles;
 
     public Robot() {
         LoggerFactory dsLog = m_robotLogger.child("DriverStation");
@@ -69,6 +79,12 @@ public class Robot extends TimedRobot100 {
         // log what the scheduler is doing
         SmartDashboard.putData(CommandScheduler.getInstance());
 
+        // this needs to happen before any sensors are created.
+        if (Experiments.instance.enabled(Experiment.RecordSensors)) {
+            SensorReplay.startRecording(Filesystem.getOperatingDirectory().toPath().resolve(
+                    "sensors-" + System.currentTimeMillis() + ".t100"));
+        }
+
         try {
             m_robotContainer = new RobotContainer(this);
         } catch (IOException e) {
@@ -77,6 +93,12 @@ public class Robot extends TimedRobot100 {
 
         m_robotContainer.onInit();
 
+        // after the container, so the subsystems are all registered.
+        m_scheduler = new SchedulerCostMeter(
+                m_robotLogger,
+                () -> Experiments.instance.enabled(Experiment.MeterScheduler),
+                m_robotContainer.subsystems());
+
         NetworkTableInstance.getDefault().startServer();
 
         // DataLogManager.start();
@@ -86,6 +108,11 @@ public class Robot extends TimedRobot100 {
         // This reduces the allocated heap size, not just the used heap size, which
         // means more-frequent and smaller subsequent GC's.
         System.gc();
+
+        // compare this with and without the class-data sharing archive.
+        Util.printf("Startup: %d ms, %d classes loaded\n",
+                ManagementFactory.getRuntimeMXBean().getUptime(),
+                ManagementFactory.getClassLoadingMXBean().getLoadedClassCount());
     }
 
     /**
@@ -98,7 +125,8 @@ public class Robot extends TimedRobot100 {
         // for an entire cycle, but that we want to forget between cycles, so we
         // reset them all here.
         Memo.resetAll();
-        CommandScheduler.getInstance().run();
+        SensorReplay.beginLoop();
+        m_scheduler.run();
         // TODO(dmontauk): why do we separate things between Robot and RobotContainer? What is the logical separation?
         m_robotContainer.periodic();
 
@@ -117,6 +145,11 @@ public class Robot extends TimedRobot100 {
             Util.warn("FLUSHING EVERY LOOP, DO NOT USE IN COMP");
             NetworkTableInstance.getDefault().flush();
         }
+
+        if (kCdsTraining && ++m_cycles >= kCdsTrainingCycles) {
+            Util.println("Class-data sharing training run complete");
+            System.exit(0);
+        }
     }
 
     @Override
@@ -3,6 +3,7 @@ package org.team100.frc2024;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.BooleanSupplier;
 
 import org.team100.frc2024.commands.AutonCommand;
@@ -48,6 +49,7 @@ import org.team100.lib.commands.drivetrain.manual.ManualWithNoteRotation;
 import org.team100.lib.commands.drivetrain.manual.ManualWithProfiledHeading;
 import org.team100.lib.commands.drivetrain.manual.ManualWithTargetLock;
 import org.team100.lib.commands.drivetrain.manual.SimpleManualModuleStates;
+import org.team100.lib.config.DeviceConfigStage;
 import org.team100.lib.config.Identity;
 import org.team100.lib.controller.drivetrain.FullStateDriveController;
 import org.team100.lib.controller.drivetrain.HolonomicDriveControllerFactory;
@@ -76,6 +78,7 @@ import org.team100.lib.logging.LoggerFactory;
 import org.team100.lib.logging.Logging;
 import org.team100.lib.motion.drivetrain.SwerveDriveSubsystem;
 import org.team100.lib.motion.drivetrain.SwerveLocal;
+import org.team100.lib.motion.drivetrain.SwerveState;
 import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamics;
 import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamicsFactory;
 import org.team100.lib.motion.drivetrain.module.SwerveModuleCollection;
@@ -92,6 +95,8 @@ import org.team100.lib.visualization.TrajectoryVisualization;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import edu.wpi.first.wpilibj.RobotController;
 import edu.wpi.first.wpilibj.Timer;
@@ -100,6 +105,7 @@ import edu.wpi.first.wpilibj2.command.ParallelDeadlineGroup;
 import edu.wpi.first.wpilibj2.command.PrintCommand;
 import edu.wpi.first.wpilibj2.command.RepeatCommand;
 import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
+import edu.wpi.first.wpilibj2.command.Subsystem;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
 
 /**
@@ -112,6 +118,8 @@ public class RobotContainer implements Glassy {
     // https://www.chiefdelphi.com/t/the-brushless-era-needs-sensible-default-current-limits/461056/51
     private static final double kDriveCurrentLimit = 50;
     private static final double kDriveStatorLimit = 100;
+    /** Prefetch auton trajectories when the robot is slower than this. */
+    private static final double kPrefetchSpeedM_S = 0.1;
 
     private final SwerveModuleCollection m_modules;
     private final Command m_auton;
@@ -119,8 +127,13 @@ public class RobotContainer implements Glassy {
     final SwerveDriveSubsystem m_drive;
     final AmpFeeder m_ampFeeder;
     final AmpPivot m_ampPivot;
+    private final AutoMaker m_autoMaker;
+    /** For the per-subsystem cost meter. */
+    private final Subsystem[] m_subsystems;
 
     public RobotContainer(TimedRobot100 robot) throws IOException {
+        // configure all the devices concurrently, see finish() below.
+        DeviceConfigStage.begin();
         final AsyncFactory asyncFactory = new AsyncFactory(robot);
         final Async async = asyncFactory.get();
         final Logging logging = Logging.instance();
@@ -212,7 +225,7 @@ public class RobotContainer implements Glassy {
 
         final LEDIndicator ledIndicator = new LEDIndicator(0);
         // has no default command, registers its own periodic.
-        new LEDSubsystem(
+        final LEDSubsystem leds = new LEDSubsystem(
                 ledIndicator,
                 m_sensors,
                 m_shooter,
@@ -221,6 +234,9 @@ public class RobotContainer implements Glassy {
         m_ampFeeder = new AmpFeeder(sysLog);
         m_ampPivot = new AmpPivot(sysLog);
 
+        m_subsystems = new Subsystem[] {
+                m_drive, feeder, intake, m_shooter, leds, m_ampFeeder, m_ampPivot };
+
         // final ClimberSubsystem climber = new ClimberSubsystem(sysLog, 60, 61);
 
         ////////////////////////////
@@ -464,7 +480,7 @@ public class RobotContainer implements Glassy {
                 thetaController,
                 omega2Controller);
 
-        final AutoMaker m_AutoMaker = new AutoMaker(
+        m_autoMaker = new AutoMaker(
                 logger,
                 m_drive,
                 driveControllerFactory,
@@ -477,8 +493,8 @@ public class RobotContainer implements Glassy {
                 swerveKinodynamics,
                 viz);
 
-        // whileTrue(driverControl::test, m_AutoMaker.citrus(Alliance.Blue));
-        whileTrue(driverControl::test, m_AutoMaker.fourNoteAuto(Alliance.Blue, m_sensors));
+        // whileTrue(driverControl::test, m_autoMaker.citrus(Alliance.Blue));
+        whileTrue(driverControl::test, m_autoMaker.fourNoteAuto(Alliance.Blue, m_sensors));
 
         whileTrue(driverControl::ampLock,
                 new AmpLockCommand(ampLock, driverControl::velocity, m_drive));
@@ -516,29 +532,31 @@ public class RobotContainer implements Glassy {
         m_auton = new AutonCommand(
                 Map.of(
                         AutonChooser.Routine.FIVE_NOTE, new AllianceCommand(
-                                m_AutoMaker.fourNoteAuto(
+                                m_autoMaker.fourNoteAuto(
                                         Alliance.Red, m_sensors),
-                                m_AutoMaker.fourNoteAuto(
+                                m_autoMaker.fourNoteAuto(
                                         Alliance.Blue, m_sensors)),
                         AutonChooser.Routine.COMPLEMENTARY, new AllianceCommand(
-                                m_AutoMaker.citrus(
+                                m_autoMaker.citrus(
                                         Alliance.Red),
-                                m_AutoMaker.citrus(
+                                m_autoMaker.citrus(
                                         Alliance.Blue)),
                         AutonChooser.Routine.COMPLEMENTARY2, new AllianceCommand(
-                                m_AutoMaker.citrusv2(
+                                m_autoMaker.citrusv2(
                                         Alliance.Red),
-                                m_AutoMaker.citrusv2(
+                                m_autoMaker.citrusv2(
                                         Alliance.Blue)),
                         AutonChooser.Routine.SIBLING, new AllianceCommand(
-                                m_AutoMaker.sibling(
+                                m_autoMaker.sibling(
                                         Alliance.Red),
-                                m_AutoMaker.sibling(
+                                m_autoMaker.sibling(
                                         Alliance.Blue)),
                         AutonChooser.Routine.NOTHING, new AllianceCommand(
                                 new PrintCommand("nothing red goes here"),
                                 new PrintCommand("nothing blue goes here"))),
                 AutonChooser::routine);
+
+        DeviceConfigStage.finish();
     }
 
     public void beforeCommandCycle() {
@@ -575,7 +593,23 @@ public class RobotContainer implements Glassy {
     }
 
     public void periodic() {
-        //
+        // a driveToStraight in auton starts from where the robot stopped, so
+        // build those trajectories while it's stopped.
+        if (!DriverStation.isAutonomous())
+            return;
+        Optional<Alliance> alliance = DriverStation.getAlliance();
+        if (alliance.isEmpty())
+            return;
+        SwerveState state = m_drive.getState();
+        ChassisSpeeds speeds = state.chassisSpeeds();
+        if (Math.hypot(speeds.vxMetersPerSecond, speeds.vyMetersPerSecond) > kPrefetchSpeedM_S)
+            return;
+        m_autoMaker.prefetch(alliance.get(), state.pose());
+    }
+
+    /** The subsystems, in registration order. */
+    public Subsystem[] subsystems() {
+        return m_subsystems.clone();
     }
 
     public void cancelAuton() {
@@ -24,6 +24,7 @@ import org.team100.lib.timing.TimingConstraint;
 import org.team100.lib.timing.TimingConstraintFactory;
 import org.team100.lib.trajectory.Trajectory100;
 import org.team100.lib.trajectory.TrajectoryPlanner;
+import org.team100.lib.trajectory.TrajectoryService;
 import org.team100.lib.visualization.TrajectoryVisualization;
 
 import edu.wpi.first.math.geometry.Pose2d;
@@ -55,6 +56,7 @@ public class AutoMaker implements Glassy {
     private final DriveTrajectoryFollowerFactory m_factory;
     private final SwerveKinodynamics m_swerveKinodynamics;
     private final TrajectoryVisualization m_viz;
+    private final TrajectoryService m_service;
 
     public AutoMaker(
             LoggerFactory parent,
@@ -84,6 +86,22 @@ public class AutoMaker implements Glassy {
         m_log = new DrivePIDFFollower.Log(m_logger);
         m_commandLog = new TrajectoryCommand100.Log(m_logger);
         m_viz = viz;
+        m_service = new TrajectoryService(m_slow);
+    }
+
+    /**
+     * Speculatively generate the driveToStraight trajectories from the current
+     * pose, so they're ready when asked for. RobotContainer.periodic() calls
+     * this in autonomous, while the robot is stopped, since that's where the
+     * next driveToStraight would start.
+     */
+    public void prefetch(Alliance alliance, Pose2d current) {
+        m_service.prefetch(current, List.of(
+                getPose(alliance, FieldPoint2024.NOTE4),
+                getPose(alliance, FieldPoint2024.NOTE8),
+                getPose(alliance, FieldPoint2024.CLOSEWINGSHOT),
+                getPose(alliance, FieldPoint2024.STAGESHOT),
+                getPose(alliance, FieldPoint2024.FARWINGSHOT)));
     }
 
     /** This encodes knowledge about how to approach each field point. */
@@ -511,7 +529,7 @@ public class AutoMaker implements Glassy {
     }
 
     public DriveToWaypoint100 driveToStraight(Alliance alliance, FieldPoint2024 point) {
-        return new DriveToWaypoint100(m_logger, getPose(alliance, point), m_swerve, m_controller, m_swerveKinodynamics,
+        return new DriveToWaypoint100(m_logger, getPose(alliance, point), m_swerve, m_controller, m_service,
                 1, m_viz);
     }
 
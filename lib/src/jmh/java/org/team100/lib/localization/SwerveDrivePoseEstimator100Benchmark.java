@@ -0,0 +1,74 @@
+package org.team100.lib.localization;
+
+import java.util.Optional;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.team100.lib.geometry.GeometryUtil;
+import org.team100.lib.logging.LoggerFactory;
+import org.team100.lib.logging.TestLoggerFactory;
+import org.team100.lib.logging.primitive.TestPrimitiveLogger;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamics;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamicsFactory;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveModulePosition100;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveModulePositions;
+
+import edu.wpi.first.math.geometry.Pose2d;
+
+/**
+ * One loop of pose estimation: a current odometry update, and a vision update
+ * from a few loops ago, which replays the odometry since then.
+ */
+@State(Scope.Thread)
+public class SwerveDrivePoseEstimator100Benchmark {
+    private static final double kDt = 0.02;
+    private static final double kVisionDelay = 0.075;
+    private static final double[] kStateStdDevs = new double[] { 0.1, 0.1, 0.1 };
+    private static final double[] kVisionStdDevs = new double[] { 0.5, 0.5, Double.MAX_VALUE };
+
+    private SwerveDrivePoseEstimator100 m_estimator;
+    private double m_timeS;
+    private double m_distanceM;
+
+    @Setup
+    public void setup() {
+        LoggerFactory logger = new TestLoggerFactory(new TestPrimitiveLogger());
+        SwerveKinodynamics kinodynamics = SwerveKinodynamicsFactory.forTest();
+        m_estimator = kinodynamics.newPoseEstimator(
+                logger,
+                GeometryUtil.kRotationZero,
+                0,
+                positions(0),
+                GeometryUtil.kPoseZero,
+                0);
+        // fill the history
+        for (int i = 0; i < 100; ++i) {
+            odometry();
+        }
+    }
+
+    @Benchmark
+    public SwerveDrivePoseEstimator100 putWithReplay() {
+        odometry();
+        m_estimator.put(
+                m_timeS - kVisionDelay,
+                new Pose2d(m_distanceM, 0, GeometryUtil.kRotationZero),
+                kStateStdDevs,
+                kVisionStdDevs);
+        return m_estimator;
+    }
+
+    private void odometry() {
+        m_timeS += kDt;
+        m_distanceM += 0.01;
+        m_estimator.put(m_timeS, GeometryUtil.kRotationZero, 0, positions(m_distanceM));
+    }
+
+    private static SwerveModulePositions positions(double distanceM) {
+        SwerveModulePosition100 p = new SwerveModulePosition100(
+                distanceM, Optional.of(GeometryUtil.kRotationZero));
+        return new SwerveModulePositions(p, p, p, p);
+    }
+}
@@ -0,0 +1,71 @@
+package org.team100.lib.logging;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.team100.lib.logging.LoggerFactory.DoubleLogger;
+import org.team100.lib.logging.LoggerFactory.Pose2dLogger;
+import org.team100.lib.logging.LoggerFactory.StringLogger;
+import org.team100.lib.logging.primitive.UdpPrimitiveLogger;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * The logging stack, from LoggerFactory through the UDP encoder, with the
+ * network replaced by a blackhole.
+ */
+@State(Scope.Thread)
+public class LoggingBenchmark {
+    private UdpPrimitiveLogger m_udp;
+    private DoubleLogger m_double;
+    private DoubleLogger m_suppressed;
+    private StringLogger m_string;
+    private Pose2dLogger m_pose;
+    private Pose2d m_poseValue;
+    private double m_value;
+
+    @Setup
+    public void setup(Blackhole bh) {
+        m_udp = new UdpPrimitiveLogger(bh::consume, bh::consume);
+        LoggerFactory logger = new LoggerFactory(() -> Level.COMP, "root", m_udp);
+        m_double = logger.doubleLogger(Level.COMP, "double");
+        m_suppressed = logger.doubleLogger(Level.TRACE, "suppressed");
+        m_string = logger.stringLogger(Level.COMP, "string");
+        m_pose = logger.pose2dLogger(Level.COMP, "pose");
+        m_poseValue = new Pose2d(1, 2, new Rotation2d(3));
+    }
+
+    @Benchmark
+    public void logDouble() {
+        m_value += 1;
+        m_double.log(() -> m_value);
+    }
+
+    /** Below the level, so it should cost almost nothing. */
+    @Benchmark
+    public void logSuppressed() {
+        m_value += 1;
+        m_suppressed.log(() -> m_value);
+    }
+
+    @Benchmark
+    public void logString() {
+        m_string.log(() -> "hello");
+    }
+
+    @Benchmark
+    public void logPose() {
+        m_pose.log(() -> m_poseValue);
+    }
+
+    /** Once per loop: encode whatever is pending. */
+    @Benchmark
+    public void flush() {
+        m_value += 1;
+        m_double.log(() -> m_value);
+        m_udp.flush();
+    }
+}
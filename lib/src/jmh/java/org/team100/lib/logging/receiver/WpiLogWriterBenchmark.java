@@ -0,0 +1,46 @@
+package org.team100.lib.logging.receiver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The receiver needs to keep up with the sender, about 30M keys/sec, i.e.
+ * about 0.033 us per append, including the writes to disk.
+ *
+ * The file is replaced every iteration, so it doesn't fill the disk.
+ */
+@State(Scope.Thread)
+public class WpiLogWriterBenchmark {
+    private Path m_file;
+    private WpiLogWriter m_writer;
+    private int m_id;
+    private long m_timeUs;
+
+    @Setup(Level.Iteration)
+    public void setup() throws IOException {
+        m_file = Files.createTempFile("WpiLogWriterBenchmark", ".wpilog");
+        m_writer = new WpiLogWriter(m_file);
+        m_id = m_writer.start("d", "double", "", 1);
+        m_timeUs = 1000000;
+    }
+
+    @TearDown(Level.Iteration)
+    public void teardown() throws IOException {
+        m_writer.close();
+        Files.delete(m_file);
+    }
+
+    @Benchmark
+    public void appendDouble() {
+        m_timeUs++;
+        m_writer.appendDouble(m_id, m_timeUs, m_timeUs);
+    }
+}
@@ -0,0 +1,33 @@
+package org.team100.lib.motion.drivetrain.kinodynamics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+/** Inverse and forward kinematics, a few times per loop. */
+@State(Scope.Thread)
+public class SwerveDriveKinematics100Benchmark {
+    private SwerveDriveKinematics100 m_kinematics;
+    private ChassisSpeeds m_speeds;
+    private SwerveModuleStates m_states;
+
+    @Setup
+    public void setup() {
+        m_kinematics = SwerveKinodynamicsFactory.forTest().getKinematics();
+        m_speeds = new ChassisSpeeds(1, 0.5, 0.3);
+        m_states = m_kinematics.toSwerveModuleStates(m_speeds);
+    }
+
+    @Benchmark
+    public SwerveModuleStates toSwerveModuleStates() {
+        return m_kinematics.toSwerveModuleStates(m_speeds);
+    }
+
+    @Benchmark
+    public ChassisSpeeds toChassisSpeeds() {
+        return m_kinematics.toChassisSpeeds(m_states);
+    }
+}
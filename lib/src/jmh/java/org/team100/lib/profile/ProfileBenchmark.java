@@ -0,0 +1,45 @@
+package org.team100.lib.profile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.team100.lib.geometry.GeometryUtil;
+import org.team100.lib.motion.drivetrain.SwerveState;
+import org.team100.lib.motion.drivetrain.kinodynamics.FieldRelativeVelocity;
+import org.team100.lib.profile.Profile100.ResultWithETA;
+import org.team100.lib.state.State100;
+
+import edu.wpi.first.math.geometry.Pose2d;
+
+/** The profiles used by the servos and the holonomic drive. */
+@State(Scope.Thread)
+public class ProfileBenchmark {
+    private TrapezoidProfile100 m_trapezoid;
+    private State100 m_initial;
+    private State100 m_goal;
+    private HolonomicProfile m_holonomic;
+    private SwerveState m_i;
+    private SwerveState m_g;
+
+    @Setup
+    public void setup() {
+        m_trapezoid = new TrapezoidProfile100(5, 10, 0.01);
+        m_initial = new State100(0, 2);
+        m_goal = new State100(2, 0);
+        m_holonomic = new HolonomicProfile(0.02, 1, 1, 0.01, 1, 1, 0.01);
+        m_i = new SwerveState(new Pose2d(), new FieldRelativeVelocity(1, 0, 0));
+        m_g = new SwerveState(new Pose2d(0, 1, GeometryUtil.kRotationZero));
+    }
+
+    @Benchmark
+    public ResultWithETA trapezoidCalculateWithETA() {
+        return m_trapezoid.calculateWithETA(0.02, m_initial, m_goal);
+    }
+
+    @Benchmark
+    public HolonomicProfile holonomicSolve() {
+        m_holonomic.solve(m_i, m_g);
+        return m_holonomic;
+    }
+}
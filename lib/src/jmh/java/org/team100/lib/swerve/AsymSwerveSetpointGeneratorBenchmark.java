@@ -0,0 +1,48 @@
+package org.team100.lib.swerve;
+
+import java.util.Optional;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.team100.lib.logging.TestLoggerFactory;
+import org.team100.lib.logging.primitive.TestPrimitiveLogger;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamicsFactory;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveModuleState100;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveModuleStates;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+/**
+ * Setpoint generation toward a goal that alternates direction, so every call
+ * is limited.
+ */
+@State(Scope.Thread)
+public class AsymSwerveSetpointGeneratorBenchmark {
+    private AsymSwerveSetpointGenerator m_generator;
+    private SwerveSetpoint m_setpoint;
+    private ChassisSpeeds m_forward;
+    private ChassisSpeeds m_back;
+    private int m_count;
+
+    @Setup
+    public void setup() {
+        m_generator = new AsymSwerveSetpointGenerator(
+                new TestLoggerFactory(new TestPrimitiveLogger()),
+                SwerveKinodynamicsFactory.limiting(),
+                () -> 12);
+        SwerveModuleState100 s = new SwerveModuleState100(0, Optional.of(new Rotation2d()));
+        m_setpoint = new SwerveSetpoint(new ChassisSpeeds(), new SwerveModuleStates(s, s, s, s));
+        m_forward = new ChassisSpeeds(2, 1, 1);
+        m_back = new ChassisSpeeds(-2, -1, -1);
+    }
+
+    @Benchmark
+    public SwerveSetpoint generateSetpoint() {
+        ChassisSpeeds goal = (m_count++ / 50) % 2 == 0 ? m_forward : m_back;
+        m_setpoint = m_generator.generateSetpoint(m_setpoint, goal);
+        return m_setpoint;
+    }
+}
@@ -0,0 +1,57 @@
+package org.team100.lib.trajectory;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.team100.lib.geometry.GeometryUtil;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamics;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamicsFactory;
+import org.team100.lib.timing.TimingConstraint;
+import org.team100.lib.timing.TimingConstraintFactory;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/** Trajectory generation (done on demand) and sampling (done every loop). */
+@State(Scope.Thread)
+public class TrajectoryBenchmark {
+    private List<Pose2d> m_waypoints;
+    private List<Rotation2d> m_headings;
+    private List<TimingConstraint> m_constraints;
+    private TrajectoryTimeSampler m_sampler;
+    private double m_timeS;
+
+    @Setup
+    public void setup() {
+        SwerveKinodynamics limits = SwerveKinodynamicsFactory.forTest3();
+        m_waypoints = List.of(
+                new Pose2d(0, 0, GeometryUtil.kRotationZero),
+                new Pose2d(2, 1, GeometryUtil.kRotationZero),
+                new Pose2d(4, 0, GeometryUtil.kRotationZero));
+        m_headings = List.of(
+                GeometryUtil.kRotationZero,
+                GeometryUtil.kRotation90,
+                GeometryUtil.kRotationZero);
+        m_constraints = new TimingConstraintFactory(limits).fast();
+        m_sampler = new TrajectoryTimeSampler(generate());
+    }
+
+    @Benchmark
+    public Trajectory100 generate() {
+        return TrajectoryPlanner.generateTrajectory(
+                m_waypoints, m_headings, m_constraints, 0, 0);
+    }
+
+    @Benchmark
+    public Optional<TrajectorySamplePoint> sample() {
+        // walk through the trajectory like a follower would
+        m_timeS += 0.02;
+        if (m_timeS > m_sampler.getEndS())
+            m_timeS = 0;
+        return m_sampler.sample(m_timeS);
+    }
+}
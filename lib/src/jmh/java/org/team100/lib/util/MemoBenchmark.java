@@ -0,0 +1,51 @@
+package org.team100.lib.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Reset is one increment, and reads are lock-free, with many caches, about
+ * as many as the robot has.
+ */
+@State(Scope.Thread)
+public class MemoBenchmark {
+    private static final int kCaches = 5000;
+    private static final int kReadsPerCycle = 3;
+
+    private Memo.DoubleCache[] m_caches;
+
+    @Setup
+    public void setup() {
+        m_caches = new Memo.DoubleCache[kCaches];
+        for (int i = 0; i < kCaches; ++i) {
+            final int idx = i;
+            m_caches[i] = Memo.ofDouble(() -> idx);
+        }
+    }
+
+    @Benchmark
+    public void resetAll() {
+        Memo.resetAll();
+    }
+
+    /** Cached, so just the epoch check. */
+    @Benchmark
+    public double getFresh() {
+        return m_caches[0].getAsDouble();
+    }
+
+    /** One robot cycle: reset, and then read every cache a few times. */
+    @Benchmark
+    public double cycle() {
+        Memo.resetAll();
+        double total = 0;
+        for (int r = 0; r < kReadsPerCycle; ++r) {
+            for (int i = 0; i < kCaches; ++i) {
+                total += m_caches[i].getAsDouble();
+            }
+        }
+        return total;
+    }
+}
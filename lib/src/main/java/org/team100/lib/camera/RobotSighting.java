@@ -1,6 +0,0 @@
-package org.team100.lib.camera;
-
-import edu.wpi.first.math.geometry.Translation2d;
-
-public record RobotSighting(boolean friend, Translation2d position) {
-}
\ No newline at end of file
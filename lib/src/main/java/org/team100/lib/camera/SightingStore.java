@@ -0,0 +1,348 @@
+package org.team100.lib.camera;
+
+import java.util.Arrays;
+
+import edu.wpi.first.math.geometry.Translation2d;
+
+/**
+ * Remembers recent sightings of things on the field (robots, notes), merges
+ * repeated sightings of the same thing into tracks, and answers nearest and
+ * radius queries without scanning everything.
+ *
+ * Sightings used to be kept in a time-keyed map, so every query scanned all of
+ * them, and each client did its own near-duplicate check. Here, each sighting
+ * is merged on insert into the nearest live track with the same tag within
+ * the merge radius; if there is none, it starts a new track. The track keeps
+ * the latest position, a velocity estimate from the last two sightings, and
+ * the time it was last seen.
+ *
+ * Tracks live in a fixed pool of primitive arrays. Tracks not seen within the
+ * lookback are expired; if the pool is full, the stalest track is recycled, so
+ * the pool is a time-bounded ring. Tracks are also indexed in a uniform grid,
+ * so queries only look at the cells near the query point.
+ *
+ * The tag is whatever distinguishes things that should never be merged, e.g.
+ * friend vs foe. Positions outside the bounds are indexed in the edge cells.
+ *
+ * Not thread-safe: write and read from the same thread.
+ */
+public class SightingStore {
+    private static final int NONE = -1;
+    /** Friend-or-foe tags for robot sightings. */
+    public static final int kFoe = 0;
+    public static final int kFriend = 1;
+
+    private final double m_minX;
+    private final double m_minY;
+    private final double m_cellSize;
+    private final int m_cols;
+    private final int m_rows;
+    private final double m_mergeRadius;
+    private final double m_lookbackSec;
+
+    // track pool
+    private final boolean[] m_live;
+    private final double[] m_x;
+    private final double[] m_y;
+    private final double[] m_vx;
+    private final double[] m_vy;
+    private final double[] m_time;
+    private final int[] m_tag;
+    private final int[] m_count;
+    private final int[] m_cell;
+    /** Next track in the same cell, or NONE. */
+    private final int[] m_next;
+
+    /** First track in each cell, or NONE. */
+    private final int[] m_head;
+
+    private int m_size;
+
+    /**
+     * @param minX        lower bound of the indexed area, meters
+     * @param minY        lower bound of the indexed area, meters
+     * @param maxX        upper bound of the indexed area, meters
+     * @param maxY        upper bound of the indexed area, meters
+     * @param cellSize    grid cell size, meters. Should be at least the merge
+     *                    radius.
+     * @param mergeRadius sightings this close to a track are the same thing
+     * @param lookbackSec tracks not seen for this long are forgotten
+     * @param capacity    maximum number of tracks
+     */
+    public SightingStore(
+            double minX,
+            double minY,
+            double maxX,
+            double maxY,
+            double cellSize,
+            double mergeRadius,
+            double lookbackSec,
+            int capacity) {
+        if (cellSize <= 0)
+            throw new IllegalArgumentException("cell size must be positive");
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be positive");
+        m_minX = minX;
+        m_minY = minY;
+        m_cellSize = cellSize;
+        m_cols = Math.max(1, (int) Math.ceil((maxX - minX) / cellSize));
+        m_rows = Math.max(1, (int) Math.ceil((maxY - minY) / cellSize));
+        m_mergeRadius = mergeRadius;
+        m_lookbackSec = lookbackSec;
+        m_live = new boolean[capacity];
+        m_x = new double[capacity];
+        m_y = new double[capacity];
+        m_vx = new double[capacity];
+        m_vy = new double[capacity];
+        m_time = new double[capacity];
+        m_tag = new int[capacity];
+        m_count = new int[capacity];
+        m_cell = new int[capacity];
+        m_next = new int[capacity];
+        m_head = new int[m_cols * m_rows];
+        Arrays.fill(m_head, NONE);
+    }
+
+    /**
+     * Add a sighting, merging it with an existing track if there is one nearby
+     * with the same tag. A sighting no newer than the track it merges with is
+     * ignored.
+     *
+     * @return the track id
+     */
+    public int add(double timeSec, double x, double y, int tag) {
+        int track = nearest(x, y, m_mergeRadius, tag);
+        if (track == NONE) {
+            track = allocate();
+            m_live[track] = true;
+            m_x[track] = x;
+            m_y[track] = y;
+            m_vx[track] = 0;
+            m_vy[track] = 0;
+            m_time[track] = timeSec;
+            m_tag[track] = tag;
+            m_count[track] = 1;
+            link(track, cellOf(x, y));
+            m_size++;
+            return track;
+        }
+        double dt = timeSec - m_time[track];
+        if (dt <= 0) {
+            // late or reordered: the track already knows something newer.
+            return track;
+        }
+        m_vx[track] = (x - m_x[track]) / dt;
+        m_vy[track] = (y - m_y[track]) / dt;
+        m_time[track] = timeSec;
+        m_x[track] = x;
+        m_y[track] = y;
+        m_count[track]++;
+        int cell = cellOf(x, y);
+        if (cell != m_cell[track]) {
+            unlink(track);
+            link(track, cell);
+        }
+        return track;
+    }
+
+    /** Forget tracks not seen within the lookback. */
+    public void expire(double nowSec) {
+        double oldest = nowSec - m_lookbackSec;
+        for (int i = 0; i < m_live.length; ++i) {
+            if (m_live[i] && m_time[i] < oldest)
+                remove(i);
+        }
+    }
+
+    /** Forget everything. */
+    public void clear() {
+        Arrays.fill(m_live, false);
+        Arrays.fill(m_head, NONE);
+        m_size = 0;
+    }
+
+    /** Number of live tracks. */
+    public int size() {
+        return m_size;
+    }
+
+    /** Number of track slots, i.e. the upper bound for track ids. */
+    public int capacity() {
+        return m_live.length;
+    }
+
+    /**
+     * Nearest live track of any tag.
+     *
+     * @return track id, or -1 if nothing is within the max distance
+     */
+    public int nearest(double x, double y, double maxDistance) {
+        return nearest(x, y, maxDistance, NONE);
+    }
+
+    /**
+     * Nearest live track with the tag, or with any tag if the tag is negative.
+     *
+     * @return track id, or -1 if nothing is within the max distance
+     */
+    public int nearest(double x, double y, double maxDistance, int tag) {
+        int best = NONE;
+        double bestD2 = maxDistance * maxDistance;
+        int c0 = col(x - maxDistance);
+        int c1 = col(x + maxDistance);
+        int r0 = row(y - maxDistance);
+        int r1 = row(y + maxDistance);
+        for (int r = r0; r <= r1; ++r) {
+            for (int c = c0; c <= c1; ++c) {
+                for (int i = m_head[r * m_cols + c]; i != NONE; i = m_next[i]) {
+                    if (tag >= 0 && m_tag[i] != tag)
+                        continue;
+                    double dx = m_x[i] - x;
+                    double dy = m_y[i] - y;
+                    double d2 = dx * dx + dy * dy;
+                    if (d2 <= bestD2) {
+                        bestD2 = d2;
+                        best = i;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Live tracks within the radius, in no particular order.
+     *
+     * @param result filled with track ids; tracks beyond its length are dropped
+     * @return the number of tracks found
+     */
+    public int near(double x, double y, double radius, int[] result) {
+        int n = 0;
+        double r2 = radius * radius;
+        int c0 = col(x - radius);
+        int c1 = col(x + radius);
+        int r0 = row(y - radius);
+        int r1 = row(y + radius);
+        for (int r = r0; r <= r1; ++r) {
+            for (int c = c0; c <= c1; ++c) {
+                for (int i = m_head[r * m_cols + c]; i != NONE; i = m_next[i]) {
+                    double dx = m_x[i] - x;
+                    double dy = m_y[i] - y;
+                    if (dx * dx + dy * dy <= r2 && n < result.length)
+                        result[n++] = i;
+                }
+            }
+        }
+        return n;
+    }
+
+    /**
+     * All live tracks, in no particular order.
+     *
+     * @param result filled with track ids; tracks beyond its length are dropped
+     * @return the number of tracks found
+     */
+    public int all(int[] result) {
+        int n = 0;
+        for (int i = 0; i < m_live.length && n < result.length; ++i) {
+            if (m_live[i])
+                result[n++] = i;
+        }
+        return n;
+    }
+
+    public boolean live(int track) {
+        return m_live[track];
+    }
+
+    public double x(int track) {
+        return m_x[track];
+    }
+
+    public double y(int track) {
+        return m_y[track];
+    }
+
+    /** Velocity estimate from the last two sightings, meters per second. */
+    public double vx(int track) {
+        return m_vx[track];
+    }
+
+    public double vy(int track) {
+        return m_vy[track];
+    }
+
+    /** Time of the most recent sighting, seconds. */
+    public double time(int track) {
+        return m_time[track];
+    }
+
+    public int tag(int track) {
+        return m_tag[track];
+    }
+
+    /** Number of sightings merged into this track. */
+    public int count(int track) {
+        return m_count[track];
+    }
+
+    /** Allocates; use x() and y() in hot paths. */
+    public Translation2d position(int track) {
+        return new Translation2d(m_x[track], m_y[track]);
+    }
+
+    ///////////////////////////////////////////////////////////
+
+    /** A free slot, or the stalest track if there are none. */
+    private int allocate() {
+        int oldest = 0;
+        for (int i = 0; i < m_live.length; ++i) {
+            if (!m_live[i])
+                return i;
+            if (m_time[i] < m_time[oldest])
+                oldest = i;
+        }
+        remove(oldest);
+        return oldest;
+    }
+
+    private void remove(int track) {
+        unlink(track);
+        m_live[track] = false;
+        m_size--;
+    }
+
+    private void link(int track, int cell) {
+        m_cell[track] = cell;
+        m_next[track] = m_head[cell];
+        m_head[cell] = track;
+    }
+
+    private void unlink(int track) {
+        int cell = m_cell[track];
+        if (m_head[cell] == track) {
+            m_head[cell] = m_next[track];
+            return;
+        }
+        for (int i = m_head[cell]; i != NONE; i = m_next[i]) {
+            if (m_next[i] == track) {
+                m_next[i] = m_next[track];
+                return;
+            }
+        }
+    }
+
+    private int cellOf(double x, double y) {
+        return row(y) * m_cols + col(x);
+    }
+
+    private int col(double x) {
+        int c = (int) Math.floor((x - m_minX) / m_cellSize);
+        return Math.max(0, Math.min(m_cols - 1, c));
+    }
+
+    private int row(double y) {
+        int r = (int) Math.floor((y - m_minY) / m_cellSize);
+        return Math.max(0, Math.min(m_rows - 1, r));
+    }
+}
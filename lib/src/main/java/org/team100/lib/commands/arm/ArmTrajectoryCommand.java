@@ -1,6 +1,7 @@
 package org.team100.lib.commands.arm;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.team100.lib.dashboard.Glassy;
 import org.team100.lib.logging.Level;
@@ -9,14 +10,13 @@ import org.team100.lib.logging.LoggerFactory.DoubleLogger;
 import org.team100.lib.motion.arm.ArmAngles;
 import org.team100.lib.motion.arm.ArmKinematics;
 import org.team100.lib.motion.arm.ArmSubsystem;
-import org.team100.lib.motion.arm.ArmTrajectories;
+import org.team100.lib.motion.arm.ArmTrajectoryCache;
 
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.trajectory.Trajectory;
 import edu.wpi.first.math.trajectory.Trajectory.State;
-import edu.wpi.first.math.trajectory.TrajectoryConfig;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
 
@@ -27,10 +27,13 @@ import edu.wpi.first.wpilibj2.command.Command;
  * position, velocity and acceleration to joint space, and follow with velocity
  * feedforward and positional feedback, both using constant parameters (i.e. no
  * gravity feedforward, no inertia-dependent feedback).
+ * 
+ * Trajectories come from a cache shared by all the arm commands, usually
+ * generated in the background, so the command may wait a few cycles before it
+ * starts moving.
  */
 public class ArmTrajectoryCommand extends Command implements Glassy  {
     private static final double kTolerance = 0.02;
-    private static final TrajectoryConfig kConf = new TrajectoryConfig(0.1, 0.1);
     private static final double kA = 0.2;
 
     private final ArmSubsystem m_armSubsystem;
@@ -45,7 +48,7 @@ public class ArmTrajectoryCommand extends Command implements Glassy  {
     private final PIDController m_lowerVelController;
     private final PIDController m_upperVelController;
 
-    private final ArmTrajectories m_trajectories;
+    private final ArmTrajectoryCache m_trajectories;
 
     // LOGGERS
 
@@ -58,13 +61,19 @@ public class ArmTrajectoryCommand extends Command implements Glassy  {
     private final DoubleLogger m_log_Output_Upper;
     private final DoubleLogger m_log_Output_Lower;
 
+    private CompletableFuture<Trajectory> m_future;
     private Trajectory m_trajectory;
 
+    /**
+     * @param trajectories make one of these, e.g. with Sequence.standardCache(),
+     *                     and share it among all the arm commands.
+     */
     public ArmTrajectoryCommand(
             LoggerFactory parent,
             ArmSubsystem armSubSystem,
             ArmKinematics armKinematicsM,
-            Translation2d goal) {
+            Translation2d goal,
+            ArmTrajectoryCache trajectories) {
         LoggerFactory child = parent.child(this);
         m_log_Lower_FF = child.doubleLogger(Level.TRACE, "Lower FF");
         m_log_Lower_Controller_Output = child.doubleLogger(Level.TRACE, "Lower Controller Output");
@@ -87,7 +96,7 @@ public class ArmTrajectoryCommand extends Command implements Glassy  {
         m_lowerVelController = controller(0.1, 0);
         m_upperVelController = controller(0.1, 0);
 
-        m_trajectories = new ArmTrajectories(kConf);
+        m_trajectories = trajectories;
 
         addRequirements(m_armSubsystem);
     }
@@ -95,17 +104,26 @@ public class ArmTrajectoryCommand extends Command implements Glassy  {
     @Override
     public void initialize() {
         m_timer.restart();
+        m_trajectory = null;
+        m_future = null;
         Optional<ArmAngles> position = m_armSubsystem.getPosition();
         if (position.isEmpty())
             return;
-        m_trajectory = m_trajectories.makeTrajectory(
+        m_future = m_trajectories.makeTrajectory(
                 m_armKinematicsM.forward(position.get()), m_goal);
     }
 
     @Override
     public void execute() {
-        if (m_trajectory == null)
-            return;
+        if (m_trajectory == null) {
+            // wait for the trajectory, and start the clock when it arrives.
+            if (m_future == null)
+                return;
+            m_trajectory = m_future.getNow(null);
+            if (m_trajectory == null)
+                return;
+            m_timer.restart();
+        }
         if (m_goalAngles == null)
             return;
 
@@ -166,8 +184,14 @@ public class ArmTrajectoryCommand extends Command implements Glassy  {
         // was, so if you keep sampling past the end, you'll be trying to accelerate
         // away from the endpoint, even though the desired velocity is zero. :-(
         // so we just fix it here:
+        // the trajectory is shared, so copy the state instead of changing it.
         if (curTime > m_trajectory.getTotalTimeSeconds())
-            state.accelerationMetersPerSecondSq = 0;
+            return new State(
+                    state.timeSeconds,
+                    state.velocityMetersPerSecond,
+                    0,
+                    state.poseMeters,
+                    state.curvatureRadPerMeter);
         return state;
     }
 
@@ -195,10 +219,12 @@ public class ArmTrajectoryCommand extends Command implements Glassy  {
 
     @Override
     public boolean isFinished() {
-        if (m_trajectory == null)
-            return true;
         if (m_goalAngles == null)
             return true;
+        if (m_trajectory == null) {
+            // still waiting?
+            return m_future == null;
+        }
 
         return m_timer.get() > m_trajectory.getTotalTimeSeconds()
                 && m_lowerPosController.atSetpoint()
@@ -211,6 +237,7 @@ public class ArmTrajectoryCommand extends Command implements Glassy  {
     public void end(boolean interrupted) {
         m_armSubsystem.set(0, 0);
         m_trajectory = null;
+        m_future = null;
     }
 
     ////////////////////////////////
@@ -1,10 +1,18 @@
 package org.team100.lib.commands.arm;
 
+import java.io.IOException;
+import java.util.List;
+
 import org.team100.lib.logging.LoggerFactory;
 import org.team100.lib.motion.arm.ArmKinematics;
 import org.team100.lib.motion.arm.ArmSubsystem;
+import org.team100.lib.motion.arm.ArmTrajectories;
+import org.team100.lib.motion.arm.ArmTrajectoryCache;
+import org.team100.lib.util.Util;
 
 import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.trajectory.TrajectoryConfig;
+import edu.wpi.first.wpilibj.Filesystem;
 import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 
 /**
@@ -13,13 +21,40 @@ import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
  * These paint a square in cartesian space.
  */
 public class Sequence extends SequentialCommandGroup {
+    private static final TrajectoryConfig kConf = new TrajectoryConfig(0.1, 0.1);
+    /** The corners of the square. */
+    private static final List<Translation2d> kSquare = List.of(
+            new Translation2d(.6, .6),
+            new Translation2d(1, .6),
+            new Translation2d(1, 1),
+            new Translation2d(.6, 1));
+    /** Saved trajectories, in the deploy directory. */
+    private static final String kDeployDir = "arm_trajectories";
 
-    public Sequence(LoggerFactory parent, ArmSubsystem armSubsystem, ArmKinematics armKinematicsM) {
+    public Sequence(
+            LoggerFactory parent,
+            ArmSubsystem armSubsystem,
+            ArmKinematics armKinematicsM,
+            ArmTrajectoryCache trajectories) {
+        for (Translation2d corner : kSquare) {
+            addCommands(new ArmTrajectoryCommand(parent, armSubsystem, armKinematicsM, corner, trajectories));
+        }
+        addCommands(new ArmTrajectoryCommand(parent, armSubsystem, armKinematicsM, kSquare.get(0), trajectories));
+    }
 
-        addCommands(new ArmTrajectoryCommand(parent, armSubsystem, armKinematicsM, new Translation2d(.6, .6)),
-                new ArmTrajectoryCommand(parent, armSubsystem, armKinematicsM, new Translation2d(1, .6)),
-                new ArmTrajectoryCommand(parent, armSubsystem, armKinematicsM, new Translation2d(1, 1)),
-                new ArmTrajectoryCommand(parent, armSubsystem, armKinematicsM, new Translation2d(.6, 1)),
-                new ArmTrajectoryCommand(parent, armSubsystem, armKinematicsM, new Translation2d(.6, .6)));
+    /**
+     * Loads the saved trajectories from the deploy directory, and starts
+     * generating the rest of the square in the background. Call this once, in
+     * the robot container.
+     */
+    public static ArmTrajectoryCache standardCache() {
+        ArmTrajectoryCache cache = new ArmTrajectoryCache(new ArmTrajectories(kConf));
+        try {
+            cache.load(Filesystem.getDeployDirectory().toPath().resolve(kDeployDir));
+        } catch (IOException e) {
+            Util.warn("Arm trajectory loading failed: " + e.getMessage());
+        }
+        cache.prefill(kSquare);
+        return cache;
     }
 }
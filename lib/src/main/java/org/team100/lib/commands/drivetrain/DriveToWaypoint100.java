@@ -1,6 +1,6 @@
 package org.team100.lib.commands.drivetrain;
 
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.team100.lib.dashboard.Glassy;
 import org.team100.lib.follower.DriveTrajectoryFollower;
@@ -9,18 +9,15 @@ import org.team100.lib.logging.LoggerFactory;
 import org.team100.lib.logging.LoggerFactory.ChassisSpeedsLogger;
 import org.team100.lib.motion.drivetrain.SwerveDriveSubsystem;
 import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamics;
-import org.team100.lib.timing.TimingConstraint;
 import org.team100.lib.timing.TimingConstraintFactory;
 import org.team100.lib.trajectory.Trajectory100;
-import org.team100.lib.trajectory.TrajectoryPlanner;
+import org.team100.lib.trajectory.TrajectoryService;
 import org.team100.lib.trajectory.TrajectoryTimeIterator;
 import org.team100.lib.trajectory.TrajectoryTimeSampler;
 import org.team100.lib.util.DriveUtil;
 import org.team100.lib.visualization.TrajectoryVisualization;
 
 import edu.wpi.first.math.geometry.Pose2d;
-import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
@@ -28,12 +25,18 @@ import edu.wpi.first.wpilibj2.command.Command;
 /**
  * A copy of DriveToWaypoint to explore the new holonomic trajectory classes we
  * cribbed from 254.
+ * 
+ * The trajectory comes from a TrajectoryService: if it prefetched one from
+ * about here, that's used, otherwise it's generated on the worker, and the
+ * robot follows a straight-line placeholder until it's ready. Either way the
+ * robot starts moving on the first cycle, and initialize() doesn't generate
+ * anything.
  */
 public class DriveToWaypoint100 extends Command implements Glassy {
     private final Pose2d m_goal;
     private final SwerveDriveSubsystem m_swerve;
     private final DriveTrajectoryFollower m_controller;
-    private final List<TimingConstraint> m_constraints;
+    private final TrajectoryService m_service;
 
     private final double m_timeBuffer;
     private final TrajectoryVisualization m_viz;
@@ -43,7 +46,10 @@ public class DriveToWaypoint100 extends Command implements Glassy {
     private final ChassisSpeedsLogger m_log_chassis_speeds;
 
     private Trajectory100 m_trajectory = new Trajectory100();
+    /** The real trajectory, while following the placeholder. */
+    private CompletableFuture<Trajectory100> m_pending;
 
+    /** Generates the trajectory synchronously, in initialize(). */
     public DriveToWaypoint100(
             LoggerFactory parent,
             Pose2d goal,
@@ -52,12 +58,30 @@ public class DriveToWaypoint100 extends Command implements Glassy {
             SwerveKinodynamics swerveKinodynamics,
             double timeBuffer,
             TrajectoryVisualization viz) {
+        this(parent, goal, drivetrain, controller,
+                TrajectoryService.synchronous(new TimingConstraintFactory(swerveKinodynamics).allGood()),
+                timeBuffer, viz);
+    }
+
+    /**
+     * @param service use the same service for commands with the same
+     *                constraints, so they share its cache of prefetched
+     *                trajectories.
+     */
+    public DriveToWaypoint100(
+            LoggerFactory parent,
+            Pose2d goal,
+            SwerveDriveSubsystem drivetrain,
+            DriveTrajectoryFollower controller,
+            TrajectoryService service,
+            double timeBuffer,
+            TrajectoryVisualization viz) {
         LoggerFactory child = parent.child(this);
         m_log_chassis_speeds = child.chassisSpeedsLogger(Level.TRACE, "chassis speeds");
         m_goal = goal;
         m_swerve = drivetrain;
         m_controller = controller;
-        m_constraints = new TimingConstraintFactory(swerveKinodynamics).allGood();
+        m_service = service;
         m_timeBuffer = timeBuffer;
         m_viz = viz;
         addRequirements(m_swerve);
@@ -65,18 +89,17 @@ public class DriveToWaypoint100 extends Command implements Glassy {
 
     @Override
     public void initialize() {
-        final Pose2d start = m_swerve.getState().pose();
-        Pose2d end = m_goal;
         m_timer.reset();
         m_timer.start();
 
-        List<Pose2d> waypointsM = getWaypoints(start, end);
-        List<Rotation2d> headings = List.of(start.getRotation(), end.getRotation());
-
-        m_trajectory = TrajectoryPlanner.restToRest(
-                waypointsM,
-                headings,
-                m_constraints);
+        Pose2d start = m_swerve.getState().pose();
+        m_pending = m_service.toGoal(start, m_goal);
+        if (m_pending.isDone()) {
+            m_trajectory = m_pending.join();
+            m_pending = null;
+        } else {
+            m_trajectory = m_service.placeholder(start, m_goal);
+        }
 
         m_viz.setViz(m_trajectory);
 
@@ -92,6 +115,19 @@ public class DriveToWaypoint100 extends Command implements Glassy {
 
     @Override
     public void execute() {
+        if (m_pending != null && m_pending.isDone()) {
+            Trajectory100 trajectory = m_pending.join();
+            m_pending = null;
+            if (!trajectory.isEmpty()) {
+                // same start and timebase as the placeholder, so pick up where it is.
+                m_trajectory = trajectory;
+                m_viz.setViz(m_trajectory);
+                TrajectoryTimeIterator iter = new TrajectoryTimeIterator(
+                        new TrajectoryTimeSampler(m_trajectory));
+                iter.advance(m_timer.get());
+                m_controller.setTrajectory(iter);
+            }
+        }
         double now = Timer.getFPGATimestamp();
         Pose2d currentPose = m_swerve.getState().pose();
         ChassisSpeeds currentSpeed = m_swerve.getState().chassisSpeeds();
@@ -107,25 +143,17 @@ public class DriveToWaypoint100 extends Command implements Glassy {
     @Override
     public boolean isFinished() {
         // return m_controller.isDone();
+        if (m_pending != null)
+            return false;
         return m_timer.get() > m_trajectory.getLastPoint().state().getTimeS() + m_timeBuffer;
     }
 
     @Override
     public void end(boolean interrupted) {
+        // an unfinished trajectory stays in the service's cache.
+        m_pending = null;
         m_timer.stop();
         m_swerve.stop();
         m_viz.clear();
     }
-
-    ////////////////////////////////////////////////////
-
-    /** Waypoints where the rotation points in the direction of motion. */
-    private static List<Pose2d> getWaypoints(Pose2d p0, Pose2d p1) {
-        Translation2d t0 = p0.getTranslation();
-        Translation2d t1 = p1.getTranslation();
-        Rotation2d theta = t1.minus(t0).getAngle();
-        return List.of(
-                new Pose2d(t0, theta),
-                new Pose2d(t1, theta));
-    }
 }
@@ -2,6 +2,7 @@ package org.team100.lib.commands.drivetrain;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 import org.team100.lib.dashboard.Glassy;
@@ -11,10 +12,9 @@ import org.team100.lib.logging.LoggerFactory;
 import org.team100.lib.logging.LoggerFactory.ChassisSpeedsLogger;
 import org.team100.lib.motion.drivetrain.SwerveDriveSubsystem;
 import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamics;
-import org.team100.lib.timing.TimingConstraint;
 import org.team100.lib.timing.TimingConstraintFactory;
 import org.team100.lib.trajectory.Trajectory100;
-import org.team100.lib.trajectory.TrajectoryPlanner;
+import org.team100.lib.trajectory.TrajectoryService;
 import org.team100.lib.trajectory.TrajectoryTimeIterator;
 import org.team100.lib.trajectory.TrajectoryTimeSampler;
 import org.team100.lib.util.DriveUtil;
@@ -26,26 +26,45 @@ import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
 
+/**
+ * Drive through the waypoints. The trajectory comes from a TrajectoryService;
+ * if it's generated on a worker, the robot holds still until it's ready, since
+ * there's no cheap stand-in for a multi-waypoint path.
+ */
 public class DriveWithWaypoints extends Command implements Glassy {
     private final SwerveDriveSubsystem m_swerve;
     private final DriveTrajectoryFollower m_controller;
-    private final List<TimingConstraint> constraints;
+    private final TrajectoryService m_service;
     private final Supplier<List<Pose2d>> m_goal;
 
     // LOGGERS
     private final ChassisSpeedsLogger m_log_chassis_speeds;
 
+    private CompletableFuture<Trajectory100> m_pending;
+
+    /** Generates the trajectory synchronously, in initialize(). */
     public DriveWithWaypoints(
             LoggerFactory parent,
             SwerveDriveSubsystem drivetrain,
             DriveTrajectoryFollower controller,
             SwerveKinodynamics limits,
             Supplier<List<Pose2d>> goal) {
+        this(parent, drivetrain, controller,
+                TrajectoryService.synchronous(new TimingConstraintFactory(limits).fast()),
+                goal);
+    }
+
+    public DriveWithWaypoints(
+            LoggerFactory parent,
+            SwerveDriveSubsystem drivetrain,
+            DriveTrajectoryFollower controller,
+            TrajectoryService service,
+            Supplier<List<Pose2d>> goal) {
         LoggerFactory child = parent.child(this);
         m_log_chassis_speeds = child.chassisSpeedsLogger(Level.TRACE, "chassis speeds");
         m_swerve = drivetrain;
         m_controller = controller;
-        constraints = new TimingConstraintFactory(limits).fast();
+        m_service = service;
         m_goal = goal;
         addRequirements(m_swerve);
     }
@@ -63,15 +82,21 @@ public class DriveWithWaypoints extends Command implements Glassy {
 
         newWaypointM = getWaypointsList(newWaypointM);
 
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(newWaypointM, headings, constraints);
-
-        TrajectoryTimeIterator iter = new TrajectoryTimeIterator(
-                new TrajectoryTimeSampler(trajectory));
-        m_controller.setTrajectory(iter);
+        m_pending = m_service.restToRest(newWaypointM, headings);
     }
 
     @Override
     public void execute() {
+        if (m_pending != null) {
+            if (!m_pending.isDone()) {
+                m_swerve.stop();
+                return;
+            }
+            TrajectoryTimeIterator iter = new TrajectoryTimeIterator(
+                    new TrajectoryTimeSampler(m_pending.join()));
+            m_controller.setTrajectory(iter);
+            m_pending = null;
+        }
         double now = Timer.getFPGATimestamp();
         Pose2d currentPose = m_swerve.getState().pose();
         ChassisSpeeds currentSpeed = m_swerve.getState().chassisSpeeds();
@@ -83,11 +108,14 @@ public class DriveWithWaypoints extends Command implements Glassy {
 
     @Override
     public void end(boolean interrupted) {
+        m_pending = null;
         m_swerve.stop();
     }
 
     @Override
     public boolean isFinished() {
+        if (m_pending != null)
+            return false;
         return m_controller.isDone();
     }
 
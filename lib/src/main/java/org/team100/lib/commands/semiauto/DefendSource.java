@@ -1,10 +1,8 @@
 package org.team100.lib.commands.semiauto;
 
-import java.util.Map.Entry;
-import java.util.NavigableMap;
 import java.util.function.Supplier;
 
-import org.team100.lib.camera.RobotSighting;
+import org.team100.lib.camera.SightingStore;
 import org.team100.lib.motion.drivetrain.DriveSubsystemInterface;
 import org.team100.lib.motion.drivetrain.kinodynamics.FieldRelativeDelta;
 import org.team100.lib.motion.drivetrain.kinodynamics.FieldRelativeVelocity;
@@ -45,20 +43,23 @@ public class DefendSource extends Command {
      */
     private final double m_skill;
     private final DriveSubsystemInterface m_drive;
-    private final Supplier<NavigableMap<Double, RobotSighting>> m_camera;
+    private final Supplier<SightingStore> m_camera;
     private final Supplier<Pose2d> m_position;
     private final Supplier<Pose2d> m_source;
     private final boolean m_debug;
     private final Tactics m_tactics;
     private final ForceViz m_viz;
 
+    /** Reusable query result. */
+    private final int[] m_near = new int[32];
+
     private int m_pinCounter = 0;
 
     public DefendSource(
             SwerveKinodynamics swerveKinodynamics,
             double skill,
             DriveSubsystemInterface drive,
-            Supplier<NavigableMap<Double, RobotSighting>> camera,
+            Supplier<SightingStore> camera,
             Supplier<Pose2d> position,
             Supplier<Pose2d> source,
             Tactics tactics,
@@ -112,7 +113,7 @@ public class DefendSource extends Command {
             Pose2d pose,
             Pose2d defenderPosition,
             Pose2d opponentSourcePosition,
-            NavigableMap<Double, RobotSighting> recentSightings) {
+            SightingStore robots) {
         FieldRelativeVelocity v = new FieldRelativeVelocity(0, 0, 0);
 
         // attract to the waiting spot but only if nothing else is happening
@@ -147,19 +148,19 @@ public class DefendSource extends Command {
             System.out.print(" too far");
             return v;
         }
-        for (Entry<Double, RobotSighting> mostRecent : recentSightings.entrySet()) {
-            RobotSighting mostRecentSighting = mostRecent.getValue();
+        // don't react to far-away obstacles
+        int n = robots.near(pose.getX(), pose.getY(), 6, m_near);
+        // look at the most recently seen foe first
+        sortByRecency(robots, n);
+        for (int i = 0; i < n; ++i) {
+            int track = m_near[i];
             // don't try to defend friends
             // TODO: stay out of their way
-            if (mostRecentSighting.friend())
+            if (robots.tag(track) == SightingStore.kFriend)
                 continue;
-            Translation2d foe = mostRecentSighting.position();
+            Translation2d foe = robots.position(track);
 
             double distanceFromMe = pose.getTranslation().getDistance(foe);
-            if (distanceFromMe > 6) {
-                // don't react to far-away obstacles
-                continue;
-            }
 
             // avoid pinning penalties
             if (distanceFromMe < 2) {
@@ -205,4 +206,18 @@ public class DefendSource extends Command {
         return v;
     }
 
+    /** Insertion sort of the first n results, most recent first; n is small. */
+    private void sortByRecency(SightingStore robots, int n) {
+        for (int i = 1; i < n; ++i) {
+            int track = m_near[i];
+            double t = robots.time(track);
+            int j = i - 1;
+            while (j >= 0 && robots.time(m_near[j]) < t) {
+                m_near[j + 1] = m_near[j];
+                j--;
+            }
+            m_near[j + 1] = track;
+        }
+    }
+
 }
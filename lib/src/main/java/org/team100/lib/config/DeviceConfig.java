@@ -0,0 +1,51 @@
+package org.team100.lib.config;
+
+/**
+ * Configuration for one CAN device, e.g. a motor controller, applied by
+ * {@link DeviceConfigStage}, possibly on another thread.
+ */
+public interface DeviceConfig {
+
+    /** For the timing table, e.g. "TalonFX 12". */
+    String name();
+
+    /**
+     * True if the device already has this config, so apply() can be skipped.
+     * Usually a round trip to read it back. The default, for devices that
+     * can't say, is false, i.e. always apply.
+     */
+    default boolean matchesStored() {
+        return false;
+    }
+
+    /**
+     * Write the config to the device, all at once if possible.
+     *
+     * @return true if it worked
+     */
+    boolean apply();
+
+    /**
+     * Settings that the device forgets at power-off, e.g. status frame rates,
+     * so these are applied every time, even if the config matches.
+     */
+    default void applyVolatile() {
+        //
+    }
+
+    /** Always applied, by running the runnable, which may throw on failure. */
+    static DeviceConfig of(String name, Runnable apply) {
+        return new DeviceConfig() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public boolean apply() {
+                apply.run();
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,185 @@
+package org.team100.lib.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.team100.lib.util.Util;
+
+/**
+ * Configures CAN devices concurrently at boot.
+ *
+ * Each device config is a few blocking round trips with timeouts, so doing
+ * twenty of them one after another on the main thread takes seconds, and one
+ * missing device stalls all the rest. Instead, call begin() before making the
+ * devices, and finish() after; in between, each device submits its config
+ * here, which runs it on a small pool. Devices whose stored config already
+ * matches are skipped.
+ *
+ * Outside begin()/finish(), e.g. in tests, submit() runs the config
+ * immediately, on the caller's thread.
+ *
+ * A config that fails or times out is fatal, as it was when each device
+ * configured itself in its constructor: finish() (or submit(), outside the
+ * stage) throws, so the robot doesn't enable with a half-configured motor.
+ *
+ * Other device I/O during construction, e.g. resetting an encoder, must not
+ * race the config on the pool, so it goes through defer(), which holds it
+ * until the configs are done.
+ *
+ * Use begin(), submit(), defer(), and finish() from one thread.
+ */
+public class DeviceConfigStage {
+    private static final int kThreads = 4;
+    /** Total wait in finish(). */
+    private static final double kTimeoutS = 10;
+
+    public enum Status {
+        APPLIED, SKIPPED, FAILED, TIMED_OUT
+    }
+
+    public record Result(String name, Status status, double durationS) {
+    }
+
+    private record Pending(String name, Future<Result> future) {
+    }
+
+    private static ExecutorService executor = null;
+    private static List<Pending> pending = new ArrayList<>();
+    private static List<Runnable> deferred = new ArrayList<>();
+    private static long startNs;
+
+    /**
+     * Start collecting configs, to apply them concurrently. If the previous
+     * stage was never finished, e.g. because the constructor that began it
+     * threw, abandon it.
+     */
+    public static void begin() {
+        if (executor != null)
+            executor.shutdownNow();
+        executor = Executors.newFixedThreadPool(kThreads, r -> {
+            Thread thread = new Thread(r, "DeviceConfigStage");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pending = new ArrayList<>();
+        deferred = new ArrayList<>();
+        startNs = System.nanoTime();
+    }
+
+    /**
+     * Apply the config, on the pool if begin() has been called, or right now
+     * otherwise.
+     *
+     * @throws IllegalStateException outside the stage, if the config fails.
+     */
+    public static void submit(DeviceConfig config) {
+        if (executor == null) {
+            Result result = run(config);
+            if (result.status() != Status.APPLIED && result.status() != Status.SKIPPED)
+                throw new IllegalStateException("Config " + result.status().name() + ": " + result.name());
+            return;
+        }
+        pending.add(new Pending(config.name(), executor.submit(() -> run(config))));
+    }
+
+    /**
+     * Run device I/O that has to come after the configs, e.g. resetting an
+     * encoder: in finish(), on the caller's thread, if the stage is open, or
+     * right now otherwise.
+     */
+    public static void defer(Runnable action) {
+        if (executor == null) {
+            action.run();
+            return;
+        }
+        deferred.add(action);
+    }
+
+    /**
+     * Wait for all the configs, print the timing table, run the deferred
+     * actions, and return to synchronous mode.
+     *
+     * @throws IllegalStateException if any config failed or took too long; the
+     *                               pool is interrupted, and the deferred
+     *                               actions don't run.
+     */
+    public static List<Result> finish() {
+        if (executor == null)
+            return List.of();
+        List<Result> results = new ArrayList<>(pending.size());
+        long deadlineNs = System.nanoTime() + (long) (kTimeoutS * 1e9);
+        for (Pending p : pending) {
+            results.add(await(p, deadlineNs));
+        }
+        double totalS = (System.nanoTime() - startNs) / 1e9;
+        List<Runnable> actions = deferred;
+        executor.shutdownNow();
+        executor = null;
+        pending = new ArrayList<>();
+        deferred = new ArrayList<>();
+        print(results, totalS);
+        List<String> bad = new ArrayList<>();
+        for (Result r : results) {
+            if (r.status() == Status.FAILED || r.status() == Status.TIMED_OUT)
+                bad.add(r.name() + " " + r.status().name());
+        }
+        if (!bad.isEmpty())
+            throw new IllegalStateException("Device config: " + String.join(", ", bad));
+        for (Runnable action : actions) {
+            action.run();
+        }
+        return results;
+    }
+
+    static Result run(DeviceConfig config) {
+        long t0 = System.nanoTime();
+        Status status;
+        try {
+            if (config.matchesStored()) {
+                status = Status.SKIPPED;
+            } else {
+                status = config.apply() ? Status.APPLIED : Status.FAILED;
+            }
+            config.applyVolatile();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            status = Status.FAILED;
+        }
+        return new Result(config.name(), status, (System.nanoTime() - t0) / 1e9);
+    }
+
+    private static Result await(Pending p, long deadlineNs) {
+        try {
+            long remainingNs = Math.max(0, deadlineNs - System.nanoTime());
+            return p.future().get(remainingNs, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return new Result(p.name(), Status.TIMED_OUT, kTimeoutS);
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+            return new Result(p.name(), Status.FAILED, 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Result(p.name(), Status.TIMED_OUT, 0);
+        }
+    }
+
+    private static void print(List<Result> results, double totalS) {
+        Util.println("Device configuration:");
+        for (Result r : results) {
+            Util.printf("  %-20s %-9s %6.3f s\n", r.name(), r.status().name(), r.durationS());
+            if (r.status() == Status.FAILED || r.status() == Status.TIMED_OUT)
+                Util.warn("Config " + r.status().name() + ": " + r.name());
+        }
+        Util.printf("  %d devices in %.3f s\n", results.size(), totalS);
+    }
+
+    private DeviceConfigStage() {
+        //
+    }
+}
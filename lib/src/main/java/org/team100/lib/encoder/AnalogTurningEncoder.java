@@ -6,6 +6,7 @@ import java.util.function.DoubleSupplier;
 import org.team100.lib.logging.Level;
 import org.team100.lib.logging.LoggerFactory;
 import org.team100.lib.logging.LoggerFactory.DoubleLogger;
+import org.team100.lib.replay.SensorReplay;
 import org.team100.lib.util.Memo;
 
 import edu.wpi.first.wpilibj.AnalogInput;
@@ -31,8 +32,8 @@ public class AnalogTurningEncoder extends RoboRioRotaryPositionSensor {
         super(parent, inputOffset, drive);
         LoggerFactory child = parent.child(this);
         m_input = new AnalogInput(channel);
-        m_voltage = Memo.ofDouble(m_input::getVoltage);
-        m_rail = Memo.ofDouble(RobotController::getVoltage5V);
+        m_voltage = Memo.ofDouble(SensorReplay.wrap("Analog " + channel + "/voltage", m_input::getVoltage));
+        m_rail = Memo.ofDouble(SensorReplay.wrap("Analog " + channel + "/rail", RobotController::getVoltage5V));
         child.intLogger(Level.TRACE, "channel").log(m_input::getChannel);
         m_log_voltage = child.doubleLogger(Level.TRACE, "voltage");
         m_log_ratio = child.doubleLogger(Level.TRACE, "ratio");
@@ -6,6 +6,7 @@ import java.util.function.DoubleSupplier;
 import org.team100.lib.logging.Level;
 import org.team100.lib.logging.LoggerFactory;
 import org.team100.lib.logging.LoggerFactory.DoubleLogger;
+import org.team100.lib.replay.SensorReplay;
 import org.team100.lib.util.Memo;
 import org.team100.lib.util.Util;
 
@@ -40,7 +41,7 @@ public abstract class DutyCycleRotaryPositionSensor extends RoboRioRotaryPositio
         m_channel = channel;
         m_digitalInput = new DigitalInput(channel);
         m_dutyCycle = new DutyCycle(m_digitalInput);
-        m_duty = Memo.ofDouble(m_dutyCycle::getOutput);
+        m_duty = Memo.ofDouble(SensorReplay.wrap("DutyCycle " + channel + "/duty", m_dutyCycle::getOutput));
         m_log_duty = child.doubleLogger(Level.TRACE, "duty cycle");
         child.intLogger(Level.TRACE, "channel").log(() -> channel);
     }
@@ -47,5 +47,13 @@ public enum Experiment {
     /**
      * Use the network-tables gyro. 
      */
-    NetworkGyro
+    NetworkGyro,
+    /**
+     * Record sensor input for offline replay. Takes effect at startup.
+     */
+    RecordSensors,
+    /**
+     * Log CPU time and allocation for each subsystem and command.
+     */
+    MeterScheduler
 }
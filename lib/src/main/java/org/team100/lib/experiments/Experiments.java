@@ -21,6 +21,11 @@ import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
  * -- per-identity: enabled for specific RoboRIO serial numbers
  * -- override: using a Sendable Chooser in a dashboard, e.g. glass.
  * -- test override: to force a config for unit tests.
+ * 
+ * Checking an experiment is on the hot path (e.g. once per vision blip), so
+ * the choosers aren't read on each check; instead, the result of all four
+ * methods is kept as a bitfield, which is rebuilt whenever any chooser or test
+ * override changes.
  */
 public class Experiments implements Glassy {
     public static final Experiments instance = new Experiments(Identity.instance);
@@ -43,7 +48,12 @@ public class Experiments implements Glassy {
 
     private final Map<Experiment, Boolean> m_testOverrides;
 
+    /** Bit per experiment ordinal; written by refresh(), read by enabled(). */
+    private volatile long m_enabled;
+
     private Experiments(Identity identity) {
+        if (Experiment.values().length > Long.SIZE)
+            throw new IllegalStateException("too many experiments for the bitfield");
         m_experiments = EnumSet.copyOf(globalExperiments);
         m_experiments.addAll(experimentsByIdentity.getOrDefault(identity, EnumSet.noneOf(Experiment.class)));
         m_overrides = new EnumMap<>(Experiment.class);
@@ -57,27 +67,54 @@ public class Experiments implements Glassy {
                 override.addOption(on(e), () -> true);
                 override.setDefaultOption(off(e), () -> false);
             }
+            override.onChange(x -> refresh());
             m_overrides.put(e, override);
             SmartDashboard.putData(override);
         }
+        refresh();
     }
 
     /** overrides everything. for testing only. */
-    public void testOverride(Experiment experiment, boolean state) {
+    public synchronized void testOverride(Experiment experiment, boolean state) {
         m_testOverrides.put(experiment, state);
+        refresh();
     }
 
+    /** A single field read, so it's fine to call this as often as you like. */
     public boolean enabled(Experiment experiment) {
-        if (m_testOverrides.containsKey(experiment)) {
-            return m_testOverrides.get(experiment);
-        }
-        return m_overrides.get(experiment).getSelected().getAsBoolean();
+        return (m_enabled & bit(experiment)) != 0;
     }
 
-    
+    /**
+     * Read all the choosers, and the test overrides, into the bitfield. This
+     * happens automatically on any change, so there's no need to call it from
+     * outside.
+     */
+    synchronized void refresh() {
+        long enabled = 0;
+        for (Experiment e : Experiment.values()) {
+            if (read(e))
+                enabled |= bit(e);
+        }
+        m_enabled = enabled;
+    }
 
     ////////////////////////////////////////
 
+    private boolean read(Experiment experiment) {
+        Boolean testOverride = m_testOverrides.get(experiment);
+        if (testOverride != null)
+            return testOverride;
+        BooleanSupplier selected = m_overrides.get(experiment).getSelected();
+        if (selected == null)
+            return m_experiments.contains(experiment);
+        return selected.getAsBoolean();
+    }
+
+    private static long bit(Experiment e) {
+        return 1L << e.ordinal();
+    }
+
     private String on(Experiment e) {
         return e.name() + " ON";
     }
@@ -0,0 +1,212 @@
+package org.team100.lib.field;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Translation2d;
+
+/**
+ * Precomputed distance and repulsion from a set of round obstacles, on a grid
+ * covering the field, so that the planner tactics (and anything else) can look
+ * them up in constant time, without allocating, no matter how many obstacles
+ * there are.
+ *
+ * The grid holds, for each cell corner:
+ *
+ * <ul>
+ * <li>signed distance to the nearest obstacle surface, negative inside
+ * <li>which obstacle is nearest
+ * <li>the sum of the repulsion from all the obstacles within range, using the
+ * same kernel as the tactics used to compute directly: (1/r - 1/max) in the
+ * direction away from each obstacle, so it's zero at the maximum distance.
+ * </ul>
+ *
+ * Lookups are bilinear, and lookups off the field use the nearest edge. The
+ * gradient of the distance is the direction away from the nearest obstacle.
+ *
+ * The shared instances are built on first use, at 2 cm resolution, about 4 MB
+ * each.
+ */
+public class FieldDistanceGrid {
+    private static final double kResolution = 0.02;
+
+    private static class StagePosts {
+        private static final FieldDistanceGrid kGrid = of(
+                FieldMap2024.stagePosts.values(), FieldMap2024.stagePostSizeM / 2, 1.5);
+    }
+
+    private static class Subwoofers {
+        private static final FieldDistanceGrid kGrid = of(
+                FieldMap2024.subwoofers.values(), 0, 3);
+    }
+
+    private final double m_resolution;
+    private final double m_radius;
+    private final int m_nx;
+    private final int m_ny;
+    private final double[] m_obstacleX;
+    private final double[] m_obstacleY;
+    private final float[] m_distance;
+    private final byte[] m_nearest;
+    private final float[] m_repulsionX;
+    private final float[] m_repulsionY;
+
+    /**
+     * @param obstacles   centers
+     * @param radius      of each obstacle, for the signed distance.
+     * @param maxDistance range of the repulsion, from the obstacle center.
+     * @param length      x extent of the grid, starting at zero
+     * @param width       y extent of the grid, starting at zero
+     * @param resolution  grid spacing
+     */
+    public FieldDistanceGrid(
+            Collection<Translation2d> obstacles,
+            double radius,
+            double maxDistance,
+            double length,
+            double width,
+            double resolution) {
+        if (obstacles.isEmpty())
+            throw new IllegalArgumentException("no obstacles");
+        if (obstacles.size() > Byte.MAX_VALUE)
+            throw new IllegalArgumentException("too many obstacles");
+        if (resolution <= 0)
+            throw new IllegalArgumentException("resolution must be positive");
+        m_resolution = resolution;
+        m_radius = radius;
+        m_nx = (int) Math.ceil(length / resolution) + 1;
+        m_ny = (int) Math.ceil(width / resolution) + 1;
+        m_obstacleX = new double[obstacles.size()];
+        m_obstacleY = new double[obstacles.size()];
+        int n = 0;
+        for (Translation2d t : obstacles) {
+            m_obstacleX[n] = t.getX();
+            m_obstacleY[n] = t.getY();
+            n++;
+        }
+        m_distance = new float[m_nx * m_ny];
+        m_nearest = new byte[m_nx * m_ny];
+        m_repulsionX = new float[m_nx * m_ny];
+        m_repulsionY = new float[m_nx * m_ny];
+        // inside the obstacle, the kernel stays finite.
+        double minNorm = Math.max(radius, resolution);
+        for (int j = 0; j < m_ny; ++j) {
+            double y = j * resolution;
+            for (int i = 0; i < m_nx; ++i) {
+                double x = i * resolution;
+                int k = j * m_nx + i;
+                double nearest = Double.MAX_VALUE;
+                double rx = 0;
+                double ry = 0;
+                for (int o = 0; o < n; ++o) {
+                    double dx = x - m_obstacleX[o];
+                    double dy = y - m_obstacleY[o];
+                    double norm = Math.hypot(dx, dy);
+                    if (norm < nearest) {
+                        nearest = norm;
+                        m_nearest[k] = (byte) o;
+                    }
+                    if (norm < maxDistance && norm > 0) {
+                        double scale = (1 / Math.max(norm, minNorm) - 1 / maxDistance) / norm;
+                        rx += dx * scale;
+                        ry += dy * scale;
+                    }
+                }
+                m_distance[k] = (float) (nearest - radius);
+                m_repulsionX[k] = (float) rx;
+                m_repulsionY[k] = (float) ry;
+            }
+        }
+    }
+
+    /** Covers the whole field at the default resolution. */
+    public static FieldDistanceGrid of(
+            Collection<Pose2d> obstacles,
+            double radius,
+            double maxDistance) {
+        List<Translation2d> centers = new ArrayList<>();
+        for (Pose2d p : obstacles) {
+            centers.add(p.getTranslation());
+        }
+        return new FieldDistanceGrid(
+                centers,
+                radius,
+                maxDistance,
+                FieldMap2024.fieldLengthM,
+                FieldMap2024.fieldWidthM,
+                kResolution);
+    }
+
+    /** Stage posts, with a repulsion range of 1.5 m. */
+    public static FieldDistanceGrid stagePosts() {
+        return StagePosts.kGrid;
+    }
+
+    /** Subwoofers, as points, with a repulsion range of 3 m. */
+    public static FieldDistanceGrid subwoofers() {
+        return Subwoofers.kGrid;
+    }
+
+    /** Obstacle radius. */
+    public double radius() {
+        return m_radius;
+    }
+
+    /** Signed distance to the nearest obstacle surface. */
+    public double distance(double x, double y) {
+        return bilinear(m_distance, x, y);
+    }
+
+    /**
+     * Gradient of the distance, i.e. the unit vector away from the nearest
+     * obstacle, by central difference.
+     */
+    public double gradientX(double x, double y) {
+        return (distance(x + m_resolution, y) - distance(x - m_resolution, y)) / (2 * m_resolution);
+    }
+
+    public double gradientY(double x, double y) {
+        return (distance(x, y + m_resolution) - distance(x, y - m_resolution)) / (2 * m_resolution);
+    }
+
+    /** Total repulsion, to be scaled by the caller. */
+    public double repulsionX(double x, double y) {
+        return bilinear(m_repulsionX, x, y);
+    }
+
+    public double repulsionY(double x, double y) {
+        return bilinear(m_repulsionY, x, y);
+    }
+
+    /** Center of the nearest obstacle. */
+    public double nearestX(double x, double y) {
+        return m_obstacleX[m_nearest[cell(x, y)]];
+    }
+
+    public double nearestY(double x, double y) {
+        return m_obstacleY[m_nearest[cell(x, y)]];
+    }
+
+    /** Nearest grid point. */
+    private int cell(double x, double y) {
+        int i = (int) Math.round(MathUtil.clamp(x / m_resolution, 0, m_nx - 1));
+        int j = (int) Math.round(MathUtil.clamp(y / m_resolution, 0, m_ny - 1));
+        return j * m_nx + i;
+    }
+
+    private double bilinear(float[] f, double x, double y) {
+        double gx = MathUtil.clamp(x / m_resolution, 0, m_nx - 1);
+        double gy = MathUtil.clamp(y / m_resolution, 0, m_ny - 1);
+        int i = Math.min((int) gx, m_nx - 2);
+        int j = Math.min((int) gy, m_ny - 2);
+        double fx = gx - i;
+        double fy = gy - j;
+        int k = j * m_nx + i;
+        double bottom = f[k] * (1 - fx) + f[k + 1] * fx;
+        double top = f[k + m_nx] * (1 - fx) + f[k + m_nx + 1] * fx;
+        return bottom * (1 - fy) + top * fy;
+    }
+}
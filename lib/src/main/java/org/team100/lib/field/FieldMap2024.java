@@ -13,6 +13,11 @@ import edu.wpi.first.math.geometry.Translation2d;
  */
 public class FieldMap2024 {
 
+    /** Field extent in x, wall to wall. */
+    public static final double fieldLengthM = 16.541;
+    /** Field extent in y. */
+    public static final double fieldWidthM = 8.211;
+
     /**
      * Each post is a 30 cm square.
      */
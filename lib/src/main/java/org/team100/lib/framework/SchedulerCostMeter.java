@@ -0,0 +1,132 @@
+package org.team100.lib.framework;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import org.team100.lib.dashboard.Glassy;
+import org.team100.lib.logging.CostMeter;
+import org.team100.lib.logging.Level;
+import org.team100.lib.logging.LoggerFactory;
+
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+
+/**
+ * Splits the CPU time and allocation of one scheduler run among the subsystem
+ * periodics and the command executes.
+ *
+ * The scheduler doesn't offer hooks around each subsystem, so this registers
+ * marker subsystems: the scheduler calls periodic() in registration order, so a
+ * marker registered right after a subsystem sees the moment that subsystem
+ * finished. Commands are measured with the onCommandExecute() hook. Each
+ * marker charges the cost since the previous marker to its subsystem or
+ * command, so there's just one pair of counter reads per item.
+ *
+ * Construct this after the subsystems, and pass the ones you want measured
+ * individually. Others are lumped together as "other subsystems" if they were
+ * registered before this was constructed; if they were registered after, they
+ * are charged to the first command. The first command is also charged for the
+ * trigger polling that happens between subsystems and commands. "scheduler" is
+ * whatever comes after the last command.
+ *
+ * Call run() instead of CommandScheduler.run(). When the enabled supplier says
+ * false, run() just runs the scheduler.
+ */
+public class SchedulerCostMeter implements Glassy {
+    private final CommandScheduler m_scheduler;
+    private final BooleanSupplier m_enabled;
+    private final LoggerFactory m_commandLogger;
+    private final Map<Class<?>, CostMeter> m_commands;
+    private final Map<String, CostMeter> m_subsystems;
+    private final CostMeter m_other;
+
+    private boolean m_active;
+    private long m_alloc;
+    private long m_cpu;
+
+    public SchedulerCostMeter(
+            LoggerFactory parent,
+            BooleanSupplier enabled,
+            Subsystem... subsystems) {
+        LoggerFactory child = parent.child(this);
+        m_scheduler = CommandScheduler.getInstance();
+        m_enabled = enabled;
+        m_commandLogger = child.child("commands");
+        m_commands = new HashMap<>();
+        m_subsystems = new HashMap<>();
+        m_other = new CostMeter(child, Level.TRACE, "scheduler");
+
+        LoggerFactory subsystemLogger = child.child("subsystems");
+        for (Subsystem subsystem : subsystems) {
+            m_scheduler.unregisterSubsystem(subsystem);
+        }
+        m_scheduler.registerSubsystem(
+                new Marker(new CostMeter(subsystemLogger, Level.TRACE, "other subsystems")));
+        for (Subsystem subsystem : subsystems) {
+            CostMeter meter = new CostMeter(subsystemLogger, Level.TRACE, subsystem.getName());
+            m_subsystems.put(subsystem.getName(), meter);
+            m_scheduler.registerSubsystem(subsystem);
+            m_scheduler.registerSubsystem(new Marker(meter));
+        }
+        m_scheduler.onCommandExecute(this::executed);
+    }
+
+    public void run() {
+        m_active = m_enabled.getAsBoolean();
+        if (m_active) {
+            m_alloc = CostMeter.allocatedBytes();
+            m_cpu = CostMeter.cpuNanos();
+        }
+        m_scheduler.run();
+        if (m_active)
+            mark(m_other);
+        m_active = false;
+    }
+
+    /** The meter for the named subsystem, or null, for testing. */
+    CostMeter subsystem(String name) {
+        return m_subsystems.get(name);
+    }
+
+    /** The meter for the command class, or null, for testing. */
+    CostMeter command(Class<?> commandClass) {
+        return m_commands.get(commandClass);
+    }
+
+    private void executed(Command command) {
+        if (!m_active)
+            return;
+        // keyed by class since Command.getName() is a registry lookup.
+        CostMeter meter = m_commands.get(command.getClass());
+        if (meter == null) {
+            meter = new CostMeter(m_commandLogger, Level.TRACE, command.getClass().getSimpleName());
+            m_commands.put(command.getClass(), meter);
+        }
+        mark(meter);
+    }
+
+    /** Charge the cost since the previous mark to the meter. */
+    private void mark(CostMeter meter) {
+        long alloc = CostMeter.allocatedBytes();
+        long cpu = CostMeter.cpuNanos();
+        meter.record(alloc - m_alloc, cpu - m_cpu);
+        m_alloc = alloc;
+        m_cpu = cpu;
+    }
+
+    private class Marker implements Subsystem {
+        private final CostMeter m_meter;
+
+        Marker(CostMeter meter) {
+            m_meter = meter;
+        }
+
+        @Override
+        public void periodic() {
+            if (m_active)
+                mark(m_meter);
+        }
+    }
+}
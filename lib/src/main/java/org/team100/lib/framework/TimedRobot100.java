@@ -11,10 +11,13 @@ import edu.wpi.first.hal.NotifierJNI;
 import java.util.PriorityQueue;
 
 import org.team100.lib.dashboard.Glassy;
+import org.team100.lib.logging.CostMeter;
+import org.team100.lib.logging.GcListener;
 import org.team100.lib.logging.Level;
 import org.team100.lib.logging.Logging;
 import org.team100.lib.logging.LoggerFactory;
 import org.team100.lib.logging.LoggerFactory.DoubleLogger;
+import org.team100.lib.logging.LoggerFactory.LongLogger;
 
 /**
  * Copy of {@link edu.wpi.first.wpilibj.TimedRobot} in an effort to improve
@@ -27,6 +30,10 @@ public class TimedRobot100 extends IterativeRobotBase implements Glassy {
         public double period;
         public double expirationTime;
         public DoubleLogger logger;
+        /** CPU and allocation of func. */
+        private final CostMeter m_cost;
+        private final DoubleLogger m_log_cpu_share;
+        private final LongLogger m_log_gc;
 
         /**
          * Construct a callback container.
@@ -48,16 +55,29 @@ public class TimedRobot100 extends IterativeRobotBase implements Glassy {
                             * this.period
                     + this.period;
             this.logger = logger.doubleLogger(Level.COMP, "duration (s)/" + name);
+            m_cost = new CostMeter(logger, Level.DEBUG, name);
+            m_log_cpu_share = logger.doubleLogger(Level.DEBUG, "cpu share/" + name);
+            m_log_gc = logger.longLogger(Level.DEBUG, "gc (ms)/" + name);
         }
 
+        /**
+         * Runs func and logs its wall time, CPU time, CPU time as a fraction of
+         * the period, bytes allocated, and the GC pauses that were reported while
+         * it ran, so a long duration can be blamed on allocation or GC rather than
+         * on computation.
+         */
         public void run() {
-
+            long startGcMs = GcListener.durationMs();
             double startWaitingS = Timer.getFPGATimestamp();
+            m_cost.begin();
             func.run();
+            m_cost.end();
             double endWaitingS = Timer.getFPGATimestamp();
             double durationS = endWaitingS - startWaitingS;
+            long gcMs = GcListener.durationMs() - startGcMs;
             this.logger.log(() -> durationS);
-
+            m_log_cpu_share.log(() -> m_cost.cpu() * 1e-9 / period);
+            m_log_gc.log(() -> gcMs);
         }
 
         @Override
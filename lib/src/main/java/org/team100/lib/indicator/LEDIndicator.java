@@ -111,9 +111,10 @@ public class LEDIndicator {
      * Periodic does all the real work in this class.
      */
     public void periodic() {
+        boolean changed = false;
         // back always shows the same
         for (LEDStrip strip : m_backStrips) {
-            strip.solid(buffer, m_back.color);
+            changed |= strip.solid(buffer, m_back.color);
         }
 
         if (kFlash) {
@@ -121,25 +122,26 @@ public class LEDIndicator {
             if (m_flashing) {
                 if ((RobotController.getFPGATime() / kFlashDurationMicrosec) % 2 == 0) {
                     for (LEDStrip strip : m_frontStrips) {
-                        strip.solid(buffer, Color.kBlack);
+                        changed |= strip.solid(buffer, Color.kBlack);
                     }
                 } else {
                     for (LEDStrip strip : m_frontStrips) {
-                        strip.solid(buffer, m_front.color);
+                        changed |= strip.solid(buffer, m_front.color);
                     }
                 }
             } else {
                 for (LEDStrip strip : m_frontStrips) {
-                    strip.solid(buffer, m_front.color);
+                    changed |= strip.solid(buffer, m_front.color);
                 }
             }
         } else {
             for (LEDStrip strip : m_frontStrips) {
-                strip.solid(buffer, m_front.color);
+                changed |= strip.solid(buffer, m_front.color);
             }
         }
 
-        // update the output with the buffer we constructed.
-        led.setData(buffer);
+        // update the output with the buffer we constructed, if it's different.
+        if (changed)
+            led.setData(buffer);
     }
 }
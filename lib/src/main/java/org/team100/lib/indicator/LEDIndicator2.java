@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import org.team100.lib.async.Async;
+
 import edu.wpi.first.wpilibj.AddressableLED;
 import edu.wpi.first.wpilibj.AddressableLEDBuffer;
 import edu.wpi.first.wpilibj.RobotBase;
@@ -61,21 +63,32 @@ public class LEDIndicator2 {
     }
 
     /**
-     * Fast flashing, 15hz.
+     * Fast flashing, 15hz. This is also the animation frame period.
      */
     private static final int kFlashDurationMicrosec = 30000;
+    private static final int kStripLength = 256;
+    private static final int[] kTeam100Pixels = {
+            165, 153, 154, 155, 156, 157, 158, 138, 139, 140, 141, 129, 134, 122, 123, 124, 125, 106,
+            107, 108, 109, 97, 102, 90, 91, 92, 93 };
 
     private final AddressableLED led;
     private final AddressableLEDBuffer buffer;
     private final List<LEDStrip> strips;
+    /** Frame being composed, packed as in Patterns. */
+    private final byte[] m_next;
+    /** What the LEDs are showing. */
+    private final byte[] m_sent;
+    private final byte[] m_team100;
 
-    private State m_front;
-    private State m_back;
-    private boolean m_flashing;
-    private static final int kStripLength = 256;
-    private State currentColor;
+    private volatile boolean m_flashing;
+    private volatile boolean m_showTeam100;
 
-    public LEDIndicator2(int port) {
+    /**
+     * The animation runs on the async, at the frame rate, so the main loop only
+     * chooses patterns. The executor async (see AsyncFactory) keeps it off
+     * the main thread entirely, at low priority.
+     */
+    public LEDIndicator2(int port, Async async) {
         strips = new ArrayList<>();
 
         strips.add(new LEDStrip(0, 16));
@@ -96,10 +109,16 @@ public class LEDIndicator2 {
         buffer = new AddressableLEDBuffer(length);
         led.setData(buffer);
         led.start();
+        m_next = new byte[length * Patterns.kBytesPerLed];
+        m_sent = new byte[length * Patterns.kBytesPerLed];
+        m_team100 = team100(length);
         m_flashing = false;
+        m_showTeam100 = false;
+        async.addPeriodic(this::animate, kFlashDurationMicrosec * 1e-6, "LEDIndicator2");
     }
 
     public void setGroup(LEDGroup group, Color c) {
+        m_showTeam100 = false;
         for (LEDStrip strip : strips) {
             if (strip.group() == group) {
                 strip.setColor(c);
@@ -111,57 +130,62 @@ public class LEDIndicator2 {
         m_flashing = flashing;
     }
 
+    /** Show the logo until the next pattern change. */
+    public void displayTeam100() {
+        m_showTeam100 = true;
+    }
+
+    public void setStripRainbow(LEDStrip strip) {
+        m_showTeam100 = false;
+        strip.setFrames(Patterns.rainbow(strip.length()));
+    }
+
+    public void setStripChase(LEDStrip strip) {
+        m_showTeam100 = false;
+        Color[] colors = { State.ORANGE.color, State.BLACK.color };
+        strip.setFrames(Patterns.chase(strip.length(), colors, 4));
+    }
+
     /**
-     * Periodic does all the real work in this class.
+     * Composes the current frame from the strips' precomputed frames, and sends
+     * it only if it differs from what's showing, updating only the changed
+     * range of the buffer.
      */
-    public void periodic() {
-        // back always shows the same
-        for (LEDStrip strip : strips) {
-            strip.solid(buffer, m_back.color);
-        }
-
-        // front depends on flashing state
-        if (m_flashing) {
-            if ((RobotController.getFPGATime() / kFlashDurationMicrosec) % 2 == 0) {
-                for (LEDStrip strip : strips) {
-                    strip.solid(buffer, Color.kBlack);
-                }
-            } else {
-                for (LEDStrip strip : strips) {
-                    strip.solid(buffer, m_front.color);
-                }
-            }
+    void animate() {
+        long tick = RobotController.getFPGATime() / kFlashDurationMicrosec;
+        if (m_showTeam100) {
+            System.arraycopy(m_team100, 0, m_next, 0, m_next.length);
+        } else if (m_flashing && tick % 2 == 0) {
+            Arrays.fill(m_next, (byte) 0);
         } else {
             for (LEDStrip strip : strips) {
-                strip.solid(buffer, m_front.color);
+                strip.render(m_next, tick);
             }
         }
-
-        // update the output with the buffer we constructed.
+        int first = Arrays.mismatch(m_next, m_sent);
+        if (first < 0)
+            return;
+        int last = m_next.length - 1;
+        while (m_next[last] == m_sent[last])
+            last--;
+        for (int i = first / Patterns.kBytesPerLed; i <= last / Patterns.kBytesPerLed; ++i) {
+            int j = i * Patterns.kBytesPerLed;
+            buffer.setRGB(i, m_next[j] & 0xff, m_next[j + 1] & 0xff, m_next[j + 2] & 0xff);
+        }
+        System.arraycopy(m_next, first, m_sent, first, last - first + 1);
         led.setData(buffer);
     }
 
-    public void displayTeam100() {
-        AddressableLEDBuffer buffer2 = new AddressableLEDBuffer(kStripLength);
-        for (int i = 0; i < kStripLength; i++) {
-            if (Arrays.asList(165, 153, 154, 155, 156, 157, 158, 138, 139, 140, 141, 129, 134, 122, 123, 124, 125, 106,
-                    107, 108, 109, 97, 102, 90, 91, 92, 93).contains(i)) {
-                currentColor = State.WHITE;
-            } else {
-                currentColor = State.ORANGE;
-            }
-            buffer2.setLED(i, currentColor.color);
+    /** Pixels beyond the end of the strips are dropped. */
+    private static byte[] team100(int length) {
+        byte[] frame = new byte[length * Patterns.kBytesPerLed];
+        for (int i = 0; i < Math.min(length, kStripLength); i++) {
+            Patterns.set(frame, i, State.ORANGE.color);
         }
-        led.setData(buffer2);
-    }
-
-    public void setStripRainbow(LEDStrip strip) {
-        Patterns.rainbow(strip, buffer);
-
-    }
-
-    public void setStripChase(LEDStrip strip) {
-        Color[] colors = { new Color(), new Color() };
-        Patterns.chase(colors, strip, buffer);
+        for (int i : kTeam100Pixels) {
+            if (i < length)
+                Patterns.set(frame, i, State.WHITE.color);
+        }
+        return frame;
     }
 }
@@ -6,32 +6,57 @@ import edu.wpi.first.wpilibj.util.Color;
 /**
  * Represents a segment of an LED buffer: a range with a start (inclusive) and
  * end (exclusive).
+ *
+ * The strip also holds its current pattern, as precomputed frames (see
+ * Patterns), which the indicator copies into its output.
  */
 public class LEDStrip {
     private final int m_start;
     private final int m_end;
     private final LEDGroup m_group;
     private Color color = Color.kBlack;
+    /** Written by the main loop, read by the animation thread. */
+    private volatile byte[][] m_frames;
+    private boolean m_animated;
 
     public LEDStrip(int start, int end) {
-        m_start = start;
-        m_end = end;
-        m_group = LEDGroup.ONE;
+        this(LEDGroup.ONE, start, end);
     }
 
     public LEDStrip(LEDGroup group, int start, int end) {
         m_start = start;
         m_end = end;
         m_group = group;
+        m_frames = Patterns.solid(length(), color);
     }
 
     /**
      * Fill the appropriate section of the buffer.
+     *
+     * @return true if anything changed, i.e. the buffer needs to be sent.
      */
-    public void solid(AddressableLEDBuffer buffer, Color color) {
+    public boolean solid(AddressableLEDBuffer buffer, Color color) {
+        int r = (int) (color.red * 255);
+        int g = (int) (color.green * 255);
+        int b = (int) (color.blue * 255);
+        boolean changed = false;
         for (int i = start(); i < end(); i++) {
-            buffer.setLED(i, color);
+            if (buffer.getRed(i) != r || buffer.getGreen(i) != g || buffer.getBlue(i) != b) {
+                buffer.setRGB(i, r, g, b);
+                changed = true;
+            }
         }
+        return changed;
+    }
+
+    /**
+     * Copy the frame for the tick into the packed frame for the whole buffer,
+     * at this strip's offset.
+     */
+    void render(byte[] frame, long tick) {
+        byte[][] frames = m_frames;
+        byte[] f = frames[(int) (tick % frames.length)];
+        System.arraycopy(f, 0, frame, m_start * Patterns.kBytesPerLed, f.length);
     }
 
     /** First led in the range. */
@@ -44,6 +69,10 @@ public class LEDStrip {
         return m_end;
     }
 
+    int length() {
+        return m_end - m_start;
+    }
+
     LEDGroup group() {
         return m_group;
     }
@@ -52,7 +81,20 @@ public class LEDStrip {
         return color;
     }
 
+    /** Show a solid color. Does nothing if the color is already showing. */
     void setColor(Color c) {
+        if (!m_animated && c.equals(color))
+            return;
         color = c;
+        m_animated = false;
+        m_frames = Patterns.solid(length(), c);
+    }
+
+    /** Show an animation, with frames from Patterns. */
+    void setFrames(byte[][] frames) {
+        if (frames.length == 0)
+            throw new IllegalArgumentException("no frames");
+        m_animated = true;
+        m_frames = frames;
     }
 }
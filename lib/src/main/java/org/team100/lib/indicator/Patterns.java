@@ -1,49 +1,67 @@
 package org.team100.lib.indicator;
 
-import edu.wpi.first.wpilibj.AddressableLEDBuffer;
 import edu.wpi.first.wpilibj.util.Color;
 
+/**
+ * Precomputes animation frames for a strip.
+ *
+ * Each frame is packed 3 bytes per LED, red-green-blue, so playing a pattern
+ * is just copying bytes; the color math (e.g. HSV conversion) happens once,
+ * when the pattern is chosen.
+ */
 public class Patterns {
+    static final int kBytesPerLed = 3;
 
+    /** One frame. */
+    static byte[][] solid(int length, Color color) {
+        byte[] frame = new byte[length * kBytesPerLed];
+        for (int i = 0; i < length; ++i) {
+            set(frame, i, color);
+        }
+        return new byte[][] { frame };
+    }
 
     /**
-     * work-in-progress
+     * The hue moves 3 steps (of 180) per frame, so there are 60 frames.
      */
-    static void rainbow(LEDStrip strip, AddressableLEDBuffer buffer) {
-        int m_rainbowFirstPixelHue = 0;
-        // For every pixel
-        for (var i = strip.start(); i < strip.end(); i++) {
-            // Calculate the hue - hue is easier for rainbows because the color
-            // shape is a circle so only one value needs to precess
-            final var hue = (m_rainbowFirstPixelHue + (i * 180 / buffer.getLength())) % 180;
-            // Set the value
-            buffer.setHSV(i, hue, 255, 128);
+    static byte[][] rainbow(int length) {
+        int step = 3;
+        byte[][] frames = new byte[180 / step][length * kBytesPerLed];
+        for (int k = 0; k < frames.length; ++k) {
+            for (int i = 0; i < length; ++i) {
+                // hue is easier for rainbows because the color
+                // shape is a circle so only one value needs to precess
+                int hue = (k * step + (i * 180 / length)) % 180;
+                set(frames[k], i, Color.fromHSV(hue, 255, 128));
+            }
         }
-        // Increase by to make the rainbow "move"
-        m_rainbowFirstPixelHue += 3;
-        // Check bounds
-        m_rainbowFirstPixelHue %= 180;
+        return frames;
     }
 
     /**
-     * work-in-progress
+     * Bands of the given colors, each band the given width, moving one LED per
+     * frame, so the cycle is the sum of the band widths.
      */
-    static void chase(Color[] colors, LEDStrip strip, AddressableLEDBuffer buffer) {
-        int numberOfColors = colors.length;
-        int effectiveIndex;
-        int colorIndex;
-        int offset = 0;
-        int bufferLength = buffer.getLength();
-        int segmentWidth = 0;
-
-        for (int index = 0; index < bufferLength; index++) {
-            effectiveIndex = (index + offset) % bufferLength;
-            colorIndex = (index / segmentWidth) % numberOfColors;
-            buffer.setLED(effectiveIndex, colors[colorIndex]);
+    static byte[][] chase(int length, Color[] colors, int width) {
+        if (colors.length == 0)
+            throw new IllegalArgumentException("no colors");
+        if (width < 1)
+            throw new IllegalArgumentException("width must be positive");
+        int cycle = colors.length * width;
+        byte[][] frames = new byte[cycle][length * kBytesPerLed];
+        for (int k = 0; k < cycle; ++k) {
+            for (int i = 0; i < length; ++i) {
+                int colorIndex = Math.floorMod(i - k, cycle) / width;
+                set(frames[k], i, colors[colorIndex]);
+            }
         }
+        return frames;
+    }
 
-        offset = (offset + 1) % bufferLength;
-
+    static void set(byte[] frame, int index, Color color) {
+        frame[index * kBytesPerLed] = (byte) (color.red * 255);
+        frame[index * kBytesPerLed + 1] = (byte) (color.green * 255);
+        frame[index * kBytesPerLed + 2] = (byte) (color.blue * 255);
     }
 
     private Patterns() {
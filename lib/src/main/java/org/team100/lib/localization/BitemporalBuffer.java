@@ -0,0 +1,370 @@
+package org.team100.lib.localization;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bitemporal Buffer
+ *
+ * Implements the Temporal Database concepts of "valid time" and "record
+ * time" for point-in-time measurements. Valid time represents the real-world
+ * instant that an item refers to. Record time represents the instant that
+ * a data record was added to the buffer. Consumers are expected to use
+ * record time to fetch new data, which might refer to valid times
+ * arbitrarily long ago.
+ *
+ * An observer (e.g. pose estimation fusing odometry and vision with various
+ * latencies) makes periodic state updates by consuming measurements, and when
+ * out-of-sequence measurements are discovered, "rolls back" to a state earlier
+ * than the earliest new measurement, and reapplies all the updates since then.
+ *
+ * This is the production version of the buffer in the sway study. Instead of
+ * two skip-list maps of entry objects, it's a fixed-capacity ring of primitive
+ * keys in record order, with a secondary index of ring slots sorted by valid
+ * time, so put() doesn't allocate and the cost per loop is bounded. When the
+ * ring is full, the oldest record is evicted.
+ *
+ * It also keeps a running watermark of the earliest valid time put since the
+ * last call to takeEarliestUnseenValidTime(), so the observer can find the
+ * replay start point without scanning.
+ *
+ * Keys are unique: record times must increase, so a record time not greater
+ * than the previous one is bumped by one microsecond, and a duplicate valid
+ * time is bumped to the next double.
+ *
+ * Threading: there must be only one writer thread (calling put() and
+ * clear()). Readers on any thread take no locks: the writer brackets each
+ * update with a version counter (a "seqlock"), and readers retry if the
+ * version changed while they were reading. The watermark is an atomic, so
+ * one consumer may take it from any thread.
+ *
+ * https://en.wikipedia.org/wiki/Temporal_database
+ * https://en.wikipedia.org/wiki/Seqlock
+ */
+public class BitemporalBuffer<V> {
+    /** The earliest valid time of nothing. */
+    public static final double kNone = Double.POSITIVE_INFINITY;
+    private static final long kNoWatermark = Double.doubleToLongBits(kNone);
+
+    private final int m_capacity;
+    // ring, indexed by slot, in record order
+    private final long[] m_recordTime;
+    private final double[] m_validTime;
+    private final Object[] m_value;
+    /** Slots sorted by valid time, the first m_size are live. */
+    private final int[] m_byValid;
+    /** Earliest valid time put since the last take, as double bits. */
+    private final AtomicLong m_watermark;
+
+    /** Odd while the writer is writing. */
+    private volatile int m_version;
+    /** Next slot to write. */
+    private int m_head;
+    private int m_size;
+
+    public BitemporalBuffer(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be positive");
+        m_capacity = capacity;
+        m_recordTime = new long[capacity];
+        m_validTime = new double[capacity];
+        m_value = new Object[capacity];
+        m_byValid = new int[capacity];
+        m_watermark = new AtomicLong(kNoWatermark);
+    }
+
+    /**
+     * Store a measurement. Call only from the writer thread.
+     *
+     * @param recordTime represents the system time the value was written, expected
+     *                   to be FPGATime.
+     * @param validTime  represents the real-world time the value describes, in
+     *                   seconds.
+     * @param value      value to store
+     */
+    public void put(long recordTime, double validTime, V value) {
+        beginWrite();
+        if (m_size == m_capacity) {
+            // evict the oldest record
+            int oldest = m_head;
+            // valid times are unique, so this finds exactly the oldest
+            removeFromIndex(lowerBound(m_validTime[oldest]));
+            m_value[oldest] = null;
+            m_size--;
+        }
+        if (m_size > 0) {
+            long last = m_recordTime[slot(m_size - 1)];
+            if (recordTime <= last)
+                recordTime = last + 1; // add one microsecond
+        }
+        int pos = lowerBound(validTime);
+        while (pos < m_size && m_validTime[m_byValid[pos]] == validTime) {
+            validTime = Math.nextUp(validTime); // add smallest possible double
+            pos++;
+        }
+        int s = m_head;
+        m_recordTime[s] = recordTime;
+        m_validTime[s] = validTime;
+        m_value[s] = value;
+        System.arraycopy(m_byValid, pos, m_byValid, pos + 1, m_size - pos);
+        m_byValid[pos] = s;
+        m_head = (m_head + 1) % m_capacity;
+        m_size++;
+        endWrite();
+        lowerWatermark(validTime);
+    }
+
+    /** Forget everything. Call only from the writer thread. */
+    public void clear() {
+        beginWrite();
+        for (int i = 0; i < m_capacity; ++i) {
+            m_value[i] = null;
+        }
+        m_head = 0;
+        m_size = 0;
+        endWrite();
+        m_watermark.set(kNoWatermark);
+    }
+
+    public int size() {
+        return m_size;
+    }
+
+    public int capacity() {
+        return m_capacity;
+    }
+
+    /**
+     * The earliest valid time of anything put since the last call, or kNone
+     * if nothing has been put since then. This is where the consumer should
+     * start replaying. O(1).
+     *
+     * Only one consumer should use this, since it resets the watermark.
+     */
+    public double takeEarliestUnseenValidTime() {
+        return Double.longBitsToDouble(m_watermark.getAndSet(kNoWatermark));
+    }
+
+    /**
+     * The earliest valid time of records at or after the record time, or kNone
+     * if there are none. This works for any number of
+     * consumers, but it scans the records after the record time.
+     */
+    public double earliestValidTimeForRecordsAfter(long recordTime) {
+        while (true) {
+            int version = beginRead();
+            int size = Math.min(m_size, m_capacity);
+            double earliest = kNone;
+            for (int i = recordLowerBound(recordTime, size); i < size; ++i) {
+                earliest = Math.min(earliest, m_validTime[slot(i, size)]);
+            }
+            if (endRead(version))
+                return earliest;
+        }
+    }
+
+    /**
+     * The value with the greatest valid time less than or equal to the valid
+     * time, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public V floorValue(double validTime) {
+        while (true) {
+            int version = beginRead();
+            int pos = floorIndex(validTime);
+            Object value = pos < 0 ? null : m_value[m_byValid[pos]];
+            if (endRead(version))
+                return (V) value;
+        }
+    }
+
+    /**
+     * The greatest valid time less than or equal to the valid time, or NaN if
+     * there is none.
+     */
+    public double floorValidTime(double validTime) {
+        while (true) {
+            int version = beginRead();
+            int pos = floorIndex(validTime);
+            double result = pos < 0 ? Double.NaN : m_validTime[m_byValid[pos]];
+            if (endRead(version))
+                return result;
+        }
+    }
+
+    /**
+     * Fill the slice with the entries at or after the valid time, in valid time
+     * order.
+     */
+    public void validTail(double validTime, Slice<V> result) {
+        while (true) {
+            int version = beginRead();
+            int size = Math.min(m_size, m_capacity);
+            int n = 0;
+            for (int pos = lowerBound(validTime, size); pos < size; ++pos) {
+                result.set(n++, m_byValid[pos], this);
+            }
+            result.m_size = n;
+            if (endRead(version))
+                return;
+        }
+    }
+
+    /**
+     * Fill the slice with the entries at or after the record time, in record
+     * time order.
+     */
+    public void recordTail(long recordTime, Slice<V> result) {
+        while (true) {
+            int version = beginRead();
+            int size = Math.min(m_size, m_capacity);
+            int n = 0;
+            for (int i = recordLowerBound(recordTime, size); i < size; ++i) {
+                result.set(n++, slot(i, size), this);
+            }
+            result.m_size = n;
+            if (endRead(version))
+                return;
+        }
+    }
+
+    /** A result large enough for any query on this buffer. */
+    public Slice<V> newSlice() {
+        return new Slice<>(m_capacity);
+    }
+
+    /**
+     * Reusable query result, so readers don't allocate. Each reader thread
+     * should have its own.
+     */
+    public static class Slice<V> {
+        private final long[] m_recordTime;
+        private final double[] m_validTime;
+        private final Object[] m_value;
+        private int m_size;
+
+        public Slice(int capacity) {
+            m_recordTime = new long[capacity];
+            m_validTime = new double[capacity];
+            m_value = new Object[capacity];
+        }
+
+        public int size() {
+            return m_size;
+        }
+
+        public long recordTime(int i) {
+            return m_recordTime[i];
+        }
+
+        public double validTime(int i) {
+            return m_validTime[i];
+        }
+
+        @SuppressWarnings("unchecked")
+        public V value(int i) {
+            return (V) m_value[i];
+        }
+
+        private void set(int i, int slot, BitemporalBuffer<V> buffer) {
+            m_recordTime[i] = buffer.m_recordTime[slot];
+            m_validTime[i] = buffer.m_validTime[slot];
+            m_value[i] = buffer.m_value[slot];
+        }
+    }
+
+    ///////////////////////////////////////////////////////////
+
+    private void beginWrite() {
+        m_version++;
+        // keep the data writes after the odd version
+        VarHandle.storeStoreFence();
+    }
+
+    private void endWrite() {
+        m_version++;
+    }
+
+    /** Waits for the writer to finish, returns the version. */
+    private int beginRead() {
+        while (true) {
+            int version = m_version;
+            if ((version & 1) == 0)
+                return version;
+            Thread.onSpinWait();
+        }
+    }
+
+    /** True if nothing was written since beginRead(). */
+    private boolean endRead(int version) {
+        // keep the data reads before the version check
+        VarHandle.loadLoadFence();
+        return m_version == version;
+    }
+
+    private void lowerWatermark(double validTime) {
+        m_watermark.accumulateAndGet(
+                Double.doubleToLongBits(validTime),
+                (a, b) -> Double.longBitsToDouble(a) <= Double.longBitsToDouble(b) ? a : b);
+    }
+
+    /** Ring slot for the i-th oldest record. */
+    private int slot(int i) {
+        return slot(i, m_size);
+    }
+
+    private int slot(int i, int size) {
+        return Math.floorMod(m_head - size + i, m_capacity);
+    }
+
+    private void removeFromIndex(int pos) {
+        System.arraycopy(m_byValid, pos + 1, m_byValid, pos, m_size - pos - 1);
+    }
+
+    private int lowerBound(double validTime) {
+        return lowerBound(validTime, m_size);
+    }
+
+    /** First index position with valid time >= the valid time. */
+    private int lowerBound(double validTime, int size) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (m_validTime[m_byValid[mid]] < validTime)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    /** Last index position with valid time <= the valid time, or -1. */
+    private int floorIndex(double validTime) {
+        int size = Math.min(m_size, m_capacity);
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (m_validTime[m_byValid[mid]] <= validTime)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo - 1;
+    }
+
+    /** First ring position (0 = oldest) with record time >= the record time. */
+    private int recordLowerBound(long recordTime, int size) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (m_recordTime[slot(mid, size)] < recordTime)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+}
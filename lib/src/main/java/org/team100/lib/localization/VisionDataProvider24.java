@@ -12,6 +12,8 @@ import org.team100.lib.geometry.GeometryUtil;
 import org.team100.lib.logging.Level;
 import org.team100.lib.logging.LoggerFactory;
 import org.team100.lib.logging.LoggerFactory.EnumLogger;
+import org.team100.lib.replay.SensorReplay;
+import org.team100.lib.replay.VisionSample;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Pose3d;
@@ -117,6 +119,14 @@ public class VisionDataProvider24 implements VisionData, Glassy {
     }
 
     public void update() {
+        if (SensorReplay.replaying()) {
+            for (VisionSample sample : SensorReplay.vision()) {
+                String[] fields = sample.topic().split("/");
+                if (!blips(fields[1], sample.raw(), sample.serverTimeUs()))
+                    return;
+            }
+            return;
+        }
         NetworkTableEvent[] events = m_poller.readQueue();
         for (NetworkTableEvent e : events) {
             ValueEventData ve = e.valueData;
@@ -131,31 +141,10 @@ public class VisionDataProvider24 implements VisionData, Glassy {
             } else if (fields[2].equals("latency")) {
                 // latency is not used by the robot
             } else if (fields[3].equals("blips")) {
-                // decode the way StructArrayEntryImpl does
                 byte[] b = v.getRaw();
-                if (b.length == 0)
-                    return;
-                Blip24[] blips;
-                try {
-                    synchronized (m_buf) {
-                        blips = m_buf.readArray(b);
-                    }
-                } catch (RuntimeException ex) {
-                    return;
-                }
-                // the ID of the camera
-                String cameraSerialNumber = fields[1];
-
-                Optional<Alliance> alliance = DriverStation.getAlliance();
-                if (!alliance.isPresent())
+                SensorReplay.recordVision(name, v.getServerTime(), b);
+                if (!blips(fields[1], b, v.getServerTime()))
                     return;
-
-                double blipTimeSec = v.getServerTime() / 1000000.0;
-                estimateRobotPose(
-                        cameraSerialNumber,
-                        blips,
-                        blipTimeSec,
-                        alliance.get());
             } else {
                 // this event is not for us
                 // Util.println("weird vision update key: " + name);
@@ -163,6 +152,38 @@ public class VisionDataProvider24 implements VisionData, Glassy {
         }
     }
 
+    /**
+     * @param cameraSerialNumber the camera identity, obtained from proc/cpuinfo
+     * @param b                  struct-array payload
+     * @param serverTimeUs       NT server time of the payload
+     * @return false if the rest of the update should be skipped
+     */
+    private boolean blips(String cameraSerialNumber, byte[] b, long serverTimeUs) {
+        // decode the way StructArrayEntryImpl does
+        if (b.length == 0)
+            return false;
+        Blip24[] blips;
+        try {
+            synchronized (m_buf) {
+                blips = m_buf.readArray(b);
+            }
+        } catch (RuntimeException ex) {
+            return false;
+        }
+
+        Optional<Alliance> alliance = DriverStation.getAlliance();
+        if (!alliance.isPresent())
+            return false;
+
+        double blipTimeSec = serverTimeUs / 1000000.0;
+        estimateRobotPose(
+                cameraSerialNumber,
+                blips,
+                blipTimeSec,
+                alliance.get());
+        return true;
+    }
+
     /**
      * @param estimateConsumer   is the pose estimator but exposing it here makes it
      *                           easier to test.
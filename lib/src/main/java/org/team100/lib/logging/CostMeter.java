@@ -0,0 +1,98 @@
+package org.team100.lib.logging;
+
+import java.lang.management.ManagementFactory;
+
+import org.team100.lib.logging.LoggerFactory.DoubleLogger;
+import org.team100.lib.logging.LoggerFactory.LongLogger;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Measures the CPU time and heap allocation of some work on the current
+ * thread, and logs them.
+ *
+ * This uses the HotSpot thread counters, which are cheap to read: allocation
+ * comes from the thread's allocation buffer bookkeeping, and CPU time is one
+ * clock_gettime() call. If the JVM doesn't support them, the measurements are
+ * zero.
+ *
+ * Not thread-safe: begin() and end() should be called on the thread doing the
+ * work.
+ */
+public class CostMeter {
+    private static final ThreadMXBean kThreads = threads();
+    private static final boolean kAllocSupported = kThreads != null
+            && kThreads.isThreadAllocatedMemorySupported();
+    private static final boolean kCpuSupported = kThreads != null
+            && kThreads.isCurrentThreadCpuTimeSupported();
+
+    private final LongLogger m_log_alloc;
+    private final DoubleLogger m_log_cpu;
+
+    private long m_startAlloc;
+    private long m_startCpu;
+    private long m_alloc;
+    private long m_cpu;
+
+    /**
+     * @param name appended to the keys, like TimedRobot100 callback durations.
+     */
+    public CostMeter(LoggerFactory parent, Level level, String name) {
+        m_log_alloc = parent.longLogger(level, "alloc (B)/" + name);
+        m_log_cpu = parent.doubleLogger(level, "cpu (s)/" + name);
+    }
+
+    public void begin() {
+        m_startAlloc = allocatedBytes();
+        m_startCpu = cpuNanos();
+    }
+
+    /** Finish the measurement started by begin(), and log it. */
+    public void end() {
+        record(allocatedBytes() - m_startAlloc, cpuNanos() - m_startCpu);
+    }
+
+    /** Log a measurement made some other way, e.g. by differencing. */
+    public void record(long allocBytes, long cpuNanos) {
+        m_alloc = allocBytes;
+        m_cpu = cpuNanos;
+        m_log_alloc.log(() -> m_alloc);
+        m_log_cpu.log(() -> m_cpu * 1e-9);
+    }
+
+    /** Bytes allocated in the most recent measurement. */
+    public long alloc() {
+        return m_alloc;
+    }
+
+    /** CPU time of the most recent measurement, nanoseconds. */
+    public long cpu() {
+        return m_cpu;
+    }
+
+    /** Total bytes ever allocated by the current thread. */
+    public static long allocatedBytes() {
+        if (!kAllocSupported)
+            return 0;
+        return kThreads.getCurrentThreadAllocatedBytes();
+    }
+
+    /** Total CPU time used by the current thread, nanoseconds. */
+    public static long cpuNanos() {
+        if (!kCpuSupported)
+            return 0;
+        return kThreads.getCurrentThreadCpuTime();
+    }
+
+    private static ThreadMXBean threads() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof ThreadMXBean))
+            return null;
+        ThreadMXBean threads = (ThreadMXBean) bean;
+        if (threads.isThreadAllocatedMemorySupported())
+            threads.setThreadAllocatedMemoryEnabled(true);
+        if (threads.isCurrentThreadCpuTimeSupported())
+            threads.setThreadCpuTimeEnabled(true);
+        return threads;
+    }
+}
@@ -0,0 +1,67 @@
+package org.team100.lib.logging;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Counts garbage collections as the JVM reports them.
+ *
+ * Polling the collector beans (as JvmLogger used to) only sees the counters
+ * change if you look at the right moment; instead this registers a JMX
+ * listener on each collector, which is called once per collection, on a JMX
+ * notification thread, shortly after the collection finishes.
+ *
+ * The duration is the pause time for the stop-the-world collectors we use on
+ * the RoboRIO; for concurrent collectors it's the length of the whole cycle.
+ *
+ * Clients sample the running totals before and after some work to see what
+ * happened in between.
+ */
+public final class GcListener {
+    private static final AtomicLong s_count = new AtomicLong();
+    private static final AtomicLong s_durationMs = new AtomicLong();
+    private static volatile String s_lastCause = "";
+
+    static {
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (bean instanceof NotificationEmitter emitter)
+                emitter.addNotificationListener(GcListener::handle, null, null);
+        }
+    }
+
+    /** Collections so far. */
+    public static long count() {
+        return s_count.get();
+    }
+
+    /** Total collection duration so far, milliseconds. */
+    public static long durationMs() {
+        return s_durationMs.get();
+    }
+
+    /** Collector name and cause of the most recent collection. */
+    public static String lastCause() {
+        return s_lastCause;
+    }
+
+    private static void handle(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType()))
+            return;
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from(
+                (CompositeData) notification.getUserData());
+        s_durationMs.addAndGet(info.getGcInfo().getDuration());
+        s_count.incrementAndGet();
+        s_lastCause = info.getGcName() + ": " + info.getGcCause();
+    }
+
+    private GcListener() {
+        //
+    }
+}
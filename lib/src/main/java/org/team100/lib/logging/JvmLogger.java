@@ -1,62 +1,58 @@
 package org.team100.lib.logging;
 
-import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.MemoryPoolMXBean;
 import java.lang.management.MemoryUsage;
-import java.util.HashMap;
-import java.util.Map;
 
 import org.team100.lib.dashboard.Glassy;
 import org.team100.lib.logging.LoggerFactory.LongLogger;
+import org.team100.lib.logging.LoggerFactory.StringLogger;
 
 /**
  * Logs stuff about the JVM. Inspired by Advantage Kit's
  * LoggedRobot.GcStatsCollector().
  */
 public class JvmLogger implements Glassy {
-    private final Map<String, Long> times;
-    private final Map<String, Long> counts;
+    private long m_gcCount;
+    private long m_gcDurationMs;
     // LOGGERS
     private final LongLogger m_log_heap;
     private final LongLogger m_log_nonheap;
     private final LongLogger m_log_memory_total;
     private final LongLogger m_log_gc_time;
     private final LongLogger m_log_gc_count;
+    private final StringLogger m_log_gc_cause;
 
     public JvmLogger(LoggerFactory parent) {
         LoggerFactory child = parent.child(this);
-        times = new HashMap<>();
-        counts = new HashMap<>();
+        m_gcCount = GcListener.count();
+        m_gcDurationMs = GcListener.durationMs();
         m_log_heap = child.longLogger(Level.DEBUG, "MemoryUsage/heap");
         m_log_nonheap = child.longLogger(Level.TRACE, "MemoryUsage/non-heap");
         m_log_memory_total = child.longLogger(Level.DEBUG, "MemoryPool/total");
         m_log_gc_time = child.longLogger(Level.TRACE, "GCTimeMS/total");
         m_log_gc_count = child.longLogger(Level.TRACE, "GCCounts/total");
+        m_log_gc_cause = child.stringLogger(Level.TRACE, "GCCause/last");
     }
 
-    /** This doesn't seem to ever log anything. */
+    /**
+     * Logs the collections reported by GcListener since the previous call, so
+     * call this once per loop to see which loop each pause landed in. The
+     * listener is notified just after each collection finishes, so a pause may
+     * show up one loop late.
+     */
     public void logGarbageCollectors() {
-        long accumTime = 0;
-        long accumCount = 0;
-        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
-            String pool = bean.getName();
-            times.computeIfAbsent(pool, x -> 0l);
-            counts.computeIfAbsent(pool, x -> 0l);
-            long collectionTime = bean.getCollectionTime();
-            long collectionCount = bean.getCollectionCount();
-            long thisTime = collectionTime - times.get(pool);
-            long thisCount = collectionCount - counts.get(pool);
-            times.put(pool, collectionTime);
-            counts.put(pool, collectionCount);
-            accumTime += thisTime;
-            accumCount += thisCount;
-        }
-        long finalAccumTime = accumTime;
-        long finalAccumCount = accumCount;
-        m_log_gc_time.log(() -> finalAccumTime);
-        m_log_gc_count.log(() -> finalAccumCount);
+        long count = GcListener.count();
+        long durationMs = GcListener.durationMs();
+        long thisCount = count - m_gcCount;
+        long thisTime = durationMs - m_gcDurationMs;
+        m_gcCount = count;
+        m_gcDurationMs = durationMs;
+        m_log_gc_time.log(() -> thisTime);
+        m_log_gc_count.log(() -> thisCount);
+        if (thisCount > 0)
+            m_log_gc_cause.log(GcListener::lastCause);
     }
 
     public void logMemoryPools() {
@@ -74,6 +70,4 @@ public class JvmLogger implements Glassy {
         m_log_heap.log(() -> bean.getHeapMemoryUsage().getUsed());
         m_log_nonheap.log(() -> bean.getNonHeapMemoryUsage().getUsed());
     }
-
-
 }
@@ -20,7 +20,7 @@ public enum Level {
      */
     TRACE(3);
 
-    private int priority;
+    private final int priority;
 
     private Level(int priority) {
         this.priority = priority;
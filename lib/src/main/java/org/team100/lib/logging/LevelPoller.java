@@ -7,7 +7,11 @@ import org.team100.lib.async.Async;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 
-/** Asynchronously looks for updates in log level. */
+/**
+ * Pushes updates in log level to the consumer, as soon as the chooser changes,
+ * and also asynchronously, in case a change is missed, so that the loggers
+ * never need to read the chooser themselves.
+ */
 public class LevelPoller {
     private final SendableChooser<Level> m_levelChooser;
     private final Consumer<Level> m_consumer;
@@ -20,6 +24,7 @@ public class LevelPoller {
         }
         m_levelChooser.setDefaultOption(defaultLevel.name(), defaultLevel);
         SmartDashboard.putData(m_levelChooser);
+        m_levelChooser.onChange(x -> updateLevel());
         updateLevel();
         async.addPeriodic(this::updateLevel, 1, "Logging");
     }
@@ -0,0 +1,87 @@
+package org.team100.lib.logging;
+
+/**
+ * Lowers the effective log level when the sink falls behind, and restores it
+ * when the sink catches up, so that TRACE and DEBUG keys are the first to go,
+ * and COMP keys are never dropped.
+ * 
+ * The sink is behind if it has dropped anything since the last window, or if
+ * it sent more than the byte budget during the window. Each window that finds
+ * the sink behind lowers the ceiling by one level; the ceiling goes back up
+ * one level after several calm windows in a row.
+ */
+public class LogBudget {
+    /** Bytes are counted over at least this long. */
+    private static final double kWindowS = 0.5;
+    /** Calm windows required before raising the ceiling. */
+    private static final int kRecoveryWindows = 10;
+
+    private final double m_bytesPerSec;
+    private Level m_ceiling;
+    private long m_dropped;
+    private long m_bytes;
+    private double m_timeS;
+    private int m_calm;
+
+    /** @param bytesPerSec the sink is behind if it's sending more than this. */
+    public LogBudget(double bytesPerSec) {
+        if (bytesPerSec <= 0)
+            throw new IllegalArgumentException("budget must be positive");
+        m_bytesPerSec = bytesPerSec;
+        m_ceiling = Level.TRACE;
+        m_timeS = Double.NaN;
+    }
+
+    /**
+     * @param dropped total writes the sink couldn't complete
+     * @param bytes   total bytes sent
+     * @param timeS   now, seconds
+     * @return true if the ceiling changed
+     */
+    public boolean update(long dropped, long bytes, double timeS) {
+        if (Double.isNaN(m_timeS)) {
+            reset(dropped, bytes, timeS);
+            return false;
+        }
+        double dt = timeS - m_timeS;
+        boolean dropping = dropped > m_dropped;
+        // the sink sends in bursts, so measure the rate over a window.
+        if (!dropping && dt < kWindowS)
+            return false;
+        boolean behind = dropping || bytes - m_bytes > m_bytesPerSec * dt;
+        reset(dropped, bytes, timeS);
+        Level previous = m_ceiling;
+        if (behind) {
+            m_calm = 0;
+            m_ceiling = step(m_ceiling, -1);
+        } else if (++m_calm >= kRecoveryWindows) {
+            m_calm = 0;
+            m_ceiling = step(m_ceiling, 1);
+        }
+        return m_ceiling != previous;
+    }
+
+    /** The highest level allowed right now. */
+    public Level ceiling() {
+        return m_ceiling;
+    }
+
+    /** The requested level, or the ceiling, whichever is lower. */
+    public Level limit(Level requested) {
+        if (requested.admit(m_ceiling))
+            return m_ceiling;
+        return requested;
+    }
+
+    private void reset(long dropped, long bytes, double timeS) {
+        m_dropped = dropped;
+        m_bytes = bytes;
+        m_timeS = timeS;
+    }
+
+    private static Level step(Level level, int direction) {
+        Level[] levels = Level.values();
+        int i = Math.max(0, Math.min(levels.length - 1, level.ordinal() + direction));
+        return levels[i];
+    }
+}
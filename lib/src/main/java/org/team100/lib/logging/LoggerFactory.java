@@ -9,6 +9,7 @@ import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 import org.team100.lib.dashboard.Glassy;
+import org.team100.lib.framework.TimedRobot100;
 import org.team100.lib.geometry.Pose2dWithMotion;
 import org.team100.lib.geometry.Vector2d;
 import org.team100.lib.localization.Blip24;
@@ -32,6 +33,8 @@ import edu.wpi.first.math.geometry.Twist2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.spline.PoseWithCurvature;
 import edu.wpi.first.math.trajectory.Trajectory.State;
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.wpilibj.RobotController;
 
 /**
  * This is the logger factory class.
@@ -47,21 +50,40 @@ import edu.wpi.first.math.trajectory.Trajectory.State;
  * container keep the root reference.
  * 
  * Don't use slashes in names, it confuses Glass.
+ * 
+ * Slow-changing values (temperatures, currents, IDs) don't need to be logged
+ * every cycle: use rate() to get a factory whose loggers log at most at the
+ * given rate, and skip the supplier entirely in between.
  */
 public class LoggerFactory {
     private final Supplier<Level> m_level;
     private final String m_root;
     private final PrimitiveLogger m_pLogger;
+    /** Minimum time between logs, zero means every call. */
+    private final long m_periodUs;
 
+    /**
+     * @param level read on every log call, so it should be cheap, e.g. a field
+     *              updated by LevelPoller, never the chooser itself.
+     */
     public LoggerFactory(
             Supplier<Level> level,
             String root,
             PrimitiveLogger primitiveLogger) {
+        this(level, root, primitiveLogger, 0);
+    }
+
+    private LoggerFactory(
+            Supplier<Level> level,
+            String root,
+            PrimitiveLogger primitiveLogger,
+            long periodUs) {
         if (root.startsWith("/"))
             throw new IllegalArgumentException("don't lead with a slash");
         m_level = level;
         m_root = root;
         m_pLogger = primitiveLogger;
+        m_periodUs = periodUs;
     }
 
     /**
@@ -71,7 +93,7 @@ public class LoggerFactory {
      * Each child level is separated by slashes, to make a tree in glass.
      */
     public LoggerFactory child(String stem) {
-        return new LoggerFactory(m_level, m_root + "/" + stem, m_pLogger);
+        return new LoggerFactory(m_level, m_root + "/" + stem, m_pLogger, m_periodUs);
     }
 
     /**
@@ -83,6 +105,49 @@ public class LoggerFactory {
         return child(obj.getGlassName());
     }
 
+    /**
+     * Use this to create loggers that log at most at the given rate; this
+     * factory's children inherit the rate. The keys are the same as this
+     * factory's.
+     * 
+     * @param hz target rate, which is only useful below the loop rate.
+     */
+    public LoggerFactory rate(double hz) {
+        if (hz <= 0)
+            throw new IllegalArgumentException("rate must be positive");
+        return new LoggerFactory(m_level, m_root, m_pLogger, (long) (1e6 / hz));
+    }
+
+    /**
+     * Each logger has one of these, to check the level, and, if there's a rate,
+     * the time since the last log.
+     */
+    private class Gate {
+        /**
+         * Loggers run in the main loop, so the calls are quantized, and jittery;
+         * without slack, a 1 hz logger would log every 51 cycles, not 50.
+         */
+        private static final long kSlackUs = (long) (TimedRobot100.LOOP_PERIOD_S * 1e6 / 2);
+        private final Level m_gateLevel;
+        private long m_nextUs;
+
+        Gate(Level level) {
+            m_gateLevel = level;
+        }
+
+        boolean allow() {
+            if (!LoggerFactory.this.allow(m_gateLevel))
+                return false;
+            if (m_periodUs == 0)
+                return true;
+            long nowUs = RobotController.getFPGATime();
+            if (nowUs < m_nextUs)
+                return false;
+            m_nextUs = nowUs + m_periodUs - kSlackUs;
+            return true;
+        }
+    }
+
     private boolean allow(Level level) {
         Level allowed = m_level.get();
         if (allowed == Level.COMP && level == Level.COMP) {
@@ -108,16 +173,16 @@ public class LoggerFactory {
     //
 
     public class BooleanLogger {
-        private final Level m_level;
+        private final Gate m_gate;
         private final PrimitiveLogger.PrimitiveBooleanLogger m_primitiveLogger;
 
         BooleanLogger(Level level, String leaf) {
-            m_level = level;
+            m_gate = new Gate(level);
             m_primitiveLogger = m_pLogger.booleanLogger(root(leaf));
         }
 
         public void log(BooleanSupplier vals) {
-            if (!allow(m_level))
+            if (!m_gate.allow())
                 return;
             boolean val = vals.getAsBoolean();
             m_primitiveLogger.log(val);
@@ -129,23 +194,23 @@ public class LoggerFactory {
     }
 
     public class DoubleLogger {
-        private final Level m_level;
+        private final Gate m_gate;
         private final PrimitiveLogger.PrimitiveDoubleLogger m_primitiveLogger;
 
         DoubleLogger(Level level, String leaf) {
-            m_level = level;
+            m_gate = new Gate(level);
             m_primitiveLogger = m_pLogger.doubleLogger(root(leaf));
         }
 
         public void log(DoubleSupplier vals) {
-            if (!allow(m_level))
+            if (!m_gate.allow())
                 return;
             double val = vals.getAsDouble();
             m_primitiveLogger.log(val);
         }
 
         public void log(Supplier<Double> vals) {
-            if (!allow(m_level))
+            if (!m_gate.allow())
                 return;
             double val = vals.get();
             m_primitiveLogger.log(val);
@@ -157,16 +222,16 @@ public class LoggerFactory {
     }
 
     public class IntLogger {
-        private final Level m_level;
+        private final Gate m_gate;
         private final PrimitiveLogger.PrimitiveIntLogger m_primitiveLogger;
 
         IntLogger(Level level, String leaf) {
-            m_level = level;
+            m_gate = new Gate(level);
             m_primitiveLogger = m_pLogger.intLogger(root(leaf));
         }
 
         public void log(IntSupplier vals) {
-            if (!allow(m_level))
+            if (!m_gate.allow())
                 return;
             int val = vals.getAsInt();
             m_primitiveLogger.log(val);
@@ -178,16 +243,16 @@ public class LoggerFactory {
     }
 
     public class DoubleArrayLogger {
-        private final Level m_level;
+        private final Gate m_gate;
         private final PrimitiveLogger.PrimitiveDoubleArrayLogger m_primitiveLogger;
 
         DoubleArrayLogger(Level level, String leaf) {
-            m_level = level;
+            m_gate = new Gate(level);
             m_primitiveLogger = m_pLogger.doubleArrayLogger(root(leaf));
         }
 
         public void log(Supplier<double[]> vals) {
-            if (!allow(m_level))
+            if (!m_gate.allow())
                 return;
             double[] val = vals.get();
             m_primitiveLogger.log(val);
@@ -199,16 +264,16 @@ public class LoggerFactory {
     }
 
     public class LongLogger {
-        private final Level m_level;
+        private final Gate m_gate;
         private final PrimitiveLogger.PrimitiveLongLogger m_primitiveLogger;
 
         LongLogger(Level level, String leaf) {
-            m_level = level;
+            m_gate = new Gate(level);
             m_primitiveLogger = m_pLogger.longLogger(root(leaf));
         }
 
         public void log(LongSupplier vals) {
-            if (!allow(m_level))
+            if (!m_gate.allow())
                 return;
             long val = vals.getAsLong();
             m_primitiveLogger.log(val);
@@ -220,16 +285,16 @@ public class LoggerFactory {
     }
 
     public class StringLogger {
-        private final Level m_level;
+        private final Gate m_gate;
         private final PrimitiveLogger.PrimitiveStringLogger m_primitiveLogger;
 
         StringLogger(Level level, String leaf) {
-            m_level = level;
+            m_gate = new Gate(level);
             m_primitiveLogger = m_pLogger.stringLogger(root(leaf));
         }
 
         public void log(Supplier<String> vals) {
-            if (!allow(m_level))
+            if (!m_gate.allow())
                 return;
             String val = vals.get();
             m_primitiveLogger.log(val);
@@ -240,17 +305,42 @@ public class LoggerFactory {
         return new StringLogger(level, leaf);
     }
 
+    /**
+     * Logs the whole value as one packed entry, using WPILib Struct
+     * serialization, instead of a key per field.
+     */
+    public class StructLogger<T> {
+        private final Gate m_gate;
+        private final PrimitiveLogger.PrimitiveStructLogger<T> m_primitiveLogger;
+
+        StructLogger(Level level, String leaf, Struct<T> struct) {
+            m_gate = new Gate(level);
+            m_primitiveLogger = m_pLogger.structLogger(root(leaf), struct);
+        }
+
+        public void log(Supplier<T> vals) {
+            if (!m_gate.allow())
+                return;
+            T val = vals.get();
+            m_primitiveLogger.log(val);
+        }
+    }
+
+    public <T> StructLogger<T> structLogger(Level level, String leaf, Struct<T> struct) {
+        return new StructLogger<>(level, leaf, struct);
+    }
+
     public class OptionalDoubleLogger {
-        private final Level m_level;
+        private final Gate m_gate;
         private final PrimitiveLogger.PrimitiveDoubleLogger m_primitiveLogger;
 
         OptionalDoubleLogger(Level level, String leaf) {
-            m_level = level;
+            m_gate = new Gate(level);
             m_primitiveLogger = m_pLogger.doubleLogger(root(leaf));
         }
 
         public void log(Supplier<OptionalDouble> vals) {
-            if (!allow(m_level))
+            if (!m_gate.allow())
                 return;
             OptionalDouble val = vals.get();
             if (val.isPresent()) {
@@ -264,16 +354,16 @@ public class LoggerFactory {
     }
 
     public class EnumLogger {
-        private final Level m_level;
+        private final Gate m_gate;
         private final PrimitiveLogger.PrimitiveStringLogger m_primitiveLogger;
 
         EnumLogger(Level level, String leaf) {
-            m_level = level;
+            m_gate = new Gate(level);
             m_primitiveLogger = m_pLogger.stringLogger(root(leaf));
         }
 
         public void log(Supplier<Enum<?>> vals) {
-            if (!allow(m_level))
+            if (!m_gate.allow())
                 return;
             String val = vals.get().name();
             m_primitiveLogger.log(val);
@@ -284,23 +374,9 @@ public class LoggerFactory {
         return new EnumLogger(level, leaf);
     }
 
-    public class Pose2dLogger {
-        private final Level m_level;
-        private final Translation2dLogger m_translation2dLogger;
-        private final Rotation2dLogger m_rotation2dLogger;
-
+    public class Pose2dLogger extends StructLogger<Pose2d> {
         Pose2dLogger(Level level, String leaf) {
-            m_level = level;
-            m_translation2dLogger = translation2dLogger(level, join(leaf, "translation"));
-            m_rotation2dLogger = rotation2dLogger(level, join(leaf, "rotation"));
-        }
-
-        public void log(Supplier<Pose2d> vals) {
-            if (!allow(m_level))
-                return;
-            Pose2d val = vals.get();
-            m_translation2dLogger.log(val::getTranslation);
-            m_rotation2dLogger.log(val::getRotation);
+            super(level, leaf, Pose2d.struct);
         }
     }
 
@@ -308,23 +384,9 @@ public class LoggerFactory {
         return new Pose2dLogger(level, leaf);
     }
 
-    public class Transform3dLogger {
-        private final Level m_level;
-        private final Translation3dLogger m_translation3dLogger;
-        private final Rotation3dLogger m_rotation3dLogger;
-
+    public class Transform3dLogger extends StructLogger<Transform3d> {
         Transform3dLogger(Level level, String leaf) {
-            m_level = level;
-            m_translation3dLogger = translation3dLogger(level, join(leaf, "translation"));
-            m_rotation3dLogger = rotation3dLogger(level, join(leaf, "rotation"));
-        }
-
-        public void log(Supplier<Transform3d> vals) {
-            if (!allow(m_level))
-                return;
-            Transform3d val = vals.get();
-            m_translation3dLogger.log(val::getTranslation);
-            m_rotation3dLogger.log(val::getRotation);
+            super(level, leaf, Transform3d.struct);
         }
     }
 
@@ -332,26 +394,9 @@ public class LoggerFactory {
         return new Transform3dLogger(level, leaf);
     }
 
-    public class Translation3dLogger {
-        private final Level m_level;
-        private final DoubleLogger m_xLogger;
-        private final DoubleLogger m_yLogger;
-        private final DoubleLogger m_zLogger;
-
+    public class Translation3dLogger extends StructLogger<Translation3d> {
         Translation3dLogger(Level level, String leaf) {
-            m_level = level;
-            m_xLogger = doubleLogger(level, join(leaf, "x"));
-            m_yLogger = doubleLogger(level, join(leaf, "y"));
-            m_zLogger = doubleLogger(level, join(leaf, "z"));
-        }
-
-        public void log(Supplier<Translation3d> vals) {
-            if (!allow(m_level))
-                return;
-            Translation3d val = vals.get();
-            m_xLogger.log(val::getX);
-            m_yLogger.log(val::getY);
-            m_zLogger.log(val::getZ);
+            super(level, leaf, Translation3d.struct);
         }
     }
 
@@ -359,26 +404,9 @@ public class LoggerFactory {
         return new Translation3dLogger(level, leaf);
     }
 
-    public class Rotation3dLogger {
-        private final Level m_level;
-        private final DoubleLogger m_rollLogger;
-        private final DoubleLogger m_pitchLogger;
-        private final DoubleLogger m_yawLogger;
-
+    public class Rotation3dLogger extends StructLogger<Rotation3d> {
         Rotation3dLogger(Level level, String leaf) {
-            m_level = level;
-            m_rollLogger = doubleLogger(level, join(leaf, "roll"));
-            m_pitchLogger = doubleLogger(level, join(leaf, "pitch"));
-            m_yawLogger = doubleLogger(level, join(leaf, "yaw"));
-        }
-
-        public void log(Supplier<Rotation3d> vals) {
-            if (!allow(m_level))
-                return;
-            Rotation3d val = vals.get();
-            m_rollLogger.log(val::getX);
-            m_pitchLogger.log(val::getY);
-            m_yawLogger.log(val::getZ);
+            super(level, leaf, Rotation3d.struct);
         }
     }
 
@@ -386,23 +414,9 @@ public class LoggerFactory {
         return new Rotation3dLogger(level, leaf);
     }
 
-    public class Translation2dLogger {
-        private final Level m_level;
-        private final DoubleLogger m_xLogger;
-        private final DoubleLogger m_yLogger;
-
+    public class Translation2dLogger extends StructLogger<Translation2d> {
         Translation2dLogger(Level level, String leaf) {
-            m_level = level;
-            m_xLogger = doubleLogger(level, join(leaf, "x"));
-            m_yLogger = doubleLogger(level, join(leaf, "y"));
-        }
-
-        public void log(Supplier<Translation2d> vals) {
-            if (!allow(m_level))
-                return;
-            Translation2d val = vals.get();
-            m_xLogger.log(val::getX);
-            m_yLogger.log(val::getY);
+            super(level, leaf, Translation2d.struct);
         }
     }
 
@@ -411,18 +425,18 @@ public class LoggerFactory {
     }
 
     public class Vector2dLogger {
-        private final Level m_level;
+        private final Gate m_gate;
         private final DoubleLogger m_xLogger;
         private final DoubleLogger m_yLogger;
 
         Vector2dLogger(Level level, String leaf) {
-            m_level = level;
+            m_gate = new Gate(level);
             m_xLogger = doubleLogger(level, join(leaf, "x"));
             m_yLogger = doubleLogger(level, join(leaf, "y"));
         }
 
         public void log(Supplier<Vector2d> vals) {
-            if (!allow(m_level))
+            if (!m_gate.allow())
                 return;
             Vector2d val = vals.get();
             m_xLogger.log(val::getX);
@@ -434,20 +448,9 @@ public class LoggerFactory {
         return new Vector2dLogger(level, leaf);
     }
 
-    public class Rotation2dLogger {
-        private final Level m_level;
-        private final DoubleLogger m_radLogger;
-
+    public class Rotation2dLogger extends StructLogger<Rotation2d> {
         Rotation2dLogger(Level level, String leaf) {
-            m_level = level;
-            m_radLogger = doubleLogger(level, join(leaf, "rad"));
-        }
-
-        public void log(Supplier<Rotation2d> vals) {
-            if (!allow(m_level))
-                return;
-            Rotation2d val = vals.get();
-            m_radLogger.log(val::getRadians);
+            super(level, leaf, Rotation2d.struct);
         }
     }
 
@@ -456,16 +459,16 @@ public class LoggerFactory {
     }
 
     public class TrajectorySamplePointLogger {
-        private final Level m_level;
+        private final Gate m_gate;
         private final TimedPoseLogger m_timedPoseLogger;
 
         TrajectorySamplePointLogger(Level level, String leaf) {
-            m_level = level;
+            m_gate = new Gate(level);
             m_timedPoseLogger = timedPoseLogger(level, join(leaf, "state"));
         }
 
         public void log(Supplier<TrajectorySamplePoint> vals) {
-            if (!allow(m_level))
+            if (!m_gate.allow())
                 return;
             TrajectorySamplePoint val = vals.get();
             m_timedPoseLogger.log(val::state);
@@ -477,14 +480,14 @@ public class LoggerFactory {
     }
 
     public class TimedPoseLogger {
-        private final Level m_level;
+        private final Gate m_gate;
         private final Pose2dWithMotionLogger m_pose2dWithMotionLogger;
         private final DoubleLogger m_timeLogger;
         private final DoubleLogger m_velocityLogger;
         private final DoubleLogger m_accelLogger;
 
         TimedPoseLogger(Level level, String leaf) {
-            m_level = level;
+            m_gate = new Gate(level);
             m_pose2dWithMotionLogger = pose2dWithMotionLogger(level, join(leaf, "posestate"));
             m_timeLogger = doubleLogger(level, join(leaf, "time"));
             m_velocityLogger = doubleLogger(level, join(leaf, "velocity"));
@@ -492,7 +495,7 @@ public class LoggerFactory {
         }
 
         public void log(Supplier<TimedPose> vals) {
-            if (!allow(m_level))
+            if (!m_gate.allow())
                 return;
             TimedPose val = vals.get();
             m_pose2dWithMotionLogger.log(val::state);
@@ -508,16 +511,16 @@ public class LoggerFactory {
     }
 
     public class PoseWithCurvatureLogger {
-        private final Level m_level;
+        private final Gate m_gate;
         private final Pose2dLogger m_pose2dLogger;
 
         PoseWithCurvatureLogger(Level level, String leaf) {
-            m_level = level;
+            m_gate = new Gate(level);
             m_pose2dLogger = pose2dLogger(level, join(leaf, "pose"));
         }
 
         public void log(Supplier<PoseWithCurvature> vals) {
-            if (!allow(m_level))
+            if (!m_gate.allow())
                 return;
             PoseWithCurvature val = vals.get();
             m_pose2dLogger.log(() -> val.poseMeters);
@@ -529,18 +532,18 @@ public class LoggerFactory {
     }
 
     public class Pose2dWithMotionLogger {
-        private final Level m_level;
+        private final Gate m_gate;
         private final Pose2dLogger m_pose2dLogger;
         private final Rotation2dLogger m_rotation2dLogger;
 
         Pose2dWithMotionLogger(Level level, String leaf) {
-            m_level = level;
+            m_gate = new Gate(level);
             m_pose2dLogger = pose2dLogger(level, join(leaf, "pose"));
             m_rotation2dLogger = rotation2dLogger(level, join(leaf, "course"));
         }
 
         public void log(Supplier<Pose2dWithMotion> vals) {
-            if (!allow(m_level))
+            if (!m_gate.allow())
                 return;
             Pose2dWithMotion val = vals.get();
             m_pose2dLogger.log(val::getPose);
@@ -555,26 +558,9 @@ public class LoggerFactory {
         return new Pose2dWithMotionLogger(level, leaf);
     }
 
-    public class Twist2dLogger {
-        private final Level m_level;
-        private final DoubleLogger m_dxLogger;
-        private final DoubleLogger m_dyLogger;
-        private final DoubleLogger m_dthetaLogger;
-
+    public class Twist2dLogger extends StructLogger<Twist2d> {
         Twist2dLogger(Level level, String leaf) {
-            m_level = level;
-            m_dxLogger = doubleLogger(level, join(leaf, "dx"));
-            m_dyLogger = doubleLogger(level, join(leaf, "dy"));
-            m_dthetaLogger = doubleLogger(level, join(leaf, "dtheta"));
-        }
-
-        public void log(Supplier<Twist2d> vals) {
-            if (!allow(m_level))
-                return;
-            Twist2d val = vals.get();
-            m_dxLogger.log(() -> val.dx);
-            m_dyLogger.log(() -> val.dy);
-            m_dthetaLogger.log(() -> val.dtheta);
+            super(level, leaf, Twist2d.struct);
         }
     }
 
@@ -582,26 +568,9 @@ public class LoggerFactory {
         return new Twist2dLogger(level, leaf);
     }
 
-    public class ChassisSpeedsLogger {
-        private final Level m_level;
-        private final DoubleLogger m_vxLogger;
-        private final DoubleLogger m_vyLogger;
-        private final DoubleLogger m_omegaLogger;
-
+    public class ChassisSpeedsLogger extends StructLogger<ChassisSpeeds> {
         ChassisSpeedsLogger(Level level, String leaf) {
-            m_level = level;
-            m_vxLogger = doubleLogger(level, join(leaf, "vx m_s"));
-            m_vyLogger = doubleLogger(level, join(leaf, "vy m_s"));
-            m_omegaLogger = doubleLogger(level, join(leaf, "omega rad_s"));
-        }
-
-        public void log(Supplier<ChassisSpeeds> vals) {
-            if (!allow(m_level))
-                return;
-            ChassisSpeeds val = vals.get();
-            m_vxLogger.log(() -> val.vxMetersPerSecond);
-            m_vyLogger.log(() -> val.vyMetersPerSecond);
-            m_omegaLogger.log(() -> val.omegaRadiansPerSecond);
+            super(level, leaf, ChassisSpeeds.struct);
         }
     }
 
@@ -610,20 +579,20 @@ public class LoggerFactory {
     }
 
     public class FieldRelativeVelocityLogger {
-        private final Level m_level;
+        private final Gate m_gate;
         private final DoubleLogger m_xLogger;
         private final DoubleLogger m_yLogger;
         private final DoubleLogger m_thetaLogger;
 
         FieldRelativeVelocityLogger(Level level, String leaf) {
-            m_level = level;
+            m_gate = new Gate(level);
             m_xLogger = doubleLogger(level, join(leaf, "x m_s"));
             m_yLogger = doubleLogger(level, join(leaf, "y m_s"));
             m_thetaLogger = doubleLogger(level, join(leaf, "theta rad_s"));
         }
 
         public void log(Supplier<FieldRelativeVelocity> vals) {
-            if (!allow(m_level))
+            if (!m_gate.allow())
                 return;
             FieldRelativeVelocity val = vals.get();
             m_xLogger.log(val::x);
@@ -637,20 +606,20 @@ public class LoggerFactory {
     }
 
     public class FieldRelativeAccelerationLogger {
-        private final Level m_level;
+        private final Gate m_gate;
         private final DoubleLogger m_xLogger;
         private final DoubleLogger m_yLogger;
         private final DoubleLogger m_thetaLogger;
 
         FieldRelativeAccelerationLogger(Level level, String leaf) {
-            m_level = level;
+            m_gate = new Gate(level);
             m_xLogger = doubleLogger(level, join(leaf, "x m_s_s"));
             m_yLogger = doubleLogger(level, join(leaf, "y m_s_s"));
             m_thetaLogger = doubleLogger(level, join(leaf, "theta rad_s_s"));
         }
 
         public void log(Supplier<FieldRelativeAcceleration> vals) {
-            if (!allow(m_level))
+            if (!m_gate.allow())
                 return;
             FieldRelativeAcceleration val = vals.get();
             m_xLogger.log(val::x);
@@ -663,26 +632,9 @@ public class LoggerFactory {
         return new FieldRelativeAccelerationLogger(level, leaf);
     }
 
-    public class State100Logger {
-        private final Level m_level;
-        private final DoubleLogger m_xLogger;
-        private final DoubleLogger m_vLogger;
-        private final DoubleLogger m_aLogger;
-
+    public class State100Logger extends StructLogger<State100> {
         State100Logger(Level level, String leaf) {
-            m_level = level;
-            m_xLogger = doubleLogger(level, join(leaf, "x"));
-            m_vLogger = doubleLogger(level, join(leaf, "v"));
-            m_aLogger = doubleLogger(level, join(leaf, "a"));
-        }
-
-        public void log(Supplier<State100> vals) {
-            if (!allow(m_level))
-                return;
-            State100 val = vals.get();
-            m_xLogger.log(val::x);
-            m_vLogger.log(val::v);
-            m_aLogger.log(val::a);
+            super(level, leaf, State100.struct);
         }
     }
 
@@ -690,26 +642,9 @@ public class LoggerFactory {
         return new State100Logger(level, leaf);
     }
 
-    public class SwerveStateLogger {
-        private final Level m_level;
-        private final State100Logger m_xLogger;
-        private final State100Logger m_yLogger;
-        private final State100Logger m_thetaLogger;
-
+    public class SwerveStateLogger extends StructLogger<SwerveState> {
         SwerveStateLogger(Level level, String leaf) {
-            m_level = level;
-            m_xLogger = state100Logger(level, join(leaf, "x"));
-            m_yLogger = state100Logger(level, join(leaf, "y"));
-            m_thetaLogger = state100Logger(level, join(leaf, "theta"));
-        }
-
-        public void log(Supplier<SwerveState> vals) {
-            if (!allow(m_level))
-                return;
-            SwerveState val = vals.get();
-            m_xLogger.log(val::x);
-            m_yLogger.log(val::y);
-            m_thetaLogger.log(val::theta);
+            super(level, leaf, SwerveState.struct);
         }
     }
 
@@ -717,25 +652,9 @@ public class LoggerFactory {
         return new SwerveStateLogger(level, leaf);
     }
 
-    public class SwerveModulePosition100Logger {
-        private final Level m_level;
-        private final DoubleLogger m_distanceLogger;
-        private final Rotation2dLogger m_rotation2dLogger;
-
+    public class SwerveModulePosition100Logger extends StructLogger<SwerveModulePosition100> {
         SwerveModulePosition100Logger(Level level, String leaf) {
-            m_level = level;
-            m_distanceLogger = doubleLogger(level, join(leaf, "distance"));
-            m_rotation2dLogger = rotation2dLogger(level, join(leaf, "angle"));
-        }
-
-        public void log(Supplier<SwerveModulePosition100> vals) {
-            if (!allow(m_level))
-                return;
-            SwerveModulePosition100 val = vals.get();
-            m_distanceLogger.log(() -> val.distanceMeters);
-            if (val.angle.isPresent()) {
-                m_rotation2dLogger.log(val.angle::get);
-            }
+            super(level, leaf, SwerveModulePosition100.struct);
         }
     }
 
@@ -744,18 +663,18 @@ public class LoggerFactory {
     }
 
     public class ArmAnglesLogger {
-        private final Level m_level;
+        private final Gate m_gate;
         private final DoubleLogger m_th1Logger;
         private final DoubleLogger m_th2Logger;
 
         ArmAnglesLogger(Level level, String leaf) {
-            m_level = level;
+            m_gate = new Gate(level);
             m_th1Logger = doubleLogger(level, join(leaf, "th1"));
             m_th2Logger = doubleLogger(level, join(leaf, "th2"));
         }
 
         public void log(Supplier<ArmAngles> vals) {
-            if (!allow(m_level))
+            if (!m_gate.allow())
                 return;
             ArmAngles val = vals.get();
             m_th1Logger.log(() -> val.th1);
@@ -768,14 +687,14 @@ public class LoggerFactory {
     }
 
     public class StateLogger {
-        private final Level m_level;
+        private final Gate m_gate;
         private final Pose2dLogger m_poseLogger;
         private final DoubleLogger m_curvatureLogger;
         private final DoubleLogger m_velocityLogger;
         private final DoubleLogger m_accelLogger;
 
         StateLogger(Level level, String leaf) {
-            m_level = level;
+            m_gate = new Gate(level);
             m_poseLogger = pose2dLogger(level, join(leaf, "pose"));
             m_curvatureLogger = doubleLogger(level, join(leaf, "curvature"));
             m_velocityLogger = doubleLogger(level, join(leaf, "velocity"));
@@ -783,7 +702,7 @@ public class LoggerFactory {
         }
 
         public void log(Supplier<State> vals) {
-            if (!allow(m_level))
+            if (!m_gate.allow())
                 return;
             State val = vals.get();
             m_poseLogger.log(() -> val.poseMeters);
@@ -797,23 +716,9 @@ public class LoggerFactory {
         return new StateLogger(level, leaf);
     }
 
-    public class Blip24Logger {
-        private final Level m_level;
-        private final IntLogger m_idLogger;
-        private final Transform3dLogger m_transformLogger;
-
+    public class Blip24Logger extends StructLogger<Blip24> {
         Blip24Logger(Level level, String leaf) {
-            m_level = level;
-            m_idLogger = intLogger(level, join(leaf, "id"));
-            m_transformLogger = transform3dLogger(level, join(leaf, "transform"));
-        }
-
-        public void log(Supplier<Blip24> vals) {
-            if (!allow(m_level))
-                return;
-            Blip24 val = vals.get();
-            m_idLogger.log(val::getId);
-            m_transformLogger.log(val::getPose);
+            super(level, leaf, Blip24.struct);
         }
     }
 
@@ -1,6 +1,13 @@
 package org.team100.lib.logging;
 
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import org.team100.lib.logging.primitive.AsyncNTPrimitiveLogger;
 import org.team100.lib.logging.primitive.DummySender;
+import org.team100.lib.logging.primitive.FanOutSink;
+import org.team100.lib.logging.primitive.MappedLogWriter;
 import org.team100.lib.logging.primitive.NTPrimitiveLogger;
 import org.team100.lib.logging.primitive.PrimitiveLogger;
 import org.team100.lib.logging.primitive.UdpPrimitiveLogger;
@@ -9,16 +16,45 @@ import org.team100.lib.util.Util;
 
 import com.ctre.phoenix6.SignalLogger;
 
+import edu.wpi.first.wpilibj.Timer;
+
 /** Logging singleton */
 public class Logging {
     private static final boolean USE_UDP_LOGGING = false;
     private static final boolean USE_REAL_UDP = false;
+    /**
+     * Publish to NT from a background thread, so the loop never waits for
+     * ntcore; see AsyncNTPrimitiveLogger. Off until the loop time has been
+     * measured on the RoboRIO with and without it.
+     */
+    private static final boolean USE_ASYNC_NT_LOGGING = false;
+    /** Also write the UDP packets to the USB stick; see MappedLogWriter. */
+    private static final boolean USE_FILE_LOGGING = false;
+    private static final String kFileLogDir = "/U/t100log";
+    /**
+     * A bit less than the UDP receiver can keep up with; above this, TRACE and
+     * DEBUG keys are dropped.
+     */
+    private static final double kBudgetBytesPerSec = 4e6;
 
     private static final Logging instance = new Logging();
 
     private UdpPrimitiveLogger udpLogger;
+    /** For the dropped-packet count, null unless real UDP. */
+    private UdpSender udpSender;
+    /** Null unless file logging. */
+    private MappedLogWriter fileWriter;
     private PrimitiveLogger ntLogger;
-    private Level m_level;
+    /** Null unless async NT logging; the same object as ntLogger. */
+    private AsyncNTPrimitiveLogger asyncNtLogger;
+    /**
+     * Written by the poller on a change, read by every logger on every call, so
+     * it's a plain field rather than something that asks the chooser.
+     */
+    private volatile Level m_level;
+    /** The chosen level, limited by the budget; this is what the loggers see. */
+    private volatile Level m_effectiveLevel;
+    private final LogBudget m_budget;
 
     /**
      * root is "field", with a ".type"->"Field2d" entry as required by glass.
@@ -33,26 +69,40 @@ public class Logging {
     private Logging() {
         // this will be overridden by {@link LogLevelPoller}
         m_level = Level.COMP;
+        m_effectiveLevel = Level.COMP;
+        m_budget = new LogBudget(kBudgetBytesPerSec);
         if (USE_UDP_LOGGING) {
             Util.warn("=======================================");
             Util.warn("Using UDP network logging!");
             Util.warn("You must have a log listener connected!");
             Util.warn("=======================================");
+            Consumer<ByteBuffer> dataSink;
+            Consumer<ByteBuffer> metaSink;
             if (USE_REAL_UDP) {
-                udpLogger = new UdpPrimitiveLogger(
-                        UdpSender.data(),
-                        UdpSender.meta());
+                udpSender = UdpSender.data();
+                dataSink = udpSender;
+                metaSink = UdpSender.meta();
             } else {
-                udpLogger = new UdpPrimitiveLogger(
-                        new DummySender(),
-                        new DummySender());
+                dataSink = new DummySender();
+                metaSink = new DummySender();
             }
-            fieldLogger = new LoggerFactory(() -> m_level, "field", udpLogger);
-            rootLogger = new LoggerFactory(() -> m_level, "log", udpLogger);
+            if (USE_FILE_LOGGING) {
+                fileWriter = new MappedLogWriter(Path.of(kFileLogDir));
+                dataSink = new FanOutSink(dataSink, fileWriter.data());
+                metaSink = new FanOutSink(metaSink, fileWriter.meta());
+            }
+            udpLogger = new UdpPrimitiveLogger(dataSink, metaSink);
+            fieldLogger = new LoggerFactory(() -> m_effectiveLevel, "field", udpLogger);
+            rootLogger = new LoggerFactory(() -> m_effectiveLevel, "log", udpLogger);
         } else {
-            ntLogger = new NTPrimitiveLogger();
-            fieldLogger = new LoggerFactory(() -> m_level, "field", ntLogger);
-            rootLogger = new LoggerFactory(() -> m_level, "log", ntLogger);
+            if (USE_ASYNC_NT_LOGGING) {
+                asyncNtLogger = new AsyncNTPrimitiveLogger();
+                ntLogger = asyncNtLogger;
+            } else {
+                ntLogger = new NTPrimitiveLogger();
+            }
+            fieldLogger = new LoggerFactory(() -> m_effectiveLevel, "field", ntLogger);
+            rootLogger = new LoggerFactory(() -> m_effectiveLevel, "log", ntLogger);
         }
 
         fieldLogger.stringLogger(Level.COMP, ".type").log(() -> "Field2d");
@@ -69,13 +119,26 @@ public class Logging {
         return 0;
     }
 
+    /**
+     * Flushes the UDP logger, and updates the budget. NT doesn't expose its
+     * queue depth, so the budget only applies to UDP.
+     */
     public void periodic() {
-        if (udpLogger != null)
-            udpLogger.periodic();
+        if (asyncNtLogger != null)
+            asyncNtLogger.calibrate();
+        if (udpLogger == null)
+            return;
+        udpLogger.periodic();
+        long dropped = udpSender == null ? 0 : udpSender.getDropped();
+        if (m_budget.update(dropped, udpLogger.bytes(), Timer.getFPGATimestamp())) {
+            Util.warn("Logging budget ceiling now " + m_budget.ceiling());
+            m_effectiveLevel = m_budget.limit(m_level);
+        }
     }
 
     public void setLevel(Level level) {
         m_level = level;
+        m_effectiveLevel = m_budget.limit(level);
     }
 
     public static Logging instance() {
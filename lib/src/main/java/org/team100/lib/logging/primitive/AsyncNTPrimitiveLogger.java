@@ -0,0 +1,355 @@
+package org.team100.lib.logging.primitive;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.team100.lib.util.Util;
+
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.Publisher;
+import edu.wpi.first.networktables.StringPublisher;
+import edu.wpi.first.networktables.StructPublisher;
+import edu.wpi.first.networktables.Topic;
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * Like NTPrimitiveLogger, but the loop thread never calls into ntcore.
+ *
+ * Each key has a slot holding its latest value, the time it was logged, and
+ * a dirty flag. A log call just writes the slot, which is lock-free and
+ * doesn't allocate. A low-priority thread visits the slots at a fixed rate,
+ * publishes the dirty ones, and then flushes once for the whole batch. The
+ * publishers are created on that thread too, the first time each key is
+ * published.
+ *
+ * Values are published with the time they were logged, not the time they
+ * were drained, so the NT and DataLog timestamps line up with the loop. The
+ * log time comes from System.nanoTime(), which is cheap, shifted onto the FPGA
+ * clock by an offset that calibrate() updates once per cycle.
+ *
+ * Since only the latest value is kept, values logged more often than the
+ * drain rate are dropped; the last one always makes it. The default drain
+ * period is half the loop period, so a value logged once per cycle is only
+ * dropped if the drain thread stalls. Array and struct values are published
+ * by reference, so callers shouldn't modify them after logging, which
+ * LoggerFactory never does.
+ */
+public class AsyncNTPrimitiveLogger implements PrimitiveLogger {
+    private static final double kDefaultPeriodS = 0.01;
+
+    private final NetworkTableInstance m_inst;
+    /** Appended by the loop thread, iterated by the drain thread. */
+    private final List<Slot> m_slots;
+    /** Distinct labels; a label logged by more than one logger counts once. */
+    private final Set<String> m_keys;
+    /** FPGA time minus nanoTime, in microseconds. */
+    private volatile long m_offsetUs;
+
+    /** Drains every 10 ms, to the default instance, also logging to disk. */
+    public AsyncNTPrimitiveLogger() {
+        this(kDefaultPeriodS);
+    }
+
+    public AsyncNTPrimitiveLogger(double periodS) {
+        this(NetworkTableInstance.getDefault());
+        DataLogManager.start();
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+                AsyncNTPrimitiveLogger::lowPriority);
+        long periodUs = (long) (periodS * 1000000);
+        executor.scheduleAtFixedRate(() -> {
+            try {
+                drain();
+            } catch (RuntimeException e) {
+                // an exception would cancel the schedule.
+                Util.warn("NT drain failed: " + e.getMessage());
+            }
+        }, periodUs, periodUs, TimeUnit.MICROSECONDS);
+    }
+
+    /** Doesn't drain by itself: call drain(), for testing. */
+    AsyncNTPrimitiveLogger(NetworkTableInstance inst) {
+        m_inst = inst;
+        m_slots = new CopyOnWriteArrayList<>();
+        m_keys = new HashSet<>();
+        calibrate();
+    }
+
+    @Override
+    public int keyCount() {
+        return m_keys.size();
+    }
+
+    /**
+     * Line the log timestamps up with the FPGA clock. Call this once per
+     * cycle, on the loop thread; Logging.periodic() does.
+     */
+    public void calibrate() {
+        m_offsetUs = RobotController.getFPGATime() - System.nanoTime() / 1000;
+    }
+
+    /** Current FPGA time in microseconds, without the JNI call. */
+    private long nowUs() {
+        return System.nanoTime() / 1000 + m_offsetUs;
+    }
+
+    /**
+     * Publish the dirty slots and flush. Runs on the drain thread.
+     *
+     * @return the number of values published
+     */
+    int drain() {
+        int count = 0;
+        for (Slot slot : m_slots) {
+            if (!slot.m_dirty)
+                continue;
+            // clear first, so a value written during publish is seen next time.
+            slot.m_dirty = false;
+            slot.publish();
+            count++;
+        }
+        if (count > 0)
+            m_inst.flush();
+        return count;
+    }
+
+    /**
+     * Subclasses write the value and then call mark(); everything is
+     * volatile, so the drain thread sees the value if it sees the flag. A
+     * value written during a publish may go out with the previous time, but
+     * it's dirty again, so the next drain fixes it.
+     */
+    private abstract class Slot {
+        final String m_label;
+        volatile long m_timeUs;
+        volatile boolean m_dirty;
+
+        Slot(String label) {
+            m_label = label;
+        }
+
+        /** Stamp the value just written, and make it visible to the drain. */
+        void mark() {
+            m_timeUs = nowUs();
+            m_dirty = true;
+        }
+
+        abstract void publish();
+
+        /** Retained, as in NTPrimitiveLogger. */
+        <P extends Publisher> P retain(Topic t, P pub) {
+            t.setRetained(true);
+            return pub;
+        }
+    }
+
+    private class BooleanSlot extends Slot implements PrimitiveBooleanLogger {
+        private volatile boolean m_value;
+        private BooleanPublisher m_pub;
+
+        BooleanSlot(String label) {
+            super(label);
+        }
+
+        @Override
+        public void log(boolean val) {
+            m_value = val;
+            mark();
+        }
+
+        @Override
+        void publish() {
+            if (m_pub == null) {
+                var t = m_inst.getBooleanTopic(m_label);
+                m_pub = retain(t, t.publish());
+            }
+            m_pub.set(m_value, m_timeUs);
+        }
+    }
+
+    private class DoubleSlot extends Slot implements PrimitiveDoubleLogger {
+        private volatile double m_value;
+        private DoublePublisher m_pub;
+
+        DoubleSlot(String label) {
+            super(label);
+        }
+
+        @Override
+        public void log(double val) {
+            m_value = val;
+            mark();
+        }
+
+        @Override
+        void publish() {
+            if (m_pub == null) {
+                var t = m_inst.getDoubleTopic(m_label);
+                m_pub = retain(t, t.publish());
+            }
+            m_pub.set(m_value, m_timeUs);
+        }
+    }
+
+    /** Ints and longs both use integer topics. */
+    private class IntegerSlot extends Slot implements PrimitiveIntLogger, PrimitiveLongLogger {
+        private volatile long m_value;
+        private IntegerPublisher m_pub;
+
+        IntegerSlot(String label) {
+            super(label);
+        }
+
+        @Override
+        public void log(int val) {
+            log((long) val);
+        }
+
+        @Override
+        public void log(long val) {
+            m_value = val;
+            mark();
+        }
+
+        @Override
+        void publish() {
+            if (m_pub == null) {
+                var t = m_inst.getIntegerTopic(m_label);
+                m_pub = retain(t, t.publish());
+            }
+            m_pub.set(m_value, m_timeUs);
+        }
+    }
+
+    private class DoubleArraySlot extends Slot implements PrimitiveDoubleArrayLogger {
+        private volatile double[] m_value;
+        private DoubleArrayPublisher m_pub;
+
+        DoubleArraySlot(String label) {
+            super(label);
+        }
+
+        @Override
+        public void log(double[] val) {
+            m_value = val;
+            mark();
+        }
+
+        @Override
+        void publish() {
+            if (m_pub == null) {
+                var t = m_inst.getDoubleArrayTopic(m_label);
+                m_pub = retain(t, t.publish());
+            }
+            m_pub.set(m_value, m_timeUs);
+        }
+    }
+
+    private class StringSlot extends Slot implements PrimitiveStringLogger {
+        private volatile String m_value;
+        private StringPublisher m_pub;
+
+        StringSlot(String label) {
+            super(label);
+        }
+
+        @Override
+        public void log(String val) {
+            m_value = val;
+            mark();
+        }
+
+        @Override
+        void publish() {
+            if (m_pub == null) {
+                var t = m_inst.getStringTopic(m_label);
+                m_pub = retain(t, t.publish());
+            }
+            m_pub.set(m_value, m_timeUs);
+        }
+    }
+
+    private class StructSlot<T> extends Slot implements PrimitiveStructLogger<T> {
+        private final Struct<T> m_struct;
+        private volatile T m_value;
+        private StructPublisher<T> m_pub;
+
+        StructSlot(String label, Struct<T> struct) {
+            super(label);
+            m_struct = struct;
+        }
+
+        @Override
+        public void log(T val) {
+            m_value = val;
+            mark();
+        }
+
+        @Override
+        void publish() {
+            if (m_pub == null) {
+                var t = m_inst.getStructTopic(m_label, m_struct);
+                m_pub = retain(t, t.publish());
+            }
+            m_pub.set(m_value, m_timeUs);
+        }
+    }
+
+    private <S extends Slot> S add(S slot) {
+        m_slots.add(slot);
+        m_keys.add(slot.m_label);
+        return slot;
+    }
+
+    @Override
+    public PrimitiveBooleanLogger booleanLogger(String label) {
+        return add(new BooleanSlot(label));
+    }
+
+    @Override
+    public PrimitiveDoubleLogger doubleLogger(String label) {
+        return add(new DoubleSlot(label));
+    }
+
+    @Override
+    public PrimitiveIntLogger intLogger(String label) {
+        return add(new IntegerSlot(label));
+    }
+
+    @Override
+    public PrimitiveDoubleArrayLogger doubleArrayLogger(String label) {
+        return add(new DoubleArraySlot(label));
+    }
+
+    @Override
+    public PrimitiveLongLogger longLogger(String label) {
+        return add(new IntegerSlot(label));
+    }
+
+    @Override
+    public PrimitiveStringLogger stringLogger(String label) {
+        return add(new StringSlot(label));
+    }
+
+    @Override
+    public <T> PrimitiveStructLogger<T> structLogger(String label, Struct<T> struct) {
+        return add(new StructSlot<>(label, struct));
+    }
+
+    private static Thread lowPriority(Runnable r) {
+        Thread thread = new Thread(r, "AsyncNTPrimitiveLogger");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
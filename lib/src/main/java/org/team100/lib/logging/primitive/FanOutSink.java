@@ -0,0 +1,27 @@
+package org.team100.lib.logging.primitive;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Sends each packet to several sinks, e.g. UDP and a local file.
+ * 
+ * Each sink gets its own view of the packet, since sinks like UdpSender
+ * consume the buffer they're given.
+ */
+public class FanOutSink implements Consumer<ByteBuffer> {
+    private final List<Consumer<ByteBuffer>> m_sinks;
+
+    @SafeVarargs
+    public FanOutSink(Consumer<ByteBuffer>... sinks) {
+        m_sinks = List.of(sinks);
+    }
+
+    @Override
+    public void accept(ByteBuffer bb) {
+        for (Consumer<ByteBuffer> sink : m_sinks) {
+            sink.accept(bb.duplicate());
+        }
+    }
+}
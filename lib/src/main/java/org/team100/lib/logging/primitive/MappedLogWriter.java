@@ -0,0 +1,275 @@
+package org.team100.lib.logging.primitive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import org.team100.lib.util.Util;
+
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * Appends UDP protocol packets to memory-mapped segment files, e.g. on the
+ * RoboRIO USB stick, so the log survives without a listener.
+ * 
+ * Use data() and meta() as the sinks for a UdpPrimitiveLogger, alone, or
+ * alongside UDP with FanOutSink.
+ * 
+ * The loop thread only ever copies into the current mapped segment. Everything
+ * that touches the filesystem (creating, mapping, and pre-touching the next
+ * segment, appending to the index, forcing the finished segment, recycling
+ * old segments) happens on a low-priority background thread. If the next
+ * segment isn't ready when the current one fills up, packets are dropped (and
+ * counted), rather than making the loop wait.
+ * 
+ * When there are too many segments, or too little free space, the oldest
+ * segment file is renamed and reused.
+ * 
+ * Segment format:
+ * 
+ * <pre>
+ * MMMMMMMMSSSSSSSS  magic "T100LOG1", segment sequence number
+ * LLLLTttttttttPPPP frame length (4 bytes, zero means the end), type ('D' or
+ *                   'M'), FPGA time in microseconds (8 bytes), packet
+ * </pre>
+ * 
+ * The index file lists the segments, one per line, as "sequence,file,start
+ * time"; it's only appended to, so recycled segments appear twice, and the
+ * reader skips the lines whose file is gone or has a different sequence.
+ */
+public class MappedLogWriter {
+    public static final String kMagic = "T100LOG1";
+    public static final int kSegmentHeader = 16;
+    public static final int kFrameHeader = 4 + 1 + 8;
+    public static final byte kData = 'D';
+    public static final byte kMeta = 'M';
+    public static final String kIndex = "index.csv";
+    private static final int kPageBytes = 4096;
+
+    private final Path m_dir;
+    private final int m_segmentBytes;
+    private final int m_maxSegments;
+    private final long m_reserveBytes;
+    private final LongSupplier m_clockUs;
+    private final Executor m_executor;
+
+    /** Ready for the loop thread to take. */
+    private final AtomicReference<MappedByteBuffer> m_next;
+    private final AtomicBoolean m_preparing;
+
+    // background thread only
+    private final Deque<Path> m_segments;
+    private long m_sequence;
+    private boolean m_scanned;
+
+    // loop thread only
+    private MappedByteBuffer m_current;
+    private long m_dropped;
+
+    /** 16 MB segments, 1 GB total, leaving at least 64 MB free. */
+    public MappedLogWriter(Path dir) {
+        this(dir,
+                16 << 20,
+                64,
+                64 << 20,
+                RobotController::getFPGATime,
+                Executors.newSingleThreadExecutor(MappedLogWriter::lowPriority));
+    }
+
+    /**
+     * @param segmentBytes size of each segment file
+     * @param maxSegments  recycle the oldest segment beyond this many, at
+     *                     least three.
+     * @param reserveBytes recycle the oldest segment if creating a new one
+     *                     would leave less free space than this.
+     * @param clockUs      frame timestamps
+     * @param executor     for the file operations; Runnable::run for testing.
+     */
+    public MappedLogWriter(
+            Path dir,
+            int segmentBytes,
+            int maxSegments,
+            long reserveBytes,
+            LongSupplier clockUs,
+            Executor executor) {
+        if (segmentBytes < kSegmentHeader + kFrameHeader + UdpSender.MTU + 4)
+            throw new IllegalArgumentException("segment too small");
+        if (maxSegments < 3)
+            throw new IllegalArgumentException("need at least three segments");
+        m_dir = dir;
+        m_segmentBytes = segmentBytes;
+        m_maxSegments = maxSegments;
+        m_reserveBytes = reserveBytes;
+        m_clockUs = clockUs;
+        m_executor = executor;
+        m_next = new AtomicReference<>();
+        m_preparing = new AtomicBoolean();
+        m_segments = new ArrayDeque<>();
+        prepareNext();
+    }
+
+    public Consumer<ByteBuffer> data() {
+        return bb -> append(kData, bb);
+    }
+
+    public Consumer<ByteBuffer> meta() {
+        return bb -> append(kMeta, bb);
+    }
+
+    /** Packets that didn't fit, or arrived with no segment ready. */
+    public long dropped() {
+        return m_dropped;
+    }
+
+    /** Write the current segment to disk, in the background. */
+    public void flush() {
+        MappedByteBuffer current = m_current;
+        if (current != null)
+            m_executor.execute(current::force);
+    }
+
+    /** Called on the loop thread; never blocks. */
+    private void append(byte type, ByteBuffer packet) {
+        int length = packet.remaining();
+        // room for the frame and the terminator after it.
+        int needed = kFrameHeader + length + 4;
+        if (m_current == null || m_current.remaining() < needed) {
+            if (!roll() || m_current.remaining() < needed) {
+                m_dropped++;
+                return;
+            }
+        }
+        m_current.putInt(length);
+        m_current.put(type);
+        m_current.putLong(m_clockUs.getAsLong());
+        m_current.put(packet.duplicate());
+        // a recycled segment has stale frames after this one.
+        m_current.putInt(m_current.position(), 0);
+    }
+
+    /** Switch to the next segment, if it's ready. */
+    private boolean roll() {
+        MappedByteBuffer next = m_next.getAndSet(null);
+        if (next == null) {
+            prepareNext();
+            return false;
+        }
+        MappedByteBuffer previous = m_current;
+        m_current = next;
+        if (previous != null)
+            m_executor.execute(previous::force);
+        prepareNext();
+        return true;
+    }
+
+    private void prepareNext() {
+        if (m_next.get() != null)
+            return;
+        if (!m_preparing.compareAndSet(false, true))
+            return;
+        m_executor.execute(this::prepare);
+    }
+
+    /** Runs in the background. */
+    private void prepare() {
+        try {
+            if (!m_scanned) {
+                Files.createDirectories(m_dir);
+                scan();
+                m_scanned = true;
+            }
+            Path file = m_dir.resolve(fileName(m_sequence));
+            if (shouldRecycle()) {
+                Path oldest = m_segments.removeFirst();
+                Files.move(oldest, file);
+            }
+            MappedByteBuffer buf;
+            try (FileChannel ch = FileChannel.open(file,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, m_segmentBytes);
+            }
+            // touch every page now, so the loop never waits for a page fault.
+            for (int i = 0; i < m_segmentBytes; i += kPageBytes) {
+                buf.put(i, (byte) 0);
+            }
+            buf.put(kMagic.getBytes(StandardCharsets.US_ASCII));
+            buf.putLong(m_sequence);
+            buf.putInt(buf.position(), 0);
+            Files.writeString(m_dir.resolve(kIndex),
+                    String.format("%d,%s,%d\n", m_sequence, file.getFileName(), m_clockUs.getAsLong()),
+                    StandardCharsets.US_ASCII,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+            m_segments.addLast(file);
+            m_sequence++;
+            m_next.set(buf);
+        } catch (IOException | RuntimeException e) {
+            // e.g. no USB stick; keep trying at each roll.
+            Util.warn("log segment failed: " + e.getMessage());
+        } finally {
+            m_preparing.set(false);
+        }
+    }
+
+    /**
+     * Too many segments, or too little space. The current segment, and the one
+     * just finished, are never recycled.
+     */
+    private boolean shouldRecycle() throws IOException {
+        if (m_segments.size() < 3)
+            return false;
+        if (m_segments.size() >= m_maxSegments)
+            return true;
+        return Files.getFileStore(m_dir).getUsableSpace() < m_reserveBytes + m_segmentBytes;
+    }
+
+    /** Find segments from previous runs, and continue the sequence. */
+    private void scan() throws IOException {
+        List<Path> existing = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(m_dir, "segment-*.bin")) {
+            for (Path file : files) {
+                existing.add(file);
+            }
+        }
+        Collections.sort(existing);
+        for (Path file : existing) {
+            m_segments.addLast(file);
+            m_sequence = Math.max(m_sequence, sequence(file) + 1);
+        }
+    }
+
+    static String fileName(long sequence) {
+        return String.format("segment-%08d.bin", sequence);
+    }
+
+    private static long sequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring("segment-".length(), name.length() - ".bin".length()));
+    }
+
+    private static Thread lowPriority(Runnable r) {
+        Thread thread = new Thread(r, "MappedLogWriter");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -14,6 +14,9 @@ import edu.wpi.first.networktables.IntegerTopic;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.networktables.StringPublisher;
 import edu.wpi.first.networktables.StringTopic;
+import edu.wpi.first.networktables.StructPublisher;
+import edu.wpi.first.networktables.StructTopic;
+import edu.wpi.first.util.struct.Struct;
 import edu.wpi.first.wpilibj.DataLogManager;
 
 /**
@@ -134,6 +137,22 @@ public class NTPrimitiveLogger implements PrimitiveLogger {
         }
     }
 
+    public class NTStructLogger<T> implements PrimitiveLogger.PrimitiveStructLogger<T> {
+        StructPublisher<T> m_pub;
+
+        public NTStructLogger(String label, Struct<T> struct) {
+            // publishing the topic also publishes the schema, nested ones too.
+            StructTopic<T> t = inst.getStructTopic(label, struct);
+            m_pub = t.publish();
+            t.setRetained(true);
+        }
+
+        @Override
+        public void log(T val) {
+            m_pub.set(val);
+        }
+    }
+
     @Override
     public PrimitiveBooleanLogger booleanLogger(String label) {
         keys.add(label);
@@ -170,4 +189,9 @@ public class NTPrimitiveLogger implements PrimitiveLogger {
         return new NTStringLogger(label);
     }
 
+    @Override
+    public <T> PrimitiveStructLogger<T> structLogger(String label, Struct<T> struct) {
+        keys.add(label);
+        return new NTStructLogger<>(label, struct);
+    }
 }
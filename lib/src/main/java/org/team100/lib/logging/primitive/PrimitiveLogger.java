@@ -1,5 +1,7 @@
 package org.team100.lib.logging.primitive;
 
+import edu.wpi.first.util.struct.Struct;
+
 /**
  * This should not be used by client code. Use {@link LoggerFactory} instead.
  */
@@ -48,4 +50,15 @@ public interface PrimitiveLogger {
     }
 
     PrimitiveStringLogger stringLogger(String label);
+
+    /**
+     * Composite values, packed into a single entry using WPILib Struct
+     * serialization, so a Pose2d is one key instead of three.
+     */
+    @FunctionalInterface
+    interface PrimitiveStructLogger<T> {
+        void log(T val);
+    }
+
+    <T> PrimitiveStructLogger<T> structLogger(String label, Struct<T> struct);
 }
@@ -6,6 +6,8 @@ import java.util.Set;
 
 import org.team100.lib.util.Util;
 
+import edu.wpi.first.util.struct.Struct;
+
 /** Prints logs to stdout. */
 public class TestPrimitiveLogger implements PrimitiveLogger {
     private final boolean m_print;
@@ -95,4 +97,16 @@ public class TestPrimitiveLogger implements PrimitiveLogger {
             }
         };
     }
-}
\ No newline at end of file
+
+    @Override
+    public <T> PrimitiveStructLogger<T> structLogger(String label, Struct<T> struct) {
+        keys.add(label);
+        return new PrimitiveStructLogger<T>() {
+            @Override
+            public void log(T val) {
+                if (m_print)
+                    Util.printf("%s/%s\n", label, val);
+            }
+        };
+    }
+}
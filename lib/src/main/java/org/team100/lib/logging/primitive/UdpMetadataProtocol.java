@@ -15,6 +15,12 @@ import edu.wpi.first.wpilibj.RobotController;
  * * key (2 bytes)
  * * type (1 byte)
  * * label (1 byte length + ascii string)
+ * * for STRUCT and SCHEMA only, a second string (1 byte length + ascii)
+ * 
+ * For STRUCT, the label is the log key, and the second string is the struct
+ * type string, e.g. "struct:Pose2d". For SCHEMA, the key is zero, the label is
+ * the struct type string, and the second string is the schema, so the receiver
+ * can register it before any STRUCT values arrive.
  * 
  * I previously had a more complicated, terse, stateful protocol, but I think
  * it's worth a few bytes to be simpler.
@@ -103,6 +109,10 @@ public class UdpMetadataProtocol {
         return add(m_buffer, key, type, label);
     }
 
+    boolean put(int key, UdpType type, String label, String extra) {
+        return add(m_buffer, key, type, label, extra);
+    }
+
     /**
      * <pre>
      * KKTLAAAA
@@ -128,4 +138,35 @@ public class UdpMetadataProtocol {
         buf.put(bytes); // string = N bytes
         return true;
     }
+
+    /**
+     * <pre>
+     * KKTLAAAALBBBB
+     * ^^            key
+     *   ^           type = 7 (struct) or 8 (schema)
+     *    ^          string length = 4
+     *     ^^^^      string in ascii for label
+     *         ^     string length = 4
+     *          ^^^^ string in ascii for type or schema
+     * </pre>
+     * 
+     * @return true if written
+     */
+    static boolean add(ByteBuffer buf, int key, UdpType type, String label, String extra) {
+        if (extra == null)
+            return add(buf, key, type, label);
+        byte[] bytes = label.getBytes(StandardCharsets.US_ASCII);
+        byte[] extraBytes = extra.getBytes(StandardCharsets.US_ASCII);
+        int n = bytes.length;
+        int m = extraBytes.length;
+        if (5 + n + m > buf.remaining())
+            return false;
+        buf.putChar((char) key); // key = 2 bytes
+        buf.put(type.id); // type = 1 byte
+        buf.put((byte) n); // length = 1 byte
+        buf.put(bytes); // string = N bytes
+        buf.put((byte) m); // length = 1 byte
+        buf.put(extraBytes); // string = M bytes
+        return true;
+    }
 }
@@ -1,16 +1,20 @@
 package org.team100.lib.logging.primitive;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 
 import org.team100.lib.util.Util;
 
+import edu.wpi.first.util.struct.Struct;
 import edu.wpi.first.wpilibj.Timer;
 
 /**
@@ -28,7 +32,11 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
     /** if false, throw when a duplicate logger is created. */
     private static final boolean ALLOW_DUPLICATES = true;
 
-    record Metadata(int key, UdpType type, String label) {
+    /**
+     * @param extra for STRUCT, the type string; for SCHEMA, the schema;
+     *              otherwise null.
+     */
+    record Metadata(int key, UdpType type, String label, String extra) {
         /** this is the only place we check the sizes. */
         public Metadata {
             if (key > 65535)
@@ -36,6 +44,12 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
             byte[] bytes = label.getBytes(StandardCharsets.US_ASCII);
             if (bytes.length > 255)
                 throw new IllegalArgumentException("label too long: " + label);
+            if (extra != null && extra.getBytes(StandardCharsets.US_ASCII).length > 255)
+                throw new IllegalArgumentException("type or schema too long: " + extra);
+        }
+
+        Metadata(int key, UdpType type, String label) {
+            this(key, type, label, null);
         }
     }
 
@@ -48,8 +62,16 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
     private final List<UdpDoubleArrayLogger> doubleArrayLoggers = new ArrayList<>();
     private final List<UdpLongLogger> longLoggers = new ArrayList<>();
     private final List<UdpStringLogger> stringLoggers = new ArrayList<>();
+    private final List<UdpStructLogger<?>> structLoggers = new ArrayList<>();
 
+    /**
+     * Includes the schema rows, which have key zero, so it's not the key
+     * count.
+     */
     final List<Metadata> metadata = new ArrayList<>();
+    /** Struct type strings already in the metadata. */
+    private final Set<String> schemas = new HashSet<>();
+    private int m_keys = 0;
     /**
      * These are to catch duplicate keys at startup; it should complain when this
      * happens. I'd prefer to eventually eliminate this issue; reusing the same log
@@ -61,6 +83,7 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
     private final Map<String, UdpDoubleArrayLogger> doubleArrayIdx = new HashMap<>();
     private final Map<String, UdpLongLogger> longIdx = new HashMap<>();
     private final Map<String, UdpStringLogger> stringIdx = new HashMap<>();
+    private final Map<String, UdpStructLogger<?>> structIdx = new HashMap<>();
     private final Consumer<ByteBuffer> m_bufferSink;
     private final Consumer<ByteBuffer> m_metadataSink;
 
@@ -72,6 +95,8 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
     int offset = 0;
 
     private double flushTime;
+    /** Total data bytes sent, for the bandwidth budget. */
+    private long m_bytes;
 
     public UdpPrimitiveLogger(
             Consumer<ByteBuffer> dataSink,
@@ -89,14 +114,37 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
      * Minimum key is 1, so that zero is an "invalid key".
      */
     private synchronized int getKey(UdpType type, String label) {
-        int key = metadata.size() + 1;
-        metadata.add(new Metadata(key, type, label));
+        return getKey(type, label, null);
+    }
+
+    private synchronized int getKey(UdpType type, String label, String extra) {
+        int key = ++m_keys;
+        metadata.add(new Metadata(key, type, label, extra));
         return key;
     }
 
+    /**
+     * Add schema rows for the struct and everything it contains, innermost
+     * first, skipping the ones we already have.
+     */
+    private synchronized void addSchema(Struct<?> struct) {
+        if (schemas.contains(struct.getTypeString()))
+            return;
+        for (Struct<?> inner : struct.getNested()) {
+            addSchema(inner);
+        }
+        schemas.add(struct.getTypeString());
+        metadata.add(new Metadata(0, UdpType.SCHEMA, struct.getTypeString(), struct.getSchema()));
+    }
+
     @Override
     public int keyCount() {
-        return metadata.size();
+        return m_keys;
+    }
+
+    /** Total data bytes handed to the sink so far. */
+    public long bytes() {
+        return m_bytes;
     }
 
     /** Emits some labels and flushes all dirty values. */
@@ -125,7 +173,7 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
         m_metadataProtocol.clear();
         for (int i = offset; i < metadata.size(); ++i) {
             Metadata d = metadata.get(i);
-            if (!m_metadataProtocol.put(d.key, d.type, d.label)) {
+            if (!m_metadataProtocol.put(d.key, d.type, d.label, d.extra)) {
                 // packet is full, so send it.
                 m_metadataSink.accept(m_metadataProtocol.trim());
                 offset = i;
@@ -147,7 +195,8 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
         flushDoubleArray();
         flushLong();
         flushString();
-        m_bufferSink.accept(m_dataProtocol.trim());
+        flushStruct();
+        send();
     }
 
     public class UdpBooleanLogger implements PrimitiveLogger.PrimitiveBooleanLogger {
@@ -254,13 +303,48 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
         }
     }
 
+    /**
+     * Packs the value when it's logged, so the caller's object isn't retained;
+     * the flush copies the packed bytes into the packet.
+     */
+    public class UdpStructLogger<T> implements PrimitiveLogger.PrimitiveStructLogger<T> {
+        private final int m_key;
+        private final Struct<T> m_struct;
+        private final ByteBuffer m_buf;
+        private final byte[] m_val;
+        private boolean m_dirty;
+
+        public UdpStructLogger(String label, Struct<T> struct) {
+            addSchema(struct);
+            m_key = getKey(UdpType.STRUCT, label, struct.getTypeString());
+            m_struct = struct;
+            m_val = new byte[struct.getSize()];
+            // WPILib structs are little-endian, unlike the rest of the protocol.
+            m_buf = ByteBuffer.wrap(m_val).order(ByteOrder.LITTLE_ENDIAN);
+            structLoggers.add(this);
+        }
+
+        @Override
+        public void log(T val) {
+            m_buf.clear();
+            m_struct.pack(m_buf, val);
+            m_dirty = true;
+        }
+    }
+
     //////////////////////////////////////////
 
+    private void send() {
+        ByteBuffer packet = m_dataProtocol.trim();
+        m_bytes += packet.remaining();
+        m_bufferSink.accept(packet);
+    }
+
     /** @param putter puts the value if there's room, returns false if not. */
     private void putAndMaybeSend(BooleanSupplier putter) {
         if (!putter.getAsBoolean()) {
             // time to send the packet
-            m_bufferSink.accept(m_dataProtocol.trim());
+            send();
             m_dataProtocol.clear();
             if (!putter.getAsBoolean())
                 throw new IllegalStateException();
@@ -322,6 +406,15 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
         }
     }
 
+    private void flushStruct() {
+        for (UdpStructLogger<?> logger : structLoggers) {
+            if (logger.m_dirty) {
+                putAndMaybeSend(() -> m_dataProtocol.putStruct(logger.m_key, logger.m_val));
+                logger.m_dirty = false;
+            }
+        }
+    }
+
     @Override
     public PrimitiveBooleanLogger booleanLogger(String label) {
         if (booleanIdx.containsKey(label)) {
@@ -412,4 +505,23 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
         return x;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> PrimitiveStructLogger<T> structLogger(String label, Struct<T> struct) {
+        if (structIdx.containsKey(label)) {
+            if (ALLOW_DUPLICATES) {
+                Util.warn("duplicate label " + label);
+                // the same label with a different type would be garbled.
+                UdpStructLogger<?> existing = structIdx.get(label);
+                if (!existing.m_struct.getTypeString().equals(struct.getTypeString()))
+                    throw new IllegalArgumentException("duplicate label with a different type " + label);
+                return (UdpStructLogger<T>) existing;
+            } else {
+                throw new IllegalArgumentException("duplicate label " + label);
+            }
+        }
+        UdpStructLogger<T> x = new UdpStructLogger<>(label, struct);
+        structIdx.put(label, x);
+        return x;
+    }
 }
@@ -104,6 +104,11 @@ public class UdpPrimitiveProtocol {
         return encodeDoubleArray(m_buffer, key, val) != 0;
     }
 
+    /** @return true if written */
+    public boolean putStruct(int key, byte[] val) {
+        return encodeStruct(m_buffer, key, val) != 0;
+    }
+
     /** just the key */
     public static int decodeKey(ByteBuffer buf) throws ProtocolException {
         try {
@@ -301,7 +306,7 @@ public class UdpPrimitiveProtocol {
 
     public static String decodeString(ByteBuffer buf) throws ProtocolException {
         try {
-            int length = buf.get();
+            int length = Byte.toUnsignedInt(buf.get());
             byte[] bytes = new byte[length];
             buf.get(bytes);
             return new String(bytes, StandardCharsets.US_ASCII);
@@ -309,4 +314,40 @@ public class UdpPrimitiveProtocol {
             throw new ProtocolException();
         }
     }
+
+    /**
+     * The value is the struct bytes exactly as WPILib packs them
+     * (little-endian); the type string to unpack them with is in the metadata.
+     * 
+     * <pre>
+     * KKTLLbbbbbbbb
+     * ^^            key (2 bytes)
+     *   ^           type (1 byte)
+     *    ^^         struct length (2 bytes)
+     *      ^^^^^^^^ struct bytes
+     * </pre>
+     */
+    static int encodeStruct(ByteBuffer buf, int key, byte[] val) {
+        if (val.length > 65535)
+            throw new IllegalArgumentException();
+        final int totalLength = 5 + val.length;
+        if (buf.remaining() < totalLength)
+            return 0;
+        buf.putChar((char) key); // 2 bytes
+        buf.put(UdpType.STRUCT.id); // type = 1 byte
+        buf.putChar((char) val.length); // 2 bytes
+        buf.put(val);
+        return totalLength;
+    }
+
+    public static byte[] decodeStruct(ByteBuffer buf) throws ProtocolException {
+        try {
+            int length = buf.getChar();
+            byte[] bytes = new byte[length];
+            buf.get(bytes);
+            return bytes;
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new ProtocolException();
+        }
+    }
 }
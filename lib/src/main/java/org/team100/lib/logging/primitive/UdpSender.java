@@ -25,6 +25,8 @@ public class UdpSender implements Consumer<ByteBuffer> {
     private final DatagramChannel m_channel;
 
     private int m_counter;
+    /** Packets the socket couldn't take, i.e. the send buffer was full. */
+    private long m_dropped;
 
     public UdpSender(int port) {
         m_channel = makeChannel(port);
@@ -35,6 +37,11 @@ public class UdpSender implements Consumer<ByteBuffer> {
         return m_counter;
     }
 
+    /** Total packets not (completely) written, the measure of sink pressure. */
+    public long getDropped() {
+        return m_dropped;
+    }
+
     public static UdpSender data() {
         return new UdpSender(kPort);
     }
@@ -72,13 +79,17 @@ public class UdpSender implements Consumer<ByteBuffer> {
             return;
         }
         try {
-            // should write bb.remaining() bytes.
-            // int bytesWritten = m_channel.write(bb);
-            m_channel.write(bb);
+            // should write bb.remaining() bytes; the channel is non-blocking, so
+            // if the send buffer is full, it writes nothing.
+            int expected = bb.remaining();
+            int bytesWritten = m_channel.write(bb);
+            if (bytesWritten < expected)
+                m_dropped++;
             // m_counter++;
             // System.out.println("counter " + m_counter);
             // System.out.println("bytes " + bytesWritten);
         } catch (IOException e) {
+            m_dropped++;
             e.printStackTrace();
         }
 
@@ -64,6 +64,13 @@ public class DummyUdpConsumers implements UdpConsumersInterface {
             System.out.printf("string key: %d value: %s\n", key, val);
     }
 
+    @Override
+    public void acceptStruct(int key, byte[] val) {
+        counter.incrementAndGet();
+        if (PRINT)
+            System.out.printf("struct key: %d value: %s\n", key, Arrays.toString(val));
+    }
+
     @Override
     public void acceptMeta(int key, UdpType type, String val) {
         counter.incrementAndGet();
@@ -71,6 +78,20 @@ public class DummyUdpConsumers implements UdpConsumersInterface {
             System.out.printf("META key: %d type: %s, value: %s\n", key, type.name(), val);
     }
 
+    @Override
+    public void acceptStructMeta(int key, String label, String typeString) {
+        counter.incrementAndGet();
+        if (PRINT)
+            System.out.printf("META key: %d type: %s, value: %s\n", key, typeString, label);
+    }
+
+    @Override
+    public void acceptSchema(String typeString, String schema) {
+        counter.incrementAndGet();
+        if (PRINT)
+            System.out.printf("SCHEMA type: %s, schema: %s\n", typeString, schema);
+    }
+
     @Override
     public void flush() {
         if (PRINT)
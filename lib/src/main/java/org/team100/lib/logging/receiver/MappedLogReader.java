@@ -0,0 +1,114 @@
+package org.team100.lib.logging.receiver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.team100.lib.logging.primitive.MappedLogWriter;
+import org.team100.lib.logging.primitive.UdpPrimitiveProtocol.ProtocolException;
+
+/**
+ * Reads the segments written by MappedLogWriter, in order, using the index,
+ * and feeds the packets to the same decoders the UDP receiver uses, e.g. to
+ * write a .wpilog offline.
+ */
+public class MappedLogReader {
+    public interface FrameConsumer {
+        /**
+         * @param meta   true for metadata packets, false for data
+         * @param timeUs FPGA time the packet was written
+         * @param packet the whole UDP packet, starting with its timestamp
+         */
+        void accept(boolean meta, long timeUs, ByteBuffer packet) throws ProtocolException;
+    }
+
+    private final Path m_dir;
+
+    public MappedLogReader(Path dir) {
+        m_dir = dir;
+    }
+
+    /**
+     * Decode everything into the consumers, stamped with the time each packet
+     * was written.
+     * 
+     * @return the number of packets
+     */
+    public int convert(UdpConsumersInterface consumers) throws IOException, ProtocolException {
+        UdpDataDecoder dataDecoder = new UdpDataDecoder(consumers);
+        UdpMetaDecoder metaDecoder = new UdpMetaDecoder(consumers);
+        int count = read((meta, timeUs, packet) -> {
+            consumers.setTime(timeUs);
+            if (meta) {
+                metaDecoder.validateTimestamp(packet);
+                while (packet.remaining() > 0)
+                    metaDecoder.decode(packet);
+            } else {
+                dataDecoder.validateTimestamp(packet);
+                while (packet.remaining() > 0)
+                    dataDecoder.decode(packet);
+            }
+        });
+        consumers.flush();
+        return count;
+    }
+
+    /**
+     * Visit every frame, in the order written.
+     * 
+     * @return the number of frames
+     */
+    public int read(FrameConsumer consumer) throws IOException, ProtocolException {
+        Path index = m_dir.resolve(MappedLogWriter.kIndex);
+        if (!Files.exists(index))
+            return 0;
+        List<String> lines = Files.readAllLines(index, StandardCharsets.US_ASCII);
+        int count = 0;
+        for (String line : lines) {
+            String[] fields = line.split(",");
+            if (fields.length != 3)
+                continue;
+            long sequence = Long.parseLong(fields[0]);
+            Path file = m_dir.resolve(fields[1]);
+            // recycled segments are gone, or renamed with a later sequence.
+            if (!Files.exists(file))
+                continue;
+            count += readSegment(file, sequence, consumer);
+        }
+        return count;
+    }
+
+    private static int readSegment(Path file, long sequence, FrameConsumer consumer)
+            throws IOException, ProtocolException {
+        MappedByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        }
+        if (buf.remaining() < MappedLogWriter.kSegmentHeader)
+            return 0;
+        byte[] magic = new byte[MappedLogWriter.kMagic.length()];
+        buf.get(magic);
+        if (!MappedLogWriter.kMagic.equals(new String(magic, StandardCharsets.US_ASCII))
+                || buf.getLong() != sequence)
+            return 0;
+        int count = 0;
+        while (buf.remaining() >= MappedLogWriter.kFrameHeader) {
+            int length = buf.getInt();
+            if (length <= 0 || buf.remaining() < length + MappedLogWriter.kFrameHeader - 4)
+                break;
+            boolean meta = buf.get() == MappedLogWriter.kMeta;
+            long timeUs = buf.getLong();
+            ByteBuffer packet = buf.slice(buf.position(), length);
+            buf.position(buf.position() + length);
+            consumer.accept(meta, timeUs, packet);
+            count++;
+        }
+        return count;
+    }
+}
@@ -2,6 +2,9 @@ package org.team100.lib.logging.receiver;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -19,27 +22,22 @@ import edu.wpi.first.networktables.DoublePublisher;
 import edu.wpi.first.networktables.IntegerPublisher;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.networktables.PubSubOption;
+import edu.wpi.first.networktables.RawPublisher;
 import edu.wpi.first.networktables.StringPublisher;
-import edu.wpi.first.util.datalog.BooleanLogEntry;
-import edu.wpi.first.util.datalog.DataLog;
-import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
-import edu.wpi.first.util.datalog.DoubleLogEntry;
-import edu.wpi.first.util.datalog.IntegerLogEntry;
-import edu.wpi.first.util.datalog.StringLogEntry;
 
 /**
  * All the publishers and log entries.
  * The meta reader adds new entries here (in its own thread), and the data
  * reader adds items (in its own thread), so we use ConcurrentHashMap.
+ * 
+ * The log file is written by WpiLogWriter, in Java, so with pub false this
+ * runs headless, without JNI or an NT server.
  */
 public class UdpConsumers implements UdpConsumersInterface {
     // see DataLogManager.java
     private static final ZoneId m_utc = ZoneId.of("UTC");
     private static final DateTimeFormatter m_timeFormatter = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")
             .withZone(m_utc);
-    // write to network tables
-    private static final boolean PUB = true;
-
     // write to disk
     private static final boolean LOG = true;
 
@@ -47,33 +45,43 @@ public class UdpConsumers implements UdpConsumersInterface {
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
     private final AtomicInteger counter = new AtomicInteger(0);
 
+    // write to network tables
+    private final boolean m_pub;
+
     NetworkTableInstance inst;
-    DataLog log_file;
+    WpiLogWriter log_file;
 
     volatile long m_timestamp;
+    /** Time for log entries, zero means now. */
+    volatile long m_timeUs;
 
     Map<Integer, BooleanPublisher> booleanPublishers = new ConcurrentHashMap<>();
-    Map<Integer, BooleanLogEntry> booleanEntries = new ConcurrentHashMap<>();
     Map<Integer, DoublePublisher> doublePublishers = new ConcurrentHashMap<>();
-    Map<Integer, DoubleLogEntry> doubleEntries = new ConcurrentHashMap<>();
     Map<Integer, IntegerPublisher> intPublishers = new ConcurrentHashMap<>();
-    Map<Integer, IntegerLogEntry> intEntries = new ConcurrentHashMap<>();
     Map<Integer, DoubleArrayPublisher> doubleArrayPublishers = new ConcurrentHashMap<>();
-    Map<Integer, DoubleArrayLogEntry> doubleArrayEntries = new ConcurrentHashMap<>();
     Map<Integer, StringPublisher> stringPublishers = new ConcurrentHashMap<>();
-    Map<Integer, StringLogEntry> stringEntries = new ConcurrentHashMap<>();
+    Map<Integer, RawPublisher> structPublishers = new ConcurrentHashMap<>();
+    /** Log entry ids, for all the types. */
+    Map<Integer, Integer> entries = new ConcurrentHashMap<>();
 
     public UdpConsumers() {
+        this(true);
+    }
+
+    /** @param pub also publish to network tables */
+    public UdpConsumers(boolean pub) {
+        m_pub = pub;
         scheduler.scheduleAtFixedRate(
                 () -> System.out.printf("counter %d\n", counter.getAndSet(0)),
                 0, 1, SECONDS);
-        if (PUB) {
-            // inst = NetworkTableInstance.getDefault();
-            // inst.startServer();
-        }
         if (LOG) {
-            // log_file = DataLog(dir=LOG_DIR, filename=LOG_FILENAME)
-            // log_file = new DataLog("", "", 0.1);
+            // the decoders flush often, for NT, but the log writes in big
+            // chunks, so it's flushed here.
+            scheduler.scheduleAtFixedRate(() -> {
+                WpiLogWriter log = log_file;
+                if (log != null)
+                    log.flush();
+            }, 1, 1, SECONDS);
         }
     }
 
@@ -93,31 +101,32 @@ public class UdpConsumers implements UdpConsumersInterface {
             m_timestamp = 0;
             
             booleanPublishers.clear();
-            booleanEntries.clear();
+            entries.clear();
             doublePublishers.clear();
-            doubleEntries.clear();
             intPublishers.clear();
-            intEntries.clear();
             doubleArrayPublishers.clear();
-            doubleArrayEntries.clear();
             stringPublishers.clear();
-            stringEntries.clear();
+            structPublishers.clear();
 
-            // make a new log file?
-            if (log_file != null)
-                log_file.close();
-            log_file = new DataLog("", "", 0.1);
-            System.out.println("impl " + log_file.getImpl());
-            Instant i = Instant.ofEpochSecond(timestamp);
-            // TODO: sometimes this fails because the internal
-            // "impl" is somehow null!?
-            log_file.setFilename("FRC_" + m_timeFormatter.format(i) + ".wpilog");
+            // make a new log file
+            if (LOG) {
+                Instant i = Instant.ofEpochSecond(timestamp);
+                try {
+                    if (log_file != null)
+                        log_file.close();
+                    log_file = new WpiLogWriter(Path.of("FRC_" + m_timeFormatter.format(i) + ".wpilog"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
 
             // restart the NT server?
-            if (inst != null)
-                inst.close();
-            inst = NetworkTableInstance.getDefault();
-            inst.startServer();
+            if (m_pub) {
+                if (inst != null)
+                    inst.close();
+                inst = NetworkTableInstance.getDefault();
+                inst.startServer();
+            }
 
             m_timestamp = timestamp;
             return true;
@@ -130,16 +139,15 @@ public class UdpConsumers implements UdpConsumersInterface {
         if (m_timestamp == 0)
             return;
         counter.incrementAndGet();
-        System.out.println("bool " + val);
-        if (PUB) {
+        if (m_pub) {
             BooleanPublisher pub = booleanPublishers.get(key);
             if (pub != null)
                 pub.set(val);
         }
         if (LOG) {
-            BooleanLogEntry entry = booleanEntries.get(key);
-            if (entry != null)
-                entry.append(val);
+            Integer id = entries.get(key);
+            if (id != null)
+                log_file.appendBoolean(id, val, m_timeUs);
         }
     }
 
@@ -148,15 +156,15 @@ public class UdpConsumers implements UdpConsumersInterface {
         if (m_timestamp == 0)
             return;
         counter.incrementAndGet();
-        if (PUB) {
+        if (m_pub) {
             DoublePublisher pub = doublePublishers.get(key);
             if (pub != null)
                 pub.set(val);
         }
         if (LOG) {
-            DoubleLogEntry entry = doubleEntries.get(key);
-            if (entry != null)
-                entry.append(val);
+            Integer id = entries.get(key);
+            if (id != null)
+                log_file.appendDouble(id, val, m_timeUs);
         }
     }
 
@@ -165,15 +173,15 @@ public class UdpConsumers implements UdpConsumersInterface {
         if (m_timestamp == 0)
             return;
         counter.incrementAndGet();
-        if (PUB) {
+        if (m_pub) {
             IntegerPublisher pub = intPublishers.get(key);
             if (pub != null)
                 pub.set(val);
         }
         if (LOG) {
-            IntegerLogEntry entry = intEntries.get(key);
-            if (entry != null)
-                entry.append(val);
+            Integer id = entries.get(key);
+            if (id != null)
+                log_file.appendInteger(id, val, m_timeUs);
         }
     }
 
@@ -182,15 +190,15 @@ public class UdpConsumers implements UdpConsumersInterface {
         if (m_timestamp == 0)
             return;
         counter.incrementAndGet();
-        if (PUB) {
+        if (m_pub) {
             DoubleArrayPublisher pub = doubleArrayPublishers.get(key);
             if (pub != null)
                 pub.set(val);
         }
         if (LOG) {
-            DoubleArrayLogEntry entry = doubleArrayEntries.get(key);
-            if (entry != null)
-                entry.append(val);
+            Integer id = entries.get(key);
+            if (id != null)
+                log_file.appendDoubleArray(id, val, m_timeUs);
         }
     }
 
@@ -199,22 +207,39 @@ public class UdpConsumers implements UdpConsumersInterface {
         if (m_timestamp == 0)
             return;
         counter.incrementAndGet();
-        if (PUB) {
+        if (m_pub) {
             StringPublisher pub = stringPublishers.get(key);
             if (pub != null)
                 pub.set(val);
         }
         if (LOG) {
-            StringLogEntry entry = stringEntries.get(key);
-            if (entry != null)
-                entry.append(val);
+            Integer id = entries.get(key);
+            if (id != null)
+                log_file.appendString(id, val, m_timeUs);
+        }
+    }
+
+    @Override
+    public void acceptStruct(int key, byte[] val) {
+        if (m_timestamp == 0)
+            return;
+        counter.incrementAndGet();
+        if (m_pub) {
+            RawPublisher pub = structPublishers.get(key);
+            if (pub != null)
+                pub.set(val);
+        }
+        if (LOG) {
+            Integer id = entries.get(key);
+            if (id != null)
+                log_file.appendRaw(id, val, m_timeUs);
         }
     }
 
     @Override
     public void acceptMeta(int key, UdpType type, String val) {
         counter.incrementAndGet();
-        if (PUB) {
+        if (m_pub) {
             switch (type) {
                 case BOOLEAN -> {
                     booleanPublishers.computeIfAbsent(key, k -> {
@@ -262,38 +287,76 @@ public class UdpConsumers implements UdpConsumersInterface {
             }
         }
         if (LOG) {
-            switch (type) {
-                case BOOLEAN -> booleanEntries.computeIfAbsent(key,
-                        k -> new BooleanLogEntry(log_file, val));
-                case DOUBLE -> doubleEntries.computeIfAbsent(key,
-                        k -> new DoubleLogEntry(log_file, val));
-                case INT, LONG -> intEntries.computeIfAbsent(key,
-                        k -> new IntegerLogEntry(log_file, val));
-                case DOUBLE_ARRAY -> doubleArrayEntries.computeIfAbsent(key,
-                        k -> new DoubleArrayLogEntry(log_file, val));
-                case STRING -> stringEntries.computeIfAbsent(key,
-                        k -> new StringLogEntry(log_file, val));
-                default -> {
-                    System.out.println("unknown meta type 2");
-                }
+            String logType = switch (type) {
+                case BOOLEAN -> "boolean";
+                case DOUBLE -> "double";
+                case INT, LONG -> "int64";
+                case DOUBLE_ARRAY -> "double[]";
+                case STRING -> "string";
+                default -> null;
+            };
+            if (logType == null) {
+                System.out.println("unknown meta type 2");
+            } else {
+                entries.computeIfAbsent(key,
+                        k -> log_file.start(val, logType, "", m_timeUs));
             }
         }
     }
 
+    @Override
+    public void acceptStructMeta(int key, String label, String typeString) {
+        counter.incrementAndGet();
+        if (m_pub) {
+            structPublishers.computeIfAbsent(key, k -> {
+                var t = inst.getRawTopic(label);
+                var p = t.publish(typeString, PubSubOption.keepDuplicates(true));
+                t.setRetained(true);
+                return p;
+            });
+        }
+        if (LOG) {
+            entries.computeIfAbsent(key,
+                    k -> log_file.start(label, typeString, "", m_timeUs));
+        }
+    }
+
+    /** Schemas are sent before the keys that use them. */
+    @Override
+    public void acceptSchema(String typeString, String schema) {
+        counter.incrementAndGet();
+        if (m_pub && !inst.hasSchema(typeString))
+            inst.addSchema(typeString, "structschema", schema);
+        if (LOG)
+            log_file.addSchema(typeString, schema, m_timeUs);
+    }
+
+    @Override
+    public void setTime(long timeUs) {
+        m_timeUs = timeUs;
+    }
+
     /**
      * Network Tables has a compile-time 2MB output buffer, so it would be good to
      * call flush() often enough to keep it from filling up (thus dropping values).
+     * 
+     * The log is flushed separately, once a second.
      */
     @Override
     public void flush() {
-        if (PUB)
+        if (m_pub)
             inst.flush();
-        if (LOG)
-            log_file.flush();
     }
 
     @Override
     public void close() {
         scheduler.shutdown();
+        if (log_file != null) {
+            try {
+                log_file.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
     }
 }
@@ -16,8 +16,25 @@ public interface UdpConsumersInterface {
 
     void acceptString(int key, String val);
 
+    /** Packed struct bytes, little-endian, as WPILib packs them. */
+    void acceptStruct(int key, byte[] val);
+
     void acceptMeta(int key, UdpType type, String val);
 
+    /** A struct-valued key, with its type string, e.g. "struct:Pose2d". */
+    void acceptStructMeta(int key, String label, String typeString);
+
+    /** The schema for a struct type string. */
+    void acceptSchema(String typeString, String schema);
+
+    /**
+     * Stamp the values that follow with this time, e.g. when converting a
+     * file offline; zero, the default, means now.
+     */
+    default void setTime(long timeUs) {
+        //
+    }
+
     void flush();
 
     void close();
@@ -57,6 +57,10 @@ public class UdpDataDecoder {
                 String v = UdpPrimitiveProtocol.decodeString(buf);
                 m_consumers.acceptString(key, v);
             }
+            case STRUCT -> {
+                byte[] v = UdpPrimitiveProtocol.decodeStruct(buf);
+                m_consumers.acceptStruct(key, v);
+            }
             default -> System.out.println("unknown data decoder type");
         }
         if (flushCounter++ > kFlushFrequency) {
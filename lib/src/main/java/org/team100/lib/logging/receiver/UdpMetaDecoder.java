@@ -31,7 +31,17 @@ public class UdpMetaDecoder {
         int key = UdpPrimitiveProtocol.decodeKey(buf);
         UdpType type = UdpPrimitiveProtocol.decodeType(buf);
         String v = UdpPrimitiveProtocol.decodeString(buf);
-        m_consumers.acceptMeta(key, type, v);
+        switch (type) {
+            case STRUCT -> {
+                String typeString = UdpPrimitiveProtocol.decodeString(buf);
+                m_consumers.acceptStructMeta(key, v, typeString);
+            }
+            case SCHEMA -> {
+                String schema = UdpPrimitiveProtocol.decodeString(buf);
+                m_consumers.acceptSchema(v, schema);
+            }
+            default -> m_consumers.acceptMeta(key, type, v);
+        }
         if (flushCounter++ > kFlushFrequency) {
             m_consumers.flush();
             flushCounter = 0;
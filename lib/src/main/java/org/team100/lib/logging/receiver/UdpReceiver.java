@@ -6,6 +6,8 @@ public class UdpReceiver {
         // sender can go about 30M keys/sec.
         // real consumer can go about 4M keys/sec.
         UdpConsumersInterface consumers = new UdpConsumers();
+        // headless, log file only, no NT server
+        // UdpConsumersInterface consumers = new UdpConsumers(false);
         // the dummy consumer can keep up, about 30M keys/sec
         // UdpConsumersInterface consumers = new DummyUdpConsumers();
         UdpDataDecoder dataDecoder = new UdpDataDecoder(consumers);
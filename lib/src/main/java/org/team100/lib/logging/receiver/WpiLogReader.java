@@ -0,0 +1,408 @@
+package org.team100.lib.logging.receiver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.wpi.first.util.struct.Struct;
+
+/**
+ * Reads .wpilog files for offline analysis, without iterating the whole file
+ * for every question.
+ *
+ * The file is memory-mapped, and scanned once to build an index: for each
+ * entry, the offset, size, and timestamp of each of its records. Only the
+ * record headers are read for this, not the payloads. The index is saved
+ * beside the file (".idx"), and reused if the file hasn't changed.
+ *
+ * Queries use the index to go straight to the records they need, by entry
+ * name and time range, and return primitive columns. Different entries are
+ * independent, so a multi-key query decodes them in parallel.
+ *
+ * Files up to 2 GB. Time queries assume each entry's records are in time
+ * order, which is how DataLog and WpiLogWriter write them.
+ */
+public class WpiLogReader {
+    private static final String kIndexSuffix = ".idx";
+    private static final long kIndexMagic = 0x5431303049445831l;
+    private static final int kIndexVersion = 1;
+    private static final int kControlStart = 0;
+    private static final int kControlFinish = 1;
+    private static final int kControlSetMetadata = 2;
+
+    /** Values with their timestamps, in order. */
+    public record Column(long[] timeUs, double[] values) {
+        public int size() {
+            return timeUs.length;
+        }
+    }
+
+    /** Records of one entry name. */
+    public static class Entry {
+        private final String m_name;
+        private final String m_type;
+        private String m_metadata;
+        private int m_count;
+        private long[] m_timeUs;
+        private int[] m_offset;
+        private int[] m_size;
+
+        Entry(String name, String type, String metadata, int capacity) {
+            m_name = name;
+            m_type = type;
+            m_metadata = metadata;
+            m_timeUs = new long[capacity];
+            m_offset = new int[capacity];
+            m_size = new int[capacity];
+        }
+
+        public String name() {
+            return m_name;
+        }
+
+        /** e.g. "double" or "struct:Pose2d" */
+        public String type() {
+            return m_type;
+        }
+
+        public String metadata() {
+            return m_metadata;
+        }
+
+        public int count() {
+            return m_count;
+        }
+
+        public long timeUs(int i) {
+            return m_timeUs[i];
+        }
+
+        /** Index of the first record at or after the time. */
+        public int indexOf(long timeUs) {
+            int lo = 0;
+            int hi = m_count;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (m_timeUs[mid] < timeUs)
+                    lo = mid + 1;
+                else
+                    hi = mid;
+            }
+            return lo;
+        }
+
+        void add(long timeUs, int offset, int size) {
+            if (m_count == m_timeUs.length) {
+                int capacity = Math.max(16, m_count * 2);
+                m_timeUs = Arrays.copyOf(m_timeUs, capacity);
+                m_offset = Arrays.copyOf(m_offset, capacity);
+                m_size = Arrays.copyOf(m_size, capacity);
+            }
+            m_timeUs[m_count] = timeUs;
+            m_offset[m_count] = offset;
+            m_size[m_count] = size;
+            m_count++;
+        }
+    }
+
+    private final MappedByteBuffer m_buf;
+    /** By name, in the order they first appear. */
+    private final Map<String, Entry> m_entries;
+
+    /** Uses the saved index if it's current, otherwise builds and saves it. */
+    public WpiLogReader(Path file) throws IOException {
+        this(file, true);
+    }
+
+    /** @param useIndexFile load and save the index beside the file */
+    public WpiLogReader(Path file, boolean useIndexFile) throws IOException {
+        long length;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            length = ch.size();
+            if (length > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("file too big " + length);
+            m_buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+        m_buf.order(ByteOrder.LITTLE_ENDIAN);
+        if (!useIndexFile) {
+            m_entries = scan();
+            return;
+        }
+        Path indexFile = file.resolveSibling(file.getFileName() + kIndexSuffix);
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        Map<String, Entry> entries = loadIndex(indexFile, length, modified);
+        if (entries == null) {
+            entries = scan();
+            saveIndex(indexFile, length, modified, entries);
+        }
+        m_entries = entries;
+    }
+
+    public Set<String> names() {
+        return m_entries.keySet();
+    }
+
+    /** Null if there's no such entry. */
+    public Entry entry(String name) {
+        return m_entries.get(name);
+    }
+
+    /** The record payload, as a view of the file. */
+    public ByteBuffer payload(String name, int i) {
+        Entry e = get(name);
+        return m_buf.slice(e.m_offset[i], e.m_size[i]).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * The record, as a number: doubles, floats, int64s, and booleans (as zero
+     * or one).
+     */
+    public double doubleAt(String name, int i) {
+        Entry e = get(name);
+        return number(e, e.m_type, i);
+    }
+
+    /** For "int64" and "boolean" entries. */
+    public long longAt(String name, int i) {
+        Entry e = get(name);
+        int offset = e.m_offset[i];
+        return switch (e.m_type) {
+            case "int64" -> m_buf.getLong(offset);
+            case "boolean" -> m_buf.get(offset) != 0 ? 1 : 0;
+            default -> throw new IllegalArgumentException("not integer: " + name + " " + e.m_type);
+        };
+    }
+
+    public String stringAt(String name, int i) {
+        Entry e = get(name);
+        byte[] b = new byte[e.m_size[i]];
+        m_buf.get(e.m_offset[i], b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    public double[] doubleArrayAt(String name, int i) {
+        Entry e = get(name);
+        double[] result = new double[e.m_size[i] / 8];
+        for (int j = 0; j < result.length; ++j) {
+            result[j] = m_buf.getDouble(e.m_offset[i] + 8 * j);
+        }
+        return result;
+    }
+
+    /** Unpack a struct-valued record, e.g. with Pose2d.struct. */
+    public <T> T structAt(String name, int i, Struct<T> struct) {
+        return struct.unpack(payload(name, i));
+    }
+
+    /** All the values between the times, start inclusive, end exclusive. */
+    public Column doubles(String name, long startUs, long endUs) {
+        Entry e = get(name);
+        int from = e.indexOf(startUs);
+        int to = e.indexOf(endUs);
+        int n = Math.max(0, to - from);
+        long[] t = Arrays.copyOfRange(e.m_timeUs, from, from + n);
+        double[] v = new double[n];
+        String type = e.m_type;
+        for (int i = 0; i < n; ++i) {
+            v[i] = number(e, type, from + i);
+        }
+        return new Column(t, v);
+    }
+
+    public Column doubles(String name) {
+        return doubles(name, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Several entries over the same time range, decoded in parallel.
+     *
+     * @return columns in the same order as the names
+     */
+    public Map<String, Column> doubles(Collection<String> names, long startUs, long endUs) {
+        Map<String, Column> columns = new ConcurrentHashMap<>();
+        names.parallelStream().forEach(name -> columns.put(name, doubles(name, startUs, endUs)));
+        Map<String, Column> result = new LinkedHashMap<>();
+        for (String name : names) {
+            result.put(name, columns.get(name));
+        }
+        return result;
+    }
+
+    private Entry get(String name) {
+        Entry e = m_entries.get(name);
+        if (e == null)
+            throw new IllegalArgumentException("no entry " + name);
+        return e;
+    }
+
+    private double number(Entry e, String type, int i) {
+        int offset = e.m_offset[i];
+        return switch (type) {
+            case "double" -> m_buf.getDouble(offset);
+            case "float" -> m_buf.getFloat(offset);
+            case "int64" -> m_buf.getLong(offset);
+            case "boolean" -> m_buf.get(offset) != 0 ? 1 : 0;
+            default -> throw new IllegalArgumentException("not numeric: " + e.m_name + " " + type);
+        };
+    }
+
+    /**
+     * Read every record header, skipping the payloads, except for control
+     * records. Stops at a truncated record, e.g. if the robot lost power.
+     */
+    private Map<String, Entry> scan() {
+        ByteBuffer buf = m_buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.remaining() < 12)
+            throw new IllegalArgumentException("not a wpilog");
+        byte[] magic = new byte[6];
+        buf.get(magic);
+        if (!"WPILOG".equals(new String(magic, StandardCharsets.US_ASCII)))
+            throw new IllegalArgumentException("not a wpilog");
+        int version = buf.getShort() & 0xffff;
+        if (version < 0x0100)
+            throw new IllegalArgumentException("unsupported version " + version);
+        int extraHeader = buf.getInt();
+        buf.position(buf.position() + extraHeader);
+
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        Map<Integer, Entry> byId = new HashMap<>();
+        while (buf.remaining() > 0) {
+            int bits = buf.get() & 0xff;
+            int idBytes = (bits & 0x3) + 1;
+            int sizeBytes = ((bits >> 2) & 0x3) + 1;
+            int timeBytes = ((bits >> 4) & 0x7) + 1;
+            if (buf.remaining() < idBytes + sizeBytes + timeBytes)
+                break;
+            int id = (int) get(buf, idBytes);
+            long size = get(buf, sizeBytes);
+            long timeUs = get(buf, timeBytes);
+            if (buf.remaining() < size)
+                break;
+            int offset = buf.position();
+            if (id == 0) {
+                control(buf.slice(offset, (int) size).order(ByteOrder.LITTLE_ENDIAN), entries, byId);
+            } else {
+                Entry e = byId.get(id);
+                if (e != null)
+                    e.add(timeUs, offset, (int) size);
+            }
+            buf.position(offset + (int) size);
+        }
+        return entries;
+    }
+
+    private static void control(ByteBuffer buf, Map<String, Entry> entries, Map<Integer, Entry> byId) {
+        int kind = buf.get();
+        int id = buf.getInt();
+        switch (kind) {
+            case kControlStart -> {
+                String name = string(buf);
+                String type = string(buf);
+                String metadata = string(buf);
+                // a restarted entry continues the old one, if the type is the same.
+                Entry e = entries.get(name);
+                if (e == null || !e.m_type.equals(type)) {
+                    e = new Entry(name, type, metadata, 16);
+                    entries.put(name, e);
+                }
+                byId.put(id, e);
+            }
+            case kControlFinish -> byId.remove(id);
+            case kControlSetMetadata -> {
+                Entry e = byId.get(id);
+                if (e != null)
+                    e.m_metadata = string(buf);
+            }
+            default -> {
+                // unknown control record
+            }
+        }
+    }
+
+    private static String string(ByteBuffer buf) {
+        byte[] b = new byte[buf.getInt()];
+        buf.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    /** Little-endian unsigned. */
+    private static long get(ByteBuffer buf, int bytes) {
+        long val = 0;
+        for (int i = 0; i < bytes; ++i) {
+            val |= (buf.get() & 0xffl) << (8 * i);
+        }
+        return val;
+    }
+
+    /** Null if it's missing, or for a different file. */
+    private static Map<String, Entry> loadIndex(Path indexFile, long length, long modified) {
+        if (!Files.exists(indexFile))
+            return null;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readLong() != kIndexMagic
+                    || in.readInt() != kIndexVersion
+                    || in.readLong() != length
+                    || in.readLong() != modified)
+                return null;
+            int n = in.readInt();
+            Map<String, Entry> entries = new LinkedHashMap<>();
+            for (int i = 0; i < n; ++i) {
+                String name = in.readUTF();
+                String type = in.readUTF();
+                String metadata = in.readUTF();
+                int count = in.readInt();
+                Entry e = new Entry(name, type, metadata, count);
+                for (int j = 0; j < count; ++j) {
+                    e.add(in.readLong(), in.readInt(), in.readInt());
+                }
+                entries.put(name, e);
+            }
+            return entries;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** Best effort, e.g. the directory might be read-only. */
+    private static void saveIndex(Path indexFile, long length, long modified, Map<String, Entry> entries) {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(indexFile)))) {
+            out.writeLong(kIndexMagic);
+            out.writeInt(kIndexVersion);
+            out.writeLong(length);
+            out.writeLong(modified);
+            out.writeInt(entries.size());
+            for (Entry e : entries.values()) {
+                out.writeUTF(e.m_name);
+                out.writeUTF(e.m_type);
+                out.writeUTF(e.m_metadata);
+                out.writeInt(e.m_count);
+                for (int j = 0; j < e.m_count; ++j) {
+                    out.writeLong(e.m_timeUs[j]);
+                    out.writeInt(e.m_offset[j]);
+                    out.writeInt(e.m_size[j]);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("can't save index: " + e.getMessage());
+        }
+    }
+}
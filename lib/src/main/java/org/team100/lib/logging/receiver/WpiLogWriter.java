@@ -0,0 +1,251 @@
+package org.team100.lib.logging.receiver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Writes the .wpilog format directly, in Java, without the DataLog JNI, so
+ * the receiver can run headless on a coprocessor, at the rate the sender
+ * produces.
+ *
+ * Records are encoded into a large direct buffer. When it fills up, or on
+ * flush(), the buffer is handed to a writer thread, which writes it to the
+ * file, and a spare buffer takes its place. If all the spares are in use, the
+ * caller waits for one, i.e. the disk is too slow.
+ *
+ * The format is the same one DataLog writes, which AdvantageScope and Glass
+ * read:
+ *
+ * <pre>
+ * header: "WPILOG", version 0x0100, extra header length, extra header
+ * record: bitfield, entry id (1-4 bytes), payload size (1-4 bytes),
+ *         timestamp (1-8 bytes), payload
+ * </pre>
+ *
+ * All little-endian. Entry zero is the control entry, for start records.
+ *
+ * Appends are synchronized, since the receiver uses separate threads for
+ * metadata and data.
+ */
+public class WpiLogWriter implements AutoCloseable {
+    private static final int kDefaultBufferBytes = 4 << 20;
+    private static final int kDefaultBuffers = 4;
+    private static final byte kControlStart = 0;
+
+    private final FileChannel m_channel;
+    private final LongSupplier m_clockUs;
+    private final BlockingQueue<ByteBuffer> m_spare;
+    private final ExecutorService m_executor;
+    private final Set<String> m_schemas;
+    private ByteBuffer m_buf;
+    private int m_nextId;
+
+    /** Uses the wall clock for "now". */
+    public WpiLogWriter(Path file) throws IOException {
+        this(file, kDefaultBufferBytes, kDefaultBuffers, () -> System.nanoTime() / 1000);
+    }
+
+    /**
+     * @param bufferBytes size of each buffer, bigger than any record.
+     * @param buffers     number of buffers, at least two.
+     * @param clockUs     timestamp for appends without one.
+     */
+    public WpiLogWriter(Path file, int bufferBytes, int buffers, LongSupplier clockUs) throws IOException {
+        if (buffers < 2)
+            throw new IllegalArgumentException("need at least two buffers");
+        m_channel = FileChannel.open(file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        m_clockUs = clockUs;
+        m_spare = new ArrayBlockingQueue<>(buffers);
+        for (int i = 1; i < buffers; ++i) {
+            m_spare.add(buffer(bufferBytes));
+        }
+        m_executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "WpiLogWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        m_schemas = new HashSet<>();
+        m_buf = buffer(bufferBytes);
+        m_buf.put("WPILOG".getBytes(StandardCharsets.US_ASCII));
+        m_buf.putShort((short) 0x0100);
+        m_buf.putInt(0);
+        m_nextId = 1;
+    }
+
+    /**
+     * Start an entry.
+     *
+     * @param type e.g. "double", "int64", "double[]", or "struct:Pose2d"
+     * @return the entry id, for appends
+     */
+    public synchronized int start(String name, String type, String metadata, long timeUs) {
+        int id = m_nextId++;
+        byte[] n = name.getBytes(StandardCharsets.UTF_8);
+        byte[] t = type.getBytes(StandardCharsets.UTF_8);
+        byte[] m = metadata.getBytes(StandardCharsets.UTF_8);
+        header(0, 1 + 4 + 4 + n.length + 4 + t.length + 4 + m.length, timeUs);
+        m_buf.put(kControlStart);
+        m_buf.putInt(id);
+        m_buf.putInt(n.length);
+        m_buf.put(n);
+        m_buf.putInt(t.length);
+        m_buf.put(t);
+        m_buf.putInt(m.length);
+        m_buf.put(m);
+        return id;
+    }
+
+    public synchronized boolean hasSchema(String typeString) {
+        return m_schemas.contains(typeString);
+    }
+
+    /**
+     * Write a struct schema, as DataLog.addSchema does, once per type string.
+     *
+     * @param typeString e.g. "struct:Pose2d"
+     */
+    public synchronized void addSchema(String typeString, String schema, long timeUs) {
+        if (!m_schemas.add(typeString))
+            return;
+        int id = start(".schema/" + typeString, "structschema", "", timeUs);
+        appendRaw(id, schema.getBytes(StandardCharsets.UTF_8), timeUs);
+    }
+
+    public synchronized void appendBoolean(int id, boolean val, long timeUs) {
+        header(id, 1, timeUs);
+        m_buf.put((byte) (val ? 1 : 0));
+    }
+
+    public synchronized void appendDouble(int id, double val, long timeUs) {
+        header(id, 8, timeUs);
+        m_buf.putDouble(val);
+    }
+
+    /** For the "int64" type. */
+    public synchronized void appendInteger(int id, long val, long timeUs) {
+        header(id, 8, timeUs);
+        m_buf.putLong(val);
+    }
+
+    public synchronized void appendDoubleArray(int id, double[] val, long timeUs) {
+        header(id, 8 * val.length, timeUs);
+        for (double v : val) {
+            m_buf.putDouble(v);
+        }
+    }
+
+    public synchronized void appendString(int id, String val, long timeUs) {
+        appendRaw(id, val.getBytes(StandardCharsets.UTF_8), timeUs);
+    }
+
+    /** For "raw" and struct types. */
+    public synchronized void appendRaw(int id, byte[] val, long timeUs) {
+        header(id, val.length, timeUs);
+        m_buf.put(val);
+    }
+
+    /** Hand the buffered records to the writer thread. Does nothing once closed. */
+    public synchronized void flush() {
+        if (m_buf.position() == 0 || m_executor.isShutdown())
+            return;
+        ByteBuffer full = m_buf;
+        m_buf = take();
+        full.flip();
+        m_executor.execute(() -> write(full));
+    }
+
+    /** Flush, wait for the writes to finish, and close the file. */
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        m_executor.shutdown();
+        try {
+            m_executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        m_channel.close();
+    }
+
+    /**
+     * Record header, using the fewest bytes for each field, and making room
+     * for the payload.
+     *
+     * Each field is written as all eight bytes, which is faster than one at a
+     * time, at an absolute index, and the position is set once at the end;
+     * the extra bytes are overwritten by whatever comes next, or are past the
+     * limit when the buffer is written.
+     */
+    private void header(int id, int size, long timeUs) {
+        if (timeUs == 0)
+            timeUs = m_clockUs.getAsLong();
+        int idBytes = bytes(id & 0xffffffffL);
+        int sizeBytes = bytes(size & 0xffffffffL);
+        int timeBytes = bytes(timeUs);
+        // room for putLong() to overrun
+        int total = 1 + idBytes + sizeBytes + timeBytes + size + 8;
+        if (total > m_buf.capacity())
+            throw new IllegalArgumentException("record too big: " + total);
+        if (m_buf.remaining() < total)
+            flush();
+        ByteBuffer buf = m_buf;
+        int p = buf.position();
+        buf.put(p, (byte) ((idBytes - 1) | (sizeBytes - 1) << 2 | (timeBytes - 1) << 4));
+        p += 1;
+        buf.putLong(p, id);
+        p += idBytes;
+        buf.putLong(p, size);
+        p += sizeBytes;
+        buf.putLong(p, timeUs);
+        p += timeBytes;
+        buf.position(p);
+    }
+
+    /** Writer thread. */
+    private void write(ByteBuffer buf) {
+        try {
+            while (buf.hasRemaining()) {
+                m_channel.write(buf);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            buf.clear();
+            m_spare.add(buf);
+        }
+    }
+
+    private ByteBuffer take() {
+        try {
+            return m_spare.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** At least one. */
+    private static int bytes(long val) {
+        return Math.max(1, (64 - Long.numberOfLeadingZeros(val) + 7) / 8);
+    }
+
+    private static ByteBuffer buffer(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -30,7 +30,7 @@ public class ArmTrajectories {
         return onePoint(start, end, angle, angle);
     }
 
-    private double degreesFromTranslation2d(Translation2d xy) {
+    static double degreesFromTranslation2d(Translation2d xy) {
         double x = xy.getX();
         double y = xy.getY();
         double constant = 0;
@@ -72,7 +72,7 @@ public class ArmTrajectories {
         return withList(start, list, end, firstDegree, secondDegree);
     }
 
-    private Trajectory withList(
+    Trajectory withList(
             Translation2d start,
             List<Translation2d> list,
             Translation2d end,
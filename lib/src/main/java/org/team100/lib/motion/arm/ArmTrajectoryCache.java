@@ -0,0 +1,227 @@
+package org.team100.lib.motion.arm;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import org.team100.lib.util.Util;
+
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryUtil;
+
+/**
+ * Caches arm trajectories, since generating one takes long enough to stall the
+ * main loop.
+ *
+ * Requests are keyed by the start, via points, end, and control angles,
+ * rounded to a coarse grid, and the trajectory is generated from the rounded
+ * values, so nearby requests share a trajectory, and the start may be off by
+ * up to half a grid step, which the follower's feedback takes care of.
+ *
+ * Misses are generated on a low-priority background thread; the result is a
+ * future, so the caller can check it each loop and start when it's done.
+ *
+ * The cache can be filled at startup, by prefill(), or by load(), which reads
+ * trajectories previously written by save(), e.g. from the deploy directory.
+ */
+public class ArmTrajectoryCache {
+    /** Positions are rounded to this, meters. */
+    private static final double kPositionQuantum = 0.02;
+    /** Control angles are rounded to this, degrees. */
+    private static final double kDegreeQuantum = 1;
+    private static final String kSuffix = ".json";
+
+    /** Rounded request, in quanta. */
+    public record Key(
+            int startX,
+            int startY,
+            List<Integer> via,
+            int endX,
+            int endY,
+            int firstDegree,
+            int secondDegree) {
+
+        static Key of(
+                Translation2d start,
+                List<Translation2d> via,
+                Translation2d end,
+                double firstDegree,
+                double secondDegree) {
+            List<Integer> v = new ArrayList<>();
+            for (Translation2d t : via) {
+                v.add(position(t.getX()));
+                v.add(position(t.getY()));
+            }
+            return new Key(
+                    position(start.getX()),
+                    position(start.getY()),
+                    List.copyOf(v),
+                    position(end.getX()),
+                    position(end.getY()),
+                    degree(firstDegree),
+                    degree(secondDegree));
+        }
+
+        /** For example "30_50_50_30_-45_-45" or "30_50_50_30_0_0_40_40". */
+        String fileName() {
+            StringBuilder b = new StringBuilder();
+            b.append(startX).append('_').append(startY).append('_')
+                    .append(endX).append('_').append(endY).append('_')
+                    .append(firstDegree).append('_').append(secondDegree);
+            for (int i : via) {
+                b.append('_').append(i);
+            }
+            return b.append(kSuffix).toString();
+        }
+
+        static Key parse(String fileName) {
+            String[] f = fileName.substring(0, fileName.length() - kSuffix.length()).split("_");
+            if (f.length < 6 || f.length % 2 != 0)
+                throw new IllegalArgumentException("bad arm trajectory file name " + fileName);
+            List<Integer> v = new ArrayList<>();
+            for (int i = 6; i < f.length; ++i) {
+                v.add(Integer.parseInt(f[i]));
+            }
+            return new Key(
+                    Integer.parseInt(f[0]),
+                    Integer.parseInt(f[1]),
+                    List.copyOf(v),
+                    Integer.parseInt(f[2]),
+                    Integer.parseInt(f[3]),
+                    Integer.parseInt(f[4]),
+                    Integer.parseInt(f[5]));
+        }
+
+        Trajectory generate(ArmTrajectories trajectories) {
+            List<Translation2d> v = new ArrayList<>();
+            for (int i = 0; i < via.size(); i += 2) {
+                v.add(translation(via.get(i), via.get(i + 1)));
+            }
+            return trajectories.withList(
+                    translation(startX, startY),
+                    v,
+                    translation(endX, endY),
+                    firstDegree * kDegreeQuantum,
+                    secondDegree * kDegreeQuantum);
+        }
+
+        private static int position(double meters) {
+            return (int) Math.round(meters / kPositionQuantum);
+        }
+
+        private static int degree(double degrees) {
+            return (int) Math.round(degrees / kDegreeQuantum);
+        }
+
+        private static Translation2d translation(int x, int y) {
+            return new Translation2d(x * kPositionQuantum, y * kPositionQuantum);
+        }
+    }
+
+    private final ArmTrajectories m_trajectories;
+    private final Executor m_executor;
+    private final Map<Key, CompletableFuture<Trajectory>> m_cache;
+
+    /** Generates misses on a single low-priority thread. */
+    public ArmTrajectoryCache(ArmTrajectories trajectories) {
+        this(trajectories, Executors.newSingleThreadExecutor(ArmTrajectoryCache::lowPriority));
+    }
+
+    /** Use Runnable::run as the executor to generate misses synchronously. */
+    public ArmTrajectoryCache(ArmTrajectories trajectories, Executor executor) {
+        m_trajectories = trajectories;
+        m_executor = executor;
+        m_cache = new ConcurrentHashMap<>();
+    }
+
+    /** A straight line, as in ArmTrajectories.makeTrajectory(). */
+    public CompletableFuture<Trajectory> makeTrajectory(Translation2d start, Translation2d end) {
+        double angle = ArmTrajectories.degreesFromTranslation2d(end.minus(start));
+        return get(start, List.of(), end, angle, angle);
+    }
+
+    public CompletableFuture<Trajectory> get(
+            Translation2d start,
+            List<Translation2d> via,
+            Translation2d end,
+            double firstDegree,
+            double secondDegree) {
+        return get(Key.of(start, via, end, firstDegree, secondDegree));
+    }
+
+    /** Start generating straight lines between all pairs of the positions. */
+    public void prefill(List<Translation2d> positions) {
+        for (Translation2d start : positions) {
+            for (Translation2d end : positions) {
+                if (!start.equals(end))
+                    makeTrajectory(start, end);
+            }
+        }
+    }
+
+    /** Number of entries, including those still being generated. */
+    public int size() {
+        return m_cache.size();
+    }
+
+    /**
+     * Write the finished, non-empty trajectories to the directory, one file
+     * each, named by key.
+     */
+    public void save(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (Map.Entry<Key, CompletableFuture<Trajectory>> e : m_cache.entrySet()) {
+            Trajectory t = e.getValue().getNow(null);
+            if (t == null || t.getStates().isEmpty())
+                continue;
+            TrajectoryUtil.toPathweaverJson(t, dir.resolve(e.getKey().fileName()));
+        }
+    }
+
+    /**
+     * Read trajectories written by save(). Does nothing if the directory doesn't
+     * exist.
+     *
+     * @return the number of trajectories read
+     */
+    public int load(Path dir) throws IOException {
+        if (!Files.isDirectory(dir))
+            return 0;
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + kSuffix)) {
+            for (Path file : files) {
+                Key key;
+                try {
+                    key = Key.parse(file.getFileName().toString());
+                } catch (IllegalArgumentException e) {
+                    Util.warn("skipping " + file + ": " + e.getMessage());
+                    continue;
+                }
+                m_cache.put(key, CompletableFuture.completedFuture(TrajectoryUtil.fromPathweaverJson(file)));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private CompletableFuture<Trajectory> get(Key key) {
+        return m_cache.computeIfAbsent(key,
+                k -> CompletableFuture.supplyAsync(() -> k.generate(m_trajectories), m_executor));
+    }
+
+    private static Thread lowPriority(Runnable r) {
+        Thread thread = new Thread(r, "ArmTrajectoryCache");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -19,6 +19,8 @@ import edu.wpi.first.math.kinematics.ChassisSpeeds;
  * and acceleration.
  */
 public class SwerveState {
+    public static final SwerveStateStruct struct = new SwerveStateStruct();
+
     private final State100 m_x;
     private final State100 m_y;
     private final State100 m_theta;
@@ -18,7 +18,7 @@ import org.team100.lib.motor.MotorPhase;
 import org.team100.lib.motor.NeoCANSparkMotor;
 import org.team100.lib.motor.NeoVortexCANSparkMotor;
 import org.team100.lib.motor.SimulatedBareMotor;
-import org.team100.lib.profile.TrapezoidProfile100;
+import org.team100.lib.profile.SegmentedTrapezoidProfile100;
 
 import edu.wpi.first.math.controller.PIDController;
 
@@ -117,7 +117,7 @@ public class ServoFactory {
                 sensor,
                 maxVelocity,
                 controller);
-        servo.setProfile(new TrapezoidProfile100(maxVelocity, maxAccel, 0.05));
+        servo.setProfile(new SegmentedTrapezoidProfile100(maxVelocity, maxAccel, 0.05));
         return servo;
     }
 
@@ -145,7 +145,7 @@ public class ServoFactory {
                 sensor,
                 maxVelocity,
                 controller);
-        servo.setProfile(new TrapezoidProfile100(maxVelocity, maxAccel, 0.05));
+        servo.setProfile(new SegmentedTrapezoidProfile100(maxVelocity, maxAccel, 0.05));
         return servo;
     }
 
@@ -2,11 +2,14 @@ package org.team100.lib.motor;
 
 import java.util.function.DoubleSupplier;
 
+import org.team100.lib.config.DeviceConfig;
+import org.team100.lib.config.DeviceConfigStage;
 import org.team100.lib.config.Feedforward100;
 import org.team100.lib.config.PIDConstants;
 import org.team100.lib.logging.Level;
 import org.team100.lib.logging.LoggerFactory;
 import org.team100.lib.logging.LoggerFactory.DoubleLogger;
+import org.team100.lib.replay.SensorReplay;
 import org.team100.lib.util.Memo;
 
 import com.revrobotics.CANSparkBase;
@@ -53,23 +56,27 @@ public abstract class CANSparkMotor implements BareMotor {
         m_motor = motor;
         LoggerFactory child = parent.child(this);
         m_ff = ff;
-        // make config synchronous so we can see the errors
-        Rev100.crash(() -> m_motor.setCANTimeout(500));
-        Rev100.baseConfig(m_motor);
-        Rev100.motorConfig(m_motor, IdleMode.kCoast, motorPhase, 20);
-        Rev100.currentConfig(m_motor, currentLimit);
         m_encoder = m_motor.getEncoder();
         m_pidController = m_motor.getPIDController();
-        Rev100.pidConfig(m_pidController, pid);
-        // make everything after this asynchronous.
-        // NOTE: this makes error-checking not work at all.
-        Rev100.crash(() -> m_motor.setCANTimeout(0));
+        // applied concurrently with the other devices, if the stage is open.
+        DeviceConfigStage.submit(DeviceConfig.of("Spark " + m_motor.getDeviceId(), () -> {
+            // make config synchronous so we can see the errors
+            Rev100.crash(() -> m_motor.setCANTimeout(500));
+            Rev100.baseConfig(m_motor);
+            Rev100.motorConfig(m_motor, IdleMode.kCoast, motorPhase, 20);
+            Rev100.currentConfig(m_motor, currentLimit);
+            Rev100.pidConfig(m_pidController, pid);
+            // make everything after this asynchronous.
+            // NOTE: this makes error-checking not work at all.
+            Rev100.crash(() -> m_motor.setCANTimeout(0));
+        }));
         // CACHES
-        m_encoder_position = Memo.ofDouble(m_encoder::getPosition);
-        m_encoder_velocity = Memo.ofDouble(m_encoder::getVelocity);
-        m_current = Memo.ofDouble(m_motor::getOutputCurrent);
-        m_output = Memo.ofDouble(m_motor::getAppliedOutput);
-        m_temp = Memo.ofDouble(m_motor::getMotorTemperature);
+        String name = "Spark " + m_motor.getDeviceId();
+        m_encoder_position = Memo.ofDouble(SensorReplay.wrap(name + "/position", m_encoder::getPosition));
+        m_encoder_velocity = Memo.ofDouble(SensorReplay.wrap(name + "/velocity", m_encoder::getVelocity));
+        m_current = Memo.ofDouble(SensorReplay.wrap(name + "/current", m_motor::getOutputCurrent));
+        m_output = Memo.ofDouble(SensorReplay.wrap(name + "/output", m_motor::getAppliedOutput));
+        m_temp = Memo.ofDouble(SensorReplay.wrap(name + "/temperature", m_motor::getMotorTemperature));
         // LOGGERS
         child.intLogger(Level.TRACE, "Device ID").log(m_motor::getDeviceId);
         m_log_desired_position = child.doubleLogger(Level.DEBUG, "desired position (rev)");
@@ -98,7 +105,7 @@ public abstract class CANSparkMotor implements BareMotor {
     @Override
     public void setTorqueLimit(double torqueNm) {
         int currentA = (int) (torqueNm / kTNm_amp());
-        Rev100.currentConfig(m_motor, currentA);
+        DeviceConfigStage.defer(() -> Rev100.currentConfig(m_motor, currentA));
     }
 
     /**
@@ -212,14 +219,15 @@ public abstract class CANSparkMotor implements BareMotor {
      * Sets integrated sensor position to zero.
      */
     public void resetEncoderPosition() {
-        Rev100.warn(() -> m_encoder.setPosition(0));
+        // not while the config is still running on another thread
+        DeviceConfigStage.defer(() -> Rev100.warn(() -> m_encoder.setPosition(0)));
     }
 
     /**
      * Set integrated sensor position in rotations.
      */
     public void setEncoderPosition(double motorPositionRev) {
-        Rev100.warn(() -> m_encoder.setPosition(motorPositionRev));
+        DeviceConfigStage.defer(() -> Rev100.warn(() -> m_encoder.setPosition(motorPositionRev)));
     }
 
     protected void log() {
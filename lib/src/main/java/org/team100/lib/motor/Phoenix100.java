@@ -22,7 +22,7 @@ public class Phoenix100 {
      * The default is 0.05, so this is double, to eliminate unnecessary config
      * failures.
      */
-    private static final double TIMEOUT_SEC = 0.3;
+    static final double TIMEOUT_SEC = 0.3;
 
     public static void crash(Supplier<StatusCode> s) {
         StatusCode statusCode = s.get();
@@ -40,12 +40,32 @@ public class Phoenix100 {
         }
     }
 
-    public static void baseConfig(TalonFXConfigurator conf) {
-        TalonFXConfiguration base = new TalonFXConfiguration();
-        crash(() -> conf.apply(base, TIMEOUT_SEC));
+    /**
+     * Defaults, plus motor output, current limits, and PID, in one object, so
+     * it can be applied all at once.
+     */
+    public static TalonFXConfiguration config(
+            MotorPhase phase,
+            double supply,
+            double stator,
+            PIDConstants pid) {
+        TalonFXConfiguration config = new TalonFXConfiguration();
+        config.MotorOutput = motorOutputConfigs(phase);
+        config.CurrentLimits = currentLimitsConfigs(supply, stator);
+        config.Slot0 = slot0Configs(pid);
+        return config;
+    }
+
+    /**
+     * @see https://v6.docs.ctr-electronics.com/en/stable/docs/hardware-reference/talonfx/improving-performance-with-current-limits.html
+     * @see https://www.chiefdelphi.com/t/the-brushless-era-needs-sensible-default-current-limits/461056/51
+     */
+    public static void currentConfig(TalonFXConfigurator conf, double supply, double stator) {
+        CurrentLimitsConfigs currentConfigs = currentLimitsConfigs(supply, stator);
+        crash(() -> conf.apply(currentConfigs, TIMEOUT_SEC));
     }
 
-    public static void motorConfig(TalonFXConfigurator conf, MotorPhase phase) {
+    private static MotorOutputConfigs motorOutputConfigs(MotorPhase phase) {
         MotorOutputConfigs motorConfigs = new MotorOutputConfigs();
         motorConfigs.NeutralMode = NeutralModeValue.Brake;
         if (phase == MotorPhase.FORWARD) {
@@ -53,20 +73,16 @@ public class Phoenix100 {
         } else {
             motorConfigs.Inverted = InvertedValue.Clockwise_Positive;
         }
-        crash(() -> conf.apply(motorConfigs, TIMEOUT_SEC));
+        return motorConfigs;
     }
 
-    /**
-     * @see https://v6.docs.ctr-electronics.com/en/stable/docs/hardware-reference/talonfx/improving-performance-with-current-limits.html
-     * @see https://www.chiefdelphi.com/t/the-brushless-era-needs-sensible-default-current-limits/461056/51
-     */
-    public static void currentConfig(TalonFXConfigurator conf, double supply, double stator) {
+    private static CurrentLimitsConfigs currentLimitsConfigs(double supply, double stator) {
         CurrentLimitsConfigs currentConfigs = new CurrentLimitsConfigs();
         currentConfigs.SupplyCurrentLimit = supply;
         currentConfigs.SupplyCurrentLimitEnable = true;
         currentConfigs.StatorCurrentLimit = stator;
         currentConfigs.StatorCurrentLimitEnable = true;
-        crash(() -> conf.apply(currentConfigs, TIMEOUT_SEC));
+        return currentConfigs;
     }
 
     /**
@@ -74,13 +90,13 @@ public class Phoenix100 {
      * control, so the units would be volts per rev/s. For position control we use
      * positionvoltage, so the units would be volts per revolution.
      */
-    public static void pidConfig(TalonFXConfigurator conf, PIDConstants pid) {
+    private static Slot0Configs slot0Configs(PIDConstants pid) {
         Slot0Configs slot0Configs = new Slot0Configs();
         slot0Configs.kV = 0.0; // we use "arbitrary feedforward", not this.
         slot0Configs.kP = pid.getP();
         slot0Configs.kI = pid.getI();
         slot0Configs.kD = pid.getD();
-        crash(() -> conf.apply(slot0Configs, TIMEOUT_SEC));
+        return slot0Configs;
     }
 
     private Phoenix100() {
@@ -2,11 +2,13 @@ package org.team100.lib.motor;
 
 import java.util.function.DoubleSupplier;
 
+import org.team100.lib.config.DeviceConfigStage;
 import org.team100.lib.config.Feedforward100;
 import org.team100.lib.config.PIDConstants;
 import org.team100.lib.logging.Level;
 import org.team100.lib.logging.LoggerFactory;
 import org.team100.lib.logging.LoggerFactory.DoubleLogger;
+import org.team100.lib.replay.SensorReplay;
 import org.team100.lib.util.Memo;
 import org.team100.lib.util.Util;
 
@@ -73,25 +75,28 @@ public abstract class Talon6Motor implements BareMotor {
         m_ff = ff;
         m_supplyLimit = supplyLimit;
 
-        TalonFXConfigurator talonFXConfigurator = m_motor.getConfigurator();
-        Phoenix100.baseConfig(talonFXConfigurator);
-        Phoenix100.motorConfig(talonFXConfigurator, motorPhase);
-        Phoenix100.currentConfig(talonFXConfigurator, supplyLimit, statorLimit);
-        Phoenix100.pidConfig(talonFXConfigurator, lowLevelVelocityConstants);
-
-        Phoenix100.crash(() -> m_motor.getPosition().setUpdateFrequency(50));
-        Phoenix100.crash(() -> m_motor.getVelocity().setUpdateFrequency(50));
-        Phoenix100.crash(() -> m_motor.getTorqueCurrent().setUpdateFrequency(50));
+        // applied concurrently with the other devices, if the stage is open.
+        DeviceConfigStage.submit(new TalonFXDeviceConfig(m_motor,
+                Phoenix100.config(motorPhase, supplyLimit, statorLimit, lowLevelVelocityConstants)));
 
         // each memo refresh calls the motor refresh method
-        m_position = Memo.ofDouble(() -> m_motor.getPosition().refresh().getValueAsDouble());
-        m_velocity = Memo.ofDouble(() -> m_motor.getVelocity().refresh().getValueAsDouble());
-        m_dutyCycle = Memo.ofDouble(() -> m_motor.getDutyCycle().refresh().getValueAsDouble());
-        m_error = Memo.ofDouble(() -> m_motor.getClosedLoopError().refresh().getValueAsDouble());
-        m_supply = Memo.ofDouble(() -> m_motor.getSupplyCurrent().refresh().getValueAsDouble());
-        m_stator = Memo.ofDouble(() -> m_motor.getStatorCurrent().refresh().getValueAsDouble());
-        m_temp = Memo.ofDouble(() -> m_motor.getDeviceTemp().refresh().getValueAsDouble());
-        m_torque = Memo.ofDouble(() -> m_motor.getTorqueCurrent().refresh().getValueAsDouble());
+        String name = "TalonFX " + canId;
+        m_position = Memo.ofDouble(SensorReplay.wrap(name + "/position",
+                () -> m_motor.getPosition().refresh().getValueAsDouble()));
+        m_velocity = Memo.ofDouble(SensorReplay.wrap(name + "/velocity",
+                () -> m_motor.getVelocity().refresh().getValueAsDouble()));
+        m_dutyCycle = Memo.ofDouble(SensorReplay.wrap(name + "/duty cycle",
+                () -> m_motor.getDutyCycle().refresh().getValueAsDouble()));
+        m_error = Memo.ofDouble(SensorReplay.wrap(name + "/error",
+                () -> m_motor.getClosedLoopError().refresh().getValueAsDouble()));
+        m_supply = Memo.ofDouble(SensorReplay.wrap(name + "/supply current",
+                () -> m_motor.getSupplyCurrent().refresh().getValueAsDouble()));
+        m_stator = Memo.ofDouble(SensorReplay.wrap(name + "/stator current",
+                () -> m_motor.getStatorCurrent().refresh().getValueAsDouble()));
+        m_temp = Memo.ofDouble(SensorReplay.wrap(name + "/temperature",
+                () -> m_motor.getDeviceTemp().refresh().getValueAsDouble()));
+        m_torque = Memo.ofDouble(SensorReplay.wrap(name + "/torque current",
+                () -> m_motor.getTorqueCurrent().refresh().getValueAsDouble()));
 
         m_log_desired_duty = child.doubleLogger(Level.TRACE, "desired duty cycle [-1,1]");
         m_log_desired_position = child.doubleLogger(Level.DEBUG, "desired position (rev)");
@@ -126,7 +131,8 @@ public abstract class Talon6Motor implements BareMotor {
     public void setTorqueLimit(double torqueNm) {
         int currentA = (int) (torqueNm / kTNm_amp());
         TalonFXConfigurator talonFXConfigurator = m_motor.getConfigurator();
-        Phoenix100.currentConfig(talonFXConfigurator, m_supplyLimit, currentA);
+        DeviceConfigStage.defer(
+                () -> Phoenix100.currentConfig(talonFXConfigurator, m_supplyLimit, currentA));
     }
 
     /**
@@ -223,8 +229,11 @@ public abstract class Talon6Motor implements BareMotor {
      * at startup.
      */
     public void resetEncoderPosition() {
-        Util.warn("Setting CTRE encoder position is very slow!");
-        Phoenix100.warn(() -> m_motor.setPosition(0, 1));
+        // not while the config is still running on another thread
+        DeviceConfigStage.defer(() -> {
+            Util.warn("Setting CTRE encoder position is very slow!");
+            Phoenix100.warn(() -> m_motor.setPosition(0, 1));
+        });
     }
 
     /**
@@ -234,8 +243,10 @@ public abstract class Talon6Motor implements BareMotor {
      * at startup.
      */
     private void setEncoderPosition(double motorPositionRev) {
-        Util.warn("Setting CTRE encoder position is very slow!");
-        Phoenix100.warn(() -> m_motor.setPosition(motorPositionRev, 1));
+        DeviceConfigStage.defer(() -> {
+            Util.warn("Setting CTRE encoder position is very slow!");
+            Phoenix100.warn(() -> m_motor.setPosition(motorPositionRev, 1));
+        });
     }
 
     /**
@@ -0,0 +1,105 @@
+package org.team100.lib.motor;
+
+import org.team100.lib.config.DeviceConfig;
+import org.team100.lib.util.Util;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.configs.CurrentLimitsConfigs;
+import com.ctre.phoenix6.configs.Slot0Configs;
+import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.hardware.TalonFX;
+
+/**
+ * The whole TalonFX config, applied in one call instead of one per group, and
+ * skipped if the config read back from the device is the same.
+ *
+ * The device stores some values with less precision than a double, so what
+ * comes back isn't exactly what was applied. The values Phoenix100.config()
+ * sets are compared with a tolerance, and everything else, which should be
+ * the defaults, is compared exactly. If a default doesn't round-trip either,
+ * the config is just always applied, as it was before skipping.
+ */
+class TalonFXDeviceConfig implements DeviceConfig {
+    /** Status signal rate for position, velocity, and torque current. */
+    private static final double kUpdateFrequencyHz = 50;
+    /** Relative, or absolute for values less than one. */
+    private static final double kTolerance = 0.001;
+
+    private final TalonFX m_motor;
+    private final TalonFXConfiguration m_config;
+
+    TalonFXDeviceConfig(TalonFX motor, TalonFXConfiguration config) {
+        m_motor = motor;
+        m_config = config;
+    }
+
+    @Override
+    public String name() {
+        return "TalonFX " + m_motor.getDeviceID();
+    }
+
+    @Override
+    public boolean matchesStored() {
+        TalonFXConfiguration stored = new TalonFXConfiguration();
+        StatusCode status = m_motor.getConfigurator().refresh(stored, Phoenix100.TIMEOUT_SEC);
+        if (status.isError())
+            return false;
+        return matches(m_config, stored);
+    }
+
+    @Override
+    public boolean apply() {
+        StatusCode status = m_motor.getConfigurator().apply(m_config, Phoenix100.TIMEOUT_SEC);
+        if (status.isError()) {
+            Util.warn(status.toString());
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void applyVolatile() {
+        Phoenix100.crash(() -> BaseStatusSignal.setUpdateFrequencyForAll(
+                kUpdateFrequencyHz,
+                m_motor.getPosition(),
+                m_motor.getVelocity(),
+                m_motor.getTorqueCurrent()));
+    }
+
+    /**
+     * True if the stored config is within tolerance of the desired one. Changes
+     * the stored one.
+     */
+    static boolean matches(TalonFXConfiguration desired, TalonFXConfiguration stored) {
+        if (stored.MotorOutput.NeutralMode != desired.MotorOutput.NeutralMode
+                || stored.MotorOutput.Inverted != desired.MotorOutput.Inverted)
+            return false;
+        if (!matches(desired.CurrentLimits, stored.CurrentLimits)
+                || !matches(desired.Slot0, stored.Slot0))
+            return false;
+        // close enough, so compare the rest exactly.
+        stored.MotorOutput = desired.MotorOutput;
+        stored.CurrentLimits = desired.CurrentLimits;
+        stored.Slot0 = desired.Slot0;
+        return stored.serialize().equals(desired.serialize());
+    }
+
+    private static boolean matches(CurrentLimitsConfigs desired, CurrentLimitsConfigs stored) {
+        return stored.SupplyCurrentLimitEnable == desired.SupplyCurrentLimitEnable
+                && stored.StatorCurrentLimitEnable == desired.StatorCurrentLimitEnable
+                && close(stored.SupplyCurrentLimit, desired.SupplyCurrentLimit)
+                && close(stored.StatorCurrentLimit, desired.StatorCurrentLimit);
+    }
+
+    private static boolean matches(Slot0Configs desired, Slot0Configs stored) {
+        return close(stored.kP, desired.kP)
+                && close(stored.kI, desired.kI)
+                && close(stored.kD, desired.kD)
+                && close(stored.kV, desired.kV);
+    }
+
+    private static boolean close(double a, double b) {
+        return Math.abs(a - b) <= kTolerance * Math.max(1, Math.max(Math.abs(a), Math.abs(b)));
+    }
+}
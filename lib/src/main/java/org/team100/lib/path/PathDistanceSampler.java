@@ -1,5 +1,7 @@
 package org.team100.lib.path;
 
+import java.util.Arrays;
+
 import org.team100.lib.timing.TimingUtil;
 
 /**
@@ -32,21 +34,26 @@ public class PathDistanceSampler {
             PathPoint point = m_path.getPoint(0);
             return new PathSamplePoint(point.state(), point.index(), point.index());
         }
-        for (int i = 1; i < m_distances.length; ++i) {
-            final PathPoint point = m_path.getPoint(i);
-            if (m_distances[i] >= distance) {
-                final PathPoint prev_s = m_path.getPoint(i - 1);
-                if (Math.abs(m_distances[i] - m_distances[i - 1]) <= 1e-12) {
-                    return new PathSamplePoint(point.state(), point.index(), point.index());
-                } else {
-                    return new PathSamplePoint(
-                            prev_s.state().interpolate(point.state(),
-                                    (distance - m_distances[i - 1]) / (m_distances[i] - m_distances[i - 1])),
-                            i - 1, i);
-                }
-            }
+        // the first point at or beyond the distance; distances never decrease,
+        // so this is a binary search rather than a walk from the start.
+        int i = Arrays.binarySearch(m_distances, distance);
+        if (i < 0)
+            i = -i - 1;
+        else
+            // duplicate distances: use the first
+            while (i > 1 && m_distances[i - 1] >= distance)
+                i--;
+        if (i < 1 || i >= m_distances.length)
+            throw new TimingUtil.TimingException();
+        final PathPoint point = m_path.getPoint(i);
+        final PathPoint prev_s = m_path.getPoint(i - 1);
+        if (Math.abs(m_distances[i] - m_distances[i - 1]) <= 1e-12) {
+            return new PathSamplePoint(point.state(), point.index(), point.index());
         }
-        throw new TimingUtil.TimingException();
+        return new PathSamplePoint(
+                prev_s.state().interpolate(point.state(),
+                        (distance - m_distances[i - 1]) / (m_distances[i] - m_distances[i - 1])),
+                i - 1, i);
     }
 
     public double getMaxDistance() {
@@ -33,15 +33,17 @@ public class AvoidEdges implements Tactic {
     @Override
     public FieldRelativeVelocity apply(FieldRelativeVelocity desired) {
         Translation2d translation = m_poseSupplier.get().getTranslation();
-        FieldRelativeVelocity v = new FieldRelativeVelocity(0, 0, 0);
+        double vx = 0;
+        double vy = 0;
         if (translation.getX() < 1)
-            v = v.plus(new FieldRelativeVelocity(kWallRepulsion, 0, 0));
+            vx += kWallRepulsion;
         if (translation.getX() > 15)
-            v = v.plus(new FieldRelativeVelocity(-kWallRepulsion, 0, 0));
+            vx -= kWallRepulsion;
         if (translation.getY() < 1)
-            v = v.plus(new FieldRelativeVelocity(0, kWallRepulsion, 0));
+            vy += kWallRepulsion;
         if (translation.getY() > 7)
-            v = v.plus(new FieldRelativeVelocity(0, -kWallRepulsion, 0));
+            vy -= kWallRepulsion;
+        FieldRelativeVelocity v = new FieldRelativeVelocity(vx, vy, 0);
         if (m_debug)
             System.out.printf(" avoidEdges (%5.2f, %5.2f)", v.x(), v.y());
         if (m_debug)
@@ -1,9 +1,8 @@
 package org.team100.lib.planner;
 
-import java.util.Map;
 import java.util.function.Supplier;
 
-import org.team100.lib.field.FieldMap2024;
+import org.team100.lib.field.FieldDistanceGrid;
 import org.team100.lib.motion.drivetrain.kinodynamics.FieldRelativeVelocity;
 import org.team100.lib.util.Debug;
 
@@ -19,6 +18,7 @@ public class AvoidSubwoofers implements Tactic {
     private final Supplier<Pose2d> m_drive;
     private final ForceViz m_viz;
     private final boolean m_debug;
+    private final FieldDistanceGrid m_grid;
 
     /**
      * @param drive provides pose
@@ -30,33 +30,22 @@ public class AvoidSubwoofers implements Tactic {
         m_drive = drive;
         m_viz = viz;
         m_debug = debug && Debug.enable();
+        m_grid = FieldDistanceGrid.subwoofers();
     }
 
     @Override
     public FieldRelativeVelocity apply(FieldRelativeVelocity desired) {
-        Pose2d pose = m_drive.get();
-        final double maxDistance = 3;
-        FieldRelativeVelocity v = new FieldRelativeVelocity(0, 0, 0);
-        for (Map.Entry<String, Pose2d> entry : FieldMap2024.subwoofers.entrySet()) {
-            Translation2d target = entry.getValue().getTranslation();
-            Translation2d robotRelativeToTarget = pose.getTranslation().minus(target);
-            double norm = robotRelativeToTarget.getNorm();
-            if (norm < maxDistance) {
-                // unit vector in the direction of the force
-                Translation2d normalized = robotRelativeToTarget.div(norm);
-                // scale the force so that it's zero at the maximum distance, i.e. C0 smooth.
-                double scale = kSubwooferRepulsion * (1 / norm - 1 / maxDistance);
-                Translation2d force = normalized.times(scale);
-                if (m_debug)
-                    System.out.printf(" avoidSubwoofers (%5.2f, %5.2f)", force.getX(), force.getY());
-                FieldRelativeVelocity subwooferRepel = new FieldRelativeVelocity(force.getX(), force.getY(), 0);
-                if (m_debug)
-                    m_viz.tactics(pose.getTranslation(), subwooferRepel);
-                v = v.plus(subwooferRepel);
-            }
-        }
-        return v;
-
+        Translation2d position = m_drive.get().getTranslation();
+        double x = position.getX();
+        double y = position.getY();
+        FieldRelativeVelocity subwooferRepel = new FieldRelativeVelocity(
+                kSubwooferRepulsion * m_grid.repulsionX(x, y),
+                kSubwooferRepulsion * m_grid.repulsionY(x, y),
+                0);
+        if (m_debug)
+            System.out.printf(" avoidSubwoofers (%5.2f, %5.2f)", subwooferRepel.x(), subwooferRepel.y());
+        if (m_debug)
+            m_viz.tactics(position, subwooferRepel);
+        return subwooferRepel;
     }
-
 }
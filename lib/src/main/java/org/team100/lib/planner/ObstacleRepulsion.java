@@ -2,14 +2,14 @@ package org.team100.lib.planner;
 
 import java.util.function.Supplier;
 
-import org.team100.lib.field.FieldMap2024;
+import org.team100.lib.field.FieldDistanceGrid;
 import org.team100.lib.motion.drivetrain.kinodynamics.FieldRelativeVelocity;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Translation2d;
 
 /**
- * Avoid fixed obstacles.
+ * Avoid fixed obstacles, using the precomputed repulsion field.
  */
 public class ObstacleRepulsion implements Tactic {
     private static final double kObstacleRepulsion = 10;
@@ -17,6 +17,7 @@ public class ObstacleRepulsion implements Tactic {
     private final Supplier<Pose2d> m_poseSupplier;
     private final ForceViz m_viz;
     private final boolean m_debug;
+    private final FieldDistanceGrid m_grid;
 
     /**
      * @param drive provides pose
@@ -28,33 +29,24 @@ public class ObstacleRepulsion implements Tactic {
         m_poseSupplier = poseSupplier;
         m_viz = viz;
         m_debug = debug;
+        m_grid = FieldDistanceGrid.stagePosts();
     }
 
     @Override
     public FieldRelativeVelocity apply(FieldRelativeVelocity desired) {
-        Pose2d myPosition = m_poseSupplier.get();
-        final double maxDistance = 1.5;
-        FieldRelativeVelocity v = new FieldRelativeVelocity(0, 0, 0);
-        for (Pose2d pose : FieldMap2024.stagePosts.values()) {
-            Translation2d target = pose.getTranslation();
-            Translation2d robotRelativeToTarget = myPosition.getTranslation().minus(target);
-            double norm = robotRelativeToTarget.getNorm();
-            if (norm < maxDistance) {
-                // unit vector in the direction of the force
-                Translation2d normalized = robotRelativeToTarget.div(norm);
-                // scale the force so that it's zero at the maximum distance, i.e. C0 smooth.
-                // the minimum distance is something like 0.75, so
-                // the maximum force is (1.3-0.3) = 0.6 * k
-                double scale = kObstacleRepulsion * (1 / norm - 1 / maxDistance);
-                Translation2d force = normalized.times(scale);
-                if (m_debug)
-                    System.out.printf(" obstacleRepulsion (%5.2f, %5.2f)", force.getX(), force.getY());
-                FieldRelativeVelocity repel = new FieldRelativeVelocity(force.getX(), force.getY(), 0);
-                if (m_debug)
-                    m_viz.tactics(target, repel);
-                v = v.plus(repel);
-            }
-        }
-        return v;
+        Translation2d position = m_poseSupplier.get().getTranslation();
+        double x = position.getX();
+        double y = position.getY();
+        // the kernel is zero at 1.5 m, and the minimum distance is something like
+        // 0.75, so the maximum force is (1.3-0.3) = 0.6 * k
+        FieldRelativeVelocity repel = new FieldRelativeVelocity(
+                kObstacleRepulsion * m_grid.repulsionX(x, y),
+                kObstacleRepulsion * m_grid.repulsionY(x, y),
+                0);
+        if (m_debug)
+            System.out.printf(" obstacleRepulsion (%5.2f, %5.2f)", repel.x(), repel.y());
+        if (m_debug)
+            m_viz.tactics(position, repel);
+        return repel;
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,12 @@
 package org.team100.lib.planner;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.NavigableMap;
 import java.util.function.Supplier;
 
-import org.team100.lib.camera.RobotSighting;
+import org.team100.lib.camera.SightingStore;
 import org.team100.lib.motion.drivetrain.kinodynamics.FieldRelativeVelocity;
 import org.team100.lib.util.Debug;
 
 import edu.wpi.first.math.geometry.Pose2d;
-import edu.wpi.first.math.geometry.Translation2d;
 
 /**
  * Avoid other robots.
@@ -18,11 +14,14 @@ import edu.wpi.first.math.geometry.Translation2d;
  */
 public class RobotRepulsion implements Tactic {
     private static final double kRobotRepulsion = 8;
+    private static final double kMaxDistance = 3;
 
     private final Supplier<Pose2d> m_drive;
-    private final Supplier<NavigableMap<Double, RobotSighting>> m_camera;
+    private final Supplier<SightingStore> m_camera;
     private final ForceViz m_viz;
     private final boolean m_debug;
+    /** Reusable query result. */
+    private final int[] m_near = new int[32];
 
     /**
      * @param drive  provides pose
@@ -30,7 +29,7 @@ public class RobotRepulsion implements Tactic {
      */
     public RobotRepulsion(
             Supplier<Pose2d> drive,
-            Supplier<NavigableMap<Double, RobotSighting>> camera,
+            Supplier<SightingStore> camera,
             ForceViz viz,
             boolean debug) {
         m_drive = drive;
@@ -43,44 +42,33 @@ public class RobotRepulsion implements Tactic {
     @Override
     public FieldRelativeVelocity apply(FieldRelativeVelocity myVelocity) {
         Pose2d myPosition = m_drive.get();
-        final double maxDistance = 3;
         FieldRelativeVelocity v = new FieldRelativeVelocity(0, 0, 0);
-        List<Translation2d> nearby = new ArrayList<>();
-        // look at entries in order of decreasing timestamp
-        NavigableMap<Double, RobotSighting> recentSightings = m_camera.get();
-        for (RobotSighting sight : recentSightings.values()) {
-            Translation2d mostRecent = sight.position();
-            if (!nearby.isEmpty()) {
-                Translation2d nearest = mostRecent.nearest(nearby);
-                if (mostRecent.getDistance(nearest) < 1) {
-                    // ignore near-duplicates
-                    continue;
-                }
-            }
-            nearby.add(mostRecent);
-            double distance = myPosition.getTranslation().getDistance(mostRecent);
-            if (distance > 4) // don't react to far-away obstacles
+        // the store merges near-duplicate sightings into tracks.
+        SightingStore robots = m_camera.get();
+        int n = robots.near(myPosition.getX(), myPosition.getY(), kMaxDistance, m_near);
+        for (int i = 0; i < n; ++i) {
+            int track = m_near[i];
+            double dx = myPosition.getX() - robots.x(track);
+            double dy = myPosition.getY() - robots.y(track);
+            double norm = Math.hypot(dx, dy);
+            if (norm < 1e-6)
                 continue;
-            Translation2d robotRelativeToTarget = myPosition.getTranslation().minus(mostRecent);
-            double norm = robotRelativeToTarget.getNorm();
-            if (norm < maxDistance) {
-                // unit vector in the direction of the force
-                Translation2d normalized = robotRelativeToTarget.div(norm);
-                // scale the force so that it's zero at the maximum distance, i.e. C0 smooth.
-                // the minimum distance is something like 0.75 or 1, so
-                // the maximum force is (1.3-0.3) = 1 * k
-                double scale = kRobotRepulsion * (1 / norm - 1 / maxDistance);
-                Translation2d force = normalized.times(scale);
+            // scale the force so that it's zero at the maximum distance, i.e. C0 smooth.
+            // the minimum distance is something like 0.75 or 1, so
+            // the maximum force is (1.3-0.3) = 1 * k
+            double scale = kRobotRepulsion * (1 / norm - 1 / kMaxDistance);
+            // unit vector in the direction of the force
+            double fx = scale * dx / norm;
+            double fy = scale * dy / norm;
+            if (m_debug)
+                System.out.printf(" robotRepulsion target (%5.2f, %5.2f) range %5.2f F (%5.2f, %5.2f)",
+                        robots.x(track), robots.y(track), norm, fx, fy);
+            FieldRelativeVelocity robotRepel = new FieldRelativeVelocity(fx, fy, 0);
+            if (myVelocity.dot(robotRepel) < 0) {
+                // don't bother repelling if we're heading away
                 if (m_debug)
-                    System.out.printf(" robotRepulsion target (%5.2f, %5.2f) range %5.2f F (%5.2f, %5.2f)",
-                            mostRecent.getX(), mostRecent.getY(), norm, force.getX(), force.getY());
-                FieldRelativeVelocity robotRepel = new FieldRelativeVelocity(force.getX(), force.getY(), 0);
-                if (myVelocity.dot(robotRepel) < 0) {
-                    // don't bother repelling if we're heading away
-                    if (m_debug)
-                        m_viz.tactics(myPosition.getTranslation(), robotRepel);
-                    v = v.plus(robotRepel);
-                }
+                    m_viz.tactics(myPosition.getTranslation(), robotRepel);
+                v = v.plus(robotRepel);
             }
         }
         return v;
@@ -2,7 +2,7 @@ package org.team100.lib.planner;
 
 import java.util.function.Supplier;
 
-import org.team100.lib.field.FieldMap2024;
+import org.team100.lib.field.FieldDistanceGrid;
 import org.team100.lib.motion.drivetrain.kinodynamics.FieldRelativeVelocity;
 import org.team100.lib.util.Debug;
 
@@ -19,6 +19,7 @@ public class SteerAroundObstacles implements Tactic {
     private final ForceViz m_viz;
     private final Heuristics m_heuristics;
     private final boolean m_debug;
+    private final FieldDistanceGrid m_grid;
 
     /**
      * @param drive provides pose
@@ -31,39 +32,42 @@ public class SteerAroundObstacles implements Tactic {
         m_viz = viz;
         m_heuristics = new Heuristics(debug);
         m_debug = debug && Debug.enable();
-
+        m_grid = FieldDistanceGrid.stagePosts();
     }
 
+    /**
+     * Steers around the nearest post only, which is found in the precomputed
+     * grid, so the cost doesn't depend on the number of posts.
+     */
     @Override
     public FieldRelativeVelocity apply(FieldRelativeVelocity velocity) {
-        Pose2d myPosition = m_drive.get();
+        Translation2d position = m_drive.get().getTranslation();
+        double x = position.getX();
+        double y = position.getY();
         // only look at obstacles less than 1 second away.
         final double maxDistance = velocity.norm();
-        FieldRelativeVelocity v = new FieldRelativeVelocity(0, 0, 0);
-        for (Pose2d pose : FieldMap2024.stagePosts.values()) {
-            Translation2d obstacleLocation = pose.getTranslation();
-            double distance = myPosition.getTranslation().getDistance(obstacleLocation);
-            if (distance > maxDistance) // ignore far-away obstacles
-                continue;
-            FieldRelativeVelocity steer = m_heuristics.steerToAvoid(
-                    myPosition.getTranslation(),
-                    velocity,
-                    obstacleLocation,
-                    1.0);
-            if (steer.norm() < 1e-3)
-                continue;
-            FieldRelativeVelocity force = steer.times(kObstacleSteer);
-            if (m_debug)
-                System.out.printf(" steerAroundObstacles target (%5.2f, %5.2f) F (%5.2f, %5.2f)",
-                        obstacleLocation.getX(),
-                        obstacleLocation.getY(),
-                        force.x(),
-                        force.y());
-            FieldRelativeVelocity steering = new FieldRelativeVelocity(force.x(), force.y(), 0);
-            if (m_debug)
-                m_viz.tactics(pose.getTranslation(), steering);
-            v = v.plus(steering);
-        }
-        return v;
+        // distance to the center
+        double distance = m_grid.distance(x, y) + m_grid.radius();
+        if (distance > maxDistance) // ignore far-away obstacles
+            return FieldRelativeVelocity.zero();
+        Translation2d obstacleLocation = new Translation2d(m_grid.nearestX(x, y), m_grid.nearestY(x, y));
+        FieldRelativeVelocity steer = m_heuristics.steerToAvoid(
+                position,
+                velocity,
+                obstacleLocation,
+                1.0);
+        if (steer.norm() < 1e-3)
+            return FieldRelativeVelocity.zero();
+        FieldRelativeVelocity force = steer.times(kObstacleSteer);
+        if (m_debug)
+            System.out.printf(" steerAroundObstacles target (%5.2f, %5.2f) F (%5.2f, %5.2f)",
+                    obstacleLocation.getX(),
+                    obstacleLocation.getY(),
+                    force.x(),
+                    force.y());
+        FieldRelativeVelocity steering = new FieldRelativeVelocity(force.x(), force.y(), 0);
+        if (m_debug)
+            m_viz.tactics(obstacleLocation, steering);
+        return steering;
     }
 }
@@ -2,11 +2,10 @@ package org.team100.lib.planner;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.NavigableMap;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
-import org.team100.lib.camera.RobotSighting;
+import org.team100.lib.camera.SightingStore;
 import org.team100.lib.motion.drivetrain.kinodynamics.FieldRelativeVelocity;
 import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamics;
 import org.team100.lib.util.Debug;
@@ -22,7 +21,7 @@ import edu.wpi.first.math.geometry.Pose2d;
 public class Tactics implements UnaryOperator<FieldRelativeVelocity> {
     private final SwerveKinodynamics m_swerveKinodynamics;
     private final Supplier<Pose2d> m_drive;
-    private final Supplier<NavigableMap<Double, RobotSighting>> m_camera;
+    private final Supplier<SightingStore> m_camera;
     private final List<Tactic> m_tactics;
     private final ForceViz m_viz;
     private final boolean m_debug;
@@ -41,7 +40,7 @@ public class Tactics implements UnaryOperator<FieldRelativeVelocity> {
     public Tactics(
             SwerveKinodynamics swerveKinodynamics,
             Supplier<Pose2d> drive,
-            Supplier<NavigableMap<Double, RobotSighting>>  camera,
+            Supplier<SightingStore> camera,
             ForceViz viz,
             boolean avoidObstacles,
             boolean avoidEdges,
@@ -0,0 +1,284 @@
+package org.team100.lib.profile;
+
+import org.team100.lib.state.State100;
+import org.team100.lib.util.Util;
+
+import edu.wpi.first.math.MathUtil;
+
+/**
+ * The same minimum-time path as TrapezoidProfile100, but planned once and then
+ * sampled.
+ *
+ * TrapezoidProfile100 keeps no state, so every call works out the whole path
+ * again from the previous setpoint, with all the braking, switching, and
+ * cruising cases. In the usual servo loop, the initial state is just the
+ * previous output, and the goal doesn't change, so all that work produces the
+ * same path every time.
+ *
+ * This class instead computes the path once, as a table of at most four
+ * constant-acceleration segments (braking, accelerating, cruising,
+ * decelerating), and then each call just advances along the table. It replans
+ * if the goal changes, or if the initial state isn't where the plan says it
+ * should be (e.g. the servo was reset to the measurement), by more than the
+ * replan tolerance. The tolerance matters for the goal too: the angular servo
+ * unwraps the goal around the measurement every cycle, which changes it by a
+ * rounding error whenever the measurement moves.
+ *
+ * This is stateful, so each servo needs its own instance.
+ *
+ * The other difference from TrapezoidProfile100 is the reported acceleration:
+ * here it's the acceleration of the segment at the end of dt, even when dt
+ * spans a segment boundary.
+ */
+public class SegmentedTrapezoidProfile100 implements Profile100 {
+    /** Braking, accel, cruise, decel. */
+    private static final int kMaxSegments = 4;
+    private static final double kDefaultReplanTolerance = 1e-6;
+
+    private final TrapezoidProfile100 m_switch;
+    private final double m_maxVelocity;
+    private final double m_maxAcceleration;
+    private final double m_tolerance;
+    private final double m_replanTolerance;
+
+    // Segment table
+    private final double[] m_t0;
+    private final double[] m_x0;
+    private final double[] m_v0;
+    private final double[] m_a;
+    private int m_n;
+    private double m_duration;
+    private boolean m_planned;
+
+    // The goal as given, to notice changes
+    private double m_rawGoalX;
+    private double m_rawGoalV;
+    // The end of the plan
+    private double m_goalX;
+    private double m_goalV;
+    private int m_plans;
+
+    // Progress along the plan
+    private double m_t;
+    private int m_cursor;
+    private double m_lastX;
+    private double m_lastV;
+
+    public SegmentedTrapezoidProfile100(double maxVel, double maxAccel, double tolerance) {
+        this(maxVel, maxAccel, tolerance, kDefaultReplanTolerance);
+    }
+
+    /**
+     * @param replanTolerance replan if the initial state differs from the
+     *                        previous output, or the goal differs from the
+     *                        previous goal, by more than this, in position or
+     *                        velocity.
+     */
+    public SegmentedTrapezoidProfile100(
+            double maxVel,
+            double maxAccel,
+            double tolerance,
+            double replanTolerance) {
+        if (maxVel <= 0)
+            throw new IllegalArgumentException("max velocity must be positive");
+        if (maxAccel <= 0)
+            throw new IllegalArgumentException("max acceleration must be positive");
+        m_switch = new TrapezoidProfile100(maxVel, maxAccel, tolerance);
+        m_maxVelocity = maxVel;
+        m_maxAcceleration = maxAccel;
+        m_tolerance = tolerance;
+        m_replanTolerance = replanTolerance;
+        m_t0 = new double[kMaxSegments];
+        m_x0 = new double[kMaxSegments];
+        m_v0 = new double[kMaxSegments];
+        m_a = new double[kMaxSegments];
+        m_planned = false;
+    }
+
+    @Override
+    public State100 calculate(double dt, State100 initial, State100 goal) {
+        advance(dt, initial, goal);
+        return new State100(m_lastX, m_lastV, acceleration());
+    }
+
+    /** As in TrapezoidProfile100, the ETA is from the initial state. */
+    @Override
+    public ResultWithETA calculateWithETA(double dt, State100 initial, State100 goal) {
+        advance(dt, initial, goal);
+        return new ResultWithETA(
+                new State100(m_lastX, m_lastV, acceleration()),
+                Math.max(0, m_duration - (m_t - dt)));
+    }
+
+    /** Total duration of the current plan. */
+    public double duration() {
+        return m_duration;
+    }
+
+    /** Number of segments in the current plan, for testing. */
+    int segments() {
+        return m_n;
+    }
+
+    /** Number of times the path has been computed, for testing. */
+    int plans() {
+        return m_plans;
+    }
+
+    /**
+     * Move the plan time forward by dt, replanning if needed, and update the
+     * last output.
+     */
+    private void advance(double dt, State100 initial, State100 goal) {
+        if (!m_planned
+                || Math.abs(goal.x() - m_rawGoalX) > m_replanTolerance
+                || Math.abs(goal.v() - m_rawGoalV) > m_replanTolerance
+                || Math.abs(initial.x() - m_lastX) > m_replanTolerance
+                || Math.abs(initial.v() - m_lastV) > m_replanTolerance) {
+            plan(initial, goal);
+        }
+        m_t += dt;
+        sample(m_t);
+    }
+
+    /** Evaluate the table at time t, without allocating. */
+    private void sample(double t) {
+        if (t >= m_duration) {
+            m_lastX = m_goalX;
+            m_lastV = m_goalV;
+            m_cursor = m_n;
+            return;
+        }
+        // time only moves forward, so the search starts at the cursor.
+        while (m_cursor < m_n - 1 && t >= m_t0[m_cursor + 1])
+            m_cursor++;
+        double tau = t - m_t0[m_cursor];
+        m_lastX = m_x0[m_cursor] + m_v0[m_cursor] * tau + 0.5 * m_a[m_cursor] * tau * tau;
+        m_lastV = m_v0[m_cursor] + m_a[m_cursor] * tau;
+    }
+
+    private double acceleration() {
+        if (m_cursor >= m_n)
+            return 0;
+        return m_a[m_cursor];
+    }
+
+    /**
+     * Fill the segment table, using the same cases as TrapezoidProfile100.
+     */
+    private void plan(State100 initialRaw, State100 goalRaw) {
+        if (goalRaw.v() > m_maxVelocity || goalRaw.v() < -m_maxVelocity) {
+            Util.warn("Goal velocity is higher than profile velocity");
+        }
+        State100 goal = new State100(
+                goalRaw.x(),
+                MathUtil.clamp(goalRaw.v(), -m_maxVelocity, m_maxVelocity));
+        m_rawGoalX = goalRaw.x();
+        m_rawGoalV = goalRaw.v();
+        m_goalX = goal.x();
+        m_goalV = goal.v();
+        m_plans++;
+        m_n = 0;
+        m_duration = 0;
+        m_t = 0;
+        m_cursor = 0;
+        m_planned = true;
+
+        double x = initialRaw.x();
+        double v = initialRaw.v();
+
+        // Too-high initial speed is handled with braking
+        if (Math.abs(v) > m_maxVelocity) {
+            double direction = -Math.signum(v);
+            double brakingTime = (Math.abs(v) - m_maxVelocity) / m_maxAcceleration;
+            segment(x, v, direction * m_maxAcceleration, brakingTime);
+            x = x + v * brakingTime + 0.5 * direction * m_maxAcceleration * brakingTime * brakingTime;
+            v = -direction * m_maxVelocity;
+        }
+        State100 initial = new State100(x, v);
+
+        if (goal.near(initial, m_tolerance)) {
+            return;
+        }
+
+        double t1IplusGminus = m_switch.t1IplusGminus(initial, goal);
+        double t1IminusGplus = m_switch.t1IminusGplus(initial, goal);
+
+        if (Double.isNaN(t1IminusGplus) && Double.isNaN(t1IplusGminus)) {
+            Util.warn("Both I-G+ and I+G- are NaN, this should never happen");
+            // stay at the initial state
+            m_goalX = x;
+            m_goalV = v;
+            return;
+        }
+        if (Double.isNaN(t1IplusGminus)) {
+            switchPath(x, v, -1, t1IminusGplus);
+            return;
+        }
+        if (Double.isNaN(t1IminusGplus)) {
+            switchPath(x, v, 1, t1IplusGminus);
+            return;
+        }
+        // on the goal path, so the remaining time is at full accel.
+        double direction;
+        if (MathUtil.isNear(0, t1IminusGplus, 1e-12)) {
+            direction = 1;
+        } else if (MathUtil.isNear(0, t1IplusGminus, 1e-12)) {
+            direction = -1;
+        } else if (t1IminusGplus > t1IplusGminus) {
+            // avoid the little loop in phase space
+            direction = 1;
+        } else {
+            direction = -1;
+        }
+        segment(x, v, direction * m_maxAcceleration, Math.abs((v - m_goalV) / m_maxAcceleration));
+    }
+
+    /**
+     * Accelerate in the direction until the switching point or the velocity
+     * limit, cruise if needed, and then go the other way down the goal path.
+     */
+    private void switchPath(double x, double v, double direction, double timeToSwitch) {
+        double a = direction * m_maxAcceleration;
+        double vSwitch = v + a * timeToSwitch;
+        if (direction * vSwitch <= m_maxVelocity) {
+            segment(x, v, a, timeToSwitch);
+            double xSwitch = x + v * timeToSwitch + 0.5 * a * timeToSwitch * timeToSwitch;
+            segment(xSwitch, vSwitch, -a, Math.abs((vSwitch - m_goalV) / m_maxAcceleration));
+            return;
+        }
+        double vCruise = direction * m_maxVelocity;
+        double timeToCruise = (vCruise - v) / a;
+        segment(x, v, a, timeToCruise);
+        double xCruise = x + v * timeToCruise + 0.5 * a * timeToCruise * timeToCruise;
+        double decelTime = Math.abs((vCruise - m_goalV) / m_maxAcceleration);
+        double decelDistance = vCruise * decelTime - 0.5 * a * decelTime * decelTime;
+        double cruiseTime = Math.max(0, (m_goalX - decelDistance - xCruise) / vCruise);
+        segment(xCruise, vCruise, 0, cruiseTime);
+        segment(xCruise + vCruise * cruiseTime, vCruise, -a, decelTime);
+    }
+
+    /** Append a segment; zero-length segments are skipped. */
+    private void segment(double x, double v, double a, double duration) {
+        if (duration <= 0)
+            return;
+        m_t0[m_n] = m_duration;
+        m_x0[m_n] = x;
+        m_v0[m_n] = v;
+        m_a[m_n] = a;
+        m_n++;
+        m_duration += duration;
+    }
+
+    public double getMaxVelocity() {
+        return m_maxVelocity;
+    }
+
+    public double getMaxAcceleration() {
+        return m_maxAcceleration;
+    }
+
+    public double getTolerance() {
+        return m_tolerance;
+    }
+}
@@ -0,0 +1,63 @@
+package org.team100.lib.replay;
+
+import org.team100.lib.util.Memo;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+
+/**
+ * Runs robot code against a sensor recording, as fast as possible.
+ *
+ * To use it: initialize the HAL, call SensorReplay.startReplay(), construct
+ * the robot code (e.g. the drive subsystem with its pose estimator, the
+ * followers, and the setpoint generator) in the same order as the recorded
+ * robot did, and then call run() with the loop body, e.g. the command
+ * scheduler.
+ *
+ * Each loop, the simulated FPGA clock is stepped by the recorded loop time
+ * (starting at the recorded time, if the clock isn't already past it), the
+ * driver station state is set to the recorded state, and the caches are
+ * reset, so the code under test sees what the robot saw.
+ */
+public class ReplayDriver {
+
+    /**
+     * @return the number of loops run
+     */
+    public static int run(Runnable loopBody) {
+        SensorLogReader reader = SensorReplay.reader();
+        SimHooks.pauseTiming();
+        int loops = 0;
+        double previousSec = Timer.getFPGATimestamp();
+        while (true) {
+            Memo.resetAll();
+            if (!SensorReplay.beginLoop())
+                return loops;
+            double dt = reader.timeSec() - previousSec;
+            if (dt > 0)
+                SimHooks.stepTiming(dt);
+            previousSec = reader.timeSec();
+            DriverStationSim.setEnabled(reader.enabled());
+            DriverStationSim.setAutonomous(reader.autonomous());
+            DriverStationSim.setTest(reader.test());
+            DriverStationSim.setAllianceStationId(station(reader.alliance()));
+            DriverStationSim.notifyNewData();
+            loopBody.run();
+            loops++;
+        }
+    }
+
+    private static AllianceStationID station(int alliance) {
+        return switch (alliance) {
+            case SensorLogWriter.kRed -> AllianceStationID.Red1;
+            case SensorLogWriter.kBlue -> AllianceStationID.Blue1;
+            default -> AllianceStationID.Unknown;
+        };
+    }
+
+    private ReplayDriver() {
+        //
+    }
+}
@@ -0,0 +1,63 @@
+package org.team100.lib.replay;
+
+import org.team100.lib.sensors.Gyro;
+import org.team100.lib.util.Memo;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * Records or replays a gyro, through one cached channel per axis.
+ *
+ * This also makes the gyro readings consistent within each loop, like the
+ * motor sensors, which makes the recording smaller and the replay exact.
+ */
+public class ReplayGyro implements Gyro {
+    private final Gyro m_delegate;
+    private final Memo.DoubleCache m_yaw;
+    private final Memo.DoubleCache m_yawRate;
+    private final Memo.DoubleCache m_pitch;
+    private final Memo.DoubleCache m_roll;
+
+    public ReplayGyro(Gyro delegate) {
+        m_delegate = delegate;
+        m_yaw = new Memo.DoubleCache(SensorReplay.wrap(
+                "gyro yaw", () -> delegate.getYawNWU().getRadians()));
+        m_yawRate = new Memo.DoubleCache(SensorReplay.wrap(
+                "gyro yaw rate", delegate::getYawRateNWU));
+        m_pitch = new Memo.DoubleCache(SensorReplay.wrap(
+                "gyro pitch", () -> delegate.getPitchNWU().getRadians()));
+        m_roll = new Memo.DoubleCache(SensorReplay.wrap(
+                "gyro roll", () -> delegate.getRollNWU().getRadians()));
+    }
+
+    @Override
+    public Rotation2d getYawNWU() {
+        return new Rotation2d(m_yaw.getAsDouble());
+    }
+
+    @Override
+    public double getYawRateNWU() {
+        return m_yawRate.getAsDouble();
+    }
+
+    @Override
+    public Rotation2d getPitchNWU() {
+        return new Rotation2d(m_pitch.getAsDouble());
+    }
+
+    @Override
+    public Rotation2d getRollNWU() {
+        return new Rotation2d(m_roll.getAsDouble());
+    }
+
+    @Override
+    public void periodic() {
+        if (!SensorReplay.replaying())
+            m_delegate.periodic();
+    }
+
+    @Override
+    public String getGlassName() {
+        return m_delegate.getGlassName();
+    }
+}
@@ -0,0 +1,203 @@
+package org.team100.lib.replay;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads a sensor log written by SensorLogWriter, one loop at a time.
+ *
+ * Within a loop, each channel may have been read more than once (e.g. if a
+ * cache was reset mid-loop), so take() returns the values in the order they
+ * were recorded, and then repeats the last one. If a channel wasn't read at
+ * all in a loop, take() returns the last value it had, or NaN if it never had
+ * one.
+ */
+public class SensorLogReader implements Closeable {
+    private static final int kNoPeek = -2;
+
+    private final DataInputStream m_in;
+    private final List<String> m_names = new ArrayList<>();
+    private final List<VisionSample> m_vision = new ArrayList<>();
+
+    // per channel
+    private double[][] m_values = new double[0][];
+    private int[] m_count = new int[0];
+    private int[] m_cursor = new int[0];
+    private double[] m_last = new double[0];
+
+    private int m_peek = kNoPeek;
+    private double m_timeSec;
+    private int m_flags;
+    private int m_alliance;
+    private int m_loops;
+
+    public SensorLogReader(InputStream in) throws IOException {
+        m_in = new DataInputStream(new BufferedInputStream(in, 65536));
+        if (m_in.readInt() != SensorLogWriter.kMagic)
+            throw new IllegalArgumentException("not a sensor log");
+        short version = m_in.readShort();
+        if (version != SensorLogWriter.kVersion)
+            throw new IllegalArgumentException("unsupported sensor log version " + version);
+    }
+
+    /**
+     * Advance to the next loop.
+     *
+     * @return false if there are no more loops
+     */
+    public boolean next() throws IOException {
+        Arrays.fill(m_count, 0);
+        Arrays.fill(m_cursor, 0);
+        m_vision.clear();
+        // find the start of the loop
+        while (true) {
+            int type = read();
+            if (type < 0)
+                return false;
+            if (type == SensorLogWriter.LOOP)
+                break;
+            handle(type);
+        }
+        m_timeSec = m_in.readDouble();
+        m_flags = m_in.readUnsignedByte();
+        m_alliance = m_in.readUnsignedByte();
+        m_loops++;
+        // read the rest of the loop
+        while (true) {
+            int type = peek();
+            if (type < 0 || type == SensorLogWriter.LOOP)
+                return true;
+            handle(read());
+        }
+    }
+
+    /** The next recorded value for the channel in this loop. */
+    public double take(int channel) {
+        if (channel >= m_count.length)
+            return Double.NaN;
+        int n = m_count[channel];
+        if (n == 0)
+            return m_last[channel];
+        return m_values[channel][Math.min(m_cursor[channel]++, n - 1)];
+    }
+
+    /** Name of the channel, or null if it hasn't been defined yet. */
+    public String name(int channel) {
+        if (channel >= m_names.size())
+            return null;
+        return m_names.get(channel);
+    }
+
+    /** Vision payloads received in this loop. */
+    public List<VisionSample> vision() {
+        return m_vision;
+    }
+
+    /** FPGA time at the start of this loop, seconds. */
+    public double timeSec() {
+        return m_timeSec;
+    }
+
+    public boolean enabled() {
+        return (m_flags & SensorLogWriter.kEnabled) != 0;
+    }
+
+    public boolean autonomous() {
+        return (m_flags & SensorLogWriter.kAutonomous) != 0;
+    }
+
+    public boolean test() {
+        return (m_flags & SensorLogWriter.kTest) != 0;
+    }
+
+    /** SensorLogWriter.kNoAlliance, kRed, or kBlue. */
+    public int alliance() {
+        return m_alliance;
+    }
+
+    /** Loops read so far. */
+    public int loops() {
+        return m_loops;
+    }
+
+    @Override
+    public void close() throws IOException {
+        m_in.close();
+    }
+
+    ///////////////////////////////////////////////////////////
+
+    private void handle(int type) throws IOException {
+        switch (type) {
+            case SensorLogWriter.DEF -> {
+                int channel = m_in.readUnsignedShort();
+                String name = m_in.readUTF();
+                ensure(channel);
+                while (m_names.size() <= channel)
+                    m_names.add(null);
+                m_names.set(channel, name);
+            }
+            case SensorLogWriter.DOUBLE -> {
+                int channel = m_in.readUnsignedShort();
+                double value = m_in.readDouble();
+                ensure(channel);
+                int n = m_count[channel];
+                if (n == m_values[channel].length)
+                    m_values[channel] = Arrays.copyOf(m_values[channel], n * 2);
+                m_values[channel][n] = value;
+                m_count[channel] = n + 1;
+                m_last[channel] = value;
+            }
+            case SensorLogWriter.VISION -> {
+                String topic = m_in.readUTF();
+                long serverTimeUs = m_in.readLong();
+                byte[] raw = new byte[m_in.readInt()];
+                m_in.readFully(raw);
+                m_vision.add(new VisionSample(topic, serverTimeUs, raw));
+            }
+            default -> throw new IllegalStateException("unknown record type " + type);
+        }
+    }
+
+    private void ensure(int channel) {
+        if (channel < m_count.length)
+            return;
+        int size = Math.max(channel + 1, m_count.length * 2);
+        int old = m_count.length;
+        m_values = Arrays.copyOf(m_values, size);
+        for (int i = old; i < size; ++i) {
+            m_values[i] = new double[2];
+        }
+        m_count = Arrays.copyOf(m_count, size);
+        m_cursor = Arrays.copyOf(m_cursor, size);
+        m_last = Arrays.copyOf(m_last, size);
+        Arrays.fill(m_last, old, size, Double.NaN);
+    }
+
+    /** Type of the next record, or -1 at the end. */
+    private int read() throws IOException {
+        if (m_peek != kNoPeek) {
+            int type = m_peek;
+            m_peek = kNoPeek;
+            return type;
+        }
+        try {
+            return m_in.readUnsignedByte();
+        } catch (EOFException e) {
+            return -1;
+        }
+    }
+
+    private int peek() throws IOException {
+        if (m_peek == kNoPeek)
+            m_peek = read();
+        return m_peek;
+    }
+}
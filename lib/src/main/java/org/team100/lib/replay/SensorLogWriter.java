@@ -0,0 +1,220 @@
+package org.team100.lib.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Writes the compact binary sensor log read by SensorLogReader.
+ *
+ * The file is a header followed by a stream of records, each starting with a
+ * type byte:
+ *
+ * <pre>
+ * header:  int magic, short version
+ * DEF:     short channel, UTF name
+ * LOOP:    double FPGA time (sec), byte DS flags, byte alliance
+ * DOUBLE:  short channel, double value
+ * VISION:  UTF topic, long server time (us), int length, bytes
+ * </pre>
+ *
+ * Each LOOP record starts a new loop, and everything after it, up to the next
+ * LOOP, belongs to that loop. A DEF appears once per channel, when the channel
+ * is created, which can be in the middle of a loop. A double sensor costs 11
+ * bytes per read.
+ *
+ * The records are encoded into an in-memory chunk; submit() hands the chunk to
+ * a low-priority background thread, which writes it to the stream, so the
+ * loop never waits for the file. Chunks are recycled, so in steady state this
+ * doesn't allocate. A write error on the background thread is thrown by the
+ * next call on the loop thread.
+ *
+ * The put methods are synchronized, since a few sensors are read off the main
+ * thread, but they only ever touch memory.
+ */
+public class SensorLogWriter implements Closeable {
+    static final int kMagic = 0x54313030; // "T100"
+    static final short kVersion = 1;
+
+    static final int DEF = 0;
+    static final int LOOP = 1;
+    static final int DOUBLE = 2;
+    static final int VISION = 3;
+
+    static final int kEnabled = 1;
+    static final int kAutonomous = 2;
+    static final int kTest = 4;
+
+    static final int kNoAlliance = 0;
+    static final int kRed = 1;
+    static final int kBlue = 2;
+
+    /** Encoded records, and the stream to write them with. */
+    private static class Chunk extends ByteArrayOutputStream {
+        final DataOutputStream m_data = new DataOutputStream(this);
+
+        Chunk() {
+            super(4096);
+        }
+    }
+
+    /** Background thread only. */
+    private final OutputStream m_stream;
+    private final Executor m_executor;
+    /** Null unless this writer made the executor. */
+    private final ExecutorService m_ownExecutor;
+    private final Queue<Chunk> m_free;
+    private volatile IOException m_error;
+    private Chunk m_chunk;
+    private DataOutputStream m_out;
+
+    /** Writes on its own low-priority thread. */
+    public SensorLogWriter(OutputStream out) throws IOException {
+        this(out, Executors.newSingleThreadExecutor(SensorLogWriter::lowPriority), true);
+    }
+
+    /** @param executor for the stream writes; Runnable::run for testing. */
+    public SensorLogWriter(OutputStream out, Executor executor) throws IOException {
+        this(out, executor, false);
+    }
+
+    private SensorLogWriter(OutputStream out, Executor executor, boolean own) throws IOException {
+        m_stream = new BufferedOutputStream(out, 65536);
+        m_executor = executor;
+        m_ownExecutor = own ? (ExecutorService) executor : null;
+        m_free = new ConcurrentLinkedQueue<>();
+        m_chunk = new Chunk();
+        m_out = m_chunk.m_data;
+        m_out.writeInt(kMagic);
+        m_out.writeShort(kVersion);
+    }
+
+    public synchronized void def(int channel, String name) throws IOException {
+        check();
+        m_out.writeByte(DEF);
+        m_out.writeShort(channel);
+        m_out.writeUTF(name);
+    }
+
+    /**
+     * @param timeSec  FPGA time at the start of the loop
+     * @param flags    bitwise OR of kEnabled, kAutonomous, kTest
+     * @param alliance kNoAlliance, kRed, or kBlue
+     */
+    public synchronized void loop(double timeSec, int flags, int alliance) throws IOException {
+        check();
+        m_out.writeByte(LOOP);
+        m_out.writeDouble(timeSec);
+        m_out.writeByte(flags);
+        m_out.writeByte(alliance);
+    }
+
+    public synchronized void putDouble(int channel, double value) throws IOException {
+        check();
+        m_out.writeByte(DOUBLE);
+        m_out.writeShort(channel);
+        m_out.writeDouble(value);
+    }
+
+    public synchronized void putVision(String topic, long serverTimeUs, byte[] raw) throws IOException {
+        check();
+        m_out.writeByte(VISION);
+        m_out.writeUTF(topic);
+        m_out.writeLong(serverTimeUs);
+        m_out.writeInt(raw.length);
+        m_out.write(raw);
+    }
+
+    /** Write the records so far in the background, without flushing the stream. */
+    public void submit() throws IOException {
+        submit(false);
+    }
+
+    /** Write the records so far in the background, and flush the stream. */
+    public void flush() throws IOException {
+        submit(true);
+    }
+
+    /** Write everything, close the stream, and wait for that to finish. */
+    @Override
+    public void close() throws IOException {
+        Chunk chunk = swap();
+        try {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    write(chunk, false);
+                    m_stream.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, m_executor).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException u)
+                throw u.getCause();
+            throw e;
+        } finally {
+            if (m_ownExecutor != null)
+                m_ownExecutor.shutdown();
+        }
+        check();
+    }
+
+    private void submit(boolean flush) throws IOException {
+        check();
+        Chunk chunk = swap();
+        m_executor.execute(() -> {
+            try {
+                write(chunk, flush);
+            } catch (IOException e) {
+                m_error = e;
+            }
+        });
+    }
+
+    /** Take the current chunk, and start a new one. */
+    private synchronized Chunk swap() {
+        Chunk chunk = m_chunk;
+        Chunk next = m_free.poll();
+        if (next == null)
+            next = new Chunk();
+        m_chunk = next;
+        m_out = next.m_data;
+        return chunk;
+    }
+
+    /** Background thread only. */
+    private void write(Chunk chunk, boolean flush) throws IOException {
+        try {
+            chunk.writeTo(m_stream);
+            if (flush)
+                m_stream.flush();
+        } finally {
+            chunk.reset();
+            m_free.add(chunk);
+        }
+    }
+
+    private void check() throws IOException {
+        IOException e = m_error;
+        if (e != null)
+            throw e;
+    }
+
+    private static Thread lowPriority(Runnable r) {
+        Thread thread = new Thread(r, "SensorLogWriter");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
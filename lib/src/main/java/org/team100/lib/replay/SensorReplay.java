@@ -0,0 +1,257 @@
+package org.team100.lib.replay;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.DoubleSupplier;
+
+import org.team100.lib.sensors.Gyro;
+import org.team100.lib.util.Util;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Records what the robot sensed, so it can be replayed offline.
+ *
+ * In RECORD mode, every read behind wrap(), every gyro read, and every
+ * vision payload consumed by VisionDataProvider24 is written to a compact
+ * binary log, grouped by loop. In REPLAY mode, the same reads return the
+ * recorded values instead of touching the hardware, so the lib code (pose
+ * estimation, followers, setpoint generation) can be run against real match
+ * data, as fast as the CPU allows. See ReplayDriver.
+ *
+ * Channels are identified by the order they're created, so the code under
+ * replay must create its sensors in the same order as the recorded code did;
+ * each channel also has a name, and a mismatch produces a warning.
+ *
+ * The mode must be chosen before any sensors are created, e.g. at the start of
+ * robotInit(), and the loop must call beginLoop() right after
+ * Memo.resetAll(). In OFF mode, which is the default, nothing is wrapped and
+ * this costs nothing.
+ *
+ * Recording only writes to memory on the calling thread; SensorLogWriter
+ * writes the file in the background. A few sensors are read off the main
+ * thread, so the writer is synchronized. Errors stop the recording with a
+ * warning rather than stopping the robot.
+ */
+public class SensorReplay {
+    public enum Mode {
+        OFF,
+        RECORD,
+        REPLAY
+    }
+
+    /** Flush the recording about once a second. */
+    private static final int kFlushLoops = 50;
+
+    private static volatile Mode s_mode = Mode.OFF;
+    private static volatile SensorLogWriter s_writer;
+    private static SensorLogReader s_reader;
+    private static int s_channels;
+    private static int s_loops;
+
+    /** Start recording to a new file; on failure, warn and stay off. */
+    public static void startRecording(Path path) {
+        try {
+            startRecording(Files.newOutputStream(path));
+            Util.printf("Recording sensors to %s\n", path);
+        } catch (IOException e) {
+            Util.warn("Sensor recording failed: " + e.getMessage());
+        }
+    }
+
+    public static synchronized void startRecording(OutputStream out) throws IOException {
+        stop();
+        s_writer = new SensorLogWriter(out);
+        s_mode = Mode.RECORD;
+    }
+
+    public static void startReplay(Path path) throws IOException {
+        startReplay(Files.newInputStream(path));
+    }
+
+    public static synchronized void startReplay(InputStream in) throws IOException {
+        stop();
+        s_reader = new SensorLogReader(in);
+        s_mode = Mode.REPLAY;
+    }
+
+    /** Close the log and go back to OFF mode. */
+    public static synchronized void stop() {
+        try {
+            if (s_writer != null)
+                s_writer.close();
+            if (s_reader != null)
+                s_reader.close();
+        } catch (IOException e) {
+            Util.warn("Sensor log close failed: " + e.getMessage());
+        }
+        s_writer = null;
+        s_reader = null;
+        s_mode = Mode.OFF;
+        s_channels = 0;
+        s_loops = 0;
+    }
+
+    public static Mode mode() {
+        return s_mode;
+    }
+
+    public static boolean replaying() {
+        return s_mode == Mode.REPLAY;
+    }
+
+    /**
+     * In RECORD mode, records each read of the delegate. In REPLAY mode, ignores
+     * the delegate and returns recorded values. In OFF mode, returns the delegate.
+     */
+    public static synchronized DoubleSupplier wrap(String name, DoubleSupplier delegate) {
+        switch (s_mode) {
+            case RECORD -> {
+                final int channel = s_channels++;
+                try {
+                    s_writer.def(channel, name);
+                } catch (IOException e) {
+                    fail(e);
+                }
+                return () -> {
+                    double value = delegate.getAsDouble();
+                    record(channel, value);
+                    return value;
+                };
+            }
+            case REPLAY -> {
+                final int channel = s_channels++;
+                final SensorLogReader reader = s_reader;
+                String recorded = reader.name(channel);
+                if (recorded != null && !recorded.equals(name))
+                    Util.warn(String.format("Replay channel %d is %s but was recorded as %s",
+                            channel, name, recorded));
+                return () -> reader.take(channel);
+            }
+            default -> {
+                return delegate;
+            }
+        }
+    }
+
+    /** Wraps the gyro for recording or replay, or returns it in OFF mode. */
+    public static Gyro gyro(Gyro delegate) {
+        if (s_mode == Mode.OFF)
+            return delegate;
+        return new ReplayGyro(delegate);
+    }
+
+    /** Record a vision payload, if recording. */
+    public static void recordVision(String topic, long serverTimeUs, byte[] raw) {
+        SensorLogWriter writer = s_writer;
+        if (writer == null)
+            return;
+        try {
+            writer.putVision(topic, serverTimeUs, raw);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /** Vision payloads recorded in the current loop, in REPLAY mode. */
+    public static List<VisionSample> vision() {
+        return s_reader.vision();
+    }
+
+    /**
+     * Call at the start of every loop, right after Memo.resetAll().
+     *
+     * @return false if replaying and there are no more loops.
+     */
+    public static synchronized boolean beginLoop() {
+        switch (s_mode) {
+            case RECORD -> {
+                if (s_writer == null)
+                    return true;
+                try {
+                    // hand off the previous loop
+                    if (++s_loops % kFlushLoops == 0)
+                        s_writer.flush();
+                    else
+                        s_writer.submit();
+                    s_writer.loop(Timer.getFPGATimestamp(), flags(), alliance());
+                } catch (IOException e) {
+                    fail(e);
+                }
+                return true;
+            }
+            case REPLAY -> {
+                try {
+                    return s_reader.next();
+                } catch (IOException e) {
+                    throw new IllegalStateException("Sensor replay failed", e);
+                }
+            }
+            default -> {
+                return true;
+            }
+        }
+    }
+
+    /** The replay source, for ReplayDriver. */
+    static SensorLogReader reader() {
+        if (s_mode != Mode.REPLAY)
+            throw new IllegalStateException("not replaying");
+        return s_reader;
+    }
+
+    ///////////////////////////////////////////////////////////
+
+    private static void record(int channel, double value) {
+        SensorLogWriter writer = s_writer;
+        if (writer == null)
+            return;
+        try {
+            writer.putDouble(channel, value);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /** Stop writing, but stay in RECORD mode so the channels stay consistent. */
+    private static synchronized void fail(IOException e) {
+        if (s_writer == null)
+            return;
+        Util.warn("Sensor recording failed: " + e.getMessage());
+        try {
+            s_writer.close();
+        } catch (IOException e2) {
+            // already failing
+        }
+        s_writer = null;
+    }
+
+    private static int flags() {
+        int flags = 0;
+        if (DriverStation.isEnabled())
+            flags |= SensorLogWriter.kEnabled;
+        if (DriverStation.isAutonomous())
+            flags |= SensorLogWriter.kAutonomous;
+        if (DriverStation.isTest())
+            flags |= SensorLogWriter.kTest;
+        return flags;
+    }
+
+    private static int alliance() {
+        Optional<Alliance> alliance = DriverStation.getAlliance();
+        if (alliance.isEmpty())
+            return SensorLogWriter.kNoAlliance;
+        return alliance.get() == Alliance.Red ? SensorLogWriter.kRed : SensorLogWriter.kBlue;
+    }
+
+    private SensorReplay() {
+        //
+    }
+}
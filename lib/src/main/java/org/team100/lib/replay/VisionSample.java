@@ -0,0 +1,11 @@
+package org.team100.lib.replay;
+
+/**
+ * A raw network tables vision payload, as consumed by VisionDataProvider24.
+ *
+ * @param topic        full topic name, e.g. "vision/1234/5/blips"
+ * @param serverTimeUs network tables server time of the value
+ * @param raw          the struct-array payload
+ */
+public record VisionSample(String topic, long serverTimeUs, byte[] raw) {
+}
@@ -7,10 +7,12 @@ import org.team100.lib.experiments.Experiments;
 import org.team100.lib.logging.LoggerFactory;
 import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamics;
 import org.team100.lib.motion.drivetrain.module.SwerveModuleCollection;
+import org.team100.lib.replay.SensorReplay;
 import org.team100.lib.util.Util;
 
 /**
- * Produces real or simulated gyros depending on identity.
+ * Produces real or simulated gyros depending on identity, wrapped for sensor
+ * recording or replay if that's enabled.
  */
 public class GyroFactory {
 
@@ -19,6 +21,13 @@ public class GyroFactory {
             SwerveKinodynamics kinodynamics,
             SwerveModuleCollection collection,
             AsyncFactory asyncFactory) {
+        return SensorReplay.gyro(make(parent, kinodynamics, collection));
+    }
+
+    private static Gyro make(
+            LoggerFactory parent,
+            SwerveKinodynamics kinodynamics,
+            SwerveModuleCollection collection) {
         switch (Identity.instance) {
             case SWERVE_ONE:
                 return new ReduxGyro(parent, 60);
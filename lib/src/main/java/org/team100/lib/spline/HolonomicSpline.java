@@ -50,6 +50,23 @@ public class HolonomicSpline {
      * @param r1 The ending heading
      */
     public HolonomicSpline(Pose2d p0, Pose2d p1, Rotation2d r0, Rotation2d r1) {
+        this(p0, p1, r0, r1, 0, 0);
+    }
+
+    /**
+     * Specify the curvature and heading rate at the start, e.g. to continue an
+     * existing path without a jump in centripetal acceleration or omega.
+     * 
+     * @param curvature0   rad/m
+     * @param headingRate0 dtheta/ds, rad/m
+     */
+    public HolonomicSpline(
+            Pose2d p0,
+            Pose2d p1,
+            Rotation2d r0,
+            Rotation2d r1,
+            double curvature0,
+            double headingRate0) {
         checkBounds(p0, p1);
         // the 1.2 here is a magic number that makes the spline look nice.
         double scale = 1.2 * GeometryUtil.distance(p0.getTranslation(), p1.getTranslation());
@@ -57,20 +74,22 @@ public class HolonomicSpline {
         double x1 = p1.getTranslation().getX();
         double dx0 = p0.getRotation().getCos() * scale;
         double dx1 = p1.getRotation().getCos() * scale;
-        double ddx0 = 0;
+        // acceleration normal to the course, to produce the curvature
+        double ddx0 = -p0.getRotation().getSin() * curvature0 * scale * scale;
         double ddx1 = 0;
         double y0 = p0.getTranslation().getY();
         double y1 = p1.getTranslation().getY();
         double dy0 = p0.getRotation().getSin() * scale;
         double dy1 = p1.getRotation().getSin() * scale;
-        double ddy0 = 0;
+        double ddy0 = p0.getRotation().getCos() * curvature0 * scale * scale;
         double ddy1 = 0;
 
         this.x = Spline1d.newSpline1d(x0, x1, dx0, dx1, ddx0, ddx1);
         this.y = Spline1d.newSpline1d(y0, y1, dy0, dy1, ddy0, ddy1);
         this.r0 = r0;
         double delta = r0.unaryMinus().rotateBy(r1).getRadians();
-        theta = Spline1d.newSpline1d(0.0, delta, 0, 0, 0, 0);
+        // ds/dp at the start is the scale
+        theta = Spline1d.newSpline1d(0.0, delta, headingRate0 * scale, 0, 0, 0);
     }
 
     static void checkBounds(Pose2d p0, Pose2d p1) {
@@ -233,11 +252,25 @@ public class HolonomicSpline {
         return new Translation2d(x.getPosition(t), y.getPosition(t));
     }
 
+    /** Primitive x, for the parameterizer, which doesn't allocate. */
+    double x(double t) {
+        return x.getPosition(t);
+    }
+
+    double y(double t) {
+        return y.getPosition(t);
+    }
+
+    /** Heading in radians, not wrapped. */
+    double headingRad(double t) {
+        return r0.getRadians() + theta.getPosition(t);
+    }
+
     double dx(double t) {
         return x.getVelocity(t);
     }
 
-    private double dy(double t) {
+    double dy(double t) {
         return y.getVelocity(t);
     }
 
@@ -3,12 +3,10 @@ package org.team100.lib.spline;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.team100.lib.geometry.GeometryUtil;
 import org.team100.lib.geometry.Pose2dWithMotion;
+import org.team100.lib.util.Math100;
 
-import edu.wpi.first.math.geometry.Pose2d;
-import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.geometry.Twist2d;
+import edu.wpi.first.math.MathUtil;
 
 public class SplineGenerator {
     /**
@@ -53,6 +51,14 @@ public class SplineGenerator {
         return rv;
     }
 
+    /**
+     * Subdivide until the constant-twist arc between the ends matches the spline
+     * at the midpoint, in position, heading, and course.
+     * 
+     * This is the same as composing Pose2d and Twist2d objects (log, exp,
+     * transformBy), written out in primitives so that the recursion doesn't
+     * allocate; only the accepted points are allocated.
+     */
     private static void getSegmentArc(
             HolonomicSpline s,
             List<Pose2dWithMotion> rv,
@@ -61,29 +67,78 @@ public class SplineGenerator {
             double maxDx,
             double maxDy,
             double maxDTheta) {
-        Pose2d p0 = s.getPose2d(t0);
-        Pose2d phalf = s.getPose2d(t0 + (t1 - t0) * .5);
-        Pose2d p1 = s.getPose2d(t1);
-        Twist2d twist_full = GeometryUtil.kPoseZero.log(GeometryUtil.transformBy(GeometryUtil.inverse(p0), p1));
-        Pose2d phalf_predicted = GeometryUtil.transformBy(p0,
-                GeometryUtil.kPoseZero.exp(GeometryUtil.scale(twist_full, 0.5)));
-        Pose2d error = GeometryUtil.transformBy(GeometryUtil.inverse(phalf), phalf_predicted);
-        
-        if (GeometryUtil.norm(twist_full) < 1e-6) {
-            // the Rotation2d below will be garbage in this case so give up.
+        double tHalf = t0 + (t1 - t0) * .5;
+        double x0 = s.x(t0);
+        double y0 = s.y(t0);
+        double h0 = s.headingRad(t0);
+        double c0 = Math.cos(h0);
+        double s0 = Math.sin(h0);
+
+        // p1 relative to p0
+        double dx = s.x(t1) - x0;
+        double dy = s.y(t1) - y0;
+        double rx = c0 * dx + s0 * dy;
+        double ry = -s0 * dx + c0 * dy;
+        double dtheta = MathUtil.angleModulus(s.headingRad(t1) - h0);
+
+        // log: the twist from p0 to p1
+        double halfDtheta = dtheta / 2;
+        double cosMinusOne = Math.cos(dtheta) - 1;
+        double halfThetaByTanOfHalfDtheta = Math.abs(cosMinusOne) < 1e-9
+                ? 1.0 - dtheta * dtheta / 12
+                : -(halfDtheta * Math.sin(dtheta)) / cosMinusOne;
+        double twistX = rx * halfThetaByTanOfHalfDtheta + ry * halfDtheta;
+        double twistY = -rx * halfDtheta + ry * halfThetaByTanOfHalfDtheta;
+
+        if (Math.hypot(twistX, twistY) < 1e-6) {
+            // the course below will be garbage in this case so give up.
             return;
         }
-        Rotation2d course_predicted = (new Rotation2d(twist_full.dx, twist_full.dy))
-                .rotateBy(phalf_predicted.getRotation());
 
-        Rotation2d course_half = s.getCourse(t0 + (t1 - t0) * .5).orElse(course_predicted);
-        double course_error = course_predicted.unaryMinus().rotateBy(course_half).getRadians();
-        if (Math.abs(error.getTranslation().getY()) > maxDy ||
-                Math.abs(error.getTranslation().getX()) > maxDx ||
-                Math.abs(error.getRotation().getRadians()) > maxDTheta ||
-                Math.abs(course_error) > maxDTheta) {
-            getSegmentArc(s, rv, t0, (t0 + t1) / 2, maxDx, maxDy, maxDTheta);
-            getSegmentArc(s, rv, (t0 + t1) / 2, t1, maxDx, maxDy, maxDTheta);
+        // exp: half the twist, applied to p0
+        double hx = twistX / 2;
+        double hy = twistY / 2;
+        double sinHalf = Math.sin(halfDtheta);
+        double cosHalf = Math.cos(halfDtheta);
+        double sinc;
+        double cosc;
+        if (Math.abs(halfDtheta) < 1e-9) {
+            sinc = 1.0 - halfDtheta * halfDtheta / 6.0;
+            cosc = 0.5 * halfDtheta;
+        } else {
+            sinc = sinHalf / halfDtheta;
+            cosc = (1 - cosHalf) / halfDtheta;
+        }
+        double ex = hx * sinc - hy * cosc;
+        double ey = hx * cosc + hy * sinc;
+        double predictedX = x0 + c0 * ex - s0 * ey;
+        double predictedY = y0 + s0 * ex + c0 * ey;
+        double predictedHeading = h0 + halfDtheta;
+
+        // error, in the frame of the actual midpoint
+        double halfHeading = s.headingRad(tHalf);
+        double ch = Math.cos(halfHeading);
+        double sh = Math.sin(halfHeading);
+        double ox = predictedX - s.x(tHalf);
+        double oy = predictedY - s.y(tHalf);
+        double errorX = ch * ox + sh * oy;
+        double errorY = -sh * ox + ch * oy;
+        double errorTheta = MathUtil.angleModulus(predictedHeading - halfHeading);
+
+        double coursePredicted = Math.atan2(twistY, twistX) + predictedHeading;
+        double dxHalf = s.dx(tHalf);
+        double dyHalf = s.dy(tHalf);
+        double courseHalf = Math100.epsilonEquals(dxHalf, 0.0) && Math100.epsilonEquals(dyHalf, 0.0)
+                ? coursePredicted
+                : Math.atan2(dyHalf, dxHalf);
+        double courseError = MathUtil.angleModulus(courseHalf - coursePredicted);
+
+        if (Math.abs(errorY) > maxDy ||
+                Math.abs(errorX) > maxDx ||
+                Math.abs(errorTheta) > maxDTheta ||
+                Math.abs(courseError) > maxDTheta) {
+            getSegmentArc(s, rv, t0, tHalf, maxDx, maxDy, maxDTheta);
+            getSegmentArc(s, rv, tHalf, t1, maxDx, maxDy, maxDTheta);
         } else {
             rv.add(s.getPose2dWithMotion(t1));
         }
@@ -13,6 +13,8 @@ import edu.wpi.first.math.MathUtil;
  * Units are meters, radians, and seconds.
  */
 public class State100 {
+    public static final State100Struct struct = new State100Struct();
+
     private final double m_x;
     private final double m_v;
     private final double m_a;
@@ -0,0 +1,44 @@
+package org.team100.lib.state;
+
+import java.nio.ByteBuffer;
+
+import edu.wpi.first.util.struct.Struct;
+
+public class State100Struct implements Struct<State100> {
+
+    @Override
+    public Class<State100> getTypeClass() {
+        return State100.class;
+    }
+
+    @Override
+    public String getTypeString() {
+        return "struct:State100";
+    }
+
+    @Override
+    public int getSize() {
+        return kSizeDouble * 3;
+    }
+
+    @Override
+    public String getSchema() {
+        return "double x;double v;double a";
+    }
+
+    @Override
+    public State100 unpack(ByteBuffer bb) {
+        double x = bb.getDouble();
+        double v = bb.getDouble();
+        double a = bb.getDouble();
+        return new State100(x, v, a);
+    }
+
+    @Override
+    public void pack(ByteBuffer bb, State100 value) {
+        bb.putDouble(value.x());
+        bb.putDouble(value.v());
+        bb.putDouble(value.a());
+    }
+
+}
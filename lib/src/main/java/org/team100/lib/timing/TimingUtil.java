@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.team100.lib.geometry.Pose2dWithMotion;
+import org.team100.lib.path.Path100;
 import org.team100.lib.path.PathDistanceSampler;
 import org.team100.lib.trajectory.Trajectory100;
 import org.team100.lib.util.Util;
@@ -18,6 +19,8 @@ public class TimingUtil {
     private static final double kEpsilon = 1e-6;
     /** this is the default, in order to make the constraints set the actual */
     private static final double HIGH_ACCEL = 1000;
+    /** In adaptive mode, split where the velocity limit changes more than this. */
+    private static final double kRefineFraction = 0.1;
 
     private final List<TimingConstraint> m_constraints;
 
@@ -52,6 +55,73 @@ public class TimingUtil {
         }
     }
 
+    /**
+     * Use the path points themselves, which the spline parameterizer places
+     * densely where curvature and heading rate are high, and sparsely on
+     * straight segments, instead of resampling at uniform distance.
+     * 
+     * Points are added where the gap is more than maxStep, and where the
+     * constraints' velocity limit changes by more than a tenth between
+     * neighbors (e.g. at the edge of a velocity limit region), down to minStep.
+     * 
+     * @param maxStep largest gap between samples, meters
+     * @param minStep smallest gap, when splitting for constraints, meters
+     */
+    public Trajectory100 timeParameterizeTrajectoryAdaptive(
+            Path100 path,
+            double maxStep,
+            double minStep,
+            double start_vel,
+            double end_vel) {
+        try {
+            if (path.length() < 2)
+                throw new IllegalArgumentException();
+            List<Pose2dWithMotion> samples = new ArrayList<>(path.length());
+            Pose2dWithMotion prev = path.getPoint(0).state();
+            samples.add(prev);
+            for (int i = 1; i < path.length(); ++i) {
+                Pose2dWithMotion next = path.getPoint(i).state();
+                int n = (int) Math.ceil(prev.distance(next) / maxStep);
+                for (int j = 1; j <= n; ++j) {
+                    Pose2dWithMotion sample = j == n ? next : prev.interpolate(next, (double) j / n);
+                    refine(samples, samples.get(samples.size() - 1), sample, minStep);
+                    samples.add(sample);
+                }
+                prev = next;
+            }
+            return timeParameterizeTrajectory(samples, start_vel, end_vel);
+        } catch (TimingException e) {
+            e.printStackTrace();
+            Util.warn("Timing exception");
+            return new Trajectory100();
+        }
+    }
+
+    /**
+     * Add samples between a and b (exclusive) where the velocity limit changes
+     * quickly.
+     */
+    private void refine(List<Pose2dWithMotion> samples, Pose2dWithMotion a, Pose2dWithMotion b, double minStep) {
+        if (a.distance(b) < 2 * minStep)
+            return;
+        double va = maxVelocity(a);
+        double vb = maxVelocity(b);
+        if (Math.abs(va - vb) <= kRefineFraction * Math.max(va, vb))
+            return;
+        Pose2dWithMotion mid = a.interpolate(b, 0.5);
+        refine(samples, a, mid, minStep);
+        samples.add(mid);
+        refine(samples, mid, b, minStep);
+    }
+
+    private double maxVelocity(Pose2dWithMotion state) {
+        double v = Double.MAX_VALUE;
+        for (TimingConstraint constraint : m_constraints) {
+            v = Math.min(v, constraint.getMaxVelocity(state).getValue());
+        }
+        return v;
+    }
+
     /**
      * input is some set of samples (could be evenly sampled or not), output is
      * these same samples with time.
@@ -48,6 +48,42 @@ public class Trajectory100 {
         return m_points;
     }
 
+    /**
+     * Index of the first point at or after the time, or the last point, if the
+     * time is past the end.
+     */
+    public int indexAt(double timeS) {
+        int lo = 0;
+        int hi = length() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (getPoint(mid).state().getTimeS() < timeS) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * A new trajectory, with this one's points before the index, followed by the
+     * tail, delayed to start at the time of the index point. The tail should
+     * start at the index point, with the same velocity.
+     */
+    public Trajectory100 splice(int index, Trajectory100 tail) {
+        double t0 = getPoint(index).state().getTimeS();
+        List<TimedPose> states = new ArrayList<>(index + tail.length());
+        for (int i = 0; i < index; ++i) {
+            states.add(getPoint(i).state());
+        }
+        for (TrajectoryPoint p : tail.getPoints()) {
+            TimedPose s = p.state();
+            states.add(new TimedPose(s.state(), t0 + s.getTimeS(), s.velocityM_S(), s.acceleration()));
+        }
+        return new Trajectory100(states);
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
@@ -2,8 +2,12 @@ package org.team100.lib.trajectory;
 
 import java.util.List;
 
+import org.team100.lib.geometry.Pose2dWithMotion;
 import org.team100.lib.path.Path100;
 import org.team100.lib.path.PathDistanceSampler;
+import org.team100.lib.spline.HolonomicSpline;
+import org.team100.lib.spline.SplineGenerator;
+import org.team100.lib.timing.TimedPose;
 import org.team100.lib.timing.TimingConstraint;
 import org.team100.lib.timing.TimingUtil;
 import org.team100.lib.util.Util;
@@ -19,6 +23,8 @@ public class TrajectoryPlanner {
     private static final double kMaxDx = 0.0127; // m
     private static final double kMaxDy = 0.0127; // m
     private static final double kMaxDTheta = Math.toRadians(1.0);
+    /** Largest gap between samples in adaptive mode. */
+    private static final double kMaxStep = 0.1; // m
 
     public static Trajectory100 restToRest(
             List<Pose2d> waypoints,
@@ -62,6 +68,91 @@ public class TrajectoryPlanner {
         }
     }
 
+    /**
+     * Like generateTrajectory, but samples non-uniformly: densely where the path
+     * curves or turns or the constraints change, sparsely elsewhere, so there
+     * are fewer points, which makes generation and sampling faster, with the
+     * same path tolerances.
+     */
+    public static Trajectory100 generateAdaptiveTrajectory(
+            List<Pose2d> waypoints,
+            List<Rotation2d> headings,
+            List<TimingConstraint> constraints,
+            double start_vel,
+            double end_vel) {
+        try {
+            Path100 path = TrajectoryUtil100.trajectoryFromWaypointsAndHeadings(
+                    waypoints, headings, kMaxDx, kMaxDy, kMaxDTheta);
+            TimingUtil u = new TimingUtil(constraints);
+            return u.timeParameterizeTrajectoryAdaptive(
+                    path,
+                    kMaxStep,
+                    kMaxDx,
+                    start_vel,
+                    end_vel);
+        } catch (IllegalArgumentException e) {
+            Util.warn("Bad trajectory input!!");
+            e.printStackTrace();
+            return new Trajectory100();
+        }
+    }
+
+    /**
+     * Replace the part of the trajectory after timeS with a new tail to the new
+     * end, keeping the already-timed prefix, so the cost depends only on the
+     * tail length, not the whole path.
+     * 
+     * The tail starts at the first point at or after timeS, i.e. a lookahead
+     * point that the follower hasn't reached yet, with the same course,
+     * curvature, heading rate, and velocity there, so the splice is smooth.
+     * 
+     * @param current    trajectory being followed
+     * @param timeS      time along the current trajectory to splice, e.g. now
+     *                   plus some lookahead
+     * @param end        new end point, rotation is the course at the end
+     * @param endHeading new end heading
+     * @return the spliced trajectory, same timebase as current, or empty on
+     *         malformed input.
+     */
+    public static Trajectory100 replan(
+            Trajectory100 current,
+            double timeS,
+            Pose2d end,
+            Rotation2d endHeading,
+            List<TimingConstraint> constraints) {
+        try {
+            if (current.isEmpty())
+                throw new IllegalArgumentException("empty trajectory");
+            int index = current.indexAt(timeS);
+            TimedPose splice = current.getPoint(index).state();
+            Pose2dWithMotion state = splice.state();
+            Rotation2d course = state.getCourse().orElse(
+                    end.getTranslation().minus(state.getTranslation()).getAngle());
+            HolonomicSpline spline = new HolonomicSpline(
+                    new Pose2d(state.getTranslation(), course),
+                    end,
+                    state.getHeading(),
+                    endHeading,
+                    state.getCurvature(),
+                    state.getHeadingRate());
+            Path100 path = new Path100(SplineGenerator.parameterizeSplines(
+                    List.of(spline), kMaxDx, kMaxDy, kMaxDTheta));
+            TimingUtil u = new TimingUtil(constraints);
+            Trajectory100 tail = u.timeParameterizeTrajectory(
+                    new PathDistanceSampler(path),
+                    kMaxDx,
+                    splice.velocityM_S(),
+                    0.0);
+            if (tail.isEmpty())
+                return tail;
+            return current.splice(index, tail);
+        } catch (IllegalArgumentException e) {
+            Util.warn("Bad replan input!!");
+            e.printStackTrace();
+            return new Trajectory100();
+        }
+    }
+
     private TrajectoryPlanner() {
         //
     }
@@ -0,0 +1,261 @@
+package org.team100.lib.trajectory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import org.team100.lib.geometry.Pose2dWithMotion;
+import org.team100.lib.timing.TimedPose;
+import org.team100.lib.timing.TimingConstraint;
+import org.team100.lib.util.Util;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.geometry.Twist2d;
+
+/**
+ * Generates trajectories on a worker thread, so that commands don't block the
+ * scheduler on spline optimization and timing in initialize().
+ *
+ * It can also generate speculatively: call prefetch() every cycle with the
+ * current pose and the likely next goals, and when a command asks for one of
+ * those goals, from about the same place, the trajectory is usually already
+ * built.
+ *
+ * A prefetched trajectory starts from where the robot was when it was built,
+ * within kStartToleranceM, and the follower takes up the difference.
+ *
+ * Commands that can't wait for the worker drive a placeholder() until the
+ * future completes; it's a trapezoid profile along the straight line, with no
+ * splines or optimization, so it's cheap enough for initialize().
+ *
+ * Use this from one thread, e.g. the main loop; the futures complete on the
+ * worker.
+ */
+public class TrajectoryService {
+    /** Reuse a prefetched trajectory starting this close to the current pose. */
+    private static final double kStartToleranceM = 0.05;
+    private static final double kStartToleranceRad = 0.05;
+    /** Goals closer than this are the same goal. */
+    private static final double kGoalToleranceM = 0.01;
+    private static final double kGoalToleranceRad = 0.01;
+    /** Cache size limit, oldest entries are dropped first. */
+    private static final int kMaxEntries = 16;
+    /** Placeholder sample period. */
+    private static final double kDtS = 0.02;
+
+    private record Entry(Pose2d start, Pose2d goal, CompletableFuture<Trajectory100> future) {
+    }
+
+    private final List<TimingConstraint> m_constraints;
+    private final Executor m_executor;
+    private final List<Entry> m_entries;
+
+    /** Uses a single daemon worker thread. */
+    public TrajectoryService(List<TimingConstraint> constraints) {
+        this(constraints, Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "TrajectoryService");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /** For testing, or for synchronous generation, use Runnable::run. */
+    public TrajectoryService(List<TimingConstraint> constraints, Executor executor) {
+        m_constraints = constraints;
+        m_executor = executor;
+        m_entries = new ArrayList<>();
+    }
+
+    /** Generates on the calling thread, as TrajectoryPlanner does. */
+    public static TrajectoryService synchronous(List<TimingConstraint> constraints) {
+        return new TrajectoryService(constraints, Runnable::run);
+    }
+
+    /**
+     * Rest-to-rest trajectory through the waypoints, not cached.
+     */
+    public CompletableFuture<Trajectory100> restToRest(
+            List<Pose2d> waypoints,
+            List<Rotation2d> headings) {
+        return CompletableFuture.supplyAsync(
+                () -> TrajectoryPlanner.restToRest(waypoints, headings, m_constraints),
+                m_executor);
+    }
+
+    /**
+     * Rest-to-rest straight line from start to goal, with the course pointing at
+     * the goal. Uses a prefetched trajectory if there is one nearby.
+     */
+    public CompletableFuture<Trajectory100> toGoal(Pose2d start, Pose2d goal) {
+        Entry entry = find(start, goal);
+        if (entry != null)
+            return entry.future();
+        return submit(start, goal).future();
+    }
+
+    /**
+     * Something to drive while toGoal() is in flight: a rest-to-rest trapezoid
+     * profile along the straight line from start to goal, with the heading
+     * interpolated along the way, using the most restrictive of the constraints
+     * at either end. It has the same start, goal, and timebase as the real one,
+     * and is about as fast, so the follower can switch over whenever the real
+     * one is ready.
+     * 
+     * Empty if the goal is (almost) at the start.
+     */
+    public Trajectory100 placeholder(Pose2d start, Pose2d goal) {
+        Translation2d delta = goal.getTranslation().minus(start.getTranslation());
+        double lengthM = delta.getNorm();
+        if (lengthM < kGoalToleranceM)
+            return new Trajectory100();
+        Rotation2d dtheta = goal.getRotation().minus(start.getRotation());
+        // per meter, like the spline path
+        Twist2d direction = new Twist2d(
+                delta.getX() / lengthM,
+                delta.getY() / lengthM,
+                dtheta.getRadians() / lengthM);
+        Pose2dWithMotion s0 = new Pose2dWithMotion(start, direction, 0, 0);
+        Pose2dWithMotion s1 = new Pose2dWithMotion(goal, direction, 0, 0);
+        double maxV = Double.POSITIVE_INFINITY;
+        double maxA = Double.POSITIVE_INFINITY;
+        for (TimingConstraint c : m_constraints) {
+            for (Pose2dWithMotion s : List.of(s0, s1)) {
+                maxV = Math.min(maxV, c.getMaxVelocity(s).getValue());
+                TimingConstraint.MinMaxAcceleration a = c.getMinMaxAcceleration(s, 0);
+                maxA = Math.min(maxA, Math.min(a.getMaxAccel(), -a.getMinAccel()));
+            }
+        }
+        if (!Double.isFinite(maxV) || !Double.isFinite(maxA) || maxV <= 0 || maxA <= 0) {
+            Util.warn("No placeholder without finite limits");
+            return new Trajectory100();
+        }
+        // trapezoid, or triangle if it's too short to reach maxV.
+        double cruiseV = Math.min(maxV, Math.sqrt(maxA * lengthM));
+        double accelS = cruiseV / maxA;
+        double accelM = 0.5 * cruiseV * accelS;
+        double cruiseS = Math.max(0, (lengthM - 2 * accelM) / cruiseV);
+        double totalS = 2 * accelS + cruiseS;
+        List<TimedPose> states = new ArrayList<>();
+        int n = (int) Math.ceil(totalS / kDtS);
+        for (int i = 0; i <= n; ++i) {
+            double t = Math.min(i * kDtS, totalS);
+            double sM;
+            double v;
+            double a;
+            if (t < accelS) {
+                sM = 0.5 * maxA * t * t;
+                v = maxA * t;
+                a = maxA;
+            } else if (t < accelS + cruiseS) {
+                sM = accelM + cruiseV * (t - accelS);
+                v = cruiseV;
+                a = 0;
+            } else {
+                double r = totalS - t;
+                sM = lengthM - 0.5 * maxA * r * r;
+                v = maxA * r;
+                a = -maxA;
+            }
+            Pose2d pose = new Pose2d(
+                    start.getTranslation().interpolate(goal.getTranslation(), sM / lengthM),
+                    start.getRotation().interpolate(goal.getRotation(), sM / lengthM));
+            states.add(new TimedPose(new Pose2dWithMotion(pose, direction, 0, 0), t, v, a));
+        }
+        return new Trajectory100(states);
+    }
+
+    /**
+     * Speculatively generate trajectories from start to each goal, replacing
+     * older ones for the same goal once the robot has moved away from their
+     * start. At most one generation per goal is in flight at a time, so
+     * calling this every cycle is fine.
+     * 
+     * Goals within kStartToleranceM of the start are skipped: the robot is
+     * already there, and the spline would be degenerate.
+     */
+    public void prefetch(Pose2d start, Collection<Pose2d> goals) {
+        for (Pose2d goal : goals) {
+            if (start.getTranslation().getDistance(goal.getTranslation()) < kStartToleranceM)
+                continue;
+            if (find(start, goal) != null)
+                continue;
+            if (inFlight(goal))
+                continue;
+            submit(start, goal);
+        }
+    }
+
+    /** Number of cached trajectories, done or not. */
+    public int size() {
+        return m_entries.size();
+    }
+
+    ///////////////////////////////////////////////
+
+    private Entry submit(Pose2d start, Pose2d goal) {
+        Iterator<Entry> it = m_entries.iterator();
+        while (it.hasNext()) {
+            Entry e = it.next();
+            if (sameGoal(e.goal(), goal) && e.future().isDone())
+                it.remove();
+        }
+        if (m_entries.size() >= kMaxEntries)
+            m_entries.remove(0);
+        Entry entry = new Entry(start, goal, CompletableFuture.supplyAsync(
+                () -> straight(start, goal),
+                m_executor));
+        m_entries.add(entry);
+        return entry;
+    }
+
+    private Trajectory100 straight(Pose2d start, Pose2d goal) {
+        Translation2d t0 = start.getTranslation();
+        Translation2d t1 = goal.getTranslation();
+        Rotation2d course = t1.minus(t0).getAngle();
+        try {
+            return TrajectoryPlanner.restToRest(
+                    List.of(new Pose2d(t0, course), new Pose2d(t1, course)),
+                    List.of(start.getRotation(), goal.getRotation()),
+                    m_constraints);
+        } catch (RuntimeException e) {
+            Util.warn("Trajectory generation failed");
+            e.printStackTrace();
+            return new Trajectory100();
+        }
+    }
+
+    private Entry find(Pose2d start, Pose2d goal) {
+        for (Entry e : m_entries) {
+            if (sameGoal(e.goal(), goal) && near(e.start(), start))
+                return e;
+        }
+        return null;
+    }
+
+    private boolean inFlight(Pose2d goal) {
+        for (Entry e : m_entries) {
+            if (sameGoal(e.goal(), goal) && !e.future().isDone())
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean near(Pose2d a, Pose2d b) {
+        return close(a, b, kStartToleranceM, kStartToleranceRad);
+    }
+
+    private static boolean sameGoal(Pose2d a, Pose2d b) {
+        return close(a, b, kGoalToleranceM, kGoalToleranceRad);
+    }
+
+    private static boolean close(Pose2d a, Pose2d b, double toleranceM, double toleranceRad) {
+        return a.getTranslation().getDistance(b.getTranslation()) < toleranceM
+                && Math.abs(a.getRotation().minus(b.getRotation()).getRadians()) < toleranceRad;
+    }
+}
@@ -1,93 +1,185 @@
 package org.team100.lib.util;
 
-import java.util.List;
-import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 /**
  * Cache a supplier until reset().
- * 
+ *
  * The easiest way to wire up reset() is to let Robot.robotPeriodic() call
  * resetAll(). But it's also ok to call reset() on demand, if you have a reason
  * (e.g. resetting a pose, and then wanting to do some more calculation with the
  * just-reset version).
- * 
+ *
  * Note that there's little need for multiple layers of caching, if the only
  * thing in the middle of the sandwich is simple arithmetic. So if a "motor"
  * implements caching of its sensors, then the "sensor" that uses the "motor"
  * doesn't need to apply its own cache layer.
+ *
+ * There's one global epoch, which resetAll() bumps once per cycle. Each cache
+ * remembers the epoch of its value, and the value is fresh if the epochs
+ * match, so resetAll() is O(1) no matter how many caches there are, and the
+ * caches don't need to be registered anywhere (so they can be garbage
+ * collected). reset() on one cache just forgets its epoch.
+ *
+ * An object cache doesn't keep null: if the delegate returns null, the next
+ * get() asks again, even in the same cycle, as it always has, so a supplier
+ * can use null to mean "not yet."
+ *
+ * Thread safety: get() takes no locks. The fast path is two volatile reads
+ * (the global epoch and the cache epoch). The slow path calls the delegate,
+ * stores the value, and then publishes the epoch, so a reader that sees the
+ * current epoch also sees the value stored with it. The intended use is the
+ * main loop thread, but other threads (e.g. an encoder sync on an executor)
+ * may also read, and may call resetAll(). If they do, two threads may both
+ * call the delegate in the same cycle, and a reader racing with resetAll() may
+ * get the value from the previous cycle. Values are never torn: the epochs are
+ * ints, and the long and double values are volatile, since the 32-bit RoboRIO
+ * doesn't write plain 64-bit fields atomically.
  */
 public class Memo {
-    private static final List<Runnable> resetters = new ArrayList<>();
+    /** No cache ever has this epoch, so it means "invalid." */
+    private static final int NEVER = 0;
+    /** Current cycle. Starts after NEVER. */
+    private static final AtomicInteger epoch = new AtomicInteger(NEVER + 1);
 
     public static <T> CotemporalCache<T> of(Supplier<T> delegate) {
-        CotemporalCache<T> cache = new CotemporalCache<>(delegate);
-        resetters.add(cache::reset);
-        return cache;
+        return new CotemporalCache<>(delegate);
     }
 
+    /**
+     * To record or replay a sensor, wrap the delegate first, e.g.
+     * Memo.ofDouble(SensorReplay.wrap(name, delegate)).
+     */
     public static DoubleCache ofDouble(DoubleSupplier delegate) {
-        DoubleCache cache = new DoubleCache(delegate);
-        resetters.add(cache::reset);
-        return cache;
+        return new DoubleCache(delegate);
+    }
+
+    public static LongCache ofLong(LongSupplier delegate) {
+        return new LongCache(delegate);
+    }
+
+    public static BooleanCache ofBoolean(BooleanSupplier delegate) {
+        return new BooleanCache(delegate);
     }
 
     /**
      * This should be run in Robot.robotPeriodic().
+     *
+     * Invalidates every cache by advancing the epoch. The epoch wraps after
+     * 2^32 cycles, skipping NEVER.
      */
     public static void resetAll() {
-        for (Runnable r : resetters) {
-            r.run();
-        }
+        epoch.updateAndGet(e -> e + 1 == NEVER ? e + 2 : e + 1);
     }
 
     public static class CotemporalCache<T> implements Supplier<T> {
         private final Supplier<T> m_delegate;
         private T m_value;
+        private volatile int m_epoch;
 
         public CotemporalCache(Supplier<T> delegate) {
             m_delegate = delegate;
-            m_value = null;
+            m_epoch = NEVER;
         }
 
         @Override
-        public synchronized T get() {
-            // synchronized adds ~20ns.
-            if (m_value == null)
-                m_value = m_delegate.get();
-                
-            return m_value;
+        public T get() {
+            int now = epoch.get();
+            if (m_epoch == now) {
+                T cached = m_value;
+                if (cached != null)
+                    return cached;
+            }
+            T value = m_delegate.get();
+            m_value = value;
+            m_epoch = now;
+            return value;
         }
 
-        public synchronized void reset() {
-            // System.out.println("CotemporalCache.reset()");
-            m_value = null;
+        public void reset() {
+            m_epoch = NEVER;
         }
     }
 
     public static class DoubleCache implements DoubleSupplier {
         private final DoubleSupplier m_delegate;
-        private double m_value;
-        private boolean m_valid;
+        private volatile double m_value;
+        private volatile int m_epoch;
 
         public DoubleCache(DoubleSupplier delegate) {
             m_delegate = delegate;
-            m_valid = false;
+            m_epoch = NEVER;
+        }
+
+        @Override
+        public double getAsDouble() {
+            int now = epoch.get();
+            if (m_epoch == now)
+                return m_value;
+            double value = m_delegate.getAsDouble();
+            m_value = value;
+            m_epoch = now;
+            return value;
+        }
+
+        public void reset() {
+            m_epoch = NEVER;
+        }
+    }
+
+    public static class LongCache implements LongSupplier {
+        private final LongSupplier m_delegate;
+        private volatile long m_value;
+        private volatile int m_epoch;
+
+        public LongCache(LongSupplier delegate) {
+            m_delegate = delegate;
+            m_epoch = NEVER;
+        }
+
+        @Override
+        public long getAsLong() {
+            int now = epoch.get();
+            if (m_epoch == now)
+                return m_value;
+            long value = m_delegate.getAsLong();
+            m_value = value;
+            m_epoch = now;
+            return value;
+        }
+
+        public void reset() {
+            m_epoch = NEVER;
+        }
+    }
+
+    public static class BooleanCache implements BooleanSupplier {
+        private final BooleanSupplier m_delegate;
+        private boolean m_value;
+        private volatile int m_epoch;
+
+        public BooleanCache(BooleanSupplier delegate) {
+            m_delegate = delegate;
+            m_epoch = NEVER;
         }
 
         @Override
-        public synchronized double getAsDouble() {
-            // synchronized adds ~20ns.
-            if (m_valid)
+        public boolean getAsBoolean() {
+            int now = epoch.get();
+            if (m_epoch == now)
                 return m_value;
-            m_value = m_delegate.getAsDouble();
-            m_valid = true;
-            return m_value;
+            boolean value = m_delegate.getAsBoolean();
+            m_value = value;
+            m_epoch = now;
+            return value;
         }
 
-        public synchronized void reset() {
-            m_valid = false;
+        public void reset() {
+            m_epoch = NEVER;
         }
     }
 
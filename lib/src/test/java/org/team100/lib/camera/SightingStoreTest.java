@@ -0,0 +1,156 @@
+package org.team100.lib.camera;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class SightingStoreTest {
+    private static final double kDelta = 0.001;
+
+    private static SightingStore store(int capacity) {
+        return new SightingStore(0, 0, 16, 8, 1, 0.5, 0.2, capacity);
+    }
+
+    @Test
+    void testMerge() {
+        SightingStore s = store(8);
+        int a = s.add(0, 1, 1, SightingStore.kFoe);
+        int b = s.add(0.1, 1.1, 1, SightingStore.kFoe);
+        assertEquals(a, b);
+        assertEquals(1, s.size());
+        assertEquals(2, s.count(a));
+        assertEquals(1.1, s.x(a), kDelta);
+        assertEquals(0.1, s.time(a), kDelta);
+        // 0.1 m in 0.1 s
+        assertEquals(1, s.vx(a), kDelta);
+        assertEquals(0, s.vy(a), kDelta);
+    }
+
+    /** A late sighting doesn't move the track back. */
+    @Test
+    void testOutOfOrder() {
+        SightingStore s = store(8);
+        int a = s.add(0, 1, 1, SightingStore.kFoe);
+        s.add(0.2, 1.2, 1, SightingStore.kFoe);
+        // older than the track
+        int b = s.add(0.1, 1.1, 1, SightingStore.kFoe);
+        assertEquals(a, b);
+        assertEquals(2, s.count(a));
+        assertEquals(1.2, s.x(a), kDelta);
+        assertEquals(0.2, s.time(a), kDelta);
+        assertEquals(1, s.vx(a), kDelta);
+        // same time, also ignored
+        s.add(0.2, 1.15, 1, SightingStore.kFoe);
+        assertEquals(2, s.count(a));
+        assertEquals(1.2, s.x(a), kDelta);
+        assertEquals(a, s.nearest(1.2, 1, 0.01));
+    }
+
+    @Test
+    void testNoMergeAcrossTags() {
+        SightingStore s = store(8);
+        int a = s.add(0, 1, 1, SightingStore.kFoe);
+        int b = s.add(0, 1.1, 1, SightingStore.kFriend);
+        assertNotEquals(a, b);
+        assertEquals(2, s.size());
+        assertEquals(SightingStore.kFoe, s.tag(a));
+        assertEquals(SightingStore.kFriend, s.tag(b));
+    }
+
+    @Test
+    void testNoMergeBeyondRadius() {
+        SightingStore s = store(8);
+        int a = s.add(0, 1, 1, SightingStore.kFoe);
+        int b = s.add(0, 2, 1, SightingStore.kFoe);
+        assertNotEquals(a, b);
+        assertEquals(2, s.size());
+    }
+
+    @Test
+    void testMoveAcrossCells() {
+        SightingStore s = store(8);
+        // merge several times, crossing cell boundaries
+        int a = s.add(0, 0.8, 0.8, SightingStore.kFoe);
+        s.add(0.02, 1.1, 0.9, SightingStore.kFoe);
+        s.add(0.04, 1.4, 1.2, SightingStore.kFoe);
+        assertEquals(1, s.size());
+        assertEquals(a, s.nearest(1.4, 1.2, 0.1));
+        assertEquals(-1, s.nearest(0.8, 0.8, 0.1));
+    }
+
+    @Test
+    void testExpire() {
+        SightingStore s = store(8);
+        s.add(0, 1, 1, SightingStore.kFoe);
+        s.add(0.15, 5, 5, SightingStore.kFoe);
+        s.expire(0.1);
+        assertEquals(2, s.size());
+        s.expire(0.3);
+        assertEquals(1, s.size());
+        assertEquals(-1, s.nearest(1, 1, 1));
+        s.expire(1);
+        assertEquals(0, s.size());
+    }
+
+    @Test
+    void testNearest() {
+        SightingStore s = store(8);
+        assertEquals(-1, s.nearest(1, 1, 10));
+        int a = s.add(0, 1, 1, SightingStore.kFoe);
+        int b = s.add(0, 3, 1, SightingStore.kFriend);
+        assertEquals(a, s.nearest(1.5, 1, 10));
+        assertEquals(b, s.nearest(2.5, 1, 10));
+        assertEquals(b, s.nearest(1.5, 1, 10, SightingStore.kFriend));
+        assertEquals(-1, s.nearest(1.5, 1, 1, SightingStore.kFriend));
+        // outside the bounds still works
+        assertEquals(a, s.nearest(-1, 1, 3));
+    }
+
+    @Test
+    void testNear() {
+        SightingStore s = store(8);
+        s.add(0, 1, 1, SightingStore.kFoe);
+        s.add(0, 2, 1, SightingStore.kFoe);
+        s.add(0, 6, 1, SightingStore.kFoe);
+        int[] result = new int[8];
+        assertEquals(2, s.near(1.5, 1, 1, result));
+        assertEquals(3, s.near(1.5, 1, 5, result));
+        assertEquals(0, s.near(10, 6, 1, result));
+        // result is truncated to its length
+        assertEquals(1, s.near(1.5, 1, 5, new int[1]));
+        assertEquals(3, s.all(result));
+    }
+
+    @Test
+    void testRecycle() {
+        SightingStore s = store(2);
+        int a = s.add(0, 1, 1, SightingStore.kFoe);
+        int b = s.add(0.01, 3, 1, SightingStore.kFoe);
+        // full, so the stalest track is recycled
+        int c = s.add(0.02, 5, 1, SightingStore.kFoe);
+        assertEquals(a, c);
+        assertEquals(2, s.size());
+        assertEquals(-1, s.nearest(1, 1, 0.5));
+        assertEquals(b, s.nearest(3, 1, 0.5));
+        assertEquals(c, s.nearest(5, 1, 0.5));
+    }
+
+    @Test
+    void testClear() {
+        SightingStore s = store(4);
+        s.add(0, 1, 1, SightingStore.kFoe);
+        s.clear();
+        assertEquals(0, s.size());
+        assertEquals(-1, s.nearest(1, 1, 1));
+    }
+
+    @Test
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SightingStore(0, 0, 1, 1, 0, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SightingStore(0, 0, 1, 1, 1, 1, 1, 0));
+    }
+}
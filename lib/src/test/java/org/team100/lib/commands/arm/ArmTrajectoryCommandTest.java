@@ -13,16 +13,24 @@ import org.team100.lib.motion.arm.ArmAngles;
 import org.team100.lib.motion.arm.ArmFactory;
 import org.team100.lib.motion.arm.ArmKinematics;
 import org.team100.lib.motion.arm.ArmSubsystem;
+import org.team100.lib.motion.arm.ArmTrajectories;
+import org.team100.lib.motion.arm.ArmTrajectoryCache;
 import org.team100.lib.testing.Timeless;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryConfig;
 
 class ArmTrajectoryCommandTest implements Timeless {
     private static final double kDelta = 0.001;
     private static final LoggerFactory logger = new TestLoggerFactory(new TestPrimitiveLogger());
 
+    /** Generates synchronously, so the timing is repeatable. */
+    private static ArmTrajectoryCache cache() {
+        return new ArmTrajectoryCache(new ArmTrajectories(new TrajectoryConfig(0.1, 0.1)), Runnable::run);
+    }
+
     @Test
     void testSimple() {
         ArmSubsystem armSubSystem = ArmFactory.get(logger);
@@ -32,7 +40,8 @@ class ArmTrajectoryCommandTest implements Timeless {
                 logger,
                 armSubSystem,
                 armKinematicsM,
-                goal);
+                goal,
+                cache());
         command.initialize();
         assertEquals(0, armSubSystem.getPosition().get().th1, kDelta);
         stepTime(0.02);
@@ -52,7 +61,8 @@ class ArmTrajectoryCommandTest implements Timeless {
                 logger,
                 armSubSystem,
                 armKinematicsM,
-                goal);
+                goal,
+                cache());
         command.initialize();
         for (int i = 0; i < 800; ++i) {
             stepTime(0.02);
@@ -81,7 +91,8 @@ class ArmTrajectoryCommandTest implements Timeless {
                 logger,
                 armSubSystem,
                 armKinematicsM,
-                goal);
+                goal,
+                cache());
         Trajectory.State s = new Trajectory.State();
         s.poseMeters = new Pose2d(1, 1, GeometryUtil.kRotationZero);
         ArmAngles r = command.getThetaPosReference(s);
@@ -98,7 +109,8 @@ class ArmTrajectoryCommandTest implements Timeless {
                 logger,
                 armSubSystem,
                 armKinematicsM,
-                goal);
+                goal,
+                cache());
         Trajectory.State s = new Trajectory.State();
         // zero rotation means path straight up
         s.poseMeters = new Pose2d(1, 1, GeometryUtil.kRotationZero);
@@ -0,0 +1,154 @@
+package org.team100.lib.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.team100.lib.config.DeviceConfigStage.Result;
+import org.team100.lib.config.DeviceConfigStage.Status;
+
+class DeviceConfigStageTest {
+    /** Stands in for a device: each round trip takes a while. */
+    static class FakeDeviceConfig implements DeviceConfig {
+        private final String m_name;
+        private final int m_desired;
+        private final long m_delayMs;
+        private final boolean m_ok;
+        private int m_stored;
+        int applied;
+        int volatileApplied;
+
+        FakeDeviceConfig(String name, int desired, int stored, long delayMs, boolean ok) {
+            m_name = name;
+            m_desired = desired;
+            m_stored = stored;
+            m_delayMs = delayMs;
+            m_ok = ok;
+        }
+
+        @Override
+        public String name() {
+            return m_name;
+        }
+
+        @Override
+        public boolean matchesStored() {
+            sleep();
+            return m_stored == m_desired;
+        }
+
+        @Override
+        public boolean apply() {
+            sleep();
+            applied++;
+            if (m_ok)
+                m_stored = m_desired;
+            return m_ok;
+        }
+
+        @Override
+        public void applyVolatile() {
+            volatileApplied++;
+        }
+
+        private void sleep() {
+            try {
+                Thread.sleep(m_delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Test
+    void testSynchronous() {
+        FakeDeviceConfig fake = new FakeDeviceConfig("fake", 1, 0, 0, true);
+        DeviceConfigStage.submit(fake);
+        // applied right away
+        assertEquals(1, fake.applied);
+        assertEquals(1, fake.volatileApplied);
+        assertEquals(List.of(), DeviceConfigStage.finish());
+    }
+
+    @Test
+    void testConcurrent() {
+        final int N = 8;
+        FakeDeviceConfig[] fakes = new FakeDeviceConfig[N];
+        long t0 = System.nanoTime();
+        DeviceConfigStage.begin();
+        for (int i = 0; i < N; ++i) {
+            fakes[i] = new FakeDeviceConfig("fake " + i, 1, 0, 100, true);
+            DeviceConfigStage.submit(fakes[i]);
+        }
+        List<Result> results = DeviceConfigStage.finish();
+        double durationS = (System.nanoTime() - t0) / 1e9;
+        assertEquals(N, results.size());
+        for (int i = 0; i < N; ++i) {
+            assertEquals("fake " + i, results.get(i).name());
+            assertEquals(Status.APPLIED, results.get(i).status());
+            assertEquals(1, fakes[i].applied);
+        }
+        // sequentially this would be 1.6 s, two round trips each.
+        assertTrue(durationS < 1.0, "duration " + durationS);
+    }
+
+    @Test
+    void testSkip() {
+        FakeDeviceConfig same = new FakeDeviceConfig("same", 1, 1, 0, true);
+        FakeDeviceConfig different = new FakeDeviceConfig("different", 1, 2, 0, true);
+        DeviceConfigStage.begin();
+        DeviceConfigStage.submit(same);
+        DeviceConfigStage.submit(different);
+        List<Result> results = DeviceConfigStage.finish();
+        assertEquals(Status.SKIPPED, results.get(0).status());
+        assertEquals(Status.APPLIED, results.get(1).status());
+        assertEquals(0, same.applied);
+        assertEquals(1, different.applied);
+        // volatile settings are always applied
+        assertEquals(1, same.volatileApplied);
+        assertEquals(1, different.volatileApplied);
+    }
+
+    @Test
+    void testFailure() {
+        FakeDeviceConfig fails = new FakeDeviceConfig("fails", 1, 0, 0, false);
+        DeviceConfig throwsConfig = DeviceConfig.of("throws", () -> {
+            throw new IllegalStateException("missing device");
+        });
+        List<String> deferred = new ArrayList<>();
+        DeviceConfigStage.begin();
+        DeviceConfigStage.submit(fails);
+        DeviceConfigStage.submit(throwsConfig);
+        DeviceConfigStage.defer(() -> deferred.add("reset"));
+        // a bad config stops the robot
+        IllegalStateException e = assertThrows(IllegalStateException.class, DeviceConfigStage::finish);
+        assertTrue(e.getMessage().contains("fails"), e.getMessage());
+        assertTrue(e.getMessage().contains("throws"), e.getMessage());
+        // and the other device I/O never happens
+        assertEquals(List.of(), deferred);
+        // outside a stage, it fails right away
+        assertThrows(IllegalStateException.class, () -> DeviceConfigStage.submit(fails));
+    }
+
+    @Test
+    void testDefer() {
+        FakeDeviceConfig slow = new FakeDeviceConfig("slow", 1, 0, 100, true);
+        List<String> deferred = new ArrayList<>();
+        DeviceConfigStage.begin();
+        DeviceConfigStage.submit(slow);
+        DeviceConfigStage.defer(() -> deferred.add("reset " + slow.applied));
+        DeviceConfigStage.defer(() -> deferred.add("limit"));
+        // nothing yet, the config is still running
+        assertEquals(List.of(), deferred);
+        DeviceConfigStage.finish();
+        // in order, after the config
+        assertEquals(List.of("reset 1", "limit"), deferred);
+        // outside a stage, it runs right away
+        DeviceConfigStage.defer(() -> deferred.add("now"));
+        assertEquals(3, deferred.size());
+    }
+}
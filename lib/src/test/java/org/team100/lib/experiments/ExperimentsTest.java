@@ -0,0 +1,30 @@
+package org.team100.lib.experiments;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ExperimentsTest {
+    @AfterEach
+    void after() {
+        Experiments.instance.testOverride(Experiment.StickyHeading, false);
+    }
+
+    @Test
+    void testOverrideUpdatesSnapshot() {
+        Experiments.instance.testOverride(Experiment.StickyHeading, false);
+        assertFalse(Experiments.instance.enabled(Experiment.StickyHeading));
+        Experiments.instance.testOverride(Experiment.StickyHeading, true);
+        assertTrue(Experiments.instance.enabled(Experiment.StickyHeading));
+        Experiments.instance.testOverride(Experiment.StickyHeading, false);
+        assertFalse(Experiments.instance.enabled(Experiment.StickyHeading));
+    }
+
+    @Test
+    void testGlobalDefault() {
+        // HeedVision is on by default, and nothing overrides it here.
+        assertTrue(Experiments.instance.enabled(Experiment.HeedVision));
+    }
+}
@@ -0,0 +1,68 @@
+package org.team100.lib.field;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Translation2d;
+
+class FieldDistanceGridTest {
+    private static final double kDelta = 0.001;
+
+    @Test
+    void testDistance() {
+        FieldDistanceGrid grid = new FieldDistanceGrid(
+                List.of(new Translation2d(1, 1), new Translation2d(3, 1)), 0.1, 1.5, 4, 2, 0.02);
+        // on a grid point
+        assertEquals(0.4, grid.distance(1.5, 1), kDelta);
+        // between grid points, a little error
+        assertEquals(0.405, grid.distance(1.505, 1), kDelta);
+        // inside
+        assertEquals(-0.1, grid.distance(1, 1), kDelta);
+        // the nearer one
+        assertEquals(3, grid.nearestX(2.5, 1.5), kDelta);
+        assertEquals(1, grid.nearestY(2.5, 1.5), kDelta);
+        // gradient points away
+        assertEquals(1, grid.gradientX(1.5, 1), 0.01);
+        assertEquals(0, grid.gradientY(1.5, 1), 0.01);
+        assertEquals(-1, grid.gradientX(2.5, 1), 0.01);
+        // off the edge uses the edge
+        assertEquals(grid.distance(0, 0), grid.distance(-1, -1), kDelta);
+    }
+
+    /** The grid should match the direct computation the tactics used to do. */
+    @Test
+    void testRepulsion() {
+        FieldDistanceGrid grid = FieldDistanceGrid.stagePosts();
+        Random random = new Random(0);
+        final double maxDistance = 1.5;
+        for (int n = 0; n < 1000; ++n) {
+            Translation2d p = new Translation2d(
+                    random.nextDouble() * FieldMap2024.fieldLengthM,
+                    random.nextDouble() * FieldMap2024.fieldWidthM);
+            double fx = 0;
+            double fy = 0;
+            boolean tooClose = false;
+            for (Pose2d pose : FieldMap2024.stagePosts.values()) {
+                Translation2d r = p.minus(pose.getTranslation());
+                double norm = r.getNorm();
+                if (norm < 0.5)
+                    tooClose = true;
+                if (norm < maxDistance) {
+                    double scale = (1 / norm - 1 / maxDistance) / norm;
+                    fx += r.getX() * scale;
+                    fy += r.getY() * scale;
+                }
+            }
+            // very close, the interpolation error is bigger, but we don't go there.
+            if (tooClose)
+                continue;
+            assertEquals(fx, grid.repulsionX(p.getX(), p.getY()), 0.01);
+            assertEquals(fy, grid.repulsionY(p.getX(), p.getY()), 0.01);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.team100.lib.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.team100.lib.logging.CostMeter;
+import org.team100.lib.logging.LoggerFactory;
+import org.team100.lib.logging.TestLoggerFactory;
+import org.team100.lib.logging.primitive.TestPrimitiveLogger;
+
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+
+class SchedulerCostMeterTest {
+    private static final LoggerFactory logger = new TestLoggerFactory(new TestPrimitiveLogger());
+
+    /** Allocates an array of the given length in periodic(). */
+    private static class FakeSubsystem extends SubsystemBase {
+        private final int m_length;
+        long[] sink;
+
+        FakeSubsystem(String name, int length) {
+            setName(name);
+            m_length = length;
+        }
+
+        @Override
+        public void periodic() {
+            if (m_length > 0)
+                sink = new long[m_length];
+        }
+    }
+
+    /** Allocates an array in execute(). */
+    private static class FakeCommand extends Command {
+        long[] sink;
+
+        @Override
+        public void execute() {
+            sink = new long[50000];
+        }
+
+        @Override
+        public boolean runsWhenDisabled() {
+            return true;
+        }
+    }
+
+    @AfterEach
+    void teardown() {
+        CommandScheduler.getInstance().cancelAll();
+        CommandScheduler.getInstance().unregisterAllSubsystems();
+    }
+
+    @Test
+    void testAttribution() {
+        FakeSubsystem heavy = new FakeSubsystem("heavy", 100000);
+        FakeSubsystem light = new FakeSubsystem("light", 0);
+        SchedulerCostMeter meter = new SchedulerCostMeter(logger, () -> true, heavy, light);
+        FakeCommand command = new FakeCommand();
+        command.schedule();
+        meter.run();
+        assertEquals(100000, heavy.sink.length);
+        assertEquals(50000, command.sink.length);
+
+        // each one is charged for its own array, plus a little overhead.
+        CostMeter heavyMeter = meter.subsystem("heavy");
+        assertTrue(heavyMeter.alloc() >= 800000, () -> "heavy " + heavyMeter.alloc());
+        assertTrue(heavyMeter.alloc() < 900000, () -> "heavy " + heavyMeter.alloc());
+        CostMeter lightMeter = meter.subsystem("light");
+        assertTrue(lightMeter.alloc() < 100000, () -> "light " + lightMeter.alloc());
+        CostMeter commandMeter = meter.command(FakeCommand.class);
+        assertTrue(commandMeter.alloc() >= 400000, () -> "command " + commandMeter.alloc());
+        assertTrue(commandMeter.alloc() < 500000, () -> "command " + commandMeter.alloc());
+    }
+
+    @Test
+    void testDisabled() {
+        FakeSubsystem heavy = new FakeSubsystem("heavy", 100000);
+        SchedulerCostMeter meter = new SchedulerCostMeter(logger, () -> false, heavy);
+        meter.run();
+        // the subsystem still runs, but isn't measured.
+        assertEquals(100000, heavy.sink.length);
+        assertEquals(0, meter.subsystem("heavy").alloc());
+    }
+}
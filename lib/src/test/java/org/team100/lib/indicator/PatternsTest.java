@@ -0,0 +1,41 @@
+package org.team100.lib.indicator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.wpilibj.util.Color;
+
+class PatternsTest {
+    @Test
+    void testSolid() {
+        byte[][] frames = Patterns.solid(2, Color.kRed);
+        assertEquals(1, frames.length);
+        assertArrayEquals(new byte[] { (byte) 255, 0, 0, (byte) 255, 0, 0 }, frames[0]);
+    }
+
+    @Test
+    void testChase() {
+        Color[] colors = { Color.kRed, Color.kBlack };
+        byte[][] frames = Patterns.chase(4, colors, 1);
+        assertEquals(2, frames.length);
+        assertArrayEquals(new byte[] { (byte) 255, 0, 0, 0, 0, 0, (byte) 255, 0, 0, 0, 0, 0 }, frames[0]);
+        // moved one LED
+        assertArrayEquals(new byte[] { 0, 0, 0, (byte) 255, 0, 0, 0, 0, 0, (byte) 255, 0, 0 }, frames[1]);
+    }
+
+    @Test
+    void testRender() {
+        LEDStrip strip = new LEDStrip(1, 3);
+        strip.setFrames(Patterns.chase(2, new Color[] { Color.kRed, Color.kBlack }, 1));
+        byte[] frame = new byte[4 * Patterns.kBytesPerLed];
+        strip.render(frame, 0);
+        assertArrayEquals(new byte[] { 0, 0, 0, (byte) 255, 0, 0, 0, 0, 0, 0, 0, 0 }, frame);
+        strip.render(frame, 1);
+        assertArrayEquals(new byte[] { 0, 0, 0, 0, 0, 0, (byte) 255, 0, 0, 0, 0, 0 }, frame);
+        strip.setColor(Color.kBlue);
+        strip.render(frame, 7);
+        assertArrayEquals(new byte[] { 0, 0, 0, 0, 0, (byte) 255, 0, 0, (byte) 255, 0, 0, 0 }, frame);
+    }
+}
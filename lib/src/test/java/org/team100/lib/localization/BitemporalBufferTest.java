@@ -0,0 +1,195 @@
+package org.team100.lib.localization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class BitemporalBufferTest {
+
+    @Test
+    void testTails() {
+        BitemporalBuffer<String> buf = new BitemporalBuffer<>(10);
+        buf.put(0, 0.0, "hello");
+        BitemporalBuffer.Slice<String> slice = buf.newSlice();
+        buf.recordTail(0, slice);
+        assertEquals(1, slice.size());
+        assertEquals("hello", slice.value(0));
+        buf.validTail(0, slice);
+        assertEquals(1, slice.size());
+        assertEquals("hello", slice.value(0));
+        // exclusion
+        buf.recordTail(1, slice);
+        assertEquals(0, slice.size());
+        buf.validTail(1, slice);
+        assertEquals(0, slice.size());
+    }
+
+    @Test
+    void testDuplicateKeys() {
+        BitemporalBuffer<String> buf = new BitemporalBuffer<>(10);
+        buf.put(0, 0.0, "hello");
+        buf.put(0, 0.0, "duplicate");
+        BitemporalBuffer.Slice<String> slice = buf.newSlice();
+        buf.recordTail(0, slice);
+        assertEquals(2, slice.size());
+        // the first entry is here as entered
+        assertEquals(0, slice.recordTime(0));
+        assertEquals(0.0, slice.validTime(0));
+        assertEquals("hello", slice.value(0));
+        // the second entry has incremented keys
+        assertEquals(1, slice.recordTime(1));
+        assertEquals(4.9E-324, slice.validTime(1));
+        assertEquals("duplicate", slice.value(1));
+    }
+
+    @Test
+    void testOrder() {
+        BitemporalBuffer<String> buf = new BitemporalBuffer<>(4);
+        // valid times all out of order
+        buf.put(0, 3.0, "r0 v3");
+        buf.put(1, 2.0, "r1 v2");
+        buf.put(2, 1.0, "r2 v1");
+        buf.put(3, 0.0, "r3 v0");
+        BitemporalBuffer.Slice<String> slice = buf.newSlice();
+        buf.recordTail(Long.MIN_VALUE, slice);
+        assertEquals(4, slice.size());
+        assertEquals("r0 v3", slice.value(0));
+        assertEquals("r1 v2", slice.value(1));
+        assertEquals("r2 v1", slice.value(2));
+        assertEquals("r3 v0", slice.value(3));
+        buf.validTail(-Double.MAX_VALUE, slice);
+        assertEquals(4, slice.size());
+        assertEquals("r3 v0", slice.value(0));
+        assertEquals("r2 v1", slice.value(1));
+        assertEquals("r1 v2", slice.value(2));
+        assertEquals("r0 v3", slice.value(3));
+    }
+
+    @Test
+    void testEviction() {
+        BitemporalBuffer<String> buf = new BitemporalBuffer<>(3);
+        buf.put(0, 3.0, "a");
+        buf.put(1, 1.0, "b");
+        buf.put(2, 2.0, "c");
+        assertEquals(3, buf.size());
+        // evicts the oldest record, which is not the oldest valid time
+        buf.put(3, 0.5, "d");
+        assertEquals(3, buf.size());
+        BitemporalBuffer.Slice<String> slice = buf.newSlice();
+        buf.validTail(Double.NEGATIVE_INFINITY, slice);
+        assertEquals(3, slice.size());
+        assertEquals("d", slice.value(0));
+        assertEquals("b", slice.value(1));
+        assertEquals("c", slice.value(2));
+        // wrap around a few more times
+        for (int i = 4; i < 20; ++i) {
+            buf.put(i, i, "x" + i);
+        }
+        buf.recordTail(0, slice);
+        assertEquals(3, slice.size());
+        assertEquals(17, slice.recordTime(0));
+        assertEquals(19, slice.recordTime(2));
+        buf.clear();
+        assertEquals(0, buf.size());
+        assertNull(buf.floorValue(100));
+    }
+
+    @Test
+    void testFloor() {
+        BitemporalBuffer<String> buf = new BitemporalBuffer<>(10);
+        assertNull(buf.floorValue(1));
+        assertTrue(Double.isNaN(buf.floorValidTime(1)));
+        buf.put(0, 1.0, "one");
+        buf.put(1, 2.0, "two");
+        assertNull(buf.floorValue(0.5));
+        assertEquals("one", buf.floorValue(1.0));
+        assertEquals("one", buf.floorValue(1.5));
+        assertEquals(1.0, buf.floorValidTime(1.5));
+        assertEquals("two", buf.floorValue(5));
+    }
+
+    @Test
+    void testWatermark() {
+        BitemporalBuffer<String> buf = new BitemporalBuffer<>(10);
+        assertEquals(Double.POSITIVE_INFINITY, buf.takeEarliestUnseenValidTime());
+        buf.put(0, 2.0, "a");
+        buf.put(1, 1.0, "b");
+        buf.put(2, 3.0, "c");
+        assertEquals(1.0, buf.takeEarliestUnseenValidTime());
+        // taking resets it
+        assertEquals(Double.POSITIVE_INFINITY, buf.takeEarliestUnseenValidTime());
+        buf.put(3, 2.5, "d");
+        assertEquals(2.5, buf.takeEarliestUnseenValidTime());
+        // the scanning version agrees
+        assertEquals(1.0, buf.earliestValidTimeForRecordsAfter(0));
+        assertEquals(2.5, buf.earliestValidTimeForRecordsAfter(3));
+        assertEquals(BitemporalBuffer.kNone, buf.earliestValidTimeForRecordsAfter(4));
+    }
+
+    /** Both ways of finding the earliest agree when there's nothing. */
+    @Test
+    void testEmpty() {
+        BitemporalBuffer<String> buf = new BitemporalBuffer<>(10);
+        assertEquals(0, buf.size());
+        assertEquals(BitemporalBuffer.kNone, buf.takeEarliestUnseenValidTime());
+        assertEquals(BitemporalBuffer.kNone, buf.earliestValidTimeForRecordsAfter(0));
+        assertEquals(BitemporalBuffer.kNone, buf.earliestValidTimeForRecordsAfter(Long.MIN_VALUE));
+        assertNull(buf.floorValue(0));
+        assertTrue(Double.isNaN(buf.floorValidTime(0)));
+        BitemporalBuffer.Slice<String> slice = buf.newSlice();
+        buf.validTail(Double.NEGATIVE_INFINITY, slice);
+        assertEquals(0, slice.size());
+        buf.recordTail(Long.MIN_VALUE, slice);
+        assertEquals(0, slice.size());
+        // and again after clearing
+        buf.put(0, 1.0, "a");
+        buf.clear();
+        assertEquals(BitemporalBuffer.kNone, buf.takeEarliestUnseenValidTime());
+        assertEquals(BitemporalBuffer.kNone, buf.earliestValidTimeForRecordsAfter(0));
+    }
+
+    @Test
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new BitemporalBuffer<String>(0));
+    }
+
+    /** Readers on other threads always see a consistent, sorted buffer. */
+    @Test
+    void testConcurrentReaders() throws InterruptedException {
+        BitemporalBuffer<Long> buf = new BitemporalBuffer<>(64);
+        AtomicBoolean done = new AtomicBoolean(false);
+        AtomicInteger failures = new AtomicInteger();
+        Thread[] readers = new Thread[2];
+        for (int r = 0; r < readers.length; ++r) {
+            readers[r] = new Thread(() -> {
+                BitemporalBuffer.Slice<Long> slice = buf.newSlice();
+                while (!done.get()) {
+                    buf.validTail(Double.NEGATIVE_INFINITY, slice);
+                    for (int i = 0; i < slice.size(); ++i) {
+                        // the value is the record time
+                        if (slice.value(i) != slice.recordTime(i))
+                            failures.incrementAndGet();
+                        if (i > 0 && slice.validTime(i) <= slice.validTime(i - 1))
+                            failures.incrementAndGet();
+                    }
+                }
+            });
+            readers[r].start();
+        }
+        for (long i = 0; i < 100000; ++i) {
+            // valid time jitters behind record time
+            buf.put(i, i - (i * 7919) % 50, i);
+        }
+        done.set(true);
+        for (Thread t : readers) {
+            t.join();
+        }
+        assertEquals(0, failures.get());
+    }
+}
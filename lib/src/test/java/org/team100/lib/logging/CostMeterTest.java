@@ -0,0 +1,58 @@
+package org.team100.lib.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.team100.lib.logging.primitive.TestPrimitiveLogger;
+
+class CostMeterTest {
+    private static final LoggerFactory logger = new TestLoggerFactory(new TestPrimitiveLogger());
+
+    private long[] sink;
+
+    @Test
+    void testAlloc() {
+        CostMeter meter = new CostMeter(logger, Level.TRACE, "test");
+        meter.begin();
+        sink = new long[100000];
+        meter.end();
+        assertEquals(100000, sink.length);
+        // array body plus header.
+        assertTrue(meter.alloc() >= 800000, () -> "alloc " + meter.alloc());
+        assertTrue(meter.alloc() < 900000, () -> "alloc " + meter.alloc());
+    }
+
+    /**
+     * Spins until the thread clock itself says 5 ms of CPU have been used, so
+     * this doesn't depend on how fast or busy the machine is. The wall-clock
+     * limit is only there so an unsupported thread clock fails instead of
+     * hanging.
+     */
+    @Test
+    void testCpu() {
+        final long workNs = 5000000;
+        CostMeter meter = new CostMeter(logger, Level.TRACE, "test");
+        long wallStart = System.nanoTime();
+        meter.begin();
+        long cpuStart = CostMeter.cpuNanos();
+        double x = 0;
+        while (CostMeter.cpuNanos() - cpuStart < workNs
+                && System.nanoTime() - wallStart < 10000000000L)
+            x += Math.sqrt(x + 1);
+        meter.end();
+        long wallNs = System.nanoTime() - wallStart;
+        assertTrue(x > 0);
+        assertTrue(meter.cpu() >= workNs, () -> "cpu " + meter.cpu());
+        // one thread can't use more CPU than wall time, give or take the clocks.
+        assertTrue(meter.cpu() <= wallNs + 1000000, () -> "cpu " + meter.cpu() + " wall " + wallNs);
+    }
+
+    @Test
+    void testRecord() {
+        CostMeter meter = new CostMeter(logger, Level.TRACE, "test");
+        meter.record(10, 20);
+        assertEquals(10, meter.alloc());
+        assertEquals(20, meter.cpu());
+    }
+}
@@ -0,0 +1,38 @@
+package org.team100.lib.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LogBudgetTest {
+    @Test
+    void testDegradeAndRecover() {
+        LogBudget budget = new LogBudget(1000);
+        assertFalse(budget.update(0, 0, 0));
+        assertEquals(Level.TRACE, budget.ceiling());
+        // too short a window, nothing happens
+        assertFalse(budget.update(0, 10000, 0.1));
+        // too many bytes
+        assertTrue(budget.update(0, 10000, 1));
+        assertEquals(Level.DEBUG, budget.ceiling());
+        assertEquals(Level.DEBUG, budget.limit(Level.TRACE));
+        assertEquals(Level.COMP, budget.limit(Level.COMP));
+        // a drop counts right away
+        assertTrue(budget.update(1, 10000, 1.02));
+        assertEquals(Level.COMP, budget.ceiling());
+        // never lower than COMP
+        assertFalse(budget.update(2, 10000, 1.04));
+        assertEquals(Level.COMP, budget.ceiling());
+        // calm windows restore one level at a time
+        double t = 1.04;
+        for (int i = 0; i < 9; ++i) {
+            t += 1;
+            assertFalse(budget.update(2, 10000, t));
+        }
+        t += 1;
+        assertTrue(budget.update(2, 10000, t));
+        assertEquals(Level.DEBUG, budget.ceiling());
+    }
+}
@@ -1,11 +1,35 @@
 package org.team100.lib.logging;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.Test;
+import org.team100.lib.logging.LoggerFactory.DoubleLogger;
+import org.team100.lib.logging.primitive.TestPrimitiveLogger;
+import org.team100.lib.testing.Timeless;
 
-public class LoggerFactoryTest {
+public class LoggerFactoryTest implements Timeless {
     @Test
     void testSimple() {
         
     }
-    
+
+    @Test
+    void testRate() {
+        LoggerFactory logger = new LoggerFactory(() -> Level.TRACE, "root", new TestPrimitiveLogger());
+        DoubleLogger every = logger.doubleLogger(Level.TRACE, "every");
+        DoubleLogger slow = logger.rate(1).doubleLogger(Level.TRACE, "slow");
+        AtomicInteger everyCount = new AtomicInteger();
+        AtomicInteger slowCount = new AtomicInteger();
+        // two seconds of loop cycles
+        for (int i = 0; i < 100; ++i) {
+            every.log(() -> (double) everyCount.incrementAndGet());
+            slow.log(() -> (double) slowCount.incrementAndGet());
+            stepTime(0.02);
+        }
+        assertEquals(100, everyCount.get());
+        // the supplier isn't even called in between.
+        assertEquals(2, slowCount.get());
+    }
 }
@@ -0,0 +1,154 @@
+package org.team100.lib.logging.primitive;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.team100.lib.logging.primitive.PrimitiveLogger.PrimitiveDoubleArrayLogger;
+import org.team100.lib.logging.primitive.PrimitiveLogger.PrimitiveDoubleLogger;
+import org.team100.lib.logging.primitive.PrimitiveLogger.PrimitiveLongLogger;
+import org.team100.lib.logging.primitive.PrimitiveLogger.PrimitiveStringLogger;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.DoubleSubscriber;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.Timer;
+
+class AsyncNTPrimitiveLoggerTest {
+    private static final boolean PRINT = false;
+    private static final double kDelta = 0.001;
+
+    private NetworkTableInstance m_inst;
+
+    @BeforeEach
+    void setup() {
+        m_inst = NetworkTableInstance.create();
+    }
+
+    @AfterEach
+    void teardown() {
+        m_inst.close();
+    }
+
+    @Test
+    void testDrain() {
+        AsyncNTPrimitiveLogger logger = new AsyncNTPrimitiveLogger(m_inst);
+        PrimitiveDoubleLogger d = logger.doubleLogger("d");
+        PrimitiveLongLogger l = logger.longLogger("l");
+        PrimitiveStringLogger s = logger.stringLogger("s");
+        PrimitiveDoubleArrayLogger a = logger.doubleArrayLogger("a");
+        assertEquals(4, logger.keyCount());
+
+        // nothing logged yet, nothing published.
+        assertEquals(0, logger.drain());
+
+        d.log(1.0);
+        d.log(2.0);
+        l.log(3);
+        s.log("four");
+        a.log(new double[] { 5, 6 });
+        // only the latest value of each
+        assertEquals(4, logger.drain());
+        assertEquals(2.0, m_inst.getDoubleTopic("d").subscribe(0).get(), kDelta);
+        assertEquals(3, m_inst.getIntegerTopic("l").subscribe(0).get());
+        assertEquals("four", m_inst.getStringTopic("s").subscribe("").get());
+        assertArrayEquals(new double[] { 5, 6 },
+                m_inst.getDoubleArrayTopic("a").subscribe(new double[0]).get(), kDelta);
+
+        // nothing changed
+        assertEquals(0, logger.drain());
+        d.log(7.0);
+        assertEquals(1, logger.drain());
+        assertEquals(7.0, m_inst.getDoubleTopic("d").subscribe(0).get(), kDelta);
+    }
+
+    @Test
+    void testDuplicateLabel() {
+        AsyncNTPrimitiveLogger logger = new AsyncNTPrimitiveLogger(m_inst);
+        logger.doubleLogger("d");
+        logger.doubleLogger("d");
+        logger.doubleLogger("e");
+        assertEquals(2, logger.keyCount());
+    }
+
+    /** Values carry the time they were logged, not the time they were drained. */
+    @Test
+    void testTimestamp() throws InterruptedException {
+        AsyncNTPrimitiveLogger logger = new AsyncNTPrimitiveLogger(m_inst);
+        PrimitiveDoubleLogger early = logger.doubleLogger("early");
+        PrimitiveDoubleLogger late = logger.doubleLogger("late");
+        early.log(1.0);
+        Thread.sleep(50);
+        late.log(2.0);
+        assertEquals(2, logger.drain());
+        long earlyUs = m_inst.getDoubleTopic("early").subscribe(0).getAtomic().timestamp;
+        long lateUs = m_inst.getDoubleTopic("late").subscribe(0).getAtomic().timestamp;
+        // drained together, but logged 50 ms apart.
+        assertTrue(lateUs - earlyUs > 40000, "difference " + (lateUs - earlyUs));
+    }
+
+    /**
+     * The loop-thread cost of logging 3000 keys, publishing directly, as
+     * NTPrimitiveLogger does, vs writing the slots. The slot write is a few
+     * volatile stores, and the publish is a JNI call, so the margin is wide.
+     * Run this on the RoboRIO, with PRINT, to see the real numbers.
+     */
+    @Test
+    void testPerformance() {
+        final int KEYS = 3000;
+        final int LOOPS = 100;
+
+        DoublePublisher[] pubs = new DoublePublisher[KEYS];
+        for (int i = 0; i < KEYS; ++i) {
+            pubs[i] = m_inst.getDoubleTopic("direct/" + i).publish();
+        }
+        // keep the values from being optimized away
+        DoubleSubscriber sub = m_inst.getDoubleTopic("direct/0").subscribe(0);
+        final double directS;
+        {
+            double t1 = Timer.getFPGATimestamp();
+            for (int loop = 0; loop < LOOPS; ++loop) {
+                for (int i = 0; i < KEYS; ++i) {
+                    pubs[i].set(loop + i);
+                }
+            }
+            double t2 = Timer.getFPGATimestamp();
+            directS = t2 - t1;
+            if (PRINT)
+                System.out.printf("direct duration per loop ms %.3f\n", 1000 * directS / LOOPS);
+        }
+        assertEquals(LOOPS - 1, sub.get(), kDelta);
+
+        AsyncNTPrimitiveLogger logger = new AsyncNTPrimitiveLogger(m_inst);
+        PrimitiveDoubleLogger[] slots = new PrimitiveDoubleLogger[KEYS];
+        for (int i = 0; i < KEYS; ++i) {
+            slots[i] = logger.doubleLogger("async/" + i);
+        }
+        final double asyncS;
+        {
+            double t1 = Timer.getFPGATimestamp();
+            for (int loop = 0; loop < LOOPS; ++loop) {
+                for (int i = 0; i < KEYS; ++i) {
+                    slots[i].log(loop + i);
+                }
+            }
+            double t2 = Timer.getFPGATimestamp();
+            asyncS = t2 - t1;
+            if (PRINT)
+                System.out.printf("async duration per loop ms %.3f\n", 1000 * asyncS / LOOPS);
+        }
+        assertTrue(asyncS < directS, String.format("async %.3f s direct %.3f s", asyncS, directS));
+        {
+            // this is on the drain thread, off the loop.
+            double t1 = Timer.getFPGATimestamp();
+            assertEquals(KEYS, logger.drain());
+            double t2 = Timer.getFPGATimestamp();
+            if (PRINT)
+                System.out.printf("drain duration ms %.3f\n", 1000 * (t2 - t1));
+        }
+        assertEquals(LOOPS - 1, m_inst.getDoubleTopic("async/0").subscribe(0).get(), kDelta);
+    }
+}
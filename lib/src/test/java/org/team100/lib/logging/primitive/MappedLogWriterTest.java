@@ -0,0 +1,117 @@
+package org.team100.lib.logging.primitive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.team100.lib.logging.primitive.UdpPrimitiveProtocol.ProtocolException;
+import org.team100.lib.logging.receiver.MappedLogReader;
+
+class MappedLogWriterTest {
+    private static final int kSegmentBytes = 4096;
+
+    private long m_time;
+
+    private MappedLogWriter writer(Path dir) {
+        return writer(dir, 3);
+    }
+
+    private MappedLogWriter writer(Path dir, int maxSegments) {
+        return new MappedLogWriter(dir, kSegmentBytes, maxSegments, 0, () -> m_time, Runnable::run);
+    }
+
+    private static ByteBuffer packet(int value, int length) {
+        ByteBuffer bb = ByteBuffer.allocate(length);
+        bb.putInt(value);
+        bb.position(0);
+        return bb;
+    }
+
+    private static List<Integer> values(Path dir) throws IOException, ProtocolException {
+        List<Integer> values = new ArrayList<>();
+        new MappedLogReader(dir).read((meta, timeUs, packet) -> values.add(packet.getInt()));
+        return values;
+    }
+
+    @Test
+    void testRoundTrip(@TempDir Path dir) throws IOException, ProtocolException {
+        MappedLogWriter writer = writer(dir);
+        m_time = 100;
+        writer.meta().accept(packet(1, 10));
+        m_time = 200;
+        writer.data().accept(packet(2, 20));
+        writer.flush();
+
+        List<Boolean> metas = new ArrayList<>();
+        List<Long> times = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        int count = new MappedLogReader(dir).read((meta, timeUs, packet) -> {
+            metas.add(meta);
+            times.add(timeUs);
+            lengths.add(packet.remaining());
+        });
+        assertEquals(2, count);
+        assertEquals(List.of(true, false), metas);
+        assertEquals(List.of(100l, 200l), times);
+        assertEquals(List.of(10, 20), lengths);
+        assertEquals(0, writer.dropped());
+    }
+
+    @Test
+    void testSinkLeavesBuffer(@TempDir Path dir) {
+        MappedLogWriter writer = writer(dir);
+        ByteBuffer bb = packet(1, 10);
+        writer.data().accept(bb);
+        // the UDP sender, sharing the packet, still sees all of it.
+        assertEquals(10, bb.remaining());
+    }
+
+    @Test
+    void testRollover(@TempDir Path dir) throws IOException, ProtocolException {
+        MappedLogWriter writer = writer(dir);
+        // four frames per segment
+        for (int i = 0; i < 5; ++i) {
+            writer.data().accept(packet(i, 1000));
+        }
+        assertEquals(List.of(0, 1, 2, 3, 4), values(dir));
+        assertTrue(Files.exists(dir.resolve(MappedLogWriter.fileName(0))));
+        assertTrue(Files.exists(dir.resolve(MappedLogWriter.fileName(1))));
+    }
+
+    @Test
+    void testRecycle(@TempDir Path dir) throws IOException, ProtocolException {
+        MappedLogWriter writer = writer(dir);
+        for (int i = 0; i < 30; ++i) {
+            writer.data().accept(packet(i, 1000));
+        }
+        // three segments are kept: the last full one, the current one, and
+        // the next one, ready and empty.
+        List<Integer> values = values(dir);
+        assertEquals(24, values.get(0));
+        assertEquals(29, values.get(values.size() - 1));
+        assertFalse(Files.exists(dir.resolve(MappedLogWriter.fileName(0))));
+        try (var files = Files.list(dir)) {
+            // three segments plus the index
+            assertEquals(4, files.count());
+        }
+    }
+
+    @Test
+    void testContinues(@TempDir Path dir) throws IOException, ProtocolException {
+        writer(dir, 10).data().accept(packet(1, 10));
+        writer(dir, 10).data().accept(packet(2, 10));
+        // the second run continues the sequence, after the first run's
+        // current and next segments.
+        assertEquals(List.of(1, 2), values(dir));
+        assertTrue(Files.exists(dir.resolve(MappedLogWriter.fileName(2))));
+    }
+}
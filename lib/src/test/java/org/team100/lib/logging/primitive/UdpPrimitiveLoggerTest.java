@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.util.HexFormat;
 
@@ -15,11 +16,14 @@ import org.team100.lib.logging.LoggerFactory.DoubleArrayLogger;
 import org.team100.lib.logging.LoggerFactory.DoubleLogger;
 import org.team100.lib.logging.LoggerFactory.IntLogger;
 import org.team100.lib.logging.LoggerFactory.LongLogger;
+import org.team100.lib.logging.LoggerFactory.Pose2dLogger;
 import org.team100.lib.logging.LoggerFactory.StringLogger;
 import org.team100.lib.logging.primitive.PrimitiveLogger.PrimitiveBooleanLogger;
 import org.team100.lib.logging.primitive.PrimitiveLogger.PrimitiveIntLogger;
 import org.team100.lib.logging.primitive.PrimitiveLogger.PrimitiveStringLogger;
 
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.wpilibj.Timer;
 
 class UdpPrimitiveLoggerTest {
@@ -123,6 +127,43 @@ class UdpPrimitiveLoggerTest {
         assertArrayEquals(expectedBB, actualBB);
     }
 
+    /** A composite value is one key, with its schemas, and one tuple. */
+    @Test
+    void testStruct() {
+        UdpPrimitiveLogger udpLogger = new UdpPrimitiveLogger(x -> bb = x, x -> mb = x);
+        LoggerFactory logger = new LoggerFactory(() -> Level.COMP, "root", udpLogger);
+        Pose2dLogger poseLogger = logger.pose2dLogger(Level.COMP, "posekey");
+        assertEquals(1, udpLogger.keyCount());
+        // nested schemas first, then the key.
+        assertEquals(4, udpLogger.metadata.size());
+        assertEquals(UdpType.SCHEMA, udpLogger.metadata.get(0).type());
+        assertEquals("struct:Translation2d", udpLogger.metadata.get(0).label());
+        assertEquals("struct:Rotation2d", udpLogger.metadata.get(1).label());
+        assertEquals("struct:Pose2d", udpLogger.metadata.get(2).label());
+        assertEquals(UdpType.STRUCT, udpLogger.metadata.get(3).type());
+        assertEquals("root/posekey", udpLogger.metadata.get(3).label());
+        assertEquals("struct:Pose2d", udpLogger.metadata.get(3).extra());
+
+        // a second logger for another pose doesn't repeat the schemas.
+        logger.pose2dLogger(Level.COMP, "otherkey");
+        assertEquals(5, udpLogger.metadata.size());
+
+        poseLogger.log(() -> new Pose2d(1, 2, new Rotation2d(3)));
+        udpLogger.flush();
+        // timestamp, key, type, length, three doubles
+        assertEquals(8 + 2 + 1 + 2 + 24, bb.remaining());
+        bb.get(new byte[8]); // skip
+        assertEquals(1, bb.getChar());
+        assertEquals(UdpType.STRUCT.id, bb.get());
+        assertEquals(24, bb.getChar());
+        byte[] packed = new byte[24];
+        bb.get(packed);
+        Pose2d actual = Pose2d.struct.unpack(ByteBuffer.wrap(packed).order(ByteOrder.LITTLE_ENDIAN));
+        assertEquals(1, actual.getX(), 1e-9);
+        assertEquals(2, actual.getY(), 1e-9);
+        assertEquals(3, actual.getRotation().getRadians(), 1e-9);
+    }
+
     @Test
     void testSendingViaUDP() {
         UdpPrimitiveLogger udpLogger = new UdpPrimitiveLogger(
@@ -249,6 +249,33 @@ class UdpPrimitiveProtocol2Test {
         assertEquals("hello", v);
     }
 
+    @Test
+    void testStruct() throws ProtocolException {
+        byte[] b = new byte[12];
+        ByteBuffer bb = ByteBuffer.wrap(b);
+        // encoder doesn't start at the beginning
+        bb.position(2);
+        int len = UdpPrimitiveProtocol.encodeStruct(bb, 16, new byte[] { 1, 2, 3 });
+        assertEquals(8, len);
+        assertEquals((byte) 0, b[0]);
+        assertEquals((byte) 0, b[1]);
+        assertEquals((byte) 0, b[2]); // key high byte
+        assertEquals((byte) 16, b[3]); // key low byte
+        assertEquals((byte) 7, b[4]); // type
+        assertEquals((byte) 0, b[5]); // length high byte
+        assertEquals((byte) 3, b[6]); // length low byte
+        assertEquals((byte) 1, b[7]);
+        assertEquals((byte) 2, b[8]);
+        assertEquals((byte) 3, b[9]);
+        assertEquals((byte) 0, b[10]);
+
+        bb.rewind();
+        bb.position(5);
+        byte[] v = UdpPrimitiveProtocol.decodeStruct(bb);
+        assertEquals(10, bb.position());
+        assertArrayEquals(new byte[] { 1, 2, 3 }, v);
+    }
+
     ////////////////////////////////////////////
     //
     // multi-type buffer
@@ -0,0 +1,119 @@
+package org.team100.lib.logging.receiver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WpiLogReaderTest {
+    private static final double kDelta = 0.001;
+
+    /** Ten seconds at 50 Hz, plus some other types. */
+    private static Path write(Path dir) throws IOException {
+        Path file = dir.resolve("test.wpilog");
+        try (WpiLogWriter w = new WpiLogWriter(file, 4096, 2, () -> 0)) {
+            int x = w.start("/log/x", "double", "", 1);
+            int n = w.start("/log/n", "int64", "", 1);
+            int b = w.start("/log/b", "boolean", "", 1);
+            int s = w.start("/log/s", "string", "", 1);
+            int a = w.start("/log/a", "double[]", "", 1);
+            for (int i = 0; i < 500; ++i) {
+                long t = 20000 * (i + 1);
+                w.appendDouble(x, i * 0.5, t);
+                w.appendInteger(n, i, t);
+                w.appendBoolean(b, i % 2 == 0, t);
+                if (i % 100 == 0) {
+                    w.appendString(s, "i" + i, t);
+                    w.appendDoubleArray(a, new double[] { i, -i }, t);
+                }
+            }
+        }
+        return file;
+    }
+
+    @Test
+    void testEntries(@TempDir Path dir) throws IOException {
+        WpiLogReader reader = new WpiLogReader(write(dir), false);
+        assertEquals(List.of("/log/x", "/log/n", "/log/b", "/log/s", "/log/a"),
+                List.copyOf(reader.names()));
+        assertEquals("double", reader.entry("/log/x").type());
+        assertEquals(500, reader.entry("/log/x").count());
+        assertEquals(5, reader.entry("/log/s").count());
+    }
+
+    @Test
+    void testRandomAccess(@TempDir Path dir) throws IOException {
+        WpiLogReader reader = new WpiLogReader(write(dir), false);
+        assertEquals(5.0, reader.doubleAt("/log/x", 10), kDelta);
+        assertEquals(10, reader.longAt("/log/n", 10));
+        assertEquals(1, reader.longAt("/log/b", 10));
+        assertEquals(0, reader.longAt("/log/b", 11));
+        assertEquals("i200", reader.stringAt("/log/s", 2));
+        assertArrayEquals(new double[] { 300, -300 }, reader.doubleArrayAt("/log/a", 3), kDelta);
+        // time of the 11th record
+        assertEquals(10, reader.entry("/log/x").indexOf(220000));
+        assertEquals(11, reader.entry("/log/x").indexOf(220001));
+    }
+
+    @Test
+    void testTimeRange(@TempDir Path dir) throws IOException {
+        WpiLogReader reader = new WpiLogReader(write(dir), false);
+        // one second, from 1 s to 2 s
+        WpiLogReader.Column c = reader.doubles("/log/x", 1000000, 2000000);
+        assertEquals(50, c.size());
+        assertEquals(1000000, c.timeUs()[0]);
+        assertEquals(24.5, c.values()[0], kDelta);
+        assertEquals(1980000, c.timeUs()[49]);
+        // int64 as doubles
+        assertEquals(49, reader.doubles("/log/n", 1000000, 2000000).values()[0], kDelta);
+        assertEquals(500, reader.doubles("/log/x").size());
+        assertEquals(0, reader.doubles("/log/x", 20000000, 30000000).size());
+    }
+
+    @Test
+    void testMultiKey(@TempDir Path dir) throws IOException {
+        WpiLogReader reader = new WpiLogReader(write(dir), false);
+        Map<String, WpiLogReader.Column> columns = reader.doubles(
+                List.of("/log/x", "/log/n", "/log/b"), 0, 100000);
+        assertEquals(List.of("/log/x", "/log/n", "/log/b"), List.copyOf(columns.keySet()));
+        assertArrayEquals(new double[] { 0, 0.5, 1, 1.5 }, columns.get("/log/x").values(), kDelta);
+        assertArrayEquals(new double[] { 0, 1, 2, 3 }, columns.get("/log/n").values(), kDelta);
+        assertArrayEquals(new double[] { 1, 0, 1, 0 }, columns.get("/log/b").values(), kDelta);
+    }
+
+    @Test
+    void testIndexFile(@TempDir Path dir) throws IOException {
+        Path file = write(dir);
+        Path index = dir.resolve("test.wpilog.idx");
+        new WpiLogReader(file);
+        assertTrue(Files.exists(index));
+        // the saved index gives the same answers
+        WpiLogReader reader = new WpiLogReader(file);
+        assertEquals(500, reader.entry("/log/x").count());
+        assertEquals(5.0, reader.doubleAt("/log/x", 10), kDelta);
+        assertEquals("i200", reader.stringAt("/log/s", 2));
+    }
+
+    @Test
+    void testTruncated(@TempDir Path dir) throws IOException {
+        Path file = write(dir);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // cut the last record in half
+            ch.truncate(ch.size() - 3);
+        }
+        WpiLogReader reader = new WpiLogReader(file, false);
+        assertEquals(500, reader.entry("/log/x").count());
+        assertEquals(500, reader.entry("/log/n").count());
+        assertEquals(499, reader.entry("/log/b").count());
+    }
+}
@@ -0,0 +1,113 @@
+package org.team100.lib.logging.receiver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+
+class WpiLogWriterTest {
+    private static final double kDelta = 0.001;
+
+    /** Read it back with WPILib's reader, to check the format. */
+    @Test
+    void testRoundTrip(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("test.wpilog");
+        try (WpiLogWriter w = new WpiLogWriter(file, 1024, 2, () -> 1000)) {
+            int b = w.start("b", "boolean", "", 10);
+            int d = w.start("d", "double", "", 10);
+            int i = w.start("i", "int64", "", 10);
+            int a = w.start("a", "double[]", "", 10);
+            int s = w.start("s", "string", "", 10);
+            w.addSchema("struct:Foo", "double x", 10);
+            int f = w.start("f", "struct:Foo", "", 10);
+            w.appendBoolean(b, true, 20);
+            w.appendDouble(d, 1.5, 300);
+            w.appendInteger(i, 70000, 0x123456789l);
+            w.appendDoubleArray(a, new double[] { 1, 2 }, 40);
+            w.appendString(s, "hello", 50);
+            w.appendRaw(f, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }, 60);
+            // zero means now, from the clock
+            w.appendDouble(d, 2.5, 0);
+        }
+
+        DataLogReader reader = new DataLogReader(file.toString());
+        assertTrue(reader.isValid());
+        assertEquals(0x0100, reader.getVersion());
+        Iterator<DataLogRecord> it = reader.iterator();
+
+        List<String> names = new ArrayList<>();
+        List<String> types = new ArrayList<>();
+        for (int n = 0; n < 5; ++n) {
+            DataLogRecord r = it.next();
+            assertTrue(r.isStart());
+            assertEquals(10, r.getTimestamp());
+            names.add(r.getStartData().name);
+            types.add(r.getStartData().type);
+        }
+        assertEquals(List.of("b", "d", "i", "a", "s"), names);
+        assertEquals(List.of("boolean", "double", "int64", "double[]", "string"), types);
+
+        DataLogRecord r = it.next();
+        assertTrue(r.isStart());
+        assertEquals(".schema/struct:Foo", r.getStartData().name);
+        assertEquals("structschema", r.getStartData().type);
+        r = it.next();
+        assertEquals("double x", new String(r.getRaw(), StandardCharsets.UTF_8));
+        r = it.next();
+        assertEquals("struct:Foo", r.getStartData().type);
+
+        r = it.next();
+        assertTrue(r.getBoolean());
+        assertEquals(20, r.getTimestamp());
+        r = it.next();
+        assertEquals(1.5, r.getDouble(), kDelta);
+        assertEquals(300, r.getTimestamp());
+        r = it.next();
+        assertEquals(70000, r.getInteger());
+        assertEquals(0x123456789l, r.getTimestamp());
+        r = it.next();
+        assertArrayEquals(new double[] { 1, 2 }, r.getDoubleArray(), kDelta);
+        r = it.next();
+        assertEquals("hello", r.getString());
+        r = it.next();
+        assertArrayEquals(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }, r.getRaw());
+        r = it.next();
+        assertEquals(2.5, r.getDouble(), kDelta);
+        assertEquals(1000, r.getTimestamp());
+        assertFalse(it.hasNext());
+    }
+
+    /** Many more records than fit in the buffers. */
+    @Test
+    void testRollover(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("test.wpilog");
+        final int N = 10000;
+        try (WpiLogWriter w = new WpiLogWriter(file, 1024, 2, () -> 0)) {
+            int d = w.start("d", "double", "", 1);
+            for (int i = 0; i < N; ++i) {
+                w.appendDouble(d, i, i + 1);
+            }
+        }
+        int count = 0;
+        for (DataLogRecord r : new DataLogReader(file.toString())) {
+            if (r.isStart())
+                continue;
+            assertEquals(count, r.getDouble(), kDelta);
+            count++;
+        }
+        assertEquals(N, count);
+    }
+}
@@ -0,0 +1,86 @@
+package org.team100.lib.motion.arm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryConfig;
+
+class ArmTrajectoryCacheTest {
+    private static final double kDelta = 0.001;
+
+    private static ArmTrajectoryCache cache() {
+        return new ArmTrajectoryCache(
+                new ArmTrajectories(new TrajectoryConfig(1, 1)), Runnable::run);
+    }
+
+    @Test
+    void testKey() {
+        ArmTrajectoryCache.Key key = ArmTrajectoryCache.Key.of(
+                new Translation2d(0.6, 0.6),
+                List.of(new Translation2d(0.8, 0.7)),
+                new Translation2d(1, -1),
+                -45.2,
+                90);
+        assertEquals("30_30_50_-50_-45_90_40_35.json", key.fileName());
+        assertEquals(key, ArmTrajectoryCache.Key.parse(key.fileName()));
+    }
+
+    @Test
+    void testHit() {
+        ArmTrajectoryCache cache = cache();
+        CompletableFuture<Trajectory> f1 = cache.makeTrajectory(
+                new Translation2d(0.6, 0.6), new Translation2d(1, 0.6));
+        assertTrue(f1.isDone());
+        // close enough to share the trajectory
+        CompletableFuture<Trajectory> f2 = cache.makeTrajectory(
+                new Translation2d(0.601, 0.6), new Translation2d(1, 0.6));
+        assertSame(f1, f2);
+        assertEquals(1, cache.size());
+        // not close enough
+        cache.makeTrajectory(new Translation2d(0.7, 0.6), new Translation2d(1, 0.6));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testPrefill() {
+        ArmTrajectoryCache cache = cache();
+        cache.prefill(List.of(
+                new Translation2d(0.6, 0.6),
+                new Translation2d(1, 0.6),
+                new Translation2d(1, 1)));
+        // every ordered pair
+        assertEquals(6, cache.size());
+    }
+
+    @Test
+    void testSaveAndLoad(@TempDir Path dir) throws IOException {
+        ArmTrajectoryCache cache = cache();
+        Trajectory expected = cache.makeTrajectory(
+                new Translation2d(0.6, 0.6), new Translation2d(1, 0.6)).join();
+        assertFalse(expected.getStates().isEmpty());
+        cache.save(dir);
+
+        ArmTrajectoryCache loaded = new ArmTrajectoryCache(
+                new ArmTrajectories(new TrajectoryConfig(1, 1)),
+                r -> {
+                    throw new IllegalStateException("should not generate");
+                });
+        assertEquals(1, loaded.load(dir));
+        Trajectory actual = loaded.makeTrajectory(
+                new Translation2d(0.6, 0.6), new Translation2d(1, 0.6)).join();
+        assertEquals(expected.getTotalTimeSeconds(), actual.getTotalTimeSeconds(), kDelta);
+        assertEquals(expected.getStates().size(), actual.getStates().size());
+    }
+}
@@ -0,0 +1,118 @@
+package org.team100.lib.profile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.team100.lib.profile.Profile100.ResultWithETA;
+import org.team100.lib.state.State100;
+import org.team100.lib.util.Util;
+
+import edu.wpi.first.math.MathUtil;
+
+class SegmentedTrapezoidProfile100Test {
+    private static final boolean PRINT = false;
+    private static final double kDt = 0.02;
+    private static final double kDelta = 0.01;
+
+    /** Follow both profiles from the initial state, they should agree. */
+    private void verify(State100 initial, State100 goal, int segments) {
+        TrapezoidProfile100 expected = new TrapezoidProfile100(1, 1, 0.001);
+        SegmentedTrapezoidProfile100 actual = new SegmentedTrapezoidProfile100(1, 1, 0.001);
+        State100 e = initial;
+        State100 a = initial;
+        for (double t = 0; t < 10; t += kDt) {
+            ResultWithETA er = expected.calculateWithETA(kDt, e, goal);
+            ResultWithETA ar = actual.calculateWithETA(kDt, a, goal);
+            e = er.state();
+            a = ar.state();
+            if (PRINT)
+                Util.printf("%5.3f %s %s\n", t, e, a);
+            assertEquals(e.x(), a.x(), kDelta);
+            assertEquals(e.v(), a.v(), kDelta);
+            assertEquals(er.etaS(), ar.etaS(), kDelta);
+        }
+        assertEquals(goal.x(), a.x(), kDelta);
+        // planned once
+        assertEquals(1, actual.plans());
+        assertEquals(segments, actual.segments());
+    }
+
+    @Test
+    void testRestToRest() {
+        // no cruise
+        verify(new State100(0, 0), new State100(0.5, 0), 2);
+        // cruise
+        verify(new State100(0, 0), new State100(3, 0), 3);
+        // reverse
+        verify(new State100(0, 0), new State100(-3, 0), 3);
+    }
+
+    @Test
+    void testMoving() {
+        // moving away from the goal
+        verify(new State100(0, -0.5), new State100(1, 0), 3);
+        // moving goal
+        verify(new State100(0, 0), new State100(2, 0.5), 3);
+    }
+
+    @Test
+    void testTooHighEntryVelocity() {
+        verify(new State100(0, 2), new State100(2, 0), 2);
+        // braking, then turning around
+        verify(new State100(0, 2), new State100(0, 0), 4);
+    }
+
+    @Test
+    void testReplan() {
+        SegmentedTrapezoidProfile100 p = new SegmentedTrapezoidProfile100(1, 1, 0.001);
+        State100 goal = new State100(1, 0);
+        State100 s = p.calculate(kDt, new State100(), goal);
+        s = p.calculate(kDt, s, goal);
+        assertEquals(1, p.plans());
+        // new goal
+        goal = new State100(2, 0);
+        s = p.calculate(kDt, s, goal);
+        assertEquals(2, p.plans());
+        // reset to somewhere else
+        s = p.calculate(kDt, new State100(0.5, 0), goal);
+        assertEquals(3, p.plans());
+        s = p.calculate(kDt, s, goal);
+        assertEquals(3, p.plans());
+    }
+
+    /**
+     * The angular servo unwraps the goal and setpoint around the measurement
+     * every cycle, which moves them by a rounding error when the measurement
+     * moves. That shouldn't cause a replan.
+     */
+    @Test
+    void testUnwrappedGoal() {
+        SegmentedTrapezoidProfile100 p = new SegmentedTrapezoidProfile100(1, 1, 0.001);
+        // across the seam from the start, so the unwrapped goal is about 3.28.
+        final double goalRad = -3;
+        State100 s = new State100(2.5, 0);
+        for (int i = 0; i < 30; ++i) {
+            // measurement wanders around the setpoint
+            double measurement = MathUtil.angleModulus(s.x() + 0.01 * Math.sin(i));
+            State100 goal = new State100(
+                    MathUtil.angleModulus(goalRad - measurement) + measurement, 0);
+            State100 setpoint = new State100(
+                    MathUtil.angleModulus(s.x() - measurement) + measurement, s.v());
+            s = p.calculate(kDt, setpoint, goal);
+        }
+        assertEquals(1, p.plans());
+        // a real change in the goal still replans.
+        s = p.calculate(kDt, s, new State100(s.x() + 0.1, 0));
+        assertEquals(2, p.plans());
+    }
+
+    @Test
+    void testAtGoal() {
+        SegmentedTrapezoidProfile100 p = new SegmentedTrapezoidProfile100(1, 1, 0.001);
+        State100 goal = new State100(1, 0);
+        ResultWithETA r = p.calculateWithETA(kDt, goal, goal);
+        assertEquals(1, r.state().x(), kDelta);
+        assertEquals(0, r.etaS(), kDelta);
+        assertEquals(0, p.segments());
+    }
+}
@@ -0,0 +1,175 @@
+package org.team100.lib.replay;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.team100.lib.testing.Timeless;
+import org.team100.lib.util.Memo;
+
+import edu.wpi.first.wpilibj.Timer;
+
+class SensorReplayTest implements Timeless {
+    private static final double kDelta = 0.001;
+
+    private int value = 0;
+
+    @AfterEach
+    void stop() {
+        SensorReplay.stop();
+    }
+
+    @Test
+    void testFormat() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SensorLogWriter w = new SensorLogWriter(out)) {
+            w.def(0, "a");
+            w.def(1, "b");
+            w.loop(1.0, SensorLogWriter.kEnabled, SensorLogWriter.kRed);
+            w.putDouble(0, 10);
+            w.putDouble(0, 11);
+            w.putVision("vision/1234/5/blips", 999, new byte[] { 1, 2, 3 });
+            w.loop(1.02, SensorLogWriter.kEnabled | SensorLogWriter.kAutonomous, SensorLogWriter.kBlue);
+            w.putDouble(1, 20);
+            // new channel in the middle of a loop
+            w.def(2, "c");
+            w.putDouble(2, 30);
+        }
+        try (SensorLogReader r = new SensorLogReader(new ByteArrayInputStream(out.toByteArray()))) {
+            assertTrue(r.next());
+            assertEquals(1.0, r.timeSec(), kDelta);
+            assertTrue(r.enabled());
+            assertFalse(r.autonomous());
+            assertEquals(SensorLogWriter.kRed, r.alliance());
+            assertEquals("a", r.name(0));
+            // reads come back in order, then repeat
+            assertEquals(10, r.take(0), kDelta);
+            assertEquals(11, r.take(0), kDelta);
+            assertEquals(11, r.take(0), kDelta);
+            // never read
+            assertTrue(Double.isNaN(r.take(1)));
+            assertEquals(1, r.vision().size());
+            assertEquals("vision/1234/5/blips", r.vision().get(0).topic());
+            assertEquals(999, r.vision().get(0).serverTimeUs());
+            assertArrayEquals(new byte[] { 1, 2, 3 }, r.vision().get(0).raw());
+
+            assertTrue(r.next());
+            assertEquals(1.02, r.timeSec(), kDelta);
+            assertTrue(r.autonomous());
+            assertEquals(SensorLogWriter.kBlue, r.alliance());
+            // not read this loop, so the last value
+            assertEquals(11, r.take(0), kDelta);
+            assertEquals(20, r.take(1), kDelta);
+            assertEquals("c", r.name(2));
+            assertEquals(30, r.take(2), kDelta);
+            assertEquals(0, r.vision().size());
+
+            assertFalse(r.next());
+            assertEquals(2, r.loops());
+        }
+    }
+
+    /** Record a cached sensor for a few loops, then replay it. */
+    @Test
+    void testRecordAndReplay() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SensorReplay.startRecording(out);
+        Memo.DoubleCache sensor = Memo.ofDouble(SensorReplay.wrap("sensor", () -> ++value));
+        List<Double> recorded = new ArrayList<>();
+        List<Double> recordedTime = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            stepTime(0.02);
+            Memo.resetAll();
+            SensorReplay.beginLoop();
+            recordedTime.add(Timer.getFPGATimestamp());
+            recorded.add(sensor.getAsDouble());
+            // cached
+            recorded.add(sensor.getAsDouble());
+        }
+        SensorReplay.stop();
+
+        SensorReplay.startReplay(new ByteArrayInputStream(out.toByteArray()));
+        // the hardware is gone
+        Memo.DoubleCache replayed = Memo.ofDouble(SensorReplay.wrap("sensor", () -> {
+            throw new IllegalStateException("should not be called");
+        }));
+        List<Double> actual = new ArrayList<>();
+        List<Double> actualTime = new ArrayList<>();
+        int loops = ReplayDriver.run(() -> {
+            actualTime.add(Timer.getFPGATimestamp());
+            actual.add(replayed.getAsDouble());
+            actual.add(replayed.getAsDouble());
+        });
+        assertEquals(5, loops);
+        assertEquals(recorded, actual);
+        // same loop timing
+        for (int i = 1; i < loops; ++i) {
+            assertEquals(
+                    recordedTime.get(i) - recordedTime.get(i - 1),
+                    actualTime.get(i) - actualTime.get(i - 1),
+                    kDelta);
+        }
+    }
+
+    /** Each sensor is recorded under its own name. */
+    @Test
+    void testNames() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SensorReplay.startRecording(out);
+        Memo.DoubleCache a = Memo.ofDouble(SensorReplay.wrap("TalonFX 1/position", () -> 1));
+        Memo.DoubleCache b = Memo.ofDouble(SensorReplay.wrap("TalonFX 2/position", () -> 2));
+        Memo.resetAll();
+        SensorReplay.beginLoop();
+        assertEquals(1, a.getAsDouble(), kDelta);
+        assertEquals(2, b.getAsDouble(), kDelta);
+        SensorReplay.stop();
+        try (SensorLogReader r = new SensorLogReader(new ByteArrayInputStream(out.toByteArray()))) {
+            assertTrue(r.next());
+            assertEquals("TalonFX 1/position", r.name(0));
+            assertEquals("TalonFX 2/position", r.name(1));
+            assertEquals(1, r.take(0), kDelta);
+            assertEquals(2, r.take(1), kDelta);
+        }
+    }
+
+    /** Records only reach the stream when the background write runs. */
+    @Test
+    void testBuffered() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<Runnable> tasks = new ArrayList<>();
+        SensorLogWriter w = new SensorLogWriter(out, tasks::add);
+        w.loop(1.0, 0, SensorLogWriter.kNoAlliance);
+        w.putDouble(0, 10);
+        assertEquals(0, tasks.size());
+        w.flush();
+        // still nothing written
+        assertEquals(0, out.size());
+        assertEquals(1, tasks.size());
+        tasks.forEach(Runnable::run);
+        tasks.clear();
+        // header, loop, double
+        assertEquals(6 + 11 + 11, out.size());
+        // the next chunk is separate
+        w.putDouble(0, 11);
+        w.flush();
+        tasks.forEach(Runnable::run);
+        assertEquals(6 + 11 + 11 + 11, out.size());
+    }
+
+    @Test
+    void testOff() {
+        assertEquals(SensorReplay.Mode.OFF, SensorReplay.mode());
+        Memo.DoubleCache sensor = Memo.ofDouble(SensorReplay.wrap("sensor", () -> ++value));
+        assertEquals(1, sensor.getAsDouble(), kDelta);
+        assertTrue(SensorReplay.beginLoop());
+    }
+}
@@ -132,4 +132,23 @@ class HolonomicSplineTest {
         assertEquals(1.875, p.getHeadingRate(), kDelta);
     }
 
+
+    @Test
+    void testInitialCurvatureAndHeadingRate() {
+        HolonomicSpline s = new HolonomicSpline(
+                new Pose2d(0, 0, new Rotation2d(Math.PI / 4)),
+                new Pose2d(1, 1, new Rotation2d(Math.PI / 4)),
+                new Rotation2d(),
+                new Rotation2d(1),
+                0.5,
+                0.2);
+        Pose2dWithMotion p = s.getPose2dWithMotion(0);
+        assertEquals(0.5, p.getCurvature(), kDelta);
+        assertEquals(0.2, p.getHeadingRate(), kDelta);
+        assertEquals(Math.PI / 4, p.getCourse().get().getRadians(), kDelta);
+        p = s.getPose2dWithMotion(1);
+        assertEquals(0, p.getCurvature(), kDelta);
+        assertEquals(0, p.getHeadingRate(), kDelta);
+        assertEquals(1, p.getPose().getRotation().getRadians(), kDelta);
+    }
 }
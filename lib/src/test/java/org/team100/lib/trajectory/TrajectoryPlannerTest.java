@@ -13,6 +13,7 @@ import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamicsFactory;
 import org.team100.lib.timing.CentripetalAccelerationConstraint;
 import org.team100.lib.timing.ConstantConstraint;
 import org.team100.lib.timing.SwerveDriveDynamicsConstraint;
+import org.team100.lib.timing.TimedPose;
 import org.team100.lib.timing.TimingConstraint;
 import org.team100.lib.timing.YawRateConstraint;
 
@@ -102,6 +103,85 @@ class TrajectoryPlannerTest {
         assertEquals(0, p.state().state().getHeadingRate(), kDelta);
     }
 
+    @Test
+    void testAdaptiveLinear() {
+        List<Pose2d> waypoints = List.of(new Pose2d(), new Pose2d(1, 0, new Rotation2d()));
+        List<Rotation2d> headings = List.of(new Rotation2d(), new Rotation2d());
+        List<TimingConstraint> constraints = new ArrayList<>();
+        Trajectory100 t = TrajectoryPlanner.generateAdaptiveTrajectory(
+                waypoints, headings, constraints, 0, 0);
+        // a straight line needs only the max step
+        assertEquals(11, t.length());
+        TrajectoryPoint p = t.getPoint(5);
+        assertEquals(0.5, p.state().state().getPose().getX(), kDelta);
+        assertEquals(0, p.state().state().getHeadingRate(), kDelta);
+    }
+
+    /**
+     * Adaptive sampling has fewer points than uniform, for about the same
+     * schedule.
+     */
+    @Test
+    void testAdaptiveCurve() {
+        List<Pose2d> waypoints = List.of(
+                new Pose2d(),
+                new Pose2d(2, 1, new Rotation2d(Math.PI / 2)));
+        List<Rotation2d> headings = List.of(new Rotation2d(), new Rotation2d(1));
+        SwerveKinodynamics limits = SwerveKinodynamicsFactory.forTest();
+        List<TimingConstraint> constraints = List.of(
+                new ConstantConstraint(limits.getMaxDriveVelocityM_S(), limits.getMaxDriveAccelerationM_S2()),
+                new SwerveDriveDynamicsConstraint(limits),
+                new YawRateConstraint(limits, 0.2),
+                new CentripetalAccelerationConstraint(limits, 0.2));
+        Trajectory100 uniform = TrajectoryPlanner.generateTrajectory(
+                waypoints, headings, constraints, 0, 0);
+        Trajectory100 adaptive = TrajectoryPlanner.generateAdaptiveTrajectory(
+                waypoints, headings, constraints, 0, 0);
+        assertTrue(adaptive.length() < uniform.length() / 2);
+        assertEquals(uniform.getTotalTimeSeconds(), adaptive.getTotalTimeSeconds(),
+                0.05 * uniform.getTotalTimeSeconds());
+        Pose2d end = adaptive.getLastPoint().state().state().getPose();
+        assertEquals(2, end.getX(), kDelta);
+        assertEquals(1, end.getY(), kDelta);
+    }
+
+    /**
+     * Move the goal mid-path: the prefix stays, and the tail starts where the
+     * prefix ends, at the same speed.
+     */
+    @Test
+    void testReplan() {
+        List<Pose2d> waypoints = List.of(new Pose2d(), new Pose2d(2, 0, new Rotation2d()));
+        List<Rotation2d> headings = List.of(new Rotation2d(), new Rotation2d());
+        List<TimingConstraint> constraints = List.of(new ConstantConstraint(1, 1));
+        Trajectory100 t = TrajectoryPlanner.restToRest(waypoints, headings, constraints);
+        int index = t.indexAt(1.0);
+        TimedPose splice = t.getPoint(index).state();
+        assertTrue(splice.getTimeS() >= 1.0);
+
+        Trajectory100 r = TrajectoryPlanner.replan(
+                t, 1.0, new Pose2d(2, 0.5, new Rotation2d()), new Rotation2d(0.5), constraints);
+        assertTrue(t.getTotalTimeSeconds() < r.getTotalTimeSeconds());
+        // same prefix
+        for (int i = 0; i <= index; ++i) {
+            assertEquals(t.getPoint(i).state().getTimeS(), r.getPoint(i).state().getTimeS(), kDelta);
+            assertEquals(t.getPoint(i).state().velocityM_S(), r.getPoint(i).state().velocityM_S(), kDelta);
+        }
+        // continuous across the splice
+        for (int i = index - 1; i < index + 2; ++i) {
+            TimedPose p0 = r.getPoint(i).state();
+            TimedPose p1 = r.getPoint(i + 1).state();
+            assertTrue(p1.getTimeS() > p0.getTimeS());
+            assertEquals(p0.velocityM_S(), p1.velocityM_S(), 0.05);
+            assertEquals(0, p0.state().distance(p1.state()), 0.02);
+        }
+        Pose2d end = r.getLastPoint().state().state().getPose();
+        assertEquals(2, end.getX(), kDelta);
+        assertEquals(0.5, end.getY(), kDelta);
+        assertEquals(0.5, end.getRotation().getRadians(), kDelta);
+        assertEquals(0, r.getLastPoint().state().velocityM_S(), kDelta);
+    }
+
     /**
      * Pure rotation does not work.
      */
@@ -0,0 +1,131 @@
+package org.team100.lib.trajectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.Test;
+import org.team100.lib.geometry.GeometryUtil;
+import org.team100.lib.timing.ConstantConstraint;
+import org.team100.lib.timing.TimedPose;
+import org.team100.lib.timing.TimingConstraint;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+class TrajectoryServiceTest {
+    private static final double kDelta = 0.01;
+    private static final List<TimingConstraint> constraints = List.of(new ConstantConstraint(1, 1));
+
+    /** Runs the tasks when asked. */
+    private static class ManualExecutor implements Executor {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            tasks.forEach(Runnable::run);
+            tasks.clear();
+        }
+    }
+
+    @Test
+    void testSynchronous() {
+        TrajectoryService service = TrajectoryService.synchronous(constraints);
+        CompletableFuture<Trajectory100> f = service.toGoal(
+                GeometryUtil.kPoseZero, new Pose2d(1, 0, GeometryUtil.kRotationZero));
+        assertTrue(f.isDone());
+        Trajectory100 t = f.join();
+        assertFalse(t.isEmpty());
+        assertEquals(1, t.getLastPoint().state().state().getPose().getX(), kDelta);
+    }
+
+    @Test
+    void testPrefetch() {
+        ManualExecutor executor = new ManualExecutor();
+        TrajectoryService service = new TrajectoryService(constraints, executor);
+        Pose2d goalA = new Pose2d(1, 0, GeometryUtil.kRotationZero);
+        Pose2d goalB = new Pose2d(0, 1, GeometryUtil.kRotationZero);
+        service.prefetch(GeometryUtil.kPoseZero, List.of(goalA, goalB));
+        assertEquals(2, executor.tasks.size());
+        // still in flight, so nothing new, even though the robot moved.
+        service.prefetch(new Pose2d(0.5, 0, GeometryUtil.kRotationZero), List.of(goalA, goalB));
+        assertEquals(2, executor.tasks.size());
+        executor.runAll();
+
+        // close enough to the prefetched start
+        CompletableFuture<Trajectory100> f = service.toGoal(
+                new Pose2d(0.01, 0, GeometryUtil.kRotationZero), goalA);
+        assertTrue(f.isDone());
+        assertEquals(0, executor.tasks.size());
+        assertSame(f, service.toGoal(GeometryUtil.kPoseZero, goalA));
+        assertEquals(1, f.join().getLastPoint().state().state().getPose().getX(), kDelta);
+
+        // too far away, so make a new one, replacing the old one.
+        CompletableFuture<Trajectory100> f2 = service.toGoal(
+                new Pose2d(0.5, 0, GeometryUtil.kRotationZero), goalA);
+        assertNotSame(f, f2);
+        assertFalse(f2.isDone());
+        assertEquals(2, service.size());
+        executor.runAll();
+        assertEquals(1, f2.join().getLastPoint().state().state().getPose().getX(), kDelta);
+    }
+
+    @Test
+    void testPrefetchAtStart() {
+        ManualExecutor executor = new ManualExecutor();
+        TrajectoryService service = new TrajectoryService(constraints, executor);
+        // already there, even if it needs to turn, so nothing to do.
+        service.prefetch(GeometryUtil.kPoseZero, List.of(new Pose2d(0.01, 0, new Rotation2d(1))));
+        assertEquals(0, executor.tasks.size());
+        assertEquals(0, service.size());
+    }
+
+    @Test
+    void testPlaceholder() {
+        ManualExecutor executor = new ManualExecutor();
+        TrajectoryService service = new TrajectoryService(constraints, executor);
+        Pose2d goal = new Pose2d(1, 0, new Rotation2d(1));
+
+        // nothing prefetched, so make it on the worker
+        CompletableFuture<Trajectory100> f = service.toGoal(GeometryUtil.kPoseZero, goal);
+        assertFalse(f.isDone());
+        assertEquals(1, executor.tasks.size());
+
+        // meanwhile drive this, which doesn't use the worker.
+        Trajectory100 t = service.placeholder(GeometryUtil.kPoseZero, goal);
+        assertEquals(1, executor.tasks.size());
+        // triangle profile, 1 m at 1 m/s^2
+        assertEquals(2, t.getTotalTimeSeconds(), kDelta);
+        TimedPose middle = t.getPoint(t.indexAt(1)).state();
+        assertEquals(0.5, middle.state().getPose().getX(), kDelta);
+        assertEquals(0.5, middle.state().getHeading().getRadians(), kDelta);
+        assertEquals(1, middle.velocityM_S(), kDelta);
+        TimedPose last = t.getLastPoint().state();
+        assertEquals(1, last.state().getPose().getX(), kDelta);
+        assertEquals(1, last.state().getHeading().getRadians(), kDelta);
+        assertEquals(0, last.velocityM_S(), kDelta);
+
+        // trapezoid, 4 m: 1 s up, 3 s cruise, 1 s down
+        Trajectory100 t2 = service.placeholder(
+                GeometryUtil.kPoseZero, new Pose2d(4, 0, GeometryUtil.kRotationZero));
+        assertEquals(5, t2.getTotalTimeSeconds(), kDelta);
+
+        // nowhere to go
+        assertTrue(service.placeholder(GeometryUtil.kPoseZero, GeometryUtil.kPoseZero).isEmpty());
+
+        executor.runAll();
+        assertTrue(f.isDone());
+        assertEquals(1, f.join().getLastPoint().state().state().getPose().getX(), kDelta);
+    }
+}
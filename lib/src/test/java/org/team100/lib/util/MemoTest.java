@@ -0,0 +1,73 @@
+package org.team100.lib.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class MemoTest {
+    private int value = 0;
+
+    @Test
+    void testObject() {
+        Memo.CotemporalCache<Integer> c = Memo.of(() -> ++value);
+        // first call increments
+        assertEquals(1, c.get());
+        // second call is memoized
+        assertEquals(1, c.get());
+        Memo.resetAll();
+        assertEquals(2, c.get());
+        assertEquals(2, c.get());
+        // reset just this one
+        c.reset();
+        assertEquals(3, c.get());
+        assertEquals(3, c.get());
+    }
+
+    @Test
+    void testDouble() {
+        Memo.DoubleCache c = Memo.ofDouble(() -> ++value);
+        assertEquals(1, c.getAsDouble(), 0.001);
+        assertEquals(1, c.getAsDouble(), 0.001);
+        Memo.resetAll();
+        assertEquals(2, c.getAsDouble(), 0.001);
+        c.reset();
+        assertEquals(3, c.getAsDouble(), 0.001);
+    }
+
+    @Test
+    void testLong() {
+        Memo.LongCache c = Memo.ofLong(() -> ++value);
+        assertEquals(1, c.getAsLong());
+        assertEquals(1, c.getAsLong());
+        Memo.resetAll();
+        assertEquals(2, c.getAsLong());
+        c.reset();
+        assertEquals(3, c.getAsLong());
+    }
+
+    @Test
+    void testBoolean() {
+        Memo.BooleanCache c = Memo.ofBoolean(() -> ++value % 2 == 0);
+        assertFalse(c.getAsBoolean());
+        assertFalse(c.getAsBoolean());
+        Memo.resetAll();
+        assertTrue(c.getAsBoolean());
+        c.reset();
+        assertFalse(c.getAsBoolean());
+    }
+
+    /** Null isn't kept, so it's asked again, until it's not null. */
+    @Test
+    void testNull() {
+        Memo.CotemporalCache<String> c = Memo.of(() -> ++value < 3 ? null : "hi");
+        assertNull(c.get());
+        assertNull(c.get());
+        assertEquals(2, value);
+        assertEquals("hi", c.get());
+        assertEquals("hi", c.get());
+        assertEquals(3, value);
+    }
+}
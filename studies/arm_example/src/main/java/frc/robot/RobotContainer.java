@@ -8,9 +8,12 @@ import org.team100.lib.commands.simple.SimpleManual;
 import org.team100.lib.commands.simple.SimpleManualMode;
 import org.team100.lib.hid.ControlFactory;
 import org.team100.lib.hid.OperatorControl;
+import org.team100.lib.logging.LoggerFactory;
+import org.team100.lib.logging.Logging;
 import org.team100.lib.motion.arm.ArmFactory;
 import org.team100.lib.motion.arm.ArmKinematics;
 import org.team100.lib.motion.arm.ArmSubsystem;
+import org.team100.lib.motion.arm.ArmTrajectoryCache;
 import org.team100.lib.motion.simple.SimpleSubsystem;
 import org.team100.lib.motion.simple.SimpleSubsystemFactory;
 
@@ -23,6 +26,7 @@ public class RobotContainer {
   private final SimpleSubsystem m_elevator;
 
   public RobotContainer() {
+    final LoggerFactory logger = Logging.instance().rootLogger;
     ControlFactory controlFactory = new ControlFactory();
     OperatorControl operatorControl = controlFactory.getOperatorControl();
 
@@ -31,10 +35,13 @@ public class RobotContainer {
     // ARM
     //
 
-    m_armSubsystem = ArmFactory.get();
+    m_armSubsystem = ArmFactory.get(logger);
     m_armKinematicsM = new ArmKinematics(0.93, 0.92);
+    // one cache for all the arm commands
+    final ArmTrajectoryCache armTrajectories = Sequence.standardCache();
 
-    operatorControl.doSomething().whileTrue(new Sequence(m_armSubsystem, m_armKinematicsM));
+    operatorControl.doSomething().whileTrue(
+        new Sequence(logger, m_armSubsystem, m_armKinematicsM, armTrajectories));
 
     operatorControl.never().whileTrue(
         new ManualArm(
@@ -64,7 +71,7 @@ public class RobotContainer {
     SimpleManualMode simpleMode = new SimpleManualMode();
     m_elevator.setDefaultCommand(new SimpleManual(simpleMode, m_elevator, operatorControl::elevator));
 
-    m_auton = new Sequence(m_armSubsystem, m_armKinematicsM);
+    m_auton = new Sequence(logger, m_armSubsystem, m_armKinematicsM, armTrajectories);
 
   }
 
@@ -1,9 +1,10 @@
 package org.team100.alliance;
 
+import java.util.Random;
+
 import org.team100.commands.SourceDefault;
 import org.team100.control.ManualPilot;
 import org.team100.control.SelectorPilot;
-import org.team100.lib.camera.NoteSighting;
 import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamics;
 import org.team100.lib.pilot.AmpCycler;
 import org.team100.lib.pilot.Auton;
@@ -38,15 +39,27 @@ public class Blue implements Alliance {
     private final Source source;
 
     public Blue(SimWorld world, ForceViz viz, SwerveKinodynamics swerveKinodynamics) {
+        this(world, viz, swerveKinodynamics, kRealPlayer, new Random());
+    }
+
+    /**
+     * @param realPlayer use manual control in teleop; headless runs have no
+     *                   joystick, so they should use false.
+     * @param random     for the source
+     */
+    public Blue(
+            SimWorld world,
+            ForceViz viz,
+            SwerveKinodynamics swerveKinodynamics,
+            boolean realPlayer,
+            Random random) {
         // upper far 3
-        if (kRealPlayer) {
+        if (realPlayer) {
             player = new RobotAssembly(
                     swerveKinodynamics,
                     x -> SelectorPilot.autonSelector(
                             new Auton(x.getDrive()::getPose,
-                                    () -> x.getCamera().recentNoteSightings().values().stream()
-                                            .map(NoteSighting::position)
-                                            .toList(),
+                                    x.getCamera()::notePositions,
                                     x.getIndexer()::full,
                                     new Pose2d(3.0, 7.5, new Rotation2d(-2.75)), false,
                                     8, 7, 6),
@@ -61,9 +74,7 @@ public class Blue implements Alliance {
                     swerveKinodynamics,
                     x -> SelectorPilot.autonSelector(
                             new Auton(x.getDrive()::getPose,
-                                    () -> x.getCamera().recentNoteSightings().values().stream()
-                                            .map(NoteSighting::position)
-                                            .toList(),
+                                    x.getCamera()::notePositions,
                                     x.getIndexer()::full,
                                     new Pose2d(3.0, 7.5, new Rotation2d(-2.75)), false,
                                     8, 7, 6),
@@ -101,8 +112,7 @@ public class Blue implements Alliance {
                 x -> SelectorPilot.autonSelector(
                         new Auton(
                                 x.getDrive()::getPose,
-                                () -> x.getCamera().recentNoteSightings().values().stream().map(NoteSighting::position)
-                                        .toList(),
+                                x.getCamera()::notePositions,
                                 x.getIndexer()::full,
                                 new Pose2d(3.0, 5.5, new Rotation2d(Math.PI)), false,
                                 3, 2, 1),
@@ -113,7 +123,7 @@ public class Blue implements Alliance {
         // initially at subwoofer
         friend2.setState(1.4, 5.5, Math.PI, 0, 0);
 
-        source = new Source(world, new Translation2d(15.5, 1.0));
+        source = new Source(world, new Translation2d(15.5, 1.0), random);
         source.setDefaultCommand(new SourceDefault(source, world, true, false));
     }
 
@@ -1,8 +1,9 @@
 package org.team100.alliance;
 
+import java.util.Random;
+
 import org.team100.commands.SourceDefault;
 import org.team100.control.SelectorPilot;
-import org.team100.lib.camera.NoteSighting;
 import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamics;
 import org.team100.lib.pilot.Auton;
 import org.team100.lib.pilot.Defender;
@@ -34,13 +35,17 @@ public class Red implements Alliance {
     private final Source source;
 
     public Red(SimWorld world, ForceViz viz, SwerveKinodynamics swerveKinodynamics) {
+        this(world, viz, swerveKinodynamics, new Random());
+    }
+
+    /** @param random for the source */
+    public Red(SimWorld world, ForceViz viz, SwerveKinodynamics swerveKinodynamics, Random random) {
         // near 3
         scorer = new RobotAssembly(
                 swerveKinodynamics,
                 x -> SelectorPilot.autonSelector(
                         new Auton(x.getDrive()::getPose,
-                                () -> x.getCamera().recentNoteSightings().values().stream().map(NoteSighting::position)
-                                        .toList(),
+                                x.getCamera()::notePositions,
                                 x.getIndexer()::full,
                                 new Pose2d(14, 7, new Rotation2d(-0.5)), false,
                                 11, 10, 9),
@@ -63,8 +68,7 @@ public class Red implements Alliance {
                 x -> SelectorPilot.autonSelector(
                         new Auton(
                                 x.getDrive()::getPose,
-                                () -> x.getCamera().recentNoteSightings().values().stream().map(NoteSighting::position)
-                                        .toList(),
+                                x.getCamera()::notePositions,
                                 x.getIndexer()::full,
                                 new Pose2d(13.5, 3.4, new Rotation2d(0.5)), false,
                                 4, 5, 6),
@@ -90,7 +94,7 @@ public class Red implements Alliance {
         // initially near subwoofer
         defender.setState(15.8, 4.3, Math.PI / 3, 0, 0);
 
-        source = new Source(world, new Translation2d(1.0, 1.0));
+        source = new Source(world, new Translation2d(1.0, 1.0), random);
         source.setDefaultCommand(new SourceDefault(source, world, false, false));
     }
 
@@ -0,0 +1,124 @@
+package org.team100.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many independent headless matches in parallel, one JVM per match, and
+ * reports score and timing statistics.
+ *
+ * Each match gets a different seed. Nobody is holding a joystick, so the blue
+ * player always uses the autopilot.
+ *
+ * The children inherit the classpath and java.library.path, so run this the
+ * same way as the simulation, with the WPILib sim native libraries available.
+ *
+ * Arguments: matches [parallelism [baseSeed]]
+ */
+public class BatchRunner {
+    public static void main(String... args) throws InterruptedException, ExecutionException {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int parallelism = args.length > 1
+                ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+        long baseSeed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        List<Future<MatchResult>> futures = new ArrayList<>();
+        long startNs = System.nanoTime();
+        for (int i = 0; i < matches; ++i) {
+            final long seed = baseSeed + i;
+            futures.add(pool.submit(() -> fork(seed, false)));
+        }
+        List<MatchResult> results = new ArrayList<>();
+        for (Future<MatchResult> f : futures) {
+            MatchResult r = f.get();
+            if (r == null) {
+                System.out.println("match failed");
+                continue;
+            }
+            System.out.println(r.format());
+            results.add(r);
+        }
+        double wallSec = (System.nanoTime() - startNs) / 1e9;
+        pool.shutdown();
+        report(results, wallSec);
+    }
+
+    /** Runs one match in a child JVM with the same classpath. */
+    static MatchResult fork(long seed, boolean realPlayer) throws IOException, InterruptedException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        ProcessBuilder builder = new ProcessBuilder(
+                java,
+                "-Djava.library.path=" + System.getProperty("java.library.path"),
+                "-cp", System.getProperty("java.class.path"),
+                HeadlessMatch.class.getName(),
+                Long.toString(seed),
+                Boolean.toString(realPlayer));
+        builder.redirectErrorStream(true);
+        Process process = builder.start();
+        MatchResult result = null;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                MatchResult r = MatchResult.parse(line);
+                if (r != null)
+                    result = r;
+            }
+        }
+        process.waitFor();
+        return result;
+    }
+
+    static void report(List<MatchResult> results, double wallSec) {
+        int n = results.size();
+        if (n == 0) {
+            System.out.println("no results");
+            return;
+        }
+        double blueSum = 0;
+        double blueSumSq = 0;
+        double redSum = 0;
+        double redSumSq = 0;
+        double speedupSum = 0;
+        double matchSecSum = 0;
+        int blueWins = 0;
+        int redWins = 0;
+        for (MatchResult r : results) {
+            blueSum += r.blue();
+            blueSumSq += r.blue() * r.blue();
+            redSum += r.red();
+            redSumSq += r.red() * r.red();
+            speedupSum += r.speedup();
+            matchSecSum += r.wallSec();
+            if (r.blue() > r.red())
+                blueWins++;
+            else if (r.red() > r.blue())
+                redWins++;
+        }
+        double blueMean = blueSum / n;
+        double redMean = redSum / n;
+        System.out.printf("matches %d, blue wins %d, red wins %d, ties %d\n",
+                n, blueWins, redWins, n - blueWins - redWins);
+        System.out.printf("blue score mean %6.2f stddev %6.2f\n",
+                blueMean, Math.sqrt(Math.max(0, blueSumSq / n - blueMean * blueMean)));
+        System.out.printf("red  score mean %6.2f stddev %6.2f\n",
+                redMean, Math.sqrt(Math.max(0, redSumSq / n - redMean * redMean)));
+        System.out.printf("mean match wall time %6.2f s, mean speedup %6.1fx real time\n",
+                matchSecSum / n, speedupSum / n);
+        System.out.printf("total wall time %6.2f s, %8.0f matches/hour\n",
+                wallSec, n * 3600 / wallSec);
+    }
+
+    private BatchRunner() {
+        //
+    }
+}
@@ -0,0 +1,148 @@
+package org.team100.batch;
+
+import org.team100.field.Score;
+import org.team100.lib.logging.Level;
+import org.team100.lib.logging.LoggerFactory;
+import org.team100.robot.RobotContainer;
+import org.team100.sim.SimWorld;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.MatchType;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+/**
+ * Runs one match as fast as the CPU allows, with no NT, no Glass, and no wall
+ * clock.
+ * 
+ * Instead of the TimedRobot loop and the SimulatedFMS scheduler, this pauses
+ * the FPGA clock and steps it by hand, running the same mode transitions,
+ * periodic calls, command scheduler, and dyn4j world update that the robot
+ * loop would. Logging goes to memory.
+ * 
+ * The command scheduler and the simulated HAL are process-wide singletons, so
+ * each match needs its own JVM; see BatchRunner.
+ * 
+ * Arguments: seed realPlayer
+ */
+public class HeadlessMatch {
+    static final double kDtS = 0.02;
+    // same schedule as SimulatedFMS, without the countdown.
+    private static final double kAutonEndS = 15;
+    private static final double kTeleopStartS = 18;
+    private static final double kTeleopEndS = 153;
+
+    private enum Mode {
+        DISABLED,
+        AUTON,
+        TELEOP
+    }
+
+    public static void main(String... args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 0;
+        boolean realPlayer = args.length > 1 && Boolean.parseBoolean(args[1]);
+        MatchResult result = run(seed, realPlayer);
+        System.out.println(result.format());
+        // NT and friends leave non-daemon threads behind.
+        System.exit(0);
+    }
+
+    public static MatchResult run(long seed, boolean realPlayer) {
+        return run(seed, realPlayer, kTeleopEndS);
+    }
+
+    /** Stops after durationS of match time, e.g. for a quick test. */
+    static MatchResult run(long seed, boolean realPlayer, double durationS) {
+        HAL.initialize(500, 0);
+        SimHooks.pauseTiming();
+        setUpDriverStation();
+
+        final LoggerFactory fieldLogger = new LoggerFactory(
+                () -> Level.COMP, "field", new MemoryPrimitiveLogger());
+        final Score blueScore = new Score();
+        final Score redScore = new Score();
+        final SimWorld world = new SimWorld(fieldLogger, blueScore, redScore);
+        final RobotContainer container = new RobotContainer(fieldLogger, world, realPlayer, seed);
+        container.robotInit();
+
+        final long startNs = System.nanoTime();
+        // count steps, rather than adding up dt, so the count is exact.
+        final int steps = (int) Math.ceil(durationS / kDtS - 1e-9);
+        Mode mode = Mode.DISABLED;
+        for (int i = 0; i < steps; ++i) {
+            Mode next = modeAt(i * kDtS);
+            if (next != mode) {
+                transition(container, mode, next);
+                mode = next;
+            }
+            DriverStation.refreshData();
+            switch (mode) {
+                case AUTON -> container.autonomousPeriodic();
+                case TELEOP -> container.teleopPeriodic();
+                default -> {
+                }
+            }
+            CommandScheduler.getInstance().run();
+            container.simulationStep();
+            SimHooks.stepTiming(kDtS);
+        }
+        transition(container, mode, Mode.DISABLED);
+        final double wallSec = (System.nanoTime() - startNs) / 1e9;
+
+        SimHooks.resumeTiming();
+        HAL.shutdown();
+        return new MatchResult(
+                seed,
+                realPlayer,
+                blueScore.TotalScore(),
+                redScore.TotalScore(),
+                wallSec,
+                steps);
+    }
+
+    private static Mode modeAt(double t) {
+        if (t < kAutonEndS)
+            return Mode.AUTON;
+        if (t < kTeleopStartS)
+            return Mode.DISABLED;
+        return Mode.TELEOP;
+    }
+
+    /** Like the TimedRobot mode change: exit the old mode, init the new one. */
+    private static void transition(RobotContainer container, Mode from, Mode to) {
+        switch (from) {
+            case AUTON -> container.autonomousExit();
+            case TELEOP -> container.teleopExit();
+            default -> {
+            }
+        }
+        DriverStationSim.setAutonomous(to == Mode.AUTON);
+        DriverStationSim.setEnabled(to != Mode.DISABLED);
+        DriverStationSim.notifyNewData();
+        DriverStation.refreshData();
+        switch (to) {
+            case AUTON -> container.autonomousInit();
+            case TELEOP -> container.teleopInit();
+            default -> {
+            }
+        }
+    }
+
+    private static void setUpDriverStation() {
+        DriverStationSim.setAllianceStationId(AllianceStationID.Blue1);
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setEventName("Batch");
+        DriverStationSim.setFmsAttached(true);
+        DriverStationSim.setMatchType(MatchType.Practice);
+        DriverStationSim.setEnabled(false);
+        DriverStationSim.notifyNewData();
+        DriverStation.refreshData();
+    }
+
+    private HeadlessMatch() {
+        //
+    }
+}
@@ -0,0 +1,41 @@
+package org.team100.batch;
+
+import java.util.Locale;
+
+/**
+ * Outcome of one headless match, passed from the child process to the batch
+ * runner as a single line on stdout.
+ */
+public record MatchResult(
+        long seed,
+        boolean realPlayer,
+        int blue,
+        int red,
+        double wallSec,
+        int steps) {
+    private static final String kPrefix = "RESULT";
+
+    /** Match time per wall time. */
+    public double speedup() {
+        return steps * HeadlessMatch.kDtS / wallSec;
+    }
+
+    public String format() {
+        return String.format(Locale.ROOT, "%s %d %b %d %d %.6f %d",
+                kPrefix, seed, realPlayer, blue, red, wallSec, steps);
+    }
+
+    /** @return the result, or null if the line isn't a result. */
+    public static MatchResult parse(String line) {
+        String[] fields = line.trim().split(" ");
+        if (fields.length != 7 || !fields[0].equals(kPrefix))
+            return null;
+        return new MatchResult(
+                Long.parseLong(fields[1]),
+                Boolean.parseBoolean(fields[2]),
+                Integer.parseInt(fields[3]),
+                Integer.parseInt(fields[4]),
+                Double.parseDouble(fields[5]),
+                Integer.parseInt(fields[6]));
+    }
+}
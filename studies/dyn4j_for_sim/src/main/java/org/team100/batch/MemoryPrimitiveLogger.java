@@ -0,0 +1,72 @@
+package org.team100.batch;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.team100.lib.logging.primitive.PrimitiveLogger;
+
+import edu.wpi.first.util.struct.Struct;
+
+/**
+ * Keeps the latest value of each key in memory, instead of publishing it.
+ *
+ * Headless matches have nobody watching, so this replaces the NT sink; the
+ * runner can still look at the final values.
+ *
+ * Not thread-safe; each match runs in its own process anyway.
+ */
+public class MemoryPrimitiveLogger implements PrimitiveLogger {
+    private final Map<String, Object> m_values = new HashMap<>();
+
+    /** The most recent value for the key, or null if never logged. */
+    public Object get(String label) {
+        return m_values.get(label);
+    }
+
+    @Override
+    public int keyCount() {
+        return m_values.size();
+    }
+
+    @Override
+    public PrimitiveBooleanLogger booleanLogger(String label) {
+        m_values.put(label, null);
+        return val -> m_values.put(label, val);
+    }
+
+    @Override
+    public PrimitiveDoubleLogger doubleLogger(String label) {
+        m_values.put(label, null);
+        return val -> m_values.put(label, val);
+    }
+
+    @Override
+    public PrimitiveIntLogger intLogger(String label) {
+        m_values.put(label, null);
+        return val -> m_values.put(label, val);
+    }
+
+    @Override
+    public PrimitiveDoubleArrayLogger doubleArrayLogger(String label) {
+        m_values.put(label, null);
+        return val -> m_values.put(label, val);
+    }
+
+    @Override
+    public PrimitiveLongLogger longLogger(String label) {
+        m_values.put(label, null);
+        return val -> m_values.put(label, val);
+    }
+
+    @Override
+    public PrimitiveStringLogger stringLogger(String label) {
+        m_values.put(label, null);
+        return val -> m_values.put(label, val);
+    }
+
+    @Override
+    public <T> PrimitiveStructLogger<T> structLogger(String label, Struct<T> struct) {
+        m_values.put(label, null);
+        return val -> m_values.put(label, val);
+    }
+}
@@ -1,12 +1,11 @@
 package org.team100.control;
 
 import org.team100.kinodynamics.Kinodynamics;
-import org.team100.lib.field.FieldMap2024;
+import org.team100.lib.field.FieldDistanceGrid;
 import org.team100.lib.motion.drivetrain.DriveSubsystemInterface;
 import org.team100.lib.motion.drivetrain.kinodynamics.FieldRelativeVelocity;
 import org.team100.lib.pilot.Pilot;
 
-import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.wpilibj.XboxController;
 
@@ -14,6 +13,7 @@ import edu.wpi.first.wpilibj.XboxController;
 public class ManualPilot implements Pilot {
     private final XboxController m_controller = new XboxController(0);
     private final DriveSubsystemInterface m_drive;
+    private final FieldDistanceGrid m_obstacles = FieldDistanceGrid.stagePosts();
     private static final double kSubwooferRepulsion = 5;
     private static final double kObstacleRepulsion = 10;
 
@@ -36,28 +36,18 @@ public class ManualPilot implements Pilot {
     }
 
     public FieldRelativeVelocity apply(FieldRelativeVelocity desired) {
-        Pose2d myPosition = m_drive.getPose();
-        final double maxDistance = 1.5;
-        FieldRelativeVelocity v = desired;
-        for (Pose2d pose : FieldMap2024.stagePosts.values()) {
-            Translation2d target = pose.getTranslation();
-            Translation2d robotRelativeToTarget = myPosition.getTranslation().minus(target);
-            double norm = robotRelativeToTarget.getNorm();
-            if (norm < maxDistance) {
-                // unit vector in the direction of the force
-                Translation2d normalized = robotRelativeToTarget.div(norm);
-                // scale the force so that it's zero at the maximum distance, i.e. C0 smooth.
-                // the minimum distance is something like 0.75, so
-                // the maximum force is (1.3-0.3) = 0.6 * k
-                double scale = kObstacleRepulsion * (1 / norm - 1 / maxDistance);
-                Translation2d force = normalized.times(scale);
-                if (m_debug)
-                    System.out.printf(" obstacleRepulsion (%5.2f, %5.2f)", force.getX(), force.getY());
-                FieldRelativeVelocity repel = new FieldRelativeVelocity(force.getX(), force.getY(), 0);
-                v = v.plus(repel);
-            }
-        }
-        return v;
+        Translation2d position = m_drive.getPose().getTranslation();
+        double x = position.getX();
+        double y = position.getY();
+        // the repulsion is zero at 1.5 m, and the minimum distance is something like
+        // 0.75, so the maximum force is (1.3-0.3) = 0.6 * k
+        FieldRelativeVelocity repel = new FieldRelativeVelocity(
+                kObstacleRepulsion * m_obstacles.repulsionX(x, y),
+                kObstacleRepulsion * m_obstacles.repulsionY(x, y),
+                0);
+        if (m_debug)
+            System.out.printf(" obstacleRepulsion (%5.2f, %5.2f)", repel.x(), repel.y());
+        return desired.plus(repel);
     }
 
     @Override
@@ -122,7 +122,7 @@ public class Score {
         return 5 * TechFouls;
     }
 
-    int TotalScore() {
+    public int TotalScore() {
         return TotalAuto()
                 + TotalTeleop()
                 - FoulPoints()
@@ -80,10 +80,10 @@ public class RobotAssembly {
                         swerveKinodynamics,
                         0.1,
                         m_drive,
-                        m_camera::recentSightings,
+                        m_camera::robots,
                         robotBody::defenderPosition,
                         robotBody::opponentSourcePosition,
-                        new Tactics(swerveKinodynamics, m_drive::getPose, m_camera::recentSightings, viz, false, true,
+                        new Tactics(swerveKinodynamics, m_drive::getPose, m_camera::robots, viz, false, true,
                                 false, debug),
                         viz,
                         debug));
@@ -92,7 +92,7 @@ public class RobotAssembly {
                         swerveKinodynamics,
                         m_drive,
                         m_camera::findClosestNoteTranslation,
-                        new Tactics(swerveKinodynamics, m_drive::getPose, m_camera::recentSightings, viz, true, true,
+                        new Tactics(swerveKinodynamics, m_drive::getPose, m_camera::robots, viz, true, true,
                                 true, debug),
                         viz,
                         debug));
@@ -102,7 +102,7 @@ public class RobotAssembly {
                         m_drive,
                         m_pilot::cornerLocation,
                         () -> 0.0,
-                        new Tactics(swerveKinodynamics, m_drive::getPose, m_camera::recentSightings, viz, true, true,
+                        new Tactics(swerveKinodynamics, m_drive::getPose, m_camera::robots, viz, true, true,
                                 true, debug),
                         new Tolerance(1, 1, 0.25),
                         viz,
@@ -113,7 +113,7 @@ public class RobotAssembly {
                         m_drive,
                         robotBody::sourcePosition,
                         robotBody::yBias,
-                        new Tactics(swerveKinodynamics, m_drive::getPose, m_camera::recentSightings, viz, true, true,
+                        new Tactics(swerveKinodynamics, m_drive::getPose, m_camera::robots, viz, true, true,
                                 true, debug),
                         viz,
                         debug));
@@ -122,7 +122,7 @@ public class RobotAssembly {
                         swerveKinodynamics,
                         m_pilot,
                         m_drive,
-                        new Tactics(swerveKinodynamics, m_drive::getPose, m_camera::recentSightings, viz, true, true,
+                        new Tactics(swerveKinodynamics, m_drive::getPose, m_camera::robots, viz, true, true,
                                 true, debug),
                         viz,
                         debug));
@@ -134,7 +134,7 @@ public class RobotAssembly {
                                 m_drive,
                                 m_pilot::shootingLocation,
                                 robotBody::yBias,
-                                new Tactics(swerveKinodynamics, m_drive::getPose, m_camera::recentSightings, viz, true,
+                                new Tactics(swerveKinodynamics, m_drive::getPose, m_camera::robots, viz, true,
                                         true, true,
                                         debug),
                                 new Tolerance(1, 1, 0.25),
@@ -155,7 +155,7 @@ public class RobotAssembly {
                                 m_drive,
                                 robotBody::ampPosition,
                                 robotBody::yBias,
-                                new Tactics(swerveKinodynamics, m_drive::getPose, m_camera::recentSightings, viz, true,
+                                new Tactics(swerveKinodynamics, m_drive::getPose, m_camera::robots, viz, true,
                                         false, true,
                                         debug),
                                 new Tolerance(0.5, 0.5, 0.5),
@@ -167,7 +167,7 @@ public class RobotAssembly {
                                 m_drive,
                                 robotBody::ampPosition,
                                 () -> 0.0,
-                                new Tactics(swerveKinodynamics, m_drive::getPose, m_camera::recentSightings, viz, false,
+                                new Tactics(swerveKinodynamics, m_drive::getPose, m_camera::robots, viz, false,
                                         false, false,
                                         debug),
                                 new Tolerance(0.05, 0.05, 0.05),
@@ -182,7 +182,7 @@ public class RobotAssembly {
                                 m_drive,
                                 robotBody::passingPosition,
                                 () -> 0.0,
-                                new Tactics(swerveKinodynamics, m_drive::getPose, m_camera::recentSightings, viz, true,
+                                new Tactics(swerveKinodynamics, m_drive::getPose, m_camera::robots, viz, true,
                                         true, true,
                                         debug),
                                 new Tolerance(0.3, 0.3, 0.1),
@@ -1,5 +1,7 @@
 package org.team100.robot;
 
+import java.util.Random;
+
 import org.team100.alliance.Alliance;
 import org.team100.alliance.Blue;
 import org.team100.alliance.Red;
@@ -30,6 +32,19 @@ public class RobotContainer {
         SmartDashboard.putData(CommandScheduler.getInstance());
     }
 
+    /**
+     * For headless batch runs: no dashboard, no manual player, and a seeded
+     * random source for each alliance.
+     */
+    public RobotContainer(LoggerFactory fieldLogger, SimWorld world, boolean realPlayer, long seed) {
+        m_world = world;
+        m_viz = new ForceViz(fieldLogger);
+        final SwerveKinodynamics swerveKinodynamics = SwerveKinodynamicsFactory.get();
+        final Random random = new Random(seed);
+        m_blue = new Blue(m_world, m_viz, swerveKinodynamics, realPlayer, new Random(random.nextLong()));
+        m_red = new Red(m_world, m_viz, swerveKinodynamics, new Random(random.nextLong()));
+    }
+
     public Scorekeeper getScorekeeper() {
         return m_world.getScorekeeper();
     }
@@ -66,6 +81,11 @@ public class RobotContainer {
         m_viz.render();
     }
 
+    /** Headless version of robotPeriodic: nobody is watching, so skip rendering. */
+    public void simulationStep() {
+        m_world.update();
+    }
+
     public void autonomousInit() {
         m_blue.begin();
         m_red.begin();
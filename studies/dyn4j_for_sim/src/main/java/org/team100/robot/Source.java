@@ -17,9 +17,14 @@ public class Source extends SubsystemBase {
 
     /** provide the location the notes will appear. */
     public Source(SimWorld world, Translation2d target) {
+        this(world, target, new Random());
+    }
+
+    /** Supply the random source, e.g. seeded for repeatable batch runs. */
+    public Source(SimWorld world, Translation2d target, Random random) {
         m_world = world;
         m_target = target;
-        m_random = new Random();
+        m_random = random;
         m_notes = 45;
     }
 
@@ -1,12 +1,12 @@
 package org.team100.subsystems;
 
-import java.util.Map.Entry;
-import java.util.NavigableMap;
-import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.dyn4j.geometry.Vector2;
 import org.team100.lib.camera.NoteSighting;
-import org.team100.lib.camera.RobotSighting;
+import org.team100.lib.camera.SightingStore;
+import org.team100.lib.field.FieldMap2024;
 import org.team100.sim.Body100;
 import org.team100.sim.Note;
 import org.team100.sim.RobotBody;
@@ -27,21 +27,30 @@ public class CameraSubsystem extends SubsystemBase {
      * how old can sightings be and still be trusted?
      */
     private static final double kLookbackSec = 0.2;
+    /** Sightings closer than this to a track are the same robot. */
+    private static final double kRobotMergeRadius = 1.0;
+    /** Notes are smaller. */
+    private static final double kNoteMergeRadius = 0.3;
 
     /**
-     * Some recent sightings from the camera system, used for robot avoidance and
+     * Recent robot tracks from the camera system, used for robot avoidance and
      * defense.
      * 
      * We can't trust that the camera knows the identity of each sighting, just the
      * position (within some tolerance) and the time (quite precisely). We can also
-     * detect friend-or-foe since the bumper color tells us. Key is time in sec.
-     * Note: some time jitter should be used here since one camera frame may include
-     * multiple sightings.
+     * detect friend-or-foe since the bumper color tells us, so that's the tag.
      */
-    private NavigableMap<Double, RobotSighting> sightings = new ConcurrentSkipListMap<>();
+    private final SightingStore m_robots = new SightingStore(
+            0, 0, FieldMap2024.fieldLengthM, FieldMap2024.fieldWidthM,
+            kRobotMergeRadius, kRobotMergeRadius, kLookbackSec, 16);
 
-    /** Recent note sightings. */
-    private NavigableMap<Double, NoteSighting> noteSightings = new ConcurrentSkipListMap<>();
+    /** Recent note tracks. */
+    private final SightingStore m_notes = new SightingStore(
+            0, 0, FieldMap2024.fieldLengthM, FieldMap2024.fieldWidthM,
+            kNoteMergeRadius, kNoteMergeRadius, kLookbackSec, 64);
+
+    /** Reusable query result. */
+    private final int[] m_tracks = new int[64];
 
     private final RobotBody m_robotBody;
 
@@ -65,24 +74,11 @@ public class CameraSubsystem extends SubsystemBase {
     }
 
     public NoteSighting findClosestNote(Pose2d pose) {
-        // This map of notes is ordered by sighting age, not distance, so we need to
-        // look at all of them.
-        NavigableMap<Double, NoteSighting> notes = recentNoteSightings();
-        double minDistance = Double.MAX_VALUE;
-        NoteSighting closestSighting = null;
-        for (Entry<Double, NoteSighting> entry : notes.entrySet()) {
-            NoteSighting sight = entry.getValue();
-            double distance = sight.position().getDistance(pose.getTranslation());
-            if (distance > kMaxNoteDistance) {
-                // ignore far-away notes
-                continue;
-            }
-            if (distance < minDistance) {
-                minDistance = distance;
-                closestSighting = sight;
-            }
-        }
-        return closestSighting;
+        // ignore far-away notes
+        int track = m_notes.nearest(pose.getX(), pose.getY(), kMaxNoteDistance);
+        if (track < 0)
+            return null;
+        return new NoteSighting(m_notes.position(track));
     }
 
     /** Return true if there's a recent note sighting within the sighting limit. */
@@ -94,18 +90,19 @@ public class CameraSubsystem extends SubsystemBase {
         return closestSighting.position().getDistance(pose.getTranslation()) <= kMaxNoteDistance;
     }
 
-    /**
-     * Key is timestamp in seconds.
-     */
-    public NavigableMap<Double, RobotSighting> recentSightings() {
-        return sightings.descendingMap();
+    /** Recent robot tracks, tagged friend or foe. */
+    public SightingStore robots() {
+        return m_robots;
     }
 
-    /**
-     * Key is timestamp in seconds.
-     */
-    public NavigableMap<Double, NoteSighting> recentNoteSightings() {
-        return noteSightings.descendingMap();
+    /** Positions of recent note tracks. */
+    public List<Translation2d> notePositions() {
+        int n = m_notes.all(m_tracks);
+        List<Translation2d> result = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            result.add(m_notes.position(m_tracks[i]));
+        }
+        return result;
     }
 
     //////////////////////////////////////////////////////////////////
@@ -163,28 +160,27 @@ public class CameraSubsystem extends SubsystemBase {
                 continue;
             }
             double now = Timer.getFPGATimestamp();
-            NoteSighting sighting = new NoteSighting(
-                    new Translation2d(notePosition.x, notePosition.y));
             if (m_robotBody.isDebug())
                 System.out.printf("new sighting %5.3f %5.3f\n", notePosition.x, notePosition.y);
-            noteSightings.put(now, sighting);
+            m_notes.add(now, notePosition.x, notePosition.y, 0);
         }
     }
 
     /** Add a sighting with the current timestamp. */
     private void addSighting(boolean friend, Vector2 fieldRelativePosition) {
         double now = Timer.getFPGATimestamp();
-        RobotSighting sighting = new RobotSighting(
-                friend,
-                new Translation2d(fieldRelativePosition.x, fieldRelativePosition.y));
-        sightings.put(now, sighting);
+        m_robots.add(
+                now,
+                fieldRelativePosition.x,
+                fieldRelativePosition.y,
+                friend ? SightingStore.kFriend : SightingStore.kFoe);
     }
 
     /** Don't remember stale sightings. */
     private void trimSightings() {
         double now = Timer.getFPGATimestamp();
-        sightings.keySet().removeAll(sightings.headMap(now - kLookbackSec).keySet());
-        noteSightings.keySet().removeAll(noteSightings.headMap(now - kLookbackSec).keySet());
+        m_robots.expire(now);
+        m_notes.expire(now);
     }
 
 }
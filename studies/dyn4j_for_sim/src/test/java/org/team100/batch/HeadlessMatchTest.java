@@ -0,0 +1,66 @@
+package org.team100.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.team100.lib.logging.primitive.PrimitiveLogger.PrimitiveDoubleLogger;
+
+class HeadlessMatchTest {
+    private static final boolean PRINT = false;
+
+    /**
+     * Through auton and into teleop. The HAL and the scheduler are singletons,
+     * so this is the only test that runs a match.
+     */
+    @Test
+    void testShortMatch() {
+        MatchResult r = HeadlessMatch.run(3, false, 20);
+        if (PRINT)
+            System.out.println(r.format());
+        assertEquals(3, r.seed());
+        assertFalse(r.realPlayer());
+        assertEquals(1000, r.steps());
+        assertTrue(r.blue() >= 0);
+        assertTrue(r.red() >= 0);
+        assertTrue(r.wallSec() > 0);
+        // the whole point is to be faster than real time.
+        assertTrue(r.speedup() > 1, "speedup " + r.speedup());
+        // and the batch runner can read it, to the microsecond
+        MatchResult parsed = MatchResult.parse(r.format());
+        assertEquals(r.seed(), parsed.seed());
+        assertEquals(r.blue(), parsed.blue());
+        assertEquals(r.red(), parsed.red());
+        assertEquals(r.steps(), parsed.steps());
+        assertEquals(r.wallSec(), parsed.wallSec(), 1e-6);
+        BatchRunner.report(List.of(r), r.wallSec());
+    }
+
+    @Test
+    void testParse() {
+        MatchResult r = new MatchResult(7, true, 12, 5, 1.5, 7650);
+        assertEquals("RESULT 7 true 12 5 1.500000 7650", r.format());
+        assertEquals(r, MatchResult.parse(r.format()));
+        assertEquals(102, r.speedup(), 1e-9);
+        // other output from the child process
+        assertNull(MatchResult.parse("robot program startup complete"));
+        assertNull(MatchResult.parse(""));
+    }
+
+    @Test
+    void testMemoryLogger() {
+        MemoryPrimitiveLogger logger = new MemoryPrimitiveLogger();
+        PrimitiveDoubleLogger d = logger.doubleLogger("d");
+        assertEquals(1, logger.keyCount());
+        assertNull(logger.get("d"));
+        d.log(1.0);
+        d.log(2.0);
+        assertEquals(2.0, logger.get("d"));
+        assertEquals(1, logger.keyCount());
+        assertNull(logger.get("missing"));
+    }
+}
@@ -11,6 +11,7 @@ from udp_parser import (
     parse_int,
     parse_short,
     parse_string,
+    parse_struct,
     parse_long,
 )
 from udp_primitive_protocol import Types
@@ -56,5 +57,9 @@ def data_decode(
                 string_val, offset = parse_string(message, offset)
                 yield (key, val_type, string_val)
 
+            case Types.STRUCT:
+                struct_val, offset = parse_struct(message, offset)
+                yield (key, val_type, struct_val)
+
             case _:
                 print(f"weird key {key} at offset {offset}")
@@ -21,6 +21,7 @@ from wpiutil.log import (
     DoubleLogEntry,
     IntegerLogEntry,
     DoubleArrayLogEntry,
+    RawLogEntry,
     StringLogEntry,
 )
 
@@ -134,6 +135,13 @@ def meta_reader() -> None:
             # TODO: new timestamp means new log file
             for key, val_type, label in meta_decode(message, offset):
                 meta_rows += 1
+                if val_type == Types.SCHEMA:
+                    type_string, schema = label
+                    if PUB:
+                        inst.addSchema(type_string, "structschema", schema)
+                    if LOG:
+                        log_file.addSchema(type_string, "structschema", schema)
+                    continue
                 # print(f"META key: {key} val_type: {val_type} label: {label}")
                 if PUB and key not in publishers:
                     add_publisher(inst, key, val_type, label)
@@ -157,6 +165,13 @@ def add_publisher(inst, key, val_type, label) -> None:
             t = inst.getDoubleArrayTopic(label)
         case Types.STRING:
             t = inst.getStringTopic(label)
+        case Types.STRUCT:
+            label, type_string = label
+            t = inst.getRawTopic(label)
+            p = t.publish(type_string, options=PubSubOptions(keepDuplicates=True))
+            t.setRetained(True)
+            publishers[key] = p
+            return
         case _:
             print(f"skip unknown type {val_type} for key {key}")
             return
@@ -176,6 +191,9 @@ def add_entry(log_file, key, val_type, label) -> None:
             entries[key] = DoubleArrayLogEntry(log_file, label)
         case Types.STRING:
             entries[key] = StringLogEntry(log_file, label)
+        case Types.STRUCT:
+            label, type_string = label
+            entries[key] = RawLogEntry(log_file, label, "", type_string)
         case _:
             print(f"skip unknown type {val_type} for key {key}")
 
@@ -11,8 +11,10 @@ def meta_decode(
     message: bytes, offset: int
 ) -> Generator[tuple[int, Types, Any], None, None]:
     """
-    message is a list of (key (2), type (1), length (1), bytes (N))
-    yields (key, type, label)
+    message is a list of (key (2), type (1), length (1), bytes (N)),
+    and for STRUCT and SCHEMA, another (length (1), bytes (N))
+    yields (key, type, label), where for STRUCT the label is (label, type string)
+    and for SCHEMA it's (type string, schema)
     throws struct.error if parse fails
     """
     while offset < len(message):
@@ -20,4 +22,8 @@ def meta_decode(
         type_id, offset = parse_byte(message, offset)
         val_type: Types = Types(type_id)
         label, offset = parse_string(message, offset)
-        yield (key, val_type, label)
+        if val_type in (Types.STRUCT, Types.SCHEMA):
+            extra, offset = parse_string(message, offset)
+            yield (key, val_type, (label, extra))
+        else:
+            yield (key, val_type, label)
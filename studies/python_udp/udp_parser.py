@@ -28,6 +28,12 @@ def parse_int(buf: bytes, offset: int) -> tuple[int, int]:
     return parse(">i", buf, offset)
 
 
+def parse_struct(buf: bytes, offset: int) -> tuple[bytes, int]:
+    """two-byte length followed by packed (little-endian) struct bytes"""
+    struct_len, offset = parse_short(buf, offset)
+    return buf[offset : offset + struct_len], offset + struct_len
+
+
 def parse_double_array(buf: bytes, offset: int) -> tuple[list[float], int]:
     """one-byte length followed by eight-byte doubles"""
     array_len, offset = parse_byte(buf, offset)
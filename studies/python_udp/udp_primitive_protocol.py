@@ -12,6 +12,8 @@ class Types(Enum):
     DOUBLE_ARRAY = 4
     LONG = 5
     STRING = 6
+    STRUCT = 7
+    SCHEMA = 8
     UNKNOWN = None
 
     @classmethod
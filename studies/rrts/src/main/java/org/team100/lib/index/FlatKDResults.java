@@ -0,0 +1,134 @@
+package org.team100.lib.index;
+
+import java.util.Arrays;
+
+/**
+ * Reusable result buffer for FlatKDTree queries.
+ *
+ * Holds node indices and (Euclidean) distances in parallel primitive arrays,
+ * so a query fills it without allocating anything. The buffer only grows if a
+ * radius query finds more points than it has seen before.
+ */
+public class FlatKDResults {
+    private int[] m_index;
+    private double[] m_dist;
+    private int m_size;
+
+    public FlatKDResults() {
+        this(16);
+    }
+
+    public FlatKDResults(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be positive");
+        m_index = new int[capacity];
+        m_dist = new double[capacity];
+    }
+
+    /** Number of results from the most recent query. */
+    public int size() {
+        return m_size;
+    }
+
+    /** Tree index of the i-th result; use FlatKDTree.get() for the value. */
+    public int index(int i) {
+        return m_index[i];
+    }
+
+    /** Euclidean distance of the i-th result. */
+    public double dist(int i) {
+        return m_dist[i];
+    }
+
+    void clear() {
+        m_size = 0;
+    }
+
+    /** Append, for radius queries. Distances are squared until finish(). */
+    void add(int index, double dist2) {
+        if (m_size == m_index.length) {
+            m_index = Arrays.copyOf(m_index, m_size * 2);
+            m_dist = Arrays.copyOf(m_dist, m_size * 2);
+        }
+        m_index[m_size] = index;
+        m_dist[m_size] = dist2;
+        m_size++;
+    }
+
+    void ensureCapacity(int capacity) {
+        if (m_index.length < capacity) {
+            m_index = Arrays.copyOf(m_index, capacity);
+            m_dist = Arrays.copyOf(m_dist, capacity);
+        }
+    }
+
+    /** Largest squared distance in the k-nearest heap, or infinity if not full. */
+    double worst(int k) {
+        if (m_size < k)
+            return Double.POSITIVE_INFINITY;
+        return m_dist[0];
+    }
+
+    /**
+     * Offer a candidate to the k-nearest max-heap (root = farthest), keyed by
+     * squared distance.
+     */
+    void offer(int k, int index, double dist2) {
+        if (m_size < k) {
+            // sift up
+            int i = m_size++;
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (m_dist[parent] >= dist2)
+                    break;
+                m_index[i] = m_index[parent];
+                m_dist[i] = m_dist[parent];
+                i = parent;
+            }
+            m_index[i] = index;
+            m_dist[i] = dist2;
+            return;
+        }
+        if (dist2 >= m_dist[0])
+            return;
+        // replace the root and sift down
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= m_size)
+                break;
+            if (child + 1 < m_size && m_dist[child + 1] > m_dist[child])
+                child++;
+            if (m_dist[child] <= dist2)
+                break;
+            m_index[i] = m_index[child];
+            m_dist[i] = m_dist[child];
+            i = child;
+        }
+        m_index[i] = index;
+        m_dist[i] = dist2;
+    }
+
+    /**
+     * Convert squared distances to distances, optionally sorting ascending by
+     * distance first. Sorted result counts (k) are small, so insertion sort is
+     * fine.
+     */
+    void finish(boolean sort) {
+        for (int i = 1; sort && i < m_size; ++i) {
+            int idx = m_index[i];
+            double d = m_dist[i];
+            int j = i - 1;
+            while (j >= 0 && m_dist[j] > d) {
+                m_index[j + 1] = m_index[j];
+                m_dist[j + 1] = m_dist[j];
+                j--;
+            }
+            m_index[j + 1] = idx;
+            m_dist[j + 1] = d;
+        }
+        for (int i = 0; i < m_size; ++i) {
+            m_dist[i] = Math.sqrt(m_dist[i]);
+        }
+    }
+}
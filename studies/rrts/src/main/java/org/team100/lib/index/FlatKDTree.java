@@ -0,0 +1,305 @@
+package org.team100.lib.index;
+
+import java.util.Arrays;
+
+/**
+ * KD Tree over a flat coordinate pool.
+ *
+ * KDTree walks KDNode objects holding WPILib Matrix values, and copies and
+ * mutates the model bounds on every call, so every insert and query allocates.
+ * This version keeps all the coordinates in one double[] (dim values per
+ * point), the children as int indices, and the split values in another
+ * double[], so inserts are amortized allocation-free, and queries never
+ * allocate: results go into a reusable FlatKDResults.
+ *
+ * Incremental inserts split cells at the midpoint of the cell bounds, like
+ * KDTree. Since that can produce unbalanced trees for clustered data, rebuild()
+ * re-links all the nodes into a balanced tree using median splits. Node indices
+ * are stable across rebuilds, so callers can keep parallel arrays keyed by
+ * index.
+ *
+ * The metric is Euclidean (see Point).
+ *
+ * Not thread-safe.
+ */
+public class FlatKDTree<V> {
+    private static final int NONE = -1;
+
+    private final int m_dim;
+    private final double[] m_min;
+    private final double[] m_max;
+    /** Scratch cell bounds for insert. */
+    private final double[] m_lo;
+    private final double[] m_hi;
+
+    /** m_dim coordinates per point */
+    private double[] m_coords;
+    private Object[] m_values;
+    /** index of the a-side (less-than) child, or NONE */
+    private int[] m_a;
+    /** index of the b-side (greater-or-equal) child, or NONE */
+    private int[] m_b;
+    /** split value for the node's axis, which is depth % dim */
+    private double[] m_split;
+    /** scratch permutation for rebuild */
+    private int[] m_perm;
+
+    private int m_size;
+    private int m_root;
+
+    /**
+     * @param min lower bound of the space, used for midpoint splitting
+     * @param max upper bound of the space
+     */
+    public FlatKDTree(double[] min, double[] max, int initialCapacity) {
+        if (min.length != max.length)
+            throw new IllegalArgumentException("bounds dimensions must match");
+        if (initialCapacity < 1)
+            throw new IllegalArgumentException("capacity must be positive");
+        m_dim = min.length;
+        m_min = min.clone();
+        m_max = max.clone();
+        m_lo = new double[m_dim];
+        m_hi = new double[m_dim];
+        m_coords = new double[initialCapacity * m_dim];
+        m_values = new Object[initialCapacity];
+        m_a = new int[initialCapacity];
+        m_b = new int[initialCapacity];
+        m_split = new double[initialCapacity];
+        m_perm = new int[initialCapacity];
+        m_root = NONE;
+    }
+
+    public int size() {
+        return m_size;
+    }
+
+    public int dim() {
+        return m_dim;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int index) {
+        return (V) m_values[index];
+    }
+
+    public double coord(int index, int axis) {
+        return m_coords[index * m_dim + axis];
+    }
+
+    public void clear() {
+        Arrays.fill(m_values, 0, m_size, null);
+        m_size = 0;
+        m_root = NONE;
+    }
+
+    /**
+     * Inserts the value at the point.
+     *
+     * @param point coordinates, copied
+     * @return the index of the new node
+     */
+    public int insert(double[] point, V value) {
+        int n = append(point, value);
+        if (m_root == NONE) {
+            m_root = n;
+            m_split[n] = (m_min[0] + m_max[0]) / 2;
+            return n;
+        }
+        System.arraycopy(m_min, 0, m_lo, 0, m_dim);
+        System.arraycopy(m_max, 0, m_hi, 0, m_dim);
+        int parent = m_root;
+        for (int depth = 0;; ++depth) {
+            int axis = depth % m_dim;
+            double split = m_split[parent];
+            if (point[axis] < split) {
+                m_hi[axis] = split;
+                if (m_a[parent] == NONE) {
+                    m_a[parent] = n;
+                    setLeafSplit(n, depth + 1);
+                    return n;
+                }
+                parent = m_a[parent];
+            } else {
+                m_lo[axis] = split;
+                if (m_b[parent] == NONE) {
+                    m_b[parent] = n;
+                    setLeafSplit(n, depth + 1);
+                    return n;
+                }
+                parent = m_b[parent];
+            }
+        }
+    }
+
+    /**
+     * Re-link all the nodes into a balanced tree, splitting at the median on
+     * each axis. Node indices are unchanged.
+     */
+    public void rebuild() {
+        if (m_size == 0)
+            return;
+        for (int i = 0; i < m_size; ++i) {
+            m_perm[i] = i;
+        }
+        m_root = build(0, m_size, 0);
+    }
+
+    /**
+     * Finds the nearest point.
+     *
+     * @return the index of the nearest point, or -1 if the tree is empty. The
+     *         result buffer contains the distance.
+     */
+    public int nearest(double[] target, FlatKDResults results) {
+        kNearest(target, 1, results);
+        if (results.size() == 0)
+            return NONE;
+        return results.index(0);
+    }
+
+    /**
+     * Finds the k nearest points, in ascending order of distance.
+     */
+    public void kNearest(double[] target, int k, FlatKDResults results) {
+        if (k < 1)
+            throw new IllegalArgumentException("k must be positive");
+        results.clear();
+        results.ensureCapacity(k);
+        if (m_root != NONE)
+            kNearest(m_root, 0, target, k, results);
+        results.finish(true);
+    }
+
+    /**
+     * Finds all points strictly within the radius, in tree order.
+     */
+    public void near(double[] target, double radius, FlatKDResults results) {
+        results.clear();
+        if (m_root != NONE)
+            near(m_root, 0, target, radius, radius * radius, results);
+        results.finish(false);
+    }
+
+    /** Squared Euclidean distance from the node to the target. */
+    public double dist2(int index, double[] target) {
+        int offset = index * m_dim;
+        double sum = 0;
+        for (int i = 0; i < m_dim; ++i) {
+            double d = m_coords[offset + i] - target[i];
+            sum += d * d;
+        }
+        return sum;
+    }
+
+    ///////////////////////////////////////////////////
+
+    private void kNearest(int n, int depth, double[] target, int k, FlatKDResults results) {
+        results.offer(k, n, dist2(n, target));
+        int axis = depth % m_dim;
+        double diff = target[axis] - m_split[n];
+        int near = diff < 0 ? m_a[n] : m_b[n];
+        int far = diff < 0 ? m_b[n] : m_a[n];
+        if (near != NONE)
+            kNearest(near, depth + 1, target, k, results);
+        if (far != NONE && diff * diff < results.worst(k))
+            kNearest(far, depth + 1, target, k, results);
+    }
+
+    private void near(int n, int depth, double[] target, double radius, double radius2, FlatKDResults results) {
+        double d2 = dist2(n, target);
+        if (d2 < radius2)
+            results.add(n, d2);
+        int axis = depth % m_dim;
+        double diff = target[axis] - m_split[n];
+        boolean close = Math.abs(diff) < radius;
+        if (m_a[n] != NONE && (diff < 0 || close))
+            near(m_a[n], depth + 1, target, radius, radius2, results);
+        if (m_b[n] != NONE && (diff >= 0 || close))
+            near(m_b[n], depth + 1, target, radius, radius2, results);
+    }
+
+    /**
+     * Build a subtree from m_perm[lo, hi), returning the root index.
+     */
+    private int build(int lo, int hi, int depth) {
+        if (lo >= hi)
+            return NONE;
+        int axis = depth % m_dim;
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, axis);
+        int n = m_perm[mid];
+        double split = coord(n, axis);
+        // move the median out of the way, then partition the rest strictly,
+        // since values equal to the split belong on the b-side.
+        swap(mid, hi - 1);
+        int store = lo;
+        for (int i = lo; i < hi - 1; ++i) {
+            if (coord(m_perm[i], axis) < split) {
+                swap(i, store++);
+            }
+        }
+        m_split[n] = split;
+        m_a[n] = build(lo, store, depth + 1);
+        m_b[n] = build(store, hi - 1, depth + 1);
+        return n;
+    }
+
+    /** Quickselect on m_perm[lo, hi] so that position k holds the k-th value. */
+    private void select(int lo, int hi, int k, int axis) {
+        while (lo < hi) {
+            double pivot = coord(m_perm[(lo + hi) >>> 1], axis);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (coord(m_perm[i], axis) < pivot)
+                    i++;
+                while (coord(m_perm[j], axis) > pivot)
+                    j--;
+                if (i <= j)
+                    swap(i++, j--);
+            }
+            if (k <= j)
+                hi = j;
+            else if (k >= i)
+                lo = i;
+            else
+                return;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int tmp = m_perm[i];
+        m_perm[i] = m_perm[j];
+        m_perm[j] = tmp;
+    }
+
+    /** New leaves split their cell at the midpoint, like KDTree. */
+    private void setLeafSplit(int n, int depth) {
+        int axis = depth % m_dim;
+        m_split[n] = (m_lo[axis] + m_hi[axis]) / 2;
+    }
+
+    private int append(double[] point, V value) {
+        if (point.length != m_dim)
+            throw new IllegalArgumentException("wrong dimension");
+        if (m_size == m_values.length)
+            grow();
+        int n = m_size++;
+        System.arraycopy(point, 0, m_coords, n * m_dim, m_dim);
+        m_values[n] = value;
+        m_a[n] = NONE;
+        m_b[n] = NONE;
+        return n;
+    }
+
+    private void grow() {
+        int capacity = m_values.length * 2;
+        m_coords = Arrays.copyOf(m_coords, capacity * m_dim);
+        m_values = Arrays.copyOf(m_values, capacity);
+        m_a = Arrays.copyOf(m_a, capacity);
+        m_b = Arrays.copyOf(m_b, capacity);
+        m_split = Arrays.copyOf(m_split, capacity);
+        m_perm = Arrays.copyOf(m_perm, capacity);
+    }
+}
@@ -0,0 +1,15 @@
+package org.team100.lib.planner;
+
+/**
+ * Solvers that can shorten their best path after finding it.
+ */
+public interface Optimizable {
+    /**
+     * Try to replace the part of the best path between the two fractions
+     * (of its length) with something cheaper.
+     * 
+     * @param frac1 start of the section, in [0,1)
+     * @param frac2 end of the section, in [frac1,1)
+     */
+    void Optimize(double frac1, double frac2);
+}
@@ -0,0 +1,190 @@
+package org.team100.lib.planner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntFunction;
+
+import org.team100.lib.random.MersenneTwister;
+import org.team100.lib.space.SinglePath;
+
+import edu.wpi.first.math.Num;
+
+/**
+ * Runs several independent solvers concurrently on a fork-join pool, and keeps
+ * the best solution from any of them.
+ *
+ * Sampling, steering, and collision checking are embarrassingly parallel, so
+ * each solver grows its own trees, with its own (unshared) KD index; the
+ * arena is only read, so it can be shared. The only shared state is the best
+ * solution cost, which is passed to every solver as a pruning bound.
+ *
+ * Work proceeds in rounds. In each round, every solver that hasn't connected
+ * yet takes a batch of steps, and every solver that has connected, and is
+ * Optimizable, takes a batch of optimization steps. Between rounds, the best
+ * cost is reduced in solver order and published to all the solvers. Since the
+ * bound only changes between rounds, and each solver is seeded from the one
+ * master MersenneTwister, the result of runRounds() depends only on the seed,
+ * not on thread scheduling. runForDurationMS() does as many rounds as fit in
+ * the budget, so it's only deterministic in the number of rounds it reports.
+ *
+ * The solvers must not share any mutable state other than through
+ * setCostBound().
+ */
+public class ParallelPlanner<States extends Num> {
+    private static final boolean DEBUG = false;
+
+    private final ForkJoinPool m_pool;
+    private final List<Solver<States>> m_solvers;
+    /** One per solver, for choosing optimization segments. */
+    private final List<Random> m_randoms;
+    private final int m_batch;
+    private final boolean[] m_connected;
+    private final int[] m_stepNo;
+
+    private double m_bestCost;
+    private int m_bestIndex;
+    private int m_rounds;
+
+    /**
+     * @param pool    runs the solvers
+     * @param factory makes a solver from a seed, e.g. for its Sample
+     * @param solvers number of independent solvers
+     * @param seed    master seed
+     * @param batch   steps per solver per round
+     */
+    public ParallelPlanner(
+            ForkJoinPool pool,
+            IntFunction<Solver<States>> factory,
+            int solvers,
+            int seed,
+            int batch) {
+        if (solvers < 1)
+            throw new IllegalArgumentException("need at least one solver");
+        if (batch < 1)
+            throw new IllegalArgumentException("batch must be positive");
+        m_pool = pool;
+        m_batch = batch;
+        m_solvers = new ArrayList<>(solvers);
+        m_randoms = new ArrayList<>(solvers);
+        Random master = new MersenneTwister(seed);
+        for (int i = 0; i < solvers; ++i) {
+            m_solvers.add(factory.apply(master.nextInt()));
+            m_randoms.add(new MersenneTwister(master.nextInt()));
+        }
+        m_connected = new boolean[solvers];
+        m_stepNo = new int[solvers];
+        // since we use stepNo for radius, it can't be zero
+        for (int i = 0; i < solvers; ++i) {
+            m_stepNo[i] = 1;
+        }
+        m_bestCost = Double.POSITIVE_INFINITY;
+        m_bestIndex = -1;
+    }
+
+    /** Run exactly this many rounds. The result depends only on the seed. */
+    public void runRounds(int rounds) {
+        if (rounds <= 0)
+            throw new IllegalArgumentException("invalid round count, must be > 0");
+        for (int i = 0; i < rounds; ++i) {
+            round();
+        }
+    }
+
+    /**
+     * Run rounds until the budget is spent. Rounds are not interrupted, so the
+     * budget may be exceeded by one round.
+     */
+    public void runForDurationMS(long milliseconds) {
+        if (milliseconds <= 0)
+            throw new IllegalArgumentException("invalid duration, must be > 0");
+        long startTime = System.nanoTime();
+        long limit = milliseconds * 1000000;
+        while (System.nanoTime() - startTime < limit) {
+            round();
+        }
+    }
+
+    /** The best path from any solver, or null if none has connected. */
+    public SinglePath<States> getBestSinglePath() {
+        if (m_bestIndex < 0)
+            return null;
+        return m_solvers.get(m_bestIndex).getBestSinglePath();
+    }
+
+    /** Cost of the best path, or infinity if none has connected. */
+    public double getBestCost() {
+        return m_bestCost;
+    }
+
+    /** Rounds completed so far. */
+    public int getRounds() {
+        return m_rounds;
+    }
+
+    /** For listeners. */
+    public List<Solver<States>> getSolvers() {
+        return m_solvers;
+    }
+
+    /////////////////////////////////////////
+
+    private void round() {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(m_solvers.size());
+        for (int i = 0; i < m_solvers.size(); ++i) {
+            final int idx = i;
+            tasks.add(m_pool.submit(() -> work(idx)));
+        }
+        // join rethrows anything thrown by the solvers.
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        // reduce in solver order, so ties go to the lowest index.
+        for (int i = 0; i < m_solvers.size(); ++i) {
+            SinglePath<States> path = m_solvers.get(i).getBestSinglePath();
+            if (path == null)
+                continue;
+            double cost = path.getDistance();
+            if (cost < m_bestCost) {
+                m_bestCost = cost;
+                m_bestIndex = i;
+            }
+        }
+        for (Solver<States> solver : m_solvers) {
+            solver.setCostBound(m_bestCost);
+        }
+        m_rounds++;
+        if (DEBUG)
+            System.out.printf("round %d best %7.3f from %d\n", m_rounds, m_bestCost, m_bestIndex);
+    }
+
+    /** Runs on the pool; touches only the state for this index. */
+    private void work(int idx) {
+        Solver<States> solver = m_solvers.get(idx);
+        if (m_connected[idx]) {
+            if (!(solver instanceof Optimizable))
+                return;
+            Optimizable optimizable = (Optimizable) solver;
+            Random random = m_randoms.get(idx);
+            for (int i = 0; i < m_batch; ++i) {
+                double frac1 = random.nextDouble();
+                double frac2 = random.nextDouble(frac1, 1.0);
+                optimizable.Optimize(frac1, frac2);
+            }
+            return;
+        }
+        for (int i = 0; i < m_batch; ++i) {
+            solver.setStepNo(m_stepNo[idx]);
+            int step = solver.step();
+            if (step < 0) {
+                // solver says "stop", i.e. it found a path.
+                m_connected[idx] = true;
+                return;
+            }
+            if (step > 0)
+                m_stepNo[idx]++;
+        }
+    }
+}
@@ -26,4 +26,11 @@ public interface Solver<States extends Num> {
     /** The best path so far, or null if no path spans the start and end states. */
     Path<States> getBestPath();
     SinglePath<States> getBestSinglePath();
+
+    /**
+     * Cost of the best known solution, possibly found by some other solver.
+     * Solvers may skip samples that can't beat it. The default ignores it.
+     */
+    default void setCostBound(double bound) {
+    }
 }
@@ -18,6 +18,7 @@ import org.team100.lib.graph.Node;
 import org.team100.lib.index.KDNearNode;
 import org.team100.lib.index.KDNode;
 import org.team100.lib.index.KDTree;
+import org.team100.lib.planner.Optimizable;
 import org.team100.lib.planner.Solver;
 import org.team100.lib.random.MersenneTwister;
 import org.team100.lib.space.Path;
@@ -42,7 +43,7 @@ import edu.wpi.first.math.numbers.N4;
  * [2] Hauser et al, Optimal shortcuts, 2010,
  * https://motion.cs.illinois.edu/papers/icra10-smoothing.pdf
  */
-public class RRTStar7<T extends Arena<N4>> implements Solver<N4> {
+public class RRTStar7<T extends Arena<N4>> implements Solver<N4>, Optimizable {
     public static boolean DEBUG = false;
     private static final double MAX_U = 2.5;
     private static final boolean BIDIRECTIONAL = true;
@@ -61,6 +62,9 @@ public class RRTStar7<T extends Arena<N4>> implements Solver<N4> {
 
     private SinglePath<N4> _single_sigma_best;
 
+    /** Best known path cost from any solver, for pruning. */
+    private double _costBound = Double.POSITIVE_INFINITY;
+
     static boolean PARTIAL = true;
 
     public RRTStar7(T model, Sample<N4> sample, KDNode<Node<N4>> T_a, KDNode<Node<N4>> T_b) {
@@ -89,6 +93,14 @@ public class RRTStar7<T extends Arena<N4>> implements Solver<N4> {
         // alpha
         Matrix<N4, N1> x_rand = SampleState();
 
+        // skip samples that can't be part of a path better than the bound.
+        // tOptimal ignores obstacles so it's a lower bound on the path cost.
+        if (tOptimal(_model.initial(), x_rand, MAX_U) + tOptimal(x_rand, _model.goal(), MAX_U) >= _costBound) {
+            if (DEBUG)
+                System.out.println("pruned");
+            return 0;
+        }
+
         // x_n
         KDNearNode<Node<N4>> x_nearestA = BangBangNearest(x_rand, _T_a, timeForward);
         if (x_nearestA == null) {
@@ -387,6 +399,7 @@ public class RRTStar7<T extends Arena<N4>> implements Solver<N4> {
         _T_b = tmp;
     }
 
+    @Override
     public void Optimize(double frac1, double frac2) {
         final List<SinglePath.Link<N4>> links = _single_sigma_best.getLinks();
 
@@ -1402,6 +1415,11 @@ public class RRTStar7<T extends Arena<N4>> implements Solver<N4> {
         this.radius = radius;
     }
 
+    @Override
+    public void setCostBound(double bound) {
+        _costBound = bound;
+    }
+
     static boolean same(Matrix<N4, N1> a, Matrix<N4, N1> b) {
         return a.isEqual(b, 0.0001);
     }
@@ -0,0 +1,159 @@
+package org.team100.lib.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.team100.lib.graph.Node;
+import org.team100.lib.random.MersenneTwister;
+import org.team100.lib.rrt.example.full_state_arena.FullStateHolonomicArena;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N4;
+
+class FlatKDTreeTest {
+    private static final boolean PRINT = false;
+
+    @Test
+    void testSimple() {
+        FlatKDTree<String> tree = new FlatKDTree<>(new double[] { 0, 0 }, new double[] { 1, 1 }, 2);
+        tree.insert(new double[] { 0, 0 }, "root");
+        tree.insert(new double[] { 0.5, 0.5 }, "child1");
+        tree.insert(new double[] { 0.5, 0.75 }, "child2");
+        tree.insert(new double[] { 0.5, 0.25 }, "child3");
+        assertEquals(4, tree.size());
+
+        FlatKDResults results = new FlatKDResults(1);
+        tree.near(new double[] { 0.25, 0.25 }, 0.5, results);
+        assertEquals(3, results.size());
+
+        tree.near(new double[] { 0.25, 0.25 }, 0.1, results);
+        assertEquals(0, results.size());
+
+        int nearest = tree.nearest(new double[] { 0.25, 0.25 }, results);
+        assertEquals("child3", tree.get(nearest));
+        assertEquals(0.25, results.dist(0), 0.001);
+
+        tree.kNearest(new double[] { 0.25, 0.25 }, 3, results);
+        assertEquals(3, results.size());
+        assertEquals("child3", tree.get(results.index(0)));
+        assertEquals(0.25, results.dist(0), 0.001);
+        assertEquals(0.353, results.dist(1), 0.001);
+        assertEquals(0.353, results.dist(2), 0.001);
+    }
+
+    /** Incremental and rebuilt trees should agree with brute force. */
+    @Test
+    void testAgainstBruteForce() {
+        Random random = new MersenneTwister(0);
+        double[] min = new double[] { 0, -4, 0, -4 };
+        double[] max = new double[] { 16, 4, 8, 4 };
+        FlatKDTree<Integer> tree = new FlatKDTree<>(min, max, 16);
+        double[][] points = new double[2000][];
+        for (int i = 0; i < points.length; ++i) {
+            points[i] = sample(random, min, max);
+            tree.insert(points[i], i);
+        }
+        FlatKDResults results = new FlatKDResults();
+        for (int pass = 0; pass < 2; ++pass) {
+            for (int q = 0; q < 100; ++q) {
+                double[] target = sample(random, min, max);
+
+                tree.kNearest(target, 5, results);
+                assertEquals(5, results.size());
+                double[] sorted = new double[points.length];
+                for (int i = 0; i < points.length; ++i) {
+                    sorted[i] = Math.sqrt(tree.dist2(i, target));
+                }
+                java.util.Arrays.sort(sorted);
+                for (int i = 0; i < 5; ++i) {
+                    assertEquals(sorted[i], results.dist(i), 1e-9);
+                }
+
+                double radius = 2.0;
+                tree.near(target, radius, results);
+                int count = 0;
+                for (double d : sorted) {
+                    if (d < radius)
+                        count++;
+                }
+                assertEquals(count, results.size());
+                for (int i = 0; i < results.size(); ++i) {
+                    assertTrue(results.dist(i) < radius);
+                }
+            }
+            tree.rebuild();
+        }
+        // inserts after a rebuild still work
+        tree.insert(new double[] { 8, 0, 4, 0 }, -1);
+        assertEquals(-1, tree.get(tree.nearest(new double[] { 8, 0, 4, 0 }, results)));
+        assertEquals(0, results.dist(0), 1e-9);
+    }
+
+    /**
+     * Compare KDTree and FlatKDTree on the RRT access pattern: insert a clear
+     * sample, then look for its nearest and near neighbors.
+     */
+    @Test
+    void testPerformance() {
+        FullStateHolonomicArena arena = new FullStateHolonomicArena();
+        Matrix<N4, N1> minM = arena.getMin();
+        Matrix<N4, N1> maxM = arena.getMax();
+        double[] min = minM.getData();
+        double[] max = maxM.getData();
+        int n = 5000;
+        double radius = 1.0;
+
+        // same clear samples for both trees
+        Random random = new MersenneTwister(0);
+        double[][] samples = new double[n][];
+        int found = 0;
+        while (found < n) {
+            double[] s = sample(random, min, max);
+            if (arena.clear(new Matrix<>(Nat.N4(), Nat.N1(), s)))
+                samples[found++] = s;
+        }
+
+        long start = System.nanoTime();
+        KDNode<Node<N4>> root = new KDNode<>(new Node<>(arena.initial()));
+        int[] count = new int[1];
+        for (double[] s : samples) {
+            Matrix<N4, N1> m = new Matrix<>(Nat.N4(), Nat.N1(), s);
+            KDTree.nearest(arena, root, m);
+            KDTree.near(arena, root, m, radius, (node, dist) -> count[0]++);
+            KDTree.insert(arena, root, new Node<>(m));
+        }
+        double kdSec = (System.nanoTime() - start) / 1e9;
+
+        start = System.nanoTime();
+        FlatKDTree<Node<N4>> tree = new FlatKDTree<>(min, max, n + 1);
+        FlatKDResults results = new FlatKDResults();
+        tree.insert(arena.initial().getData(), new Node<>(arena.initial()));
+        int flatCount = 0;
+        for (double[] s : samples) {
+            tree.nearest(s, results);
+            tree.near(s, radius, results);
+            flatCount += results.size();
+            tree.insert(s, null);
+        }
+        double flatSec = (System.nanoTime() - start) / 1e9;
+
+        assertEquals(count[0], flatCount);
+        if (PRINT) {
+            System.out.printf("KDTree     %10.0f nodes/sec\n", n / kdSec);
+            System.out.printf("FlatKDTree %10.0f nodes/sec\n", n / flatSec);
+        }
+    }
+
+    private static double[] sample(Random random, double[] min, double[] max) {
+        double[] s = new double[min.length];
+        for (int i = 0; i < s.length; ++i) {
+            s[i] = min[i] + random.nextDouble() * (max[i] - min[i]);
+        }
+        return s;
+    }
+}
@@ -0,0 +1,90 @@
+package org.team100.lib.planner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.team100.lib.graph.Node;
+import org.team100.lib.index.KDNode;
+import org.team100.lib.rrt.RRTStar7;
+import org.team100.lib.rrt.example.full_state_arena.FullStateHolonomicArena;
+import org.team100.lib.space.Sample;
+
+import edu.wpi.first.math.numbers.N4;
+
+class ParallelPlannerTest {
+    private static final boolean PRINT = false;
+
+    private static ParallelPlanner<N4> planner(
+            ForkJoinPool pool, FullStateHolonomicArena arena, int solvers, int seed) {
+        return new ParallelPlanner<>(pool, s -> {
+            RRTStar7<FullStateHolonomicArena> solver = new RRTStar7<>(
+                    arena,
+                    new Sample<>(arena, s),
+                    new KDNode<>(new Node<>(arena.initial())),
+                    new KDNode<>(new Node<>(arena.goal())));
+            solver.setRadius(6);
+            return solver;
+        }, solvers, seed, 20);
+    }
+
+    /** Same seed, same answer, regardless of scheduling. */
+    @Test
+    void testDeterministic() {
+        FullStateHolonomicArena arena = new FullStateHolonomicArena();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ParallelPlanner<N4> p1 = planner(pool, arena, 4, 1);
+        p1.runRounds(20);
+        ParallelPlanner<N4> p2 = planner(pool, arena, 4, 1);
+        p2.runRounds(20);
+        // infinity == infinity, so make sure there's something to compare.
+        assertTrue(Double.isFinite(p1.getBestCost()));
+        assertEquals(p1.getBestCost(), p2.getBestCost());
+        pool.shutdown();
+    }
+
+    /**
+     * The first solver gets the same seed either way, so the others can only
+     * help, given enough rounds; in the first few, the bound they share can
+     * steer the first solver elsewhere.
+     */
+    @Test
+    void testBetterThanOne() {
+        FullStateHolonomicArena arena = new FullStateHolonomicArena();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ParallelPlanner<N4> parallel = planner(pool, arena, 4, 1);
+        parallel.runRounds(50);
+        ParallelPlanner<N4> single = planner(pool, arena, 1, 1);
+        single.runRounds(50);
+        if (PRINT)
+            System.out.printf("parallel %7.3f single %7.3f\n",
+                    parallel.getBestCost(), single.getBestCost());
+        assertTrue(Double.isFinite(single.getBestCost()));
+        assertTrue(parallel.getBestCost() <= single.getBestCost());
+        pool.shutdown();
+    }
+
+    @Test
+    void testBudget() {
+        final long budgetMs = 200;
+        FullStateHolonomicArena arena = new FullStateHolonomicArena();
+        ForkJoinPool pool = new ForkJoinPool();
+        ParallelPlanner<N4> p = planner(pool, arena, 4, 0);
+        long start = System.nanoTime();
+        p.runForDurationMS(budgetMs);
+        double elapsedMs = (System.nanoTime() - start) / 1e6;
+        if (PRINT)
+            System.out.printf("rounds %d elapsed %5.1f ms best %7.3f\n",
+                    p.getRounds(), elapsedMs, p.getBestCost());
+        // this seed connects in 8 rounds, a few ms each.
+        assertTrue(Double.isFinite(p.getBestCost()));
+        assertNotNull(p.getBestSinglePath());
+        assertEquals(p.getBestCost(), p.getBestSinglePath().getDistance());
+        // over by at most one round
+        assertTrue(elapsedMs < budgetMs + 100, "elapsed " + elapsedMs);
+        pool.shutdown();
+    }
+}